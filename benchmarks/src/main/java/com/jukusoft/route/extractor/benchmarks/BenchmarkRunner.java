@@ -0,0 +1,40 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the benchmarks with the gc profiler, so throughput and allocation rate are reported for every route count.
+ *
+ * Usage: java -jar benchmarks-jar-with-dependencies.jar [benchmark regex] [route counts, e.q. 1000,10000]
+ *
+ * @author Justin Kuenzel
+ */
+public class BenchmarkRunner {
+
+    /**
+     * main method
+     *
+     * @param args optional regex of the benchmarks to run and optional comma-separated route counts
+     * @throws RunnerException if the benchmarks cannot be run
+     */
+    public static void main(String[] args) throws RunnerException {
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.include(args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark");
+        builder.addProfiler(GCProfiler.class);
+        builder.resultFormat(ResultFormatType.JSON);
+        builder.result("jmh-result.json");
+
+        if (args.length > 1) {
+            builder.param("routeCount", args[1].split(","));
+        }
+
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import com.jukusoft.route.extractor.parser.Parameter;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.writer.JsonStreamWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * generates a deterministic synthetic corpus of symfony controllers and console dumps,
+ * so the benchmarks are reproducible without a real php application.
+ *
+ * Route i always gets the same name, url and parameters for the same seed, so the source code corpus,
+ * the symfony console dump and the in-memory routes describe the same routes.
+ *
+ * @author Justin Kuenzel
+ */
+public class CorpusGenerator {
+
+    /**
+     * seed of all benchmarks.
+     */
+    public static final long DEFAULT_SEED = 42;
+
+    /**
+     * number of routes in every controller.
+     */
+    public static final int ROUTES_PER_CONTROLLER = 10;
+
+    /**
+     * every n-th file of the source tree is a php file without routes, e.q. an entity.
+     */
+    private static final int CONTROLLERS_PER_ENTITY = 2;
+
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "GET|POST", "ANY"};
+
+    private final long seed;
+
+    /**
+     * constructor
+     *
+     * @param seed seed of the random generator
+     */
+    public CorpusGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * write a source tree with php controllers, every controller contains {@link #ROUTES_PER_CONTROLLER} routes.
+     *
+     * @param srcDir target directory
+     * @param routeCount number of routes
+     * @return list with all generated controller files
+     * @throws IOException if a file cannot be written
+     */
+    public List<Path> writeSourceTree(Path srcDir, int routeCount) throws IOException {
+        Random random = new Random(seed);
+        List<Path> controllers = new ArrayList<>();
+
+        for (int controller = 0; controller * ROUTES_PER_CONTROLLER < routeCount; controller++) {
+            //group 100 controllers in one bundle directory
+            Path dir = srcDir.resolve("Bundle" + (controller / 100)).resolve("Controller");
+            Files.createDirectories(dir);
+
+            StringBuilder sb = new StringBuilder(4096);
+            sb.append("<?php\n\nnamespace App\\Controller;\n\nuse Symfony\\Component\\Routing\\Annotation\\Route;\n\n");
+            sb.append("/**\n * @Route(\"/module").append(controller).append("\")\n */\n");
+            sb.append("class Module").append(controller).append("Controller extends AbstractController\n{\n");
+
+            for (int i = controller * ROUTES_PER_CONTROLLER; i < Math.min(routeCount, (controller + 1) * ROUTES_PER_CONTROLLER); i++) {
+                sb.append("    /**\n     * handles ").append(getName(i)).append(".\n     *\n");
+                sb.append("     * @Route(\"").append(getLocalUrl(i)).append("\", name=\"").append(getName(i)).append('"');
+
+                if (hasId(i)) {
+                    sb.append(", requirements={\"id\"=\"\\d+\"}");
+                }
+
+                sb.append(", defaults={\"page\"=\"").append(1 + random.nextInt(10)).append("\"})\n");
+                sb.append("     */\n");
+                sb.append("    public function action").append(i).append("(Request $request): Response\n    {\n");
+                sb.append("        // load the data of route ").append(i).append('\n');
+                sb.append("        $data = $this->repository->findBy(['page' => $request->get('page')]);\n");
+                sb.append("        return $this->render('module/action").append(i).append(".html.twig', ['data' => $data]);\n    }\n\n");
+            }
+
+            sb.append("}\n");
+
+            Path file = dir.resolve("Module" + controller + "Controller.php");
+            Files.writeString(file, sb, StandardCharsets.UTF_8);
+            controllers.add(file);
+
+            if (controller % CONTROLLERS_PER_ENTITY == 0) {
+                Path entityDir = srcDir.resolve("Bundle" + (controller / 100)).resolve("Entity");
+                Files.createDirectories(entityDir);
+                Files.writeString(entityDir.resolve("Entity" + controller + ".php"), createEntity(controller, random), StandardCharsets.UTF_8);
+            }
+        }
+
+        return controllers;
+    }
+
+    private static String createEntity(int index, Random random) {
+        StringBuilder sb = new StringBuilder(2048);
+        sb.append("<?php\n\nnamespace App\\Entity;\n\n/**\n * @ORM\\Entity\n */\nclass Entity").append(index).append("\n{\n");
+
+        for (int i = 0; i < 10 + random.nextInt(10); i++) {
+            sb.append("    /**\n     * @ORM\\Column(type=\"string\", length=255)\n     */\n");
+            sb.append("    private $field").append(i).append(";\n\n");
+        }
+
+        return sb.append("}\n").toString();
+    }
+
+    /**
+     * write a console dump like "bin/console debug:router --format=json".
+     *
+     * @param file target file
+     * @param routeCount number of routes
+     * @throws IOException if the file cannot be written
+     */
+    public void writeSymfonyJSON(Path file, int routeCount) throws IOException {
+        Random random = new Random(seed);
+
+        try (JsonStreamWriter json = new JsonStreamWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 4)) {
+            json.beginObject();
+
+            for (int i = 0; i < routeCount; i++) {
+                json.name(getName(i)).beginObject();
+                json.name("path").value(getUrl(i));
+                json.name("pathRegex").value("{^" + getUrl(i).replace("{id}", "(?P<id>\\d+)") + "$}sDu");
+                json.name("host").value("ANY");
+                json.name("hostRegex").value("");
+                json.name("scheme").value("ANY");
+                json.name("method").value(METHODS[random.nextInt(METHODS.length)]);
+                json.name("class").value("Symfony\\Component\\Routing\\Route");
+
+                json.name("defaults").beginObject();
+                json.name("_controller").value("App\\Controller\\Module" + (i / ROUTES_PER_CONTROLLER) + "Controller::action" + i);
+                json.name("page").value(String.valueOf(1 + random.nextInt(10)));
+                json.endObject();
+
+                if (hasId(i)) {
+                    json.name("requirements").beginObject().name("id").value("\\d+").endObject();
+                } else {
+                    json.name("requirements").value("NO CUSTOM");
+                }
+
+                json.name("options").beginObject();
+                json.name("compiler_class").value("Symfony\\Component\\Routing\\RouteCompiler");
+                json.name("utf8").value(true);
+                json.endObject();
+
+                json.endObject();
+            }
+
+            json.endObject();
+        }
+    }
+
+    /**
+     * create routes like the source code parser does.
+     *
+     * @param routeCount number of routes
+     * @return new route instances
+     */
+    public List<Route> createRoutes(int routeCount) {
+        Random random = new Random(seed);
+        List<Route> routes = new ArrayList<>(routeCount);
+
+        for (int i = 0; i < routeCount; i++) {
+            Route route = new Route(getUrl(i), getName(i));
+            RouteMethod routeMethod = new RouteMethod(Route.METHOD.GET);
+
+            if (hasId(i)) {
+                routeMethod.addParameter("id", Parameter.IN_TYPE.PATH, true, "string", "");
+            }
+
+            String page = String.valueOf(1 + random.nextInt(10));
+            routeMethod.addDefaultValue("page", page);
+            routeMethod.addParameter("page", Parameter.IN_TYPE.QUERY, false, "string", page);
+
+            route.addRouteMethod(Route.METHOD.GET, routeMethod);
+            routes.add(route);
+        }
+
+        return routes;
+    }
+
+    /**
+     * delete a generated corpus.
+     *
+     * @param path file or directory
+     * @throws IOException if a file cannot be deleted
+     */
+    public static void delete(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> {
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    public static String getName(int route) {
+        return "module" + (route / ROUTES_PER_CONTROLLER) + "_action" + route;
+    }
+
+    public static String getUrl(int route) {
+        return "/module" + (route / ROUTES_PER_CONTROLLER) + getLocalUrl(route);
+    }
+
+    private static String getLocalUrl(int route) {
+        return hasId(route) ? "/action" + route + "/{id}" : "/action" + route;
+    }
+
+    private static boolean hasId(int route) {
+        return route % 3 != 0;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.writer.FileFormatGenerator;
+import com.jukusoft.route.extractor.writer.OutputStage;
+import com.jukusoft.route.extractor.writer.SpecificationValidator;
+import com.jukusoft.route.extractor.writer.impl.CSVGenerator;
+import com.jukusoft.route.extractor.writer.impl.openapi.OpenAPI20Generator;
+import com.jukusoft.route.extractor.writer.impl.openapi.OpenAPI31Generator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the file format generators without validation.
+ *
+ * @author Justin Kuenzel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GeneratorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int routeCount;
+
+    @Param({"openapi20", "openapi31", "csv"})
+    private String format;
+
+    private Path outputDir;
+    private List<Route> routes;
+    private FileFormatGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        outputDir = Files.createTempDirectory("route-benchmark-output");
+        routes = new CorpusGenerator(CorpusGenerator.DEFAULT_SEED).createRoutes(routeCount);
+
+        List<FileFormatGenerator> generators = List.of(
+                new OpenAPI20Generator(outputDir, new SpecificationValidator(SpecificationValidator.Mode.OFF)),
+                new OpenAPI31Generator(outputDir),
+                new CSVGenerator(outputDir)
+        );
+        generator = OutputStage.selectGenerators(generators, format).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        CorpusGenerator.delete(outputDir);
+    }
+
+    @Benchmark
+    public void generateOutputFile() throws IOException {
+        generator.generateOutputFile(routes, "localhost:8080", "/", generator.getPreferredFileName());
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.SourceCodeParser;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * measures the retained heap of the route model, JMH only reports the allocation rate.
+ *
+ * The routes of the synthetic source tree are parsed like in a real run and kept alive, the footprint is the
+ * difference of the used heap after a full gc. Run with a fixed heap, e.q. -Xms2g -Xmx2g, for stable results.
+ *
+ * Usage: java -cp benchmarks-jar-with-dependencies.jar com.jukusoft.route.extractor.benchmarks.HeapFootprint [route count]
+ *
+ * @author Justin Kuenzel
+ */
+public class HeapFootprint {
+
+    /**
+     * main method
+     *
+     * @param args optional number of routes, default: 100000
+     * @throws IOException if the corpus cannot be written
+     * @throws InterruptedException if the thread is interrupted while waiting for the gc
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int routeCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        CorpusGenerator generator = new CorpusGenerator(CorpusGenerator.DEFAULT_SEED);
+        Path srcDir = Files.createTempDirectory("footprint-src");
+
+        try {
+            generator.writeSourceTree(srcDir, routeCount);
+            report("source code parser", routeCount, () -> SourceCodeParser.parseSourceCodeDir(srcDir.toFile()));
+        } finally {
+            CorpusGenerator.delete(srcDir);
+        }
+
+        report("in-memory corpus", routeCount, () -> generator.createRoutes(routeCount));
+    }
+
+    private static void report(String name, int routeCount, RouteSupplier supplier) throws IOException, InterruptedException {
+        //load all classes and fill the static tables before the measurement
+        supplier.get();
+
+        long before = usedHeap();
+        List<Route> routes = supplier.get();
+        long after = usedHeap();
+
+        System.out.printf("%s: %d routes, %d bytes retained, %d bytes per route%n", name, routes.size(), after - before, (after - before) / routeCount);
+        Reference.reachabilityFence(routes);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * creates the measured routes.
+     */
+    @FunctionalInterface
+    private interface RouteSupplier {
+
+        List<Route> get() throws IOException;
+
+    }
+
+}
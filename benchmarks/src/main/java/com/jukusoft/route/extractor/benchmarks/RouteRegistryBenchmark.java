@@ -0,0 +1,54 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the de-duplication of routes, which are found by more than one parser.
+ *
+ * @author Justin Kuenzel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RouteRegistryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int routeCount;
+
+    /**
+     * routes of the source code parser.
+     */
+    private List<Route> sourceRoutes;
+
+    /**
+     * routes with the same names, like the symfony parser finds them.
+     */
+    private List<Route> symfonyRoutes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CorpusGenerator generator = new CorpusGenerator(CorpusGenerator.DEFAULT_SEED);
+        sourceRoutes = generator.createRoutes(routeCount);
+        symfonyRoutes = generator.createRoutes(routeCount);
+    }
+
+    /**
+     * add all routes and merge the duplicates. Merging overrides the same parameters in every invocation,
+     * so the source routes don't grow and every invocation does the same work.
+     */
+    @Benchmark
+    public RouteRegistry addAndMerge() {
+        RouteRegistry registry = new RouteRegistry(sourceRoutes);
+        registry.addAll(symfonyRoutes);
+        return registry;
+    }
+
+}
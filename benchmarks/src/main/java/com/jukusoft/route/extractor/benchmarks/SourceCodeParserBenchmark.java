@@ -0,0 +1,67 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.SourceCodeParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the source code parser on a synthetic source tree.
+ *
+ * @author Justin Kuenzel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SourceCodeParserBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int routeCount;
+
+    private Path srcDir;
+    private List<Path> controllers;
+
+    /**
+     * index of the next controller to parse.
+     */
+    private int nextController = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        srcDir = Files.createTempDirectory("route-benchmark-src");
+        controllers = new CorpusGenerator(CorpusGenerator.DEFAULT_SEED).writeSourceTree(srcDir, routeCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        CorpusGenerator.delete(srcDir);
+    }
+
+    /**
+     * parse a single controller file, all controllers are parsed in turn.
+     */
+    @Benchmark
+    public List<Route> parseSourceCodeFile() {
+        Path file = controllers.get(nextController);
+        nextController = (nextController + 1) % controllers.size();
+
+        return SourceCodeParser.parseSourceCodeFile(file);
+    }
+
+    /**
+     * parse the whole source tree with one thread and without cache.
+     */
+    @Benchmark
+    public List<Route> parseSourceCodeDir() throws IOException {
+        return SourceCodeParser.parseSourceCodeDir(srcDir.toFile(), 1, null);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import com.jukusoft.route.extractor.parser.RouteRegistry;
+import com.jukusoft.route.extractor.parser.SymfonyJSONParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the parser of "bin/console debug:router --format=json" dumps.
+ *
+ * @author Justin Kuenzel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SymfonyJSONParserBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int routeCount;
+
+    private Path jsonFile;
+
+    private final SymfonyJSONParser parser = new SymfonyJSONParser();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        jsonFile = Files.createTempFile("route-benchmark", ".json");
+        new CorpusGenerator(CorpusGenerator.DEFAULT_SEED).writeSymfonyJSON(jsonFile, routeCount);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jsonFile);
+    }
+
+    @Benchmark
+    public RouteRegistry parse() throws IOException {
+        return parser.parse(jsonFile.toFile(), new RouteRegistry());
+    }
+
+}
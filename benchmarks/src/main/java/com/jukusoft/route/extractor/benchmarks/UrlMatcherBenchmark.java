@@ -0,0 +1,73 @@
+package com.jukusoft.route.extractor.benchmarks;
+
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.UrlMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * benchmarks the attribution of concrete request urls to routes, like it is done for the coverage of fuzzer runs and access logs.
+ *
+ * @author Justin Kuenzel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UrlMatcherBenchmark {
+
+    /**
+     * number of requests, which are matched in one invocation.
+     */
+    private static final int REQUEST_COUNT = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    private int routeCount;
+
+    private List<Route> routes;
+
+    private UrlMatcher matcher;
+
+    private String[] requests;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        routes = new CorpusGenerator(CorpusGenerator.DEFAULT_SEED).createRoutes(routeCount);
+        matcher = new UrlMatcher(routes);
+
+        //random routes with concrete ids, every 10th request doesn't match any route
+        Random random = new Random(CorpusGenerator.DEFAULT_SEED);
+        requests = new String[REQUEST_COUNT];
+
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            String url = CorpusGenerator.getUrl(random.nextInt(routeCount)).replace("{id}", String.valueOf(random.nextInt(100_000)));
+            requests[i] = i % 10 == 9 ? url + "/unknown" : url + "?page=" + random.nextInt(10);
+        }
+    }
+
+    /**
+     * compile all routes into a matcher.
+     */
+    @Benchmark
+    public UrlMatcher compile() {
+        return new UrlMatcher(routes);
+    }
+
+    /**
+     * match a batch of requests, the score is the number of requests per second.
+     */
+    @Benchmark
+    @OperationsPerInvocation(REQUEST_COUNT)
+    public void match(Blackhole blackhole) {
+        for (String request : requests) {
+            blackhole.consume(matcher.match("GET", request));
+        }
+    }
+
+}
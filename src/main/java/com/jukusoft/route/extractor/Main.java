@@ -1,23 +1,35 @@
 package com.jukusoft.route.extractor;
 
+import com.jukusoft.route.extractor.cache.RouteCache;
 import com.jukusoft.route.extractor.cli.CLIArgumentsParser;
 import com.jukusoft.route.extractor.parser.Parser;
 import com.jukusoft.route.extractor.parser.SymfonyJSONParser;
+import com.jukusoft.route.extractor.parser.SymfonyRouteCacheParser;
 import com.jukusoft.route.extractor.writer.impl.CSVGenerator;
 import com.jukusoft.route.extractor.writer.impl.openapi.OpenAPI20Generator;
+import com.jukusoft.route.extractor.writer.impl.openapi.OpenAPI31Generator;
+import com.jukusoft.route.extractor.parser.RouteRegistry;
 import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteTrie;
 import com.jukusoft.route.extractor.parser.SourceCodeParser;
 import com.jukusoft.route.extractor.writer.FileFormatGenerator;
+import com.jukusoft.route.extractor.writer.OutputStage;
+import com.jukusoft.route.extractor.writer.SpecificationValidator;
+import com.jukusoft.route.extractor.watch.RouteWatcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * main class
@@ -38,47 +50,56 @@ public class Main {
             //parse CLI arguments
             Map<String,String> params = CLIArgumentsParser.parseArguments(args);
 
-            List<Route> routes = new ArrayList<>();//SourceCodeParser.parseSourceCodeDir(new File(params.get("src")));
+            Path outputDir = Path.of(params.get("output"));
+
+            int threads = Integer.parseInt(params.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+            RouteCache cache = createCache(params, outputDir);
 
             //list with parsers
             List<Parser> parsers = new ArrayList<>();
-            parsers.add(new SourceCodeParser());
+            parsers.add(new SourceCodeParser(threads, cache, params.containsKey("changed-files") ? readChangedFiles(params.get("changed-files")) : null));
             parsers.add(new SymfonyJSONParser());
+            parsers.add(new SymfonyRouteCacheParser());
 
-            //call all parsers, if activated
-            for (Parser parser : parsers) {
-                if (parser.isActivated(params)) {
-                    LOGGER.info("call parser: {}", parser.getClass().getCanonicalName());
-                    List<Route> parsedRoutes = parser.parse(new File(params.get(parser.getParameter())), routes);
-
-                    //don't add duplicate routes
-                    routes.addAll(parsedRoutes.stream()
-                            .filter(route -> !routes.stream().anyMatch(route1 -> route1.getName().equals(route.getName())))
-                            .collect(Collectors.toList()));
-                } else {
-                    LOGGER.debug("parser is not activated: {}", parser.getClass().getCanonicalName());
-                }
-            }
+            boolean failed = false;
+
+            //validation of generated swagger files runs as separate stage, by default on a background thread
+            try (SpecificationValidator validator = new SpecificationValidator(SpecificationValidator.Mode.parse(params.getOrDefault("validate", "async")))) {
+                // a list with target file formats
+                List<FileFormatGenerator> outputFileGenerators = new ArrayList<>();
+                outputFileGenerators.add(new OpenAPI20Generator(outputDir, validator));
+                outputFileGenerators.add(new OpenAPI31Generator(outputDir));
+                outputFileGenerators.add(new CSVGenerator(outputDir));
 
-            long methodCount = routes.stream().map(route -> route.getMethods().size()).reduce(0, Integer::sum);
-            LOGGER.info("{} routes and {} methods found", routes.size(), methodCount);
+                OutputStage outputStage = new OutputStage(OutputStage.selectGenerators(outputFileGenerators, params.get("formats")));
 
-            // a list with target file formats
-            List<FileFormatGenerator> outputFileGenerators = new ArrayList<>();
-            outputFileGenerators.add(new OpenAPI20Generator(Path.of(params.get("output"))));
-            outputFileGenerators.add(new CSVGenerator(Path.of(params.get("output"))));
+                if (params.containsKey("watch")) {
+                    watch(params, parsers, threads, cache, outputStage, validator);
+                    return;
+                }
 
-            LOGGER.info("generate output file formats...");
+                RouteRegistry routes = new RouteRegistry();
 
-            //generate output files
-            for (FileFormatGenerator generator : outputFileGenerators) {
-                String filename = params.getOrDefault("filename", generator.getPreferredFileName());
-                LOGGER.info("Generate output file: {} by generator: {}", filename, generator.getClass().getSimpleName());
+                //call all parsers, if activated
+                for (Parser parser : parsers) {
+                    if (parser.isActivated(params)) {
+                        LOGGER.info("call parser: {}", parser.getClass().getCanonicalName());
+                        routes = parser.parse(new File(params.get(parser.getParameter())), routes);
+                    } else {
+                        LOGGER.debug("parser is not activated: {}", parser.getClass().getCanonicalName());
+                    }
+                }
 
-                generator.generateOutputFile(routes, params.getOrDefault("host", "localhost:8080"), params.getOrDefault("basePath", "/"), filename);
+                failed = !generateOutputFiles(routes, params, outputStage, validator);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("interrupted while waiting for the output files");
+                failed = true;
             }
 
-            LOGGER.info("Generation of output files finished!");
+            if (failed) {
+                System.exit(1);
+            }
         } catch (IllegalArgumentException e) {
             //e.printStackTrace();
 
@@ -87,4 +108,135 @@ public class Main {
         }
     }
 
+    /**
+     * generate all output files and wait for the validation.
+     *
+     * @param routes all routes
+     * @param params commandline interface params
+     * @param outputStage output stage with the selected generators
+     * @param validator validator of the generated swagger files
+     * @return true, if all output files were generated successfully
+     * @throws InterruptedException if the thread was interrupted while waiting for the output files
+     */
+    private static boolean generateOutputFiles(RouteRegistry routes, Map<String,String> params, OutputStage outputStage, SpecificationValidator validator) throws InterruptedException {
+        long methodCount = routes.countMethods();
+        LOGGER.info("{} routes and {} methods found", routes.size(), methodCount);
+
+        //the trie is built only once, it finds the conflicts and groups the routes by url for the generators
+        List<Route> routeList = routes.getRoutes();
+        RouteTrie trie = new RouteTrie(routeList);
+
+        //routes with conflicting paths cannot be fuzzed reliably
+        List<RouteTrie.Conflict> conflicts = trie.getConflicts();
+
+        for (RouteTrie.Conflict conflict : conflicts) {
+            LOGGER.warn(conflict.getMessage());
+        }
+
+        if (!conflicts.isEmpty()) {
+            LOGGER.warn("{} duplicate, conflicting or shadowed routes found", conflicts.size());
+        }
+
+        LOGGER.info("generate output file formats...");
+        long startTime = System.currentTimeMillis();
+
+        //in watch mode, the results of the previous run shouldn't be reported again
+        validator.reset();
+
+        //generate output files, every generator runs on its own thread
+        List<OutputStage.Result> results = outputStage.run(routeList, trie.getPathGroups(), params.getOrDefault("host", "localhost:8080"), params.getOrDefault("basePath", "/"), params.get("filename"));
+
+        LOGGER.info("Generation of output files finished in {} ms!", System.currentTimeMillis() - startTime);
+
+        boolean successful = true;
+
+        for (OutputStage.Result result : results) {
+            if (!result.isSuccessful()) {
+                LOGGER.error("output file {} ({}) couldn't be generated: {}", result.fileName(), result.formatName(), result.error().toString());
+                successful = false;
+            }
+        }
+
+        if (validator.isEnabled()) {
+            boolean valid = validator.awaitCompletion();
+            LOGGER.info("Validation of output files finished in {} ms, valid: {}", validator.getValidationTimeMillis(), valid);
+        }
+
+        return successful;
+    }
+
+    /**
+     * watch mode: parse all files once, then only parse changed files and regenerate the output files, until the process is stopped.
+     */
+    private static void watch(Map<String,String> params, List<Parser> parsers, int threads, RouteCache cache, OutputStage outputStage, SpecificationValidator validator) throws IOException, InterruptedException {
+        //the source code is watched file by file, the input of another activated parser is only read again, if it has changed
+        Map<Parser,Path> inputs = new LinkedHashMap<>();
+
+        for (Parser parser : parsers) {
+            if (!(parser instanceof SourceCodeParser) && parser.isActivated(params)) {
+                inputs.put(parser, Path.of(params.get(parser.getParameter())));
+            }
+        }
+
+        try (RouteWatcher watcher = new RouteWatcher(Path.of(params.get("src")), inputs, RouteWatcher.DEFAULT_DEBOUNCE_MILLIS)) {
+            generateOutputFiles(watcher.load(threads, cache), params, outputStage, validator);
+
+            LOGGER.info("watch mode started, press Ctrl+C to stop");
+            watcher.run(routes -> generateOutputFiles(routes, params, outputStage, validator));
+        }
+    }
+
+    /**
+     * read the list of changed files, one path per line.
+     *
+     * @param source path to the file or "-" to read from stdin
+     * @return changed files, relative to the working directory
+     * @throws IOException if the list cannot be read
+     */
+    private static List<Path> readChangedFiles(String source) throws IOException {
+        List<String> lines;
+
+        if (source.equals("-")) {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+            lines = reader.lines().toList();
+        } else {
+            lines = Files.readAllLines(Path.of(source), StandardCharsets.UTF_8);
+        }
+
+        List<Path> changedFiles = new ArrayList<>();
+
+        for (String line : lines) {
+            if (!line.isBlank()) {
+                changedFiles.add(Path.of(line.strip()));
+            }
+        }
+
+        LOGGER.info("{} changed files read from {}", changedFiles.size(), source.equals("-") ? "stdin" : source);
+
+        return changedFiles;
+    }
+
+    /**
+     * create the extraction cache, which is stored next to the output directory.
+     *
+     * @param params commandline interface params
+     * @param outputDir output directory
+     * @return extraction cache or null, if the cache is disabled
+     */
+    private static RouteCache createCache(Map<String,String> params, Path outputDir) {
+        if (params.containsKey("no-cache")) {
+            LOGGER.info("extraction cache is disabled");
+            return null;
+        }
+
+        Path cacheFile = RouteCache.getDefaultCacheFile(outputDir);
+
+        if (params.containsKey("rebuild-cache")) {
+            LOGGER.info("rebuild extraction cache: {}", cacheFile.toAbsolutePath());
+            return new RouteCache(cacheFile);
+        }
+
+        return RouteCache.load(cacheFile);
+    }
+
 }
@@ -0,0 +1,366 @@
+package com.jukusoft.route.extractor.cache;
+
+import com.jukusoft.route.extractor.parser.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * persistent extraction cache, which stores the parsed routes of every source file.
+ *
+ * A file is identified by its path, size and modification time. If size or modification time have changed,
+ * the content hash is compared as fallback, so a touched but unchanged file doesn't have to be parsed again.
+ * This class is thread-safe.
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteCache {
+
+    /**
+     * the class logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteCache.class);
+
+    /**
+     * magic number at the beginning of the cache file.
+     */
+    private static final int MAGIC = 0x52434348;
+
+    /**
+     * version of the cache format, has to be increased, if the serialized format or the parser output changes.
+     */
+    private static final int FORMAT_VERSION = 4;
+
+    /**
+     * algorithm of the content hash.
+     */
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    /**
+     * the cache file.
+     */
+    private final Path cacheFile;
+
+    /**
+     * cache entries, the key is the absolute file path.
+     */
+    private final Map<String,Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * files which was looked up or updated since the cache was loaded.
+     */
+    private final Set<String> visitedFiles = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+
+    /**
+     * constructor, creates an empty cache.
+     *
+     * @param cacheFile the cache file
+     */
+    public RouteCache(Path cacheFile) {
+        this.cacheFile = Objects.requireNonNull(cacheFile);
+    }
+
+    /**
+     * load the cache file, if it exists. A corrupt or outdated cache file is ignored.
+     *
+     * @param cacheFile the cache file
+     * @return cache instance
+     */
+    public static RouteCache load(Path cacheFile) {
+        RouteCache cache = new RouteCache(cacheFile);
+
+        if (!Files.exists(cacheFile)) {
+            LOGGER.info("route cache doesn't exists yet: {}", cacheFile.toAbsolutePath());
+            return cache;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LOGGER.info("route cache has an outdated format and will be rebuilt: {}", cacheFile.toAbsolutePath());
+                return cache;
+            }
+
+            //lengths are checked against the file size, so a corrupt file can't allocate arbitrary memory
+            long fileSize = Files.size(cacheFile);
+            int entryCount = RouteSerializer.readLength(in, fileSize);
+
+            for (int i = 0; i < entryCount; i++) {
+                String file = RouteSerializer.readString(in, fileSize);
+                long size = in.readLong();
+                long lastModified = in.readLong();
+
+                byte[] hash = new byte[RouteSerializer.readLength(in, fileSize)];
+                in.readFully(hash);
+
+                byte[] routes = new byte[RouteSerializer.readLength(in, fileSize)];
+                in.readFully(routes);
+
+                cache.entries.put(file, new Entry(size, lastModified, hash, routes));
+            }
+
+            LOGGER.info("route cache loaded with {} entries: {}", entryCount, cacheFile.toAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.warn("route cache is corrupt and will be rebuilt: {}", cacheFile.toAbsolutePath(), e);
+            cache.entries.clear();
+        }
+
+        return cache;
+    }
+
+    /**
+     * get the default cache file for an output directory, the cache file is stored next to the output directory.
+     *
+     * @param outputDir output directory
+     * @return path to cache file
+     */
+    public static Path getDefaultCacheFile(Path outputDir) {
+        Path dir = outputDir.toAbsolutePath().normalize();
+        return dir.resolveSibling("." + dir.getFileName() + "-route-cache.bin");
+    }
+
+    /**
+     * get the cached routes of a file, if size and modification time are unchanged.
+     *
+     * @param file source file
+     * @param size file size
+     * @param lastModified last modification time
+     * @return cached routes or empty optional, if the file has to be checked by content hash or parsed
+     */
+    public Optional<List<Route>> lookup(Path file, long size, long lastModified) {
+        String key = toKey(file);
+        visitedFiles.add(key);
+
+        Entry entry = entries.get(key);
+
+        if (entry == null || entry.size() != size || entry.lastModified() != lastModified) {
+            return Optional.empty();
+        }
+
+        return deserialize(key, entry);
+    }
+
+    /**
+     * get the cached routes of a file by its content hash and update size and modification time of the entry.
+     *
+     * @param file source file
+     * @param size new file size
+     * @param lastModified new last modification time
+     * @param hash content hash, see {@link #hash(byte[])}
+     * @return cached routes or empty optional, if the file content has changed
+     */
+    public Optional<List<Route>> lookupByHash(Path file, long size, long lastModified, byte[] hash) {
+        String key = toKey(file);
+        visitedFiles.add(key);
+
+        Entry entry = entries.get(key);
+
+        if (entry == null || !Arrays.equals(entry.hash(), hash)) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        entries.put(key, new Entry(size, lastModified, entry.hash(), entry.routes()));
+        return deserialize(key, entry);
+    }
+
+    /**
+     * add or replace the routes of a file. The routes are serialized immediately,
+     * so later changes of the route instances don't affect the cache.
+     *
+     * @param file source file
+     * @param size file size
+     * @param lastModified last modification time
+     * @param hash content hash, see {@link #hash(byte[])}
+     * @param routes parsed routes of the file
+     */
+    public void put(Path file, long size, long lastModified, byte[] hash, List<Route> routes) {
+        String key = toKey(file);
+        visitedFiles.add(key);
+        entries.put(key, new Entry(size, lastModified, hash, RouteSerializer.serialize(routes)));
+    }
+
+    /**
+     * get the cached routes of a file without checking size and modification time,
+     * e.q. for files which are known to be unchanged since the last run.
+     *
+     * @param file source file
+     * @return cached routes or empty optional, if the file isn't cached
+     */
+    public Optional<List<Route>> get(Path file) {
+        String key = toKey(file);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        visitedFiles.add(key);
+        return deserialize(key, entry);
+    }
+
+    /**
+     * remove the entry of a file, e.q. of a deleted file.
+     *
+     * @param file source file
+     * @return true, if the file was cached
+     */
+    public boolean remove(Path file) {
+        String key = toKey(file);
+        visitedFiles.remove(key);
+        return entries.remove(key) != null;
+    }
+
+    /**
+     * get all cached files.
+     *
+     * @return paths of all cached files
+     */
+    public List<Path> getFiles() {
+        List<Path> files = new ArrayList<>(entries.size());
+
+        for (String key : entries.keySet()) {
+            files.add(Path.of(key));
+        }
+
+        return files;
+    }
+
+    /**
+     * remove all entries, e.q. to rebuild the cache.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * write the cache file. Entries of files, which wasn't visited since the cache was loaded (e.q. deleted files), are dropped.
+     *
+     * @throws IOException if the cache file cannot be written
+     */
+    public void save() throws IOException {
+        entries.keySet().retainAll(visitedFiles);
+
+        Path tmpFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+
+            //copy the entries, so that the count matches the written entries
+            List<Map.Entry<String,Entry>> list = new ArrayList<>(entries.entrySet());
+            out.writeInt(list.size());
+
+            for (Map.Entry<String,Entry> mapEntry : list) {
+                Entry entry = mapEntry.getValue();
+
+                RouteSerializer.writeString(out, mapEntry.getKey());
+                out.writeLong(entry.size());
+                out.writeLong(entry.lastModified());
+                out.writeInt(entry.hash().length);
+                out.write(entry.hash());
+                out.writeInt(entry.routes().length);
+                out.write(entry.routes());
+            }
+        }
+
+        //replace the old cache file atomically, so an aborted run cannot corrupt the cache
+        Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        LOGGER.info("route cache saved with {} entries ({} hits, {} misses): {}", entries.size(), hits.get(), misses.get(), cacheFile.toAbsolutePath());
+    }
+
+    /**
+     * calculate the content hash of a file.
+     *
+     * @param content file content
+     * @return content hash
+     */
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM).digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            //every java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * calculate the content hash of a file, the buffer position isn't changed.
+     *
+     * @param content file content
+     * @return content hash
+     */
+    public static byte[] hash(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            digest.update(content.duplicate());
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            //every java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * get the number of cache entries.
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+
+    private Optional<List<Route>> deserialize(String key, Entry entry) {
+        try {
+            List<Route> routes = RouteSerializer.deserialize(entry.routes());
+            hits.incrementAndGet();
+            return Optional.of(routes);
+        } catch (IOException e) {
+            LOGGER.warn("corrupt route cache entry for file: {}", key, e);
+            entries.remove(key);
+            return Optional.empty();
+        }
+    }
+
+    private static String toKey(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * a cache entry.
+     *
+     * @param size file size
+     * @param lastModified last modification time
+     * @param hash content hash
+     * @param routes serialized routes
+     */
+    private record Entry(long size, long lastModified, byte[] hash, byte[] routes) {
+    }
+
+}
@@ -0,0 +1,210 @@
+package com.jukusoft.route.extractor.cache;
+
+import com.jukusoft.route.extractor.parser.Parameter;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * utility class to convert routes into a compact binary format and back.
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteSerializer {
+
+    /**
+     * private constructor, because this is a utility class
+     */
+    private RouteSerializer() {
+        //
+    }
+
+    /**
+     * serialize a list of routes.
+     *
+     * @param routes routes
+     * @return serialized routes
+     */
+    public static byte[] serialize(List<Route> routes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + routes.size() * 128);
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(routes.size());
+
+            for (Route route : routes) {
+                writeString(out, route.getUrl());
+                writeString(out, route.getName());
+                out.writeInt(route.getMethods().size());
+
+                for (RouteMethod method : route.getMethods().values()) {
+                    out.writeByte(method.getMethod().ordinal());
+                    out.writeInt(method.getParameters().size());
+
+                    for (Parameter parameter : method.getParameters()) {
+                        writeString(out, parameter.getName());
+                        out.writeByte(parameter.getInType().ordinal());
+                        out.writeBoolean(parameter.getRequired());
+                        writeString(out, parameter.getType());
+                        writeString(out, parameter.getDefaultStr());
+                    }
+
+                    out.writeInt(method.getDefaultValues().size());
+
+                    for (Map.Entry<String,String> entry : method.getDefaultValues().entrySet()) {
+                        writeString(out, entry.getKey());
+                        writeString(out, entry.getValue());
+                    }
+                }
+
+                out.writeInt(route.getRequirements().size());
+
+                for (Map.Entry<String,String> entry : route.getRequirements().entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+            }
+        } catch (IOException e) {
+            //cannot happen for in-memory streams
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * deserialize a list of routes, every call creates new route instances.
+     *
+     * @param data serialized routes
+     * @return routes
+     * @throws IOException if the data is corrupt, also for invalid lengths and enum values
+     */
+    public static List<Route> deserialize(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+
+        //every element needs at least one byte, so no count or length can be greater than the data
+        int max = data.length;
+
+        int routeCount = readLength(in, max);
+        List<Route> routes = new ArrayList<>(routeCount);
+
+        for (int i = 0; i < routeCount; i++) {
+            Route route = new Route(readString(in, max), readString(in, max));
+            int methodCount = readLength(in, max);
+
+            for (int j = 0; j < methodCount; j++) {
+                Route.METHOD method = readEnum(in, Route.METHOD.values());
+                RouteMethod routeMethod = new RouteMethod(method);
+                int parameterCount = readLength(in, max);
+
+                for (int k = 0; k < parameterCount; k++) {
+                    String name = readString(in, max);
+                    Parameter.IN_TYPE inType = readEnum(in, Parameter.IN_TYPE.values());
+                    boolean required = in.readBoolean();
+                    routeMethod.addParameter(name, inType, required, readString(in, max), readString(in, max));
+                }
+
+                int defaultCount = readLength(in, max);
+
+                for (int k = 0; k < defaultCount; k++) {
+                    routeMethod.addDefaultValue(readString(in, max), readString(in, max));
+                }
+
+                route.addRouteMethod(method, routeMethod);
+            }
+
+            int requirementCount = readLength(in, max);
+
+            for (int j = 0; j < requirementCount; j++) {
+                route.addRequirement(readString(in, max), readString(in, max));
+            }
+
+            routes.add(route);
+        }
+
+        return routes;
+    }
+
+    /**
+     * write a nullable string, {@link DataOutputStream#writeUTF(String)} is limited to 64 KB.
+     *
+     * @param out output stream
+     * @param str string or null
+     * @throws IOException if the string cannot be written
+     */
+    static void writeString(DataOutput out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * read a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in input stream
+     * @param maxLength maximum length in bytes, e.q. the size of the data
+     * @return string or null
+     * @throws IOException if the string cannot be read or the length is invalid
+     */
+    static String readString(DataInput in, long maxLength) throws IOException {
+        int length = in.readInt();
+
+        if (length == -1) {
+            return null;
+        }
+
+        if (length < 0 || length > maxLength) {
+            throw new IOException("invalid string length: " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * read a length or count, which is checked before memory is allocated for it.
+     *
+     * @param in input stream
+     * @param maxLength maximum length, e.q. the size of the data
+     * @return length between 0 and maxLength
+     * @throws IOException if the length cannot be read or is invalid
+     */
+    static int readLength(DataInput in, long maxLength) throws IOException {
+        int length = in.readInt();
+
+        if (length < 0 || length > maxLength) {
+            throw new IOException("invalid length: " + length);
+        }
+
+        return length;
+    }
+
+    /**
+     * read an enum value, which was written as ordinal byte.
+     *
+     * @param in input stream
+     * @param values all values of the enum
+     * @return enum value
+     * @throws IOException if the ordinal cannot be read or is invalid
+     */
+    static <T extends Enum<T>> T readEnum(DataInput in, T[] values) throws IOException {
+        int ordinal = in.readByte();
+
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException("invalid ordinal: " + ordinal);
+        }
+
+        return values[ordinal];
+    }
+
+}
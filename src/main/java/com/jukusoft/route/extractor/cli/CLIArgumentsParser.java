@@ -37,7 +37,7 @@ public class CLIArgumentsParser {
         output.setRequired(true);
         options.addOption(output);
 
-        Option fileName = new Option("f", "filename", true, "output filename (optional)");
+        Option fileName = new Option("f", "filename", true, "output filename, only used if one output format is selected (optional)");
         fileName.setRequired(false);
         options.addOption(fileName);
 
@@ -53,6 +53,38 @@ public class CLIArgumentsParser {
         symfonyJSON.setRequired(false);
         options.addOption(symfonyJSON);
 
+        Option symfonyCache = new Option("c", "symfonyCache", true, "symfony cache directory with the compiled routes, e.q. var/cache/prod (optional)");
+        symfonyCache.setRequired(false);
+        options.addOption(symfonyCache);
+
+        Option threads = new Option("t", "threads", true, "number of threads to scan the src code directory (optional, default: number of cpu cores)");
+        threads.setRequired(false);
+        options.addOption(threads);
+
+        Option noCache = new Option(null, "no-cache", false, "don't use the extraction cache, parse all source files (optional)");
+        noCache.setRequired(false);
+        options.addOption(noCache);
+
+        Option rebuildCache = new Option(null, "rebuild-cache", false, "ignore the existing extraction cache and rebuild it (optional)");
+        rebuildCache.setRequired(false);
+        options.addOption(rebuildCache);
+
+        Option validate = new Option(null, "validate", true, "validation of generated swagger files: off, sync or async (optional, default: async)");
+        validate.setRequired(false);
+        options.addOption(validate);
+
+        Option formats = new Option(null, "formats", true, "comma-separated list of output formats: openapi20, openapi31, csv (optional, default: all formats)");
+        formats.setRequired(false);
+        options.addOption(formats);
+
+        Option watch = new Option(null, "watch", false, "keep running and regenerate the output files, if source files or the symfony json file change (optional)");
+        watch.setRequired(false);
+        options.addOption(watch);
+
+        Option changedFiles = new Option(null, "changed-files", true, "file with the changed files since the last run, one path per line, e.q. the output of \"git diff --name-only --no-renames\", or - to read from stdin. Only these files are parsed, the routes of all other files are taken from the extraction cache (optional)");
+        changedFiles.setRequired(false);
+        options.addOption(changedFiles);
+
         CommandLineParser parser = new DefaultParser();
         HelpFormatter formatter = new HelpFormatter();
         CommandLine cmd;
@@ -64,6 +96,14 @@ public class CLIArgumentsParser {
                 String value = cmd.getOptionValue(key);
                 res.put(key, value);
             }
+
+            if (res.containsKey("threads")) {
+                checkPositiveNumber("threads", res.get("threads"));
+            }
+
+            if (res.containsKey("validate")) {
+                checkOneOf("validate", res.get("validate"), "off", "sync", "async");
+            }
         } catch (ParseException e) {
             System.out.println(e.getMessage());
             formatter.printHelp("php-route-extractor-fuzzer", options);
@@ -74,4 +114,37 @@ public class CLIArgumentsParser {
         return res;
     }
 
+    /**
+     * check, that an option value is a positive number.
+     *
+     * @param key option name
+     * @param value option value
+     * @throws ParseException if the value is not a positive number
+     */
+    private static void checkPositiveNumber(String key, String value) throws ParseException {
+        try {
+            if (Integer.parseInt(value) > 0) {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            //handled below
+        }
+
+        throw new ParseException("option " + key + " has to be a positive number: " + value);
+    }
+
+    /**
+     * check, that an option value is one of the allowed values.
+     *
+     * @param key option name
+     * @param value option value
+     * @param allowedValues allowed values
+     * @throws ParseException if the value is not allowed
+     */
+    private static void checkOneOf(String key, String value, String... allowedValues) throws ParseException {
+        if (!Arrays.asList(allowedValues).contains(value)) {
+            throw new ParseException("option " + key + " has to be one of " + String.join(", ", allowedValues) + ": " + value);
+        }
+    }
+
 }
@@ -0,0 +1,91 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * interning table for the values, which are repeated in nearly every route, e.q. parameter names like "id",
+ * types like "string", default values and whole parameters.
+ *
+ * Every equal value is stored only once, so large route sets don't hold thousands of copies of the same strings.
+ * The table only holds weak references, so a value is removed, if no route uses it anymore, e.q. in watch mode
+ * after the routes of an edited file were replaced. The table is split into segments, so the parser threads
+ * rarely wait for each other.
+ *
+ * @author Justin Kuenzel
+ */
+public final class Interner {
+
+    /**
+     * number of segments, has to be a power of 2.
+     */
+    private static final int SEGMENT_COUNT = 16;
+
+    /**
+     * the interning table, every value is mapped to a weak reference to itself.
+     */
+    private static final List<Map<Object,WeakReference<Object>>> SEGMENTS = new ArrayList<>(SEGMENT_COUNT);
+
+    static {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            SEGMENTS.add(new WeakHashMap<>());
+        }
+    }
+
+    /**
+     * private constructor, because this is a utility class
+     */
+    private Interner() {
+        //
+    }
+
+    /**
+     * get the canonical instance of a value.
+     *
+     * @param value immutable value with equals() and hashCode() or null
+     * @param <T> type of the value
+     * @return canonical instance, which is equal to the value, or null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+
+        int hash = value.hashCode();
+        Map<Object,WeakReference<Object>> segment = SEGMENTS.get((hash ^ (hash >>> 16)) & (SEGMENT_COUNT - 1));
+
+        synchronized (segment) {
+            WeakReference<Object> reference = segment.get(value);
+            Object existing = reference != null ? reference.get() : null;
+
+            if (existing != null) {
+                return (T) existing;
+            }
+
+            segment.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * get the number of interned values, which are still in use.
+     *
+     * @return number of values
+     */
+    public static int size() {
+        int size = 0;
+
+        for (Map<Object,WeakReference<Object>> segment : SEGMENTS) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+}
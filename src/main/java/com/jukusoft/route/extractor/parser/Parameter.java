@@ -1,5 +1,10 @@
 package com.jukusoft.route.extractor.parser;
 
+import java.util.Objects;
+
+/**
+ * an immutable route parameter. Equal parameters are shared by all routes, see {@link Interner}.
+ */
 public class Parameter {
 
     //see also: https://swagger.io/docs/specification/2-0/describing-parameters/
@@ -10,18 +15,18 @@ public class Parameter {
         FORM
     }
 
-    private String name;
-    private IN_TYPE in;//possible values: "query" or "path", see also: https://swagger.io/docs/specification/2-0/describing-parameters/
-    private boolean required;
-    private String type;
-    private String defaultStr;
+    private final String name;
+    private final IN_TYPE in;//possible values: "query" or "path", see also: https://swagger.io/docs/specification/2-0/describing-parameters/
+    private final boolean required;
+    private final String type;
+    private final String defaultStr;
 
     public Parameter(String name, IN_TYPE in, boolean required, String type, String defaultStr) {
-        this.name = name;
+        this.name = Interner.intern(name);
         this.in = in;
         this.required = required;
-        this.type = type;
-        this.defaultStr = defaultStr;
+        this.type = Interner.intern(type);
+        this.defaultStr = Interner.intern(defaultStr);
     }
 
     public String getName() {
@@ -32,32 +37,34 @@ public class Parameter {
         return in.name().toLowerCase();
     }
 
-    public void setIn(IN_TYPE in) {
-        this.in = in;
+    public IN_TYPE getInType() {
+        return in;
     }
 
     public boolean getRequired() {
         return required;
     }
 
-    public void setRequired(boolean required) {
-        this.required = required;
-    }
-
     public String getType() {
         return type;
     }
 
-    public void setType(String type) {
-        this.type = type;
-    }
-
     public String getDefaultStr() {
         return defaultStr;
     }
 
-    public void setDefaultStr(String defaultStr) {
-        this.defaultStr = defaultStr;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Parameter)) return false;
+        Parameter parameter = (Parameter) o;
+        return required == parameter.required && in == parameter.in && Objects.equals(name, parameter.name) &&
+                Objects.equals(type, parameter.type) && Objects.equals(defaultStr, parameter.defaultStr);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, in, required, type, defaultStr);
     }
 
 }
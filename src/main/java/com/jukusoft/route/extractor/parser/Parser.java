@@ -33,10 +33,23 @@ public interface Parser {
      * parse directory or file
      *
      * @param srcFile directory or file
-     * @param routes routes list of already existing routes, so that the parser can add additional information to existing routes
-     * @return list of routes
+     * @param routes registry of already existing routes, the parser adds new routes and additional information to existing routes
+     * @return route registry
      * @throws IOException if a file exception occurs
      */
-    public List<Route> parse(File srcFile, List<Route> routes) throws IOException;
+    public RouteRegistry parse(File srcFile, RouteRegistry routes) throws IOException;
+
+    /**
+     * read the routes of a directory or file without applying them, so the watch mode can apply them again after
+     * a source file has changed without parsing the file again. Applying the definitions in order has the same result as {@link #parse(File, RouteRegistry)}.
+     *
+     * @param srcFile directory or file
+     * @return route definitions in the order of the file
+     * @throws IOException if a file exception occurs
+     * @throws UnsupportedOperationException if the parser cannot be used in watch mode
+     */
+    public default List<RouteDefinition> read(File srcFile) throws IOException {
+        throw new UnsupportedOperationException("parser doesn't support watch mode: " + getParameter());
+    }
 
 }
@@ -0,0 +1,446 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a small reader for php array literals, like symfony writes them into compiled cache files.
+ *
+ * Only constant expressions are supported: arrays ("[...]" and "array(...)"), single and double quoted strings,
+ * string concatenation, integers, floats, true, false and null. Arrays are returned as {@link LinkedHashMap}
+ * with {@link Long} or {@link String} keys, strings as {@link String}, numbers as {@link Long} or {@link Double}.
+ * Other expressions, e.q. the checkCondition closure of url_matching_routes.php, are either rejected or skipped and read as null.
+ *
+ * @author Justin Kuenzel
+ */
+public class PhpArrayReader {
+
+    /**
+     * the php source code.
+     */
+    private final String content;
+
+    /**
+     * skip unsupported expressions instead of throwing an exception.
+     */
+    private final boolean skipUnsupported;
+
+    /**
+     * current position.
+     */
+    private int pos;
+
+    /**
+     * constructor, unsupported expressions are rejected
+     *
+     * @param content php source code
+     */
+    public PhpArrayReader(String content) {
+        this(content, false);
+    }
+
+    /**
+     * constructor
+     *
+     * @param content php source code
+     * @param skipUnsupported if true, unsupported expressions like closures or "new Foo()" are skipped and read as null
+     */
+    public PhpArrayReader(String content, boolean skipUnsupported) {
+        this.content = content;
+        this.skipUnsupported = skipUnsupported;
+    }
+
+    /**
+     * read the value of the first top-level "return" statement, e.q. "return [...];".
+     *
+     * @return returned value
+     * @throws IllegalArgumentException if the file doesn't contain a return statement or the value cannot be read
+     */
+    public Object readReturnValue() {
+        pos = 0;
+
+        while (true) {
+            skipWhitespaceAndComments();
+
+            if (pos >= content.length()) {
+                throw error("no return statement found");
+            }
+
+            char c = content.charAt(pos);
+
+            if (c == '\'' || c == '"') {
+                readString();
+            } else if (isIdentifierStart(c)) {
+                String identifier = readIdentifier();
+
+                if (identifier.equalsIgnoreCase("return")) {
+                    return readValue();
+                }
+            } else {
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * read a value at the current position, string concatenations are resolved.
+     *
+     * @return value
+     */
+    public Object readValue() {
+        Object value = readSingleValue();
+        skipWhitespaceAndComments();
+
+        //string concatenation, e.q. the regular expressions of url_matching_routes.php
+        if (pos < content.length() && content.charAt(pos) == '.') {
+            StringBuilder sb = new StringBuilder(toPhpString(value));
+
+            while (pos < content.length() && content.charAt(pos) == '.') {
+                pos++;
+                sb.append(toPhpString(readSingleValue()));
+                skipWhitespaceAndComments();
+            }
+
+            return sb.toString();
+        }
+
+        return value;
+    }
+
+    private Object readSingleValue() {
+        skipWhitespaceAndComments();
+
+        if (pos >= content.length()) {
+            throw error("unexpected end of file");
+        }
+
+        char c = content.charAt(pos);
+
+        if (c == '[') {
+            pos++;
+            return readArray(']');
+        } else if (c == '\'' || c == '"') {
+            return readString();
+        } else if (c == '-' || c == '+' || c == '.' || (c >= '0' && c <= '9')) {
+            return readNumber();
+        } else if (c == '(') {
+            pos++;
+            Object value = readValue();
+            expect(')');
+            return value;
+        } else if (isIdentifierStart(c) || c == '\\') {
+            int start = pos;
+            String identifier = readIdentifier();
+
+            switch (identifier.toLowerCase()) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                    return null;
+                case "array":
+                    skipWhitespaceAndComments();
+                    expect('(');
+                    return readArray(')');
+                default:
+                    pos = start;
+
+                    if (skipUnsupported) {
+                        skipExpression();
+                        return null;
+                    }
+
+                    throw error("unsupported expression: " + identifier);
+            }
+        }
+
+        throw error("unexpected character: " + c);
+    }
+
+    /**
+     * skip an expression until the next ',' or ';' or the end of the surrounding array, e.q. a closure
+     * "static function ($condition, $context, $request) { ... }". Strings, comments and nested brackets are skipped as a whole.
+     */
+    private void skipExpression() {
+        int depth = 0;
+
+        while (true) {
+            skipWhitespaceAndComments();
+
+            if (pos >= content.length()) {
+                throw error("unexpected end of file in expression");
+            }
+
+            char c = content.charAt(pos);
+
+            if (c == '\'' || c == '"') {
+                readString();
+                continue;
+            }
+
+            if (c == '(' || c == '[' || c == '{') {
+                depth++;
+            } else if (c == ')' || c == ']' || c == '}') {
+                if (depth == 0) {
+                    return;
+                }
+
+                depth--;
+            } else if ((c == ',' || c == ';') && depth == 0) {
+                return;
+            }
+
+            pos++;
+        }
+    }
+
+    private Map<Object,Object> readArray(char end) {
+        Map<Object,Object> array = new LinkedHashMap<>();
+        long nextIndex = 0;
+
+        while (true) {
+            skipWhitespaceAndComments();
+
+            if (pos >= content.length()) {
+                throw error("unexpected end of file in array");
+            }
+
+            if (content.charAt(pos) == end) {
+                pos++;
+                return array;
+            }
+
+            Object keyOrValue = readValue();
+            skipWhitespaceAndComments();
+
+            if (content.startsWith("=>", pos)) {
+                pos += 2;
+                Object key = toKey(keyOrValue);
+                array.put(key, readValue());
+
+                if (key instanceof Long && (Long) key >= nextIndex) {
+                    nextIndex = (Long) key + 1;
+                }
+            } else {
+                array.put(nextIndex++, keyOrValue);
+            }
+
+            skipWhitespaceAndComments();
+
+            if (pos < content.length() && content.charAt(pos) == ',') {
+                pos++;
+            } else if (pos >= content.length() || content.charAt(pos) != end) {
+                throw error("expected ',' or '" + end + "'");
+            }
+        }
+    }
+
+    /**
+     * convert an array key like php does, e.q. "1" is converted to the integer key 1.
+     */
+    private Object toKey(Object key) {
+        if (key instanceof Long) {
+            return key;
+        } else if (key instanceof Boolean) {
+            return (Boolean) key ? 1L : 0L;
+        } else if (key == null) {
+            return "";
+        } else if (key instanceof Double) {
+            return (long) (double) (Double) key;
+        }
+
+        String str = (String) key;
+
+        if (str.matches("-?[1-9][0-9]{0,17}|0")) {
+            return Long.parseLong(str);
+        }
+
+        return str;
+    }
+
+    private String readString() {
+        char quote = content.charAt(pos++);
+        StringBuilder sb = new StringBuilder();
+
+        while (pos < content.length()) {
+            char c = content.charAt(pos++);
+
+            if (c == quote) {
+                return sb.toString();
+            }
+
+            if (c != '\\' || pos >= content.length()) {
+                sb.append(c);
+                continue;
+            }
+
+            char next = content.charAt(pos);
+
+            if (quote == '\'') {
+                //single quoted strings only know the escape sequences \\ and \'
+                if (next == '\\' || next == '\'') {
+                    sb.append(next);
+                    pos++;
+                } else {
+                    sb.append(c);
+                }
+
+                continue;
+            }
+
+            pos++;
+
+            switch (next) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'v' -> sb.append('\u000b');
+                case 'f' -> sb.append('\f');
+                case 'e' -> sb.append('\u001b');
+                case '\\', '$', '"' -> sb.append(next);
+                case 'x' -> sb.append((char) readEscapedNumber(16, 2, 0));
+                default -> {
+                    if (next >= '0' && next <= '7') {
+                        sb.append((char) readEscapedNumber(8, 3, 1));
+                    } else {
+                        //unknown escape sequences are kept
+                        sb.append(c).append(next);
+                    }
+                }
+            }
+        }
+
+        throw error("unterminated string");
+    }
+
+    /**
+     * read the digits of an escape sequence like \x41 or \101.
+     *
+     * @param radix radix of the digits
+     * @param maxDigits max number of digits
+     * @param readDigits number of digits, which was already read
+     * @return character code
+     */
+    private int readEscapedNumber(int radix, int maxDigits, int readDigits) {
+        int start = pos - readDigits;
+        int end = start;
+
+        while (end < content.length() && end - start < maxDigits && Character.digit(content.charAt(end), radix) >= 0) {
+            end++;
+        }
+
+        if (end == start) {
+            //no digits, e.q. "\x" is kept as it is
+            return 'x';
+        }
+
+        pos = end;
+        return Integer.parseInt(content.substring(start, end), radix) & 0xFF;
+    }
+
+    private Object readNumber() {
+        int start = pos;
+
+        if (content.charAt(pos) == '-' || content.charAt(pos) == '+') {
+            pos++;
+        }
+
+        boolean isFloat = false;
+
+        while (pos < content.length()) {
+            char c = content.charAt(pos);
+
+            if (c == '.' || c == 'e' || c == 'E') {
+                isFloat = true;
+            } else if (!(c >= '0' && c <= '9') && !((c == '-' || c == '+') && (content.charAt(pos - 1) == 'e' || content.charAt(pos - 1) == 'E'))) {
+                break;
+            }
+
+            pos++;
+        }
+
+        String number = content.substring(start, pos);
+
+        try {
+            return isFloat ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("invalid number: " + number);
+        }
+    }
+
+    private String readIdentifier() {
+        int start = pos;
+
+        while (pos < content.length() && (isIdentifierPart(content.charAt(pos)) || content.charAt(pos) == '\\')) {
+            pos++;
+        }
+
+        return content.substring(start, pos);
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (pos < content.length()) {
+            char c = content.charAt(pos);
+
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '#' || content.startsWith("//", pos)) {
+                while (pos < content.length() && content.charAt(pos) != '\n') {
+                    pos++;
+                }
+            } else if (content.startsWith("/*", pos)) {
+                int end = content.indexOf("*/", pos + 2);
+                pos = end < 0 ? content.length() : end + 2;
+            } else if (content.startsWith("<?php", pos)) {
+                pos += 5;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void expect(char expected) {
+        skipWhitespaceAndComments();
+
+        if (pos >= content.length() || content.charAt(pos) != expected) {
+            throw error("expected '" + expected + "'");
+        }
+
+        pos++;
+    }
+
+    private static String toPhpString(Object value) {
+        if (value == null || Boolean.FALSE.equals(value)) {
+            return "";
+        } else if (Boolean.TRUE.equals(value)) {
+            return "1";
+        } else if (value instanceof Map) {
+            throw new IllegalArgumentException("arrays cannot be concatenated");
+        }
+
+        return value.toString();
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private IllegalArgumentException error(String message) {
+        int line = 1;
+
+        for (int i = 0; i < Math.min(pos, content.length()); i++) {
+            if (content.charAt(i) == '\n') {
+                line++;
+            }
+        }
+
+        return new IllegalArgumentException(message + " (line " + line + ")");
+    }
+
+}
@@ -11,11 +11,15 @@ public class Route {
         DELETE
     }
 
-    private Map<METHOD,RouteMethod> methods = new HashMap<>();
+    //a route has at most 4 methods, the enum map is an array and iterates in declaration order
+    private final Map<METHOD,RouteMethod> methods = new EnumMap<>(METHOD.class);
 
     private String url;
     private String name;
 
+    //requirement regex of the path variables by name or null, if the route doesn't declare requirements
+    private Map<String,String> requirements = null;
+
     public Route(String url, String name) {
         this.url = url;
         this.name = name;
@@ -29,6 +33,29 @@ public class Route {
         return methods;
     }
 
+    /**
+     * add or override the requirement of a path variable, e.q. "\d+" for "id".
+     *
+     * @param name name of the path variable
+     * @param regex regular expression, which the value has to match
+     */
+    public void addRequirement(String name, String regex) {
+        if (requirements == null) {
+            requirements = new LinkedHashMap<>(2);
+        }
+
+        requirements.put(Interner.intern(name), Interner.intern(regex));
+    }
+
+    /**
+     * get the requirements of the path variables.
+     *
+     * @return read-only map "variable name - regex", in insertion order
+     */
+    public Map<String,String> getRequirements() {
+        return requirements != null ? Collections.unmodifiableMap(requirements) : Collections.emptyMap();
+    }
+
     public String getUrl() {
         return url;
     }
@@ -0,0 +1,137 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.util.*;
+
+/**
+ * the values of a single @Route annotation or #[Route] attribute, found by the {@link RouteAnnotationLexer}.
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteAnnotation {
+
+    private String path;
+    private String name;
+
+    //collections are only created, if the annotation contains the value
+    private List<String> methods;
+    private Map<String,String> requirements;
+    private Map<String,String> defaults;
+
+    //position of the annotation in the class structure of the file
+    private boolean classLevel = false;
+    private int classIndex = -1;
+
+    /**
+     * get the route path.
+     *
+     * @return route path or null, if the annotation doesn't contain a path
+     */
+    public String getPath() {
+        return path;
+    }
+
+    protected void setPath(String path) {
+        this.path = path;
+    }
+
+    /**
+     * get the route name.
+     *
+     * @return route name or null, if the annotation doesn't contain a name
+     */
+    public String getName() {
+        return name;
+    }
+
+    protected void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * get the allowed HTTP methods.
+     *
+     * @return HTTP methods in upper case, an empty list means all methods
+     */
+    public List<String> getMethods() {
+        return methods != null ? methods : Collections.emptyList();
+    }
+
+    protected void addMethod(String method) {
+        if (methods == null) {
+            methods = new ArrayList<>(2);
+        }
+
+        methods.add(method.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * get the requirements, the key is the parameter name and the value the regex.
+     *
+     * @return requirements in declaration order
+     */
+    public Map<String,String> getRequirements() {
+        return requirements != null ? requirements : Collections.emptyMap();
+    }
+
+    protected void addRequirement(String param, String regex) {
+        if (requirements == null) {
+            requirements = new LinkedHashMap<>(4);
+        }
+
+        requirements.put(param, regex);
+    }
+
+    /**
+     * get the default values, the key is the parameter name.
+     *
+     * @return default values in declaration order
+     */
+    public Map<String,String> getDefaults() {
+        return defaults != null ? defaults : Collections.emptyMap();
+    }
+
+    protected void addDefault(String param, String value) {
+        if (defaults == null) {
+            defaults = new LinkedHashMap<>(4);
+        }
+
+        defaults.put(param, value);
+    }
+
+    /**
+     * check, if the annotation belongs to a class declaration, so it is the prefix of all routes in the class body.
+     *
+     * @return true, if the annotation is a class-level annotation
+     */
+    public boolean isClassLevel() {
+        return classLevel;
+    }
+
+    /**
+     * get the index of the class in the file, which is declared by the annotation (class-level) or contains the annotated method.
+     *
+     * @return index of the class, starting with 0, or -1, if the annotation is outside of a class
+     */
+    public int getClassIndex() {
+        return classIndex;
+    }
+
+    protected void setClass(boolean classLevel, int classIndex) {
+        this.classLevel = classLevel;
+        this.classIndex = classIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteAnnotation{" +
+                "path='" + path + '\'' +
+                ", name='" + name + '\'' +
+                ", methods=" + getMethods() +
+                ", requirements=" + getRequirements() +
+                ", defaults=" + getDefaults() +
+                ", classLevel=" + classLevel +
+                ", classIndex=" + classIndex +
+                '}';
+    }
+
+}
@@ -0,0 +1,983 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+
+/**
+ * single-pass tokenizer, which finds @Route annotations in the docblocks and #[Route] attributes of a php source file.
+ *
+ * The lexer skips php strings and comments, so only annotations in docblocks ("/**") are found, like doctrine does.
+ * Annotation values can contain nested braces, quoted strings (escaped by "" or \") and any other character,
+ * only the values of a route (path, name, methods, requirements and defaults) are converted to strings.
+ * The lexer also tracks the class bodies of the file, so every annotation knows, if it belongs to a class declaration
+ * or to a method of a class.
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteAnnotationLexer {
+
+    /**
+     * the annotation name.
+     */
+    private static final String ANNOTATION = "@Route";
+
+    /**
+     * the attribute name without namespace.
+     */
+    private static final String ATTRIBUTE = "Route";
+
+    /**
+     * characters, which can start a comment, string, attribute, brace or the class keyword.
+     */
+    private static final boolean[] SPECIAL_CHARS = new boolean[128];
+
+    static {
+        for (char c : "/#'\"<{}cC".toCharArray()) {
+            SPECIAL_CHARS[c] = true;
+        }
+    }
+
+    //codes of the known annotation keys, so no key string has to be created
+    private static final int KEY_OTHER = 0;
+    private static final int KEY_PATH = 1;
+    private static final int KEY_NAME = 2;
+    private static final int KEY_METHODS = 3;
+    private static final int KEY_REQUIREMENTS = 4;
+    private static final int KEY_DEFAULTS = 5;
+
+    /**
+     * the file content.
+     */
+    private final String content;
+
+    /**
+     * current position.
+     */
+    private int pos = 0;
+
+    /**
+     * end of the current token region, this is the end of the current docblock or the end of the content.
+     */
+    private int limit;
+
+    /**
+     * position of the closing "*&#47;" of the current docblock, -1 if the lexer is outside of a docblock.
+     */
+    private int docblockEnd = -1;
+
+    /**
+     * position of the closing "]" of the current attribute group, -1 if the lexer is outside of an attribute group.
+     */
+    private int attributeEnd = -1;
+
+    /**
+     * true, if strings are php strings (attributes), false for doctrine strings (docblocks).
+     */
+    private boolean phpStrings = false;
+
+    /**
+     * current nesting level of curly braces in the php code.
+     */
+    private int braceDepth = 0;
+
+    /**
+     * number of class declarations found so far.
+     */
+    private int classCount = 0;
+
+    /**
+     * index of the declared class, whose body starts with the next "{", or -1.
+     */
+    private int pendingClass = -1;
+
+    /**
+     * the open class bodies, every entry contains the brace depth of the body and the class index.
+     */
+    private final Deque<int[]> classBodies = new ArrayDeque<>();
+
+    /**
+     * constructor
+     *
+     * @param content content of the php source file
+     */
+    public RouteAnnotationLexer(String content) {
+        this.content = Objects.requireNonNull(content);
+        this.limit = content.length();
+    }
+
+    /**
+     * find the next @Route annotation or #[Route] attribute. Malformed annotations are skipped.
+     *
+     * @return next annotation or null, if the end of the file is reached
+     */
+    public RouteAnnotation next() {
+        while (true) {
+            if (docblockEnd >= 0) {
+                RouteAnnotation annotation = nextInDocblock();
+
+                if (annotation != null) {
+                    return withClass(annotation, docblockEnd + 2);
+                }
+
+                pos = docblockEnd + 2;
+                docblockEnd = -1;
+                limit = content.length();
+            } else if (attributeEnd >= 0) {
+                RouteAnnotation annotation = nextInAttributeGroup();
+
+                if (annotation != null) {
+                    return withClass(annotation, attributeEnd + 1);
+                }
+
+                pos = attributeEnd + 1;
+                attributeEnd = -1;
+                limit = content.length();
+                phpStrings = false;
+            }
+
+            if (!skipToNextDocblock()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * set the class of an annotation. Annotations directly in front of a class declaration belong to the declared class,
+     * all other annotations belong to the class body, which contains them.
+     *
+     * @param annotation annotation
+     * @param end end of the docblock or attribute group
+     * @return annotation
+     */
+    private RouteAnnotation withClass(RouteAnnotation annotation, int end) {
+        if (isFollowedByClass(end)) {
+            annotation.setClass(true, classCount);
+        } else {
+            annotation.setClass(false, classBodies.isEmpty() ? -1 : classBodies.peek()[1]);
+        }
+
+        return annotation;
+    }
+
+    /**
+     * skip php code, strings and comments until the next docblock or attribute group starts.
+     * Curly braces and class declarations are tracked on the way.
+     *
+     * @return true, if a docblock or attribute group was found
+     */
+    private boolean skipToNextDocblock() {
+        int length = content.length();
+
+        while (pos < length) {
+            char c = content.charAt(pos);
+
+            //fast path for all characters, which cannot start a token of interest
+            if (c >= SPECIAL_CHARS.length || !SPECIAL_CHARS[c]) {
+                pos++;
+                continue;
+            }
+
+            if (c == '/' && pos + 1 < length && content.charAt(pos + 1) == '*') {
+                int end = content.indexOf("*/", pos + 2);
+
+                if (end < 0) {
+                    //unclosed comment
+                    end = length;
+                }
+
+                if (pos + 2 < length && content.charAt(pos + 2) == '*') {
+                    docblockEnd = end;
+                    limit = end;
+                    pos += 3;
+                    return true;
+                }
+
+                pos = end + 2;
+            } else if (c == '#' && pos + 1 < length && content.charAt(pos + 1) == '[') {
+                //php 8 attribute group, e.q. #[Route('/x', name: 'y')]
+                attributeEnd = findAttributeGroupEnd(pos + 2);
+                limit = attributeEnd;
+                phpStrings = true;
+                pos += 2;
+                return true;
+            } else if ((c == '/' && pos + 1 < length && content.charAt(pos + 1) == '/') || c == '#') {
+                skipLine();
+            } else if (c == '\'' || c == '"') {
+                skipPhpString(c);
+            } else if (c == '<' && content.startsWith("<<<", pos)) {
+                skipHeredoc();
+            } else if (c == '{') {
+                braceDepth++;
+                pos++;
+
+                if (pendingClass >= 0) {
+                    classBodies.push(new int[] {braceDepth, pendingClass});
+                    pendingClass = -1;
+                }
+            } else if (c == '}') {
+                if (!classBodies.isEmpty() && classBodies.peek()[0] == braceDepth) {
+                    classBodies.pop();
+                }
+
+                braceDepth--;
+                pos++;
+            } else if ((c == 'c' || c == 'C') && (charAt(pos + 1) | 0x20) == 'l' && isClassKeyword(pos)) {
+                pendingClass = classCount++;
+                pos += 5;
+            } else {
+                pos++;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * check, if the keyword "class" starts at the given position and it is a class declaration,
+     * not a part of another word ($class, subclass), a class constant (Foo::class) or a property ($a->class).
+     *
+     * @param start position of the possible keyword
+     * @return true, if it is a class declaration
+     */
+    private boolean isClassKeyword(int start) {
+        int end = start + 5;
+
+        if (!content.regionMatches(true, start, "class", 0, 5) || (end < content.length() && Character.isJavaIdentifierPart(content.charAt(end)))
+                || (start > 0 && Character.isJavaIdentifierPart(content.charAt(start - 1)))) {
+            return false;
+        }
+
+        int index = start - 1;
+
+        while (index >= 0 && Character.isWhitespace(content.charAt(index))) {
+            index--;
+        }
+
+        return index < 0 || (content.charAt(index) != ':' && content.charAt(index) != '>');
+    }
+
+    /**
+     * check, if the next php code is a class declaration. Comments, docblocks, attributes and class modifiers are skipped.
+     *
+     * @param index start position
+     * @return true, if a class is declared next
+     */
+    private boolean isFollowedByClass(int index) {
+        int length = content.length();
+
+        while (index < length) {
+            char c = content.charAt(index);
+
+            if (Character.isWhitespace(c)) {
+                index++;
+            } else if (c == '/' && index + 1 < length && content.charAt(index + 1) == '*') {
+                int end = content.indexOf("*/", index + 2);
+
+                if (end < 0) {
+                    return false;
+                }
+
+                index = end + 2;
+            } else if (c == '#' && index + 1 < length && content.charAt(index + 1) == '[') {
+                index = findAttributeGroupEnd(index + 2) + 1;
+            } else if ((c == '/' && index + 1 < length && content.charAt(index + 1) == '/') || c == '#') {
+                int end = content.indexOf('\n', index);
+
+                if (end < 0) {
+                    return false;
+                }
+
+                index = end + 1;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = index;
+
+                while (index < length && Character.isJavaIdentifierPart(content.charAt(index))) {
+                    index++;
+                }
+
+                if (isWord(start, index, "class")) {
+                    return true;
+                } else if (!isWord(start, index, "final") && !isWord(start, index, "abstract") && !isWord(start, index, "readonly")) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isWord(int start, int end, String word) {
+        return end - start == word.length() && content.regionMatches(true, start, word, 0, word.length());
+    }
+
+    /**
+     * find the closing "]" of an attribute group, nested brackets and strings are skipped.
+     *
+     * @param index position behind the opening "#["
+     * @return position of the closing "]" or the end of the content, if the attribute group isn't closed
+     */
+    private int findAttributeGroupEnd(int index) {
+        int length = content.length();
+        int depth = 1;
+
+        while (index < length) {
+            char c = content.charAt(index);
+
+            if (c == '\'' || c == '"') {
+                index++;
+
+                while (index < length && content.charAt(index) != c) {
+                    index += content.charAt(index) == '\\' ? 2 : 1;
+                }
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+
+                if (depth == 0) {
+                    return index;
+                }
+            }
+
+            index++;
+        }
+
+        return length;
+    }
+
+    /**
+     * find the next #[Route] attribute in the current attribute group, other attributes are skipped.
+     *
+     * @return annotation or null, if the attribute group doesn't contain any more route attributes or is malformed
+     */
+    private RouteAnnotation nextInAttributeGroup() {
+        while (true) {
+            skipWhitespace();
+
+            if (pos >= limit) {
+                return null;
+            }
+
+            char c = content.charAt(pos);
+
+            if (c == ',') {
+                pos++;
+                continue;
+            }
+
+            if (!Character.isJavaIdentifierStart(c) && c != '\\') {
+                return null;
+            }
+
+            //attribute name, maybe with namespace, e.q. \Symfony\Component\Routing\Annotation\Route
+            int nameStart = pos;
+
+            while (pos < limit && (Character.isJavaIdentifierPart(content.charAt(pos)) || content.charAt(pos) == '\\')) {
+                pos++;
+            }
+
+            int nameEnd = pos;
+            skipWhitespace();
+
+            boolean hasArguments = charAt(pos) == '(';
+
+            //the name without namespace has to be "Route"
+            int simpleNameStart = nameEnd - ATTRIBUTE.length();
+            boolean isRoute = simpleNameStart >= nameStart && content.startsWith(ATTRIBUTE, simpleNameStart)
+                    && (simpleNameStart == nameStart || content.charAt(simpleNameStart - 1) == '\\');
+
+            if (isRoute) {
+                RouteAnnotation annotation = new RouteAnnotation();
+
+                if (hasArguments) {
+                    pos++;
+
+                    if (!parseArguments(annotation)) {
+                        //malformed attribute, skip the rest of the attribute group
+                        return null;
+                    }
+                }
+
+                return annotation;
+            }
+
+            if (hasArguments && !skipValue()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * find the next annotation in the current docblock.
+     *
+     * @return annotation or null, if the docblock doesn't contain any more annotations
+     */
+    private RouteAnnotation nextInDocblock() {
+        while (pos < limit) {
+            if (content.charAt(pos) != '@' || !content.startsWith(ANNOTATION, pos)) {
+                pos++;
+                continue;
+            }
+
+            int annotationStart = pos;
+            pos += ANNOTATION.length();
+
+            //e.q. @RouteResource is another annotation
+            if (pos < limit && Character.isJavaIdentifierPart(content.charAt(pos))) {
+                continue;
+            }
+
+            skipWhitespace();
+
+            if (charAt(pos) != '(') {
+                continue;
+            }
+
+            pos++;
+            RouteAnnotation annotation = new RouteAnnotation();
+
+            if (parseArguments(annotation)) {
+                return annotation;
+            }
+
+            //malformed annotation, continue behind the annotation name
+            pos = annotationStart + ANNOTATION.length();
+        }
+
+        return null;
+    }
+
+    /**
+     * parse the comma-separated arguments of an annotation, the current position is behind the opening brace.
+     *
+     * @param annotation annotation to fill
+     * @return true, if the arguments are well-formed
+     */
+    private boolean parseArguments(RouteAnnotation annotation) {
+        boolean first = true;
+
+        while (true) {
+            skipWhitespace();
+
+            if (pos >= limit) {
+                return false;
+            }
+
+            char c = content.charAt(pos);
+
+            if (c == ')') {
+                pos++;
+                return true;
+            }
+
+            if (!first) {
+                if (c != ',') {
+                    return false;
+                }
+
+                pos++;
+                skipWhitespace();
+
+                //trailing comma
+                if (charAt(pos) == ')') {
+                    pos++;
+                    return true;
+                }
+
+                c = charAt(pos);
+            }
+
+            first = false;
+
+            if (Character.isJavaIdentifierStart(c)) {
+                int keyStart = pos;
+
+                while (pos < limit && Character.isJavaIdentifierPart(content.charAt(pos))) {
+                    pos++;
+                }
+
+                int keyEnd = pos;
+
+                if (charAt(pos) == ':' && charAt(pos + 1) == ':') {
+                    //positional class constant, e.q. Foo::BAR
+                    if (readBare(false) == null) {
+                        return false;
+                    }
+
+                    continue;
+                }
+
+                skipWhitespace();
+
+                if (charAt(pos) == '=' || charAt(pos) == ':') {
+                    pos++;
+                    skipWhitespace();
+
+                    if (!parseNamedValue(annotation, keyCode(keyStart, keyEnd))) {
+                        return false;
+                    }
+                }
+            } else if (c == '"' || c == '\'') {
+                String value = readString();
+
+                if (value == null) {
+                    return false;
+                }
+
+                skipWhitespace();
+
+                if (charAt(pos) == '=' || charAt(pos) == ':') {
+                    //quoted key
+                    pos++;
+                    skipWhitespace();
+
+                    if (!parseNamedValue(annotation, keyCode(value))) {
+                        return false;
+                    }
+                } else if (annotation.getPath() == null) {
+                    annotation.setPath(value);
+                }
+            } else if (c == '{' || c == '[') {
+                //localized paths are not supported
+                if (!skipValue()) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * parse the value of a named argument.
+     *
+     * @param annotation annotation to fill
+     * @param key key code
+     * @return true, if the value is well-formed
+     */
+    private boolean parseNamedValue(RouteAnnotation annotation, int key) {
+        char c = charAt(pos);
+        boolean isArray = c == '{' || c == '[';
+
+        switch (key) {
+            case KEY_PATH, KEY_NAME -> {
+                if (isArray) {
+                    return skipValue();
+                }
+
+                String value = readScalar();
+
+                if (value == null) {
+                    return false;
+                }
+
+                if (key == KEY_PATH) {
+                    annotation.setPath(value);
+                } else {
+                    annotation.setName(value);
+                }
+
+                return true;
+            }
+            case KEY_METHODS -> {
+                if (!isArray) {
+                    String method = readScalar();
+
+                    if (method != null) {
+                        annotation.addMethod(method);
+                    }
+
+                    return method != null;
+                }
+
+                return parseList(annotation);
+            }
+            case KEY_REQUIREMENTS, KEY_DEFAULTS -> {
+                return isArray ? parseMap(annotation, key == KEY_REQUIREMENTS) : skipValue();
+            }
+            default -> {
+                return skipValue();
+            }
+        }
+    }
+
+    /**
+     * parse a list of HTTP methods, like {"GET", "POST"}.
+     *
+     * @param annotation annotation to fill
+     * @return true, if the list is well-formed
+     */
+    private boolean parseList(RouteAnnotation annotation) {
+        char close = content.charAt(pos) == '{' ? '}' : ']';
+        pos++;
+
+        while (true) {
+            skipWhitespace();
+
+            if (pos >= limit) {
+                return false;
+            }
+
+            char c = content.charAt(pos);
+
+            if (c == close) {
+                pos++;
+                return true;
+            }
+
+            if (c == ',') {
+                pos++;
+                continue;
+            }
+
+            String value = readScalar();
+
+            if (value == null) {
+                return false;
+            }
+
+            annotation.addMethod(value);
+        }
+    }
+
+    /**
+     * parse a map, like {"id" = "\d+", "page": 1}.
+     *
+     * @param annotation annotation to fill
+     * @param requirements true for requirements, false for defaults
+     * @return true, if the map is well-formed
+     */
+    private boolean parseMap(RouteAnnotation annotation, boolean requirements) {
+        char close = content.charAt(pos) == '{' ? '}' : ']';
+        pos++;
+
+        while (true) {
+            skipWhitespace();
+
+            if (pos >= limit) {
+                return false;
+            }
+
+            char c = content.charAt(pos);
+
+            if (c == close) {
+                pos++;
+                return true;
+            }
+
+            if (c == ',') {
+                pos++;
+                continue;
+            }
+
+            String key = (c == '"' || c == '\'') ? readString() : readBare(true);
+
+            if (key == null) {
+                return false;
+            }
+
+            skipWhitespace();
+            c = charAt(pos);
+
+            if (c == '=') {
+                pos++;
+
+                //php array syntax "=>"
+                if (charAt(pos) == '>') {
+                    pos++;
+                }
+            } else if (c == ':') {
+                pos++;
+            } else {
+                return false;
+            }
+
+            skipWhitespace();
+            String value;
+            c = charAt(pos);
+
+            if (c == '{' || c == '[') {
+                //nested values are stored as raw text
+                int valueStart = pos;
+
+                if (!skipValue()) {
+                    return false;
+                }
+
+                value = content.substring(valueStart, pos);
+            } else {
+                value = readScalar();
+            }
+
+            if (value == null) {
+                return false;
+            }
+
+            if (requirements) {
+                annotation.addRequirement(key, value);
+            } else {
+                annotation.addDefault(key, value);
+            }
+        }
+    }
+
+    /**
+     * read a quoted string or a bare value (e.q. a number or constant).
+     *
+     * @return value or null, if the value is malformed
+     */
+    private String readScalar() {
+        char c = charAt(pos);
+        return (c == '"' || c == '\'') ? readString() : readBare(false);
+    }
+
+    /**
+     * read a quoted string, the quote can be escaped by doubling it ("") or by a backslash (\").
+     * All other backslashes are kept, so regular expressions like "\d+" are not changed.
+     * In php strings of attributes, "\\" is read as a single backslash.
+     *
+     * @return string content or null, if the string isn't closed
+     */
+    private String readString() {
+        char quote = content.charAt(pos);
+        pos++;
+
+        int segmentStart = pos;
+        StringBuilder sb = null;
+
+        while (pos < limit) {
+            char c = content.charAt(pos);
+
+            if (c == '\\' && pos + 1 < limit && (content.charAt(pos + 1) == quote || (phpStrings && content.charAt(pos + 1) == '\\'))) {
+                //php strings in attributes also escape the backslash itself
+                sb = (sb != null ? sb : new StringBuilder()).append(content, segmentStart, pos).append(content.charAt(pos + 1));
+                pos += 2;
+                segmentStart = pos;
+            } else if (c == quote) {
+                if (!phpStrings && quote == '"' && pos + 1 < limit && content.charAt(pos + 1) == '"') {
+                    //doctrine escapes a double quote by doubling it
+                    sb = (sb != null ? sb : new StringBuilder()).append(content, segmentStart, pos).append(quote);
+                    pos += 2;
+                    segmentStart = pos;
+                    continue;
+                }
+
+                pos++;
+                return sb == null ? content.substring(segmentStart, pos - 1) : sb.append(content, segmentStart, pos - 1).toString();
+            } else {
+                pos++;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * read an unquoted value, like a number, a boolean or a class constant.
+     *
+     * @param key true, if the value is a map key, which is terminated by "=" or ":"
+     * @return value or null, if the value is empty
+     */
+    private String readBare(boolean key) {
+        int start = pos;
+
+        while (pos < limit) {
+            char c = content.charAt(pos);
+
+            if (Character.isWhitespace(c) || c == ',' || c == ')' || c == '}' || c == ']') {
+                break;
+            }
+
+            if (key && (c == '=' || (c == ':' && charAt(pos + 1) != ':' && (pos == start || content.charAt(pos - 1) != ':')))) {
+                break;
+            }
+
+            pos++;
+        }
+
+        return pos > start ? content.substring(start, pos) : null;
+    }
+
+    /**
+     * skip a value of an argument which isn't needed, including nested braces and strings.
+     *
+     * @return true, if the value is well-formed
+     */
+    private boolean skipValue() {
+        char c = charAt(pos);
+
+        if (c == '"' || c == '\'') {
+            return readString() != null;
+        }
+
+        if (c != '{' && c != '[' && c != '(') {
+            return readBare(false) != null;
+        }
+
+        int depth = 0;
+
+        while (pos < limit) {
+            c = content.charAt(pos);
+
+            if (c == '"' || c == '\'') {
+                if (readString() == null) {
+                    return false;
+                }
+
+                continue;
+            }
+
+            if (c == '{' || c == '[' || c == '(') {
+                depth++;
+            } else if (c == '}' || c == ']' || c == ')') {
+                depth--;
+
+                if (depth == 0) {
+                    pos++;
+                    return true;
+                }
+            }
+
+            pos++;
+        }
+
+        return false;
+    }
+
+    /**
+     * skip whitespaces and the leading "*" of docblock lines.
+     */
+    private void skipWhitespace() {
+        while (pos < limit) {
+            char c = content.charAt(pos);
+
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '*') {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * skip a single line comment.
+     */
+    private void skipLine() {
+        int end = content.indexOf('\n', pos);
+        pos = end < 0 ? content.length() : end + 1;
+    }
+
+    /**
+     * skip a php string literal, the current position is the opening quote.
+     *
+     * @param quote the quote character
+     */
+    private void skipPhpString(char quote) {
+        int length = content.length();
+        pos++;
+
+        while (pos < length) {
+            char c = content.charAt(pos);
+
+            if (c == '\\') {
+                pos += 2;
+            } else if (c == quote) {
+                pos++;
+                return;
+            } else {
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * skip a php heredoc or nowdoc string, like &lt;&lt;&lt;EOT ... EOT.
+     */
+    private void skipHeredoc() {
+        int length = content.length();
+        pos += 3;
+
+        while (pos < length && (content.charAt(pos) == ' ' || content.charAt(pos) == '\'' || content.charAt(pos) == '"')) {
+            pos++;
+        }
+
+        int identifierStart = pos;
+
+        while (pos < length && Character.isJavaIdentifierPart(content.charAt(pos))) {
+            pos++;
+        }
+
+        if (pos == identifierStart) {
+            //no heredoc, e.q. a shift operator
+            return;
+        }
+
+        String identifier = content.substring(identifierStart, pos);
+
+        //the closing identifier is the first non-whitespace token of a line
+        while (pos < length) {
+            int lineStart = content.indexOf('\n', pos);
+
+            if (lineStart < 0) {
+                pos = length;
+                return;
+            }
+
+            pos = lineStart + 1;
+
+            while (pos < length && (content.charAt(pos) == ' ' || content.charAt(pos) == '\t')) {
+                pos++;
+            }
+
+            if (content.startsWith(identifier, pos) && (pos + identifier.length() >= length || !Character.isJavaIdentifierPart(content.charAt(pos + identifier.length())))) {
+                pos += identifier.length();
+                return;
+            }
+        }
+    }
+
+    /**
+     * get the character at a position inside the current token region.
+     *
+     * @param index position
+     * @return character or '\0', if the position is outside of the region
+     */
+    private char charAt(int index) {
+        return index < limit ? content.charAt(index) : '\0';
+    }
+
+    private int keyCode(int start, int end) {
+        int length = end - start;
+
+        if (length == 4 && content.startsWith("path", start)) {
+            return KEY_PATH;
+        } else if (length == 5 && content.startsWith("value", start)) {
+            return KEY_PATH;
+        } else if (length == 4 && content.startsWith("name", start)) {
+            return KEY_NAME;
+        } else if (length == 7 && content.startsWith("methods", start)) {
+            return KEY_METHODS;
+        } else if (length == 12 && content.startsWith("requirements", start)) {
+            return KEY_REQUIREMENTS;
+        } else if (length == 8 && content.startsWith("defaults", start)) {
+            return KEY_DEFAULTS;
+        }
+
+        return KEY_OTHER;
+    }
+
+    private static int keyCode(String key) {
+        return switch (key) {
+            case "path", "value" -> KEY_PATH;
+            case "name" -> KEY_NAME;
+            case "methods" -> KEY_METHODS;
+            case "requirements" -> KEY_REQUIREMENTS;
+            case "defaults" -> KEY_DEFAULTS;
+            default -> KEY_OTHER;
+        };
+    }
+
+}
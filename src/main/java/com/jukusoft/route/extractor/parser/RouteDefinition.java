@@ -0,0 +1,28 @@
+package com.jukusoft.route.extractor.parser;
+
+/**
+ * a route of a parser input, which can be applied onto a route registry again without reading the input again,
+ * e.q. a route of the symfony console dump.
+ *
+ * A definition only adds or changes the route with its name, so the definitions of a route can be applied
+ * without the definitions of the other routes.
+ *
+ * @author Justin Kuenzel
+ */
+public interface RouteDefinition {
+
+    /**
+     * get the name of the route, which is added or changed by this definition.
+     *
+     * @return route name
+     */
+    public String getName();
+
+    /**
+     * add the route to the registry or merge it into the already existing route with the same name.
+     *
+     * @param routes route registry
+     */
+    public void apply(RouteRegistry routes);
+
+}
@@ -2,12 +2,41 @@ package com.jukusoft.route.extractor.parser;
 
 import java.util.*;
 
+/**
+ * a HTTP method of a route with its parameters and default values.
+ *
+ * The model is kept small, because large applications have hundreds of thousands of route methods:
+ * parameters are shared immutable instances, default values are stored as flat array in insertion order
+ * and all names and values are interned. Methods with many parameters (e.q. generated CRUD routes) get a name index,
+ * so adding and looking up parameters and default values stays constant time.
+ */
 public class RouteMethod {
 
-    private Route.METHOD method = Route.METHOD.GET;
-    private String produces = "application/xml";
-    private List<Parameter> parameters = new ArrayList<>();
-    private Map<String,String> defaultValues = new HashMap<>();
+    private static final String PRODUCES = "application/xml";
+
+    private static final String[] NO_DEFAULT_VALUES = new String[0];
+
+    /**
+     * the name indices are only built for more entries, a linear search over a few entries is faster and needs no memory.
+     */
+    static final int INDEX_THRESHOLD = 8;
+
+    private final Route.METHOD method;
+
+    //most methods only have 1 or 2 parameters, so the list grows from 0 elements
+    private final List<Parameter> parameters = new ArrayList<>(0);
+
+    //position of every parameter by name or null, if the method has only a few parameters
+    private Map<String,Integer> parameterIndex = null;
+
+    //name and value of every default value, in insertion order: [name1, value1, name2, value2, ...]
+    private String[] defaultValues = NO_DEFAULT_VALUES;
+
+    //number of used array elements, 2 per default value
+    private int defaultValuesLength = 0;
+
+    //position of every default value in the array by name or null, if the method has only a few default values
+    private Map<String,Integer> defaultValueIndex = null;
 
     public RouteMethod(Route.METHOD method) {
         this.method = method;
@@ -18,42 +47,170 @@ public class RouteMethod {
     }
 
     public String getProduces() {
-        return produces;
+        return PRODUCES;
     }
 
+    /**
+     * get all parameters.
+     *
+     * @return read-only list of the parameters, in insertion order
+     */
     public List<Parameter> getParameters() {
-        return parameters;
+        return Collections.unmodifiableList(parameters);
     }
 
+    /**
+     * add a parameter or override the values of the parameter with the same name, the position of an overridden parameter is kept.
+     */
     public void addParameter(String name, Parameter.IN_TYPE in, boolean required, String type, String defaultStr) {
-        if (hasParameter(name)) {
-            //override values
-            Parameter parameter = parameters.stream().filter(param -> param.getName().equals(name)).findFirst().get();
-            parameter.setIn(in);
-            parameter.setRequired(required);
-            parameter.setType(type);
-            parameter.setDefaultStr(defaultStr);
+        Parameter parameter = Interner.intern(new Parameter(name, in, required, type, defaultStr));
+        int index = indexOfParameter(name);
 
+        if (index >= 0) {
+            //override values
+            parameters.set(index, parameter);
             return;
         }
 
-        parameters.add(new Parameter(name, in, required, type, defaultStr));
+        parameters.add(parameter);
+
+        if (parameterIndex != null) {
+            parameterIndex.put(parameter.getName(), parameters.size() - 1);
+        } else if (parameters.size() > INDEX_THRESHOLD) {
+            parameterIndex = new HashMap<>();
+
+            for (int i = 0; i < parameters.size(); i++) {
+                parameterIndex.put(parameters.get(i).getName(), i);
+            }
+        }
     }
 
     public boolean hasParameter(String name) {
-        return parameters.stream().anyMatch(param -> param.getName().equals(name));
+        return indexOfParameter(name) >= 0;
+    }
+
+    public Optional<Parameter> getParameter(String name) {
+        int index = indexOfParameter(name);
+        return index >= 0 ? Optional.of(parameters.get(index)) : Optional.empty();
     }
 
+    /**
+     * get all default values.
+     *
+     * @return read-only view of the default values, in insertion order
+     */
     public Map<String, String> getDefaultValues() {
-        return defaultValues;
+        return new DefaultValueMap(defaultValues, defaultValuesLength);
     }
 
     public void addDefaultValue(String paramName, String defaultValue) {
-        defaultValues.put(paramName, defaultValue);
+        int index = indexOfDefaultValue(paramName);
+
+        if (index < 0) {
+            index = defaultValuesLength;
+
+            if (index == defaultValues.length) {
+                //grow exactly for the first values and by 50% for larger methods, so adding stays amortized constant
+                defaultValues = Arrays.copyOf(defaultValues, index + Math.max(2, (index / 4) * 2));
+            }
+
+            defaultValues[index] = Interner.intern(paramName);
+            defaultValuesLength += 2;
+
+            if (defaultValueIndex != null) {
+                defaultValueIndex.put(defaultValues[index], index);
+            } else if (defaultValuesLength / 2 > INDEX_THRESHOLD) {
+                defaultValueIndex = new HashMap<>();
+
+                for (int i = 0; i < defaultValuesLength; i += 2) {
+                    defaultValueIndex.put(defaultValues[i], i);
+                }
+            }
+        }
+
+        defaultValues[index + 1] = Interner.intern(defaultValue);
     }
 
     public Optional<String> getDefaultValue(String param) {
-        return defaultValues.containsKey(param) ? Optional.of(defaultValues.get(param)) : Optional.empty();
+        int index = indexOfDefaultValue(param);
+        return index >= 0 ? Optional.ofNullable(defaultValues[index + 1]) : Optional.empty();
+    }
+
+    private int indexOfParameter(String name) {
+        if (parameterIndex != null) {
+            return parameterIndex.getOrDefault(name, -1);
+        }
+
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int indexOfDefaultValue(String paramName) {
+        if (defaultValueIndex != null) {
+            return defaultValueIndex.getOrDefault(paramName, -1);
+        }
+
+        for (int i = 0; i < defaultValuesLength; i += 2) {
+            if (defaultValues[i].equals(paramName)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * read-only map view of the flat default value array.
+     */
+    private static class DefaultValueMap extends AbstractMap<String,String> {
+
+        private final String[] values;
+
+        private final int length;
+
+        DefaultValueMap(String[] values, int length) {
+            this.values = values;
+            this.length = length;
+        }
+
+        @Override
+        public Set<Entry<String,String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String,String>> iterator() {
+                    return new Iterator<>() {
+                        private int index = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return index < length;
+                        }
+
+                        @Override
+                        public Entry<String,String> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            Entry<String,String> entry = new SimpleImmutableEntry<>(values[index], values[index + 1]);
+                            index += 2;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return length / 2;
+                }
+            };
+        }
+
     }
 
 }
@@ -0,0 +1,174 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.util.*;
+
+/**
+ * registry of all extracted routes, which is passed through all parsers.
+ *
+ * Routes are indexed by name, the grouping by url is done by {@link RouteTrie#getPathGroups()}. If a route is added, which name already exists,
+ * the HTTP methods and parameters are merged into the already existing route, so merging n routes costs O(n).
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteRegistry implements Iterable<Route> {
+
+    /**
+     * all routes by name, in insertion order.
+     */
+    private final Map<String,Route> routesByName = new LinkedHashMap<>();
+
+    /**
+     * default constructor
+     */
+    public RouteRegistry() {
+        //
+    }
+
+    /**
+     * constructor
+     *
+     * @param routes initial routes
+     */
+    public RouteRegistry(Collection<Route> routes) {
+        addAll(routes);
+    }
+
+    /**
+     * add a route. If a route with the same name already exists, the methods and parameters of the new route are merged into the existing route.
+     *
+     * @param route route to add
+     * @return the registered route, this is the existing route, if a route with the same name was already registered
+     */
+    public Route add(Route route) {
+        Objects.requireNonNull(route);
+
+        Route existingRoute = routesByName.get(route.getName());
+
+        if (existingRoute == null) {
+            routesByName.put(route.getName(), route);
+            return route;
+        }
+
+        if (existingRoute != route) {
+            merge(existingRoute, route);
+        }
+
+        return existingRoute;
+    }
+
+    /**
+     * add multiple routes, see {@link #add(Route)}.
+     *
+     * @param routes routes to add
+     */
+    public void addAll(Collection<Route> routes) {
+        for (Route route : routes) {
+            add(route);
+        }
+    }
+
+    /**
+     * merge the methods, parameters and requirements of a route into an existing route, the url of the existing route is kept.
+     *
+     * @param existingRoute existing route
+     * @param route route to merge
+     */
+    private static void merge(Route existingRoute, Route route) {
+        for (Map.Entry<String,String> requirement : route.getRequirements().entrySet()) {
+            existingRoute.addRequirement(requirement.getKey(), requirement.getValue());
+        }
+
+        for (Map.Entry<Route.METHOD,RouteMethod> entry : route.getMethods().entrySet()) {
+            RouteMethod existingMethod = existingRoute.getMethods().get(entry.getKey());
+
+            if (existingMethod == null) {
+                existingRoute.addRouteMethod(entry.getKey(), entry.getValue());
+                continue;
+            }
+
+            RouteMethod routeMethod = entry.getValue();
+
+            for (Map.Entry<String,String> defaultValue : routeMethod.getDefaultValues().entrySet()) {
+                existingMethod.addDefaultValue(defaultValue.getKey(), defaultValue.getValue());
+            }
+
+            //parameters of the merged route override existing parameters with the same name
+            for (Parameter parameter : routeMethod.getParameters()) {
+                existingMethod.addParameter(parameter.getName(), parameter.getInType(), parameter.getRequired(), parameter.getType(), parameter.getDefaultStr());
+            }
+        }
+    }
+
+    /**
+     * remove a route.
+     *
+     * @param name route name
+     * @return removed route or empty optional, if no route with this name exists
+     */
+    public Optional<Route> remove(String name) {
+        return Optional.ofNullable(routesByName.remove(name));
+    }
+
+    /**
+     * get a route by name.
+     *
+     * @param name route name
+     * @return route or empty optional, if no route with this name exists
+     */
+    public Optional<Route> getByName(String name) {
+        return Optional.ofNullable(routesByName.get(name));
+    }
+
+    /**
+     * check, if a route with this name exists.
+     *
+     * @param name route name
+     * @return true, if the route exists
+     */
+    public boolean contains(String name) {
+        return routesByName.containsKey(name);
+    }
+
+    /**
+     * get a snapshot of all routes.
+     *
+     * @return list with all routes, in insertion order
+     */
+    public List<Route> getRoutes() {
+        return new ArrayList<>(routesByName.values());
+    }
+
+    /**
+     * get the number of routes.
+     *
+     * @return number of routes
+     */
+    public int size() {
+        return routesByName.size();
+    }
+
+    public boolean isEmpty() {
+        return routesByName.isEmpty();
+    }
+
+    /**
+     * count the HTTP methods of all routes.
+     *
+     * @return number of route methods
+     */
+    public long countMethods() {
+        long count = 0;
+
+        for (Route route : routesByName.values()) {
+            count += route.getMethods().size();
+        }
+
+        return count;
+    }
+
+    @Override
+    public Iterator<Route> iterator() {
+        return Collections.unmodifiableCollection(routesByName.values()).iterator();
+    }
+
+}
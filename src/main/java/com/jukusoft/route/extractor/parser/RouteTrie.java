@@ -0,0 +1,491 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * a segment trie over the urls of all routes, which detects routes that cannot be matched or fuzzed reliably.
+ *
+ * Every url segment is an edge: static segments like "user" are exact edges, segments with path variables like "{id}"
+ * or "{id}.{_format}" are pattern edges, which are keyed by the requirement regex of their variables (inline requirements
+ * like "{page<\d+>}" or the requirements of the route). So "/user/{id}" and "/user/{slug}" end in the same node, but
+ * "/user/{id}" with the requirement "\d+" doesn't.
+ *
+ * While a route is added, the trie reports
+ * <ul>
+ *     <li>duplicates: an earlier route with the same url and a common HTTP method,</li>
+ *     <li>conflicts: an earlier route with the same path structure, but other variable names,</li>
+ *     <li>shadowing: an earlier route with a common HTTP method matches every url of the new route, e.q. "/user/{id}" shadows a later "/user/new".</li>
+ * </ul>
+ * The work per route is linear in its path length times the number of pattern edges of the visited nodes, which is small for real applications.
+ * The trie also groups the routes by url for the generators, in the order of the routes.
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteTrie {
+
+    /**
+     * requirement of path variables without explicit requirement, like symfony a variable matches one segment.
+     */
+    static final String DEFAULT_REQUIREMENT = "[^/]+";
+
+    /**
+     * requirements, which were already checked, the same few requirements are used by most routes.
+     */
+    private static final Map<String,Boolean> SUPPORTED_REGEX = new ConcurrentHashMap<>();
+
+    private final Node root = new Node(null);
+
+    /**
+     * all routes grouped by url, in insertion order.
+     */
+    private final Map<String,List<Route>> pathGroups = new LinkedHashMap<>();
+
+    private final List<Conflict> conflicts = new ArrayList<>();
+
+    /**
+     * compiled patterns by regex, most pattern edges have the same few requirements.
+     */
+    private final Map<String,Pattern> patterns = new HashMap<>();
+
+    /**
+     * default constructor
+     */
+    public RouteTrie() {
+        //
+    }
+
+    /**
+     * constructor
+     *
+     * @param routes routes in the order of their definition, earlier routes are matched first
+     */
+    public RouteTrie(Collection<Route> routes) {
+        for (Route route : routes) {
+            add(route);
+        }
+    }
+
+    /**
+     * add a route and report its duplicates, conflicts and the earlier routes, which shadow it.
+     *
+     * @param route route, which is defined after all already added routes
+     */
+    public void add(Route route) {
+        Objects.requireNonNull(route);
+
+        List<Segment> segments = parseSegments(route);
+
+        //shadowing routes are searched before the route is added, because only earlier routes can shadow it
+        findShadowingRoute(root, segments, 0, false, route);
+
+        Node node = root;
+
+        for (Segment segment : segments) {
+            node = node.getOrCreateChild(segment, patterns);
+        }
+
+        Route duplicate = null;
+        Route conflicting = null;
+        boolean knownUrl = false;
+
+        for (Route existingRoute : node.getRoutes()) {
+            if (existingRoute.getUrl().equals(route.getUrl())) {
+                knownUrl = true;
+
+                if (duplicate == null && hasCommonMethod(existingRoute, route)) {
+                    duplicate = existingRoute;
+                }
+            } else if (conflicting == null) {
+                conflicting = existingRoute;
+            }
+        }
+
+        if (duplicate != null) {
+            conflicts.add(new Conflict(Conflict.Type.DUPLICATE, route, duplicate));
+        }
+
+        //the conflict is only reported for the first route of every url
+        if (conflicting != null && !knownUrl) {
+            conflicts.add(new Conflict(Conflict.Type.CONFLICT, route, conflicting));
+        }
+
+        node.addRoute(route);
+        pathGroups.computeIfAbsent(route.getUrl(), url -> new ArrayList<>(1)).add(route);
+    }
+
+    /**
+     * get all routes grouped by url.
+     *
+     * @return map "URL - route-list", in the order of the routes
+     */
+    public Map<String,List<Route>> getPathGroups() {
+        return Collections.unmodifiableMap(pathGroups);
+    }
+
+    /**
+     * get all detected duplicates, conflicts and shadowed routes.
+     *
+     * @return conflicts in the order of the routes
+     */
+    public List<Conflict> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    /**
+     * walk all paths of the trie, which match every url of the route, and report the first earlier route at the end of such a path.
+     *
+     * @param node current node
+     * @param segments segments of the route
+     * @param index index of the current segment
+     * @param diverged true, if the path uses an edge, which is more general than the segment of the route
+     * @param route new route
+     * @return true, if a shadowing route was found
+     */
+    private boolean findShadowingRoute(Node node, List<Segment> segments, int index, boolean diverged, Route route) {
+        if (index == segments.size()) {
+            //the same path is a duplicate or conflict and not shadowing
+            if (!diverged) {
+                return false;
+            }
+
+            for (Route existingRoute : node.getRoutes()) {
+                if (hasCommonMethod(existingRoute, route)) {
+                    conflicts.add(new Conflict(Conflict.Type.SHADOWED, route, existingRoute));
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        Segment segment = segments.get(index);
+
+        if (segment.isStatic()) {
+            Node child = node.staticChildren != null ? node.staticChildren.get(segment.key()) : null;
+
+            if (child != null && findShadowingRoute(child, segments, index + 1, diverged, route)) {
+                return true;
+            }
+
+            //a static segment is matched by every pattern edge, which accepts its text
+            if (node.patternChildren != null) {
+                for (Node patternChild : node.patternChildren.values()) {
+                    if (patternChild.pattern.matcher(segment.key()).matches() && findShadowingRoute(patternChild, segments, index + 1, true, route)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        if (node.patternChildren == null) {
+            return false;
+        }
+
+        Node child = node.patternChildren.get(segment.key());
+
+        if (child != null && findShadowingRoute(child, segments, index + 1, diverged, route)) {
+            return true;
+        }
+
+        //a variable without requirement accepts every segment, other requirements cannot be compared
+        Node anyChild = node.patternChildren.get(Segment.ANY_KEY);
+        return anyChild != null && anyChild != child && findShadowingRoute(anyChild, segments, index + 1, true, route);
+    }
+
+    private static boolean hasCommonMethod(Route route1, Route route2) {
+        for (Route.METHOD method : route1.getMethods().keySet()) {
+            if (route2.getMethods().containsKey(method)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * split the url of a route into segments, e.q. "/user/{id}" into "user" and "{id}".
+     *
+     * @param route route
+     * @return segments
+     */
+    static List<Segment> parseSegments(Route route) {
+        String url = route.getUrl() != null ? route.getUrl() : "";
+        List<Segment> segments = new ArrayList<>();
+
+        int start = url.startsWith("/") ? 1 : 0;
+
+        if (start == url.length()) {
+            //root url
+            return segments;
+        }
+
+        while (true) {
+            int end = findSegmentEnd(url, start);
+            segments.add(parseSegment(url.substring(start, end), route.getRequirements()));
+
+            if (end == url.length()) {
+                return segments;
+            }
+
+            start = end + 1;
+        }
+    }
+
+    /**
+     * find the next "/", which isn't part of a path variable, e.q. of an inline requirement like "{path<.+/.+>}".
+     */
+    private static int findSegmentEnd(String url, int start) {
+        int depth = 0;
+
+        for (int i = start; i < url.length(); i++) {
+            char c = url.charAt(i);
+
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (c == '/' && depth == 0) {
+                return i;
+            }
+        }
+
+        return url.length();
+    }
+
+    /**
+     * parse a single segment, path variables have the symfony syntax "{name}", "{name<regex>}" or "{name<regex>?default}".
+     *
+     * @param text segment text
+     * @param requirements requirements of the route by variable name
+     * @return segment
+     */
+    static Segment parseSegment(String text, Map<String,String> requirements) {
+        if (text.indexOf('{') < 0) {
+            return new Segment(text, null, List.of());
+        }
+
+        StringBuilder key = new StringBuilder();
+        StringBuilder pattern = new StringBuilder();
+        int pos = 0;
+        List<Variable> variables = new ArrayList<>(1);
+
+        while (pos < text.length()) {
+            int open = text.indexOf('{', pos);
+
+            if (open < 0) {
+                appendStatic(key, pattern, text.substring(pos));
+                break;
+            }
+
+            int nameEnd = open + 1;
+
+            while (nameEnd < text.length() && "<?}".indexOf(text.charAt(nameEnd)) < 0) {
+                nameEnd++;
+            }
+
+            if (nameEnd == text.length()) {
+                //unterminated variable
+                appendStatic(key, pattern, text.substring(pos));
+                break;
+            }
+
+            String name = text.substring(open + 1, nameEnd).replace("!", "");
+            String regex = null;
+            int end = nameEnd;
+
+            if (text.charAt(nameEnd) == '<') {
+                //the inline requirement ends with ">}" or ">?", it may contain braces like "\d{4}"
+                int regexEnd = nameEnd + 1;
+
+                while (regexEnd + 1 < text.length() && !(text.charAt(regexEnd) == '>' && "}?".indexOf(text.charAt(regexEnd + 1)) >= 0)) {
+                    regexEnd++;
+                }
+
+                regex = text.substring(nameEnd + 1, Math.min(regexEnd, text.length()));
+                end = regexEnd + 1;
+            }
+
+            int close = text.indexOf('}', end);
+
+            if (close < 0) {
+                appendStatic(key, pattern, text.substring(pos));
+                break;
+            }
+
+            if (regex == null) {
+                regex = requirements.getOrDefault(name, DEFAULT_REQUIREMENT);
+            }
+
+            if (!isSupportedRegex(regex)) {
+                //requirements are php regular expressions, an unsupported requirement accepts every segment
+                regex = DEFAULT_REQUIREMENT;
+            }
+
+            //inline default value, e.q. "{page?1}"
+            String defaultValue = text.charAt(end) == '?' ? text.substring(end + 1, close) : null;
+
+            appendStatic(key, pattern, text.substring(pos, open));
+            key.append('{').append(regex).append('}');
+
+            //every variable is a named group, because the requirement may contain groups itself
+            pattern.append("(?<v").append(variables.size()).append('>').append(regex).append(')');
+            variables.add(new Variable(name, regex, defaultValue));
+            pos = close + 1;
+        }
+
+        return new Segment(key.toString(), !variables.isEmpty() ? pattern.toString() : null, variables);
+    }
+
+    private static void appendStatic(StringBuilder key, StringBuilder pattern, String text) {
+        if (!text.isEmpty()) {
+            key.append(text);
+            pattern.append(Pattern.quote(text));
+        }
+    }
+
+    /**
+     * check, if a requirement can be compiled by java.
+     */
+    private static boolean isSupportedRegex(String regex) {
+        return SUPPORTED_REGEX.computeIfAbsent(regex, key -> {
+            try {
+                Pattern.compile(key);
+                return true;
+            } catch (PatternSyntaxException e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * a segment of an url.
+     *
+     * @param key text of a static segment or the segment with the requirements instead of the variable names, e.q. "{\d+}.json"
+     * @param regex regular expression, which matches the segment, or null for static segments. The value of the n-th variable is the group "v" + n.
+     * @param variables path variables of the segment
+     */
+    record Segment(String key, String regex, List<Variable> variables) {
+
+        /**
+         * key of a segment, which only consists of a variable without requirement.
+         */
+        static final String ANY_KEY = "{" + DEFAULT_REQUIREMENT + "}";
+
+        boolean isStatic() {
+            return regex == null;
+        }
+
+    }
+
+    /**
+     * a path variable of a segment.
+     *
+     * @param name variable name
+     * @param regex requirement of the variable
+     * @param defaultValue inline default value or null
+     */
+    record Variable(String name, String regex, String defaultValue) {
+    }
+
+    /**
+     * a node of the trie.
+     */
+    private static class Node {
+
+        //exact edges, created on demand
+        private Map<String,Node> staticChildren = null;
+
+        //pattern edges by segment key, in insertion order
+        private Map<String,Node> patternChildren = null;
+
+        //pattern of the edge to this node, null for static edges
+        private final Pattern pattern;
+
+        //routes, which end in this node, in insertion order
+        private List<Route> routes = null;
+
+        Node(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        Node getOrCreateChild(Segment segment, Map<String,Pattern> patterns) {
+            if (segment.isStatic()) {
+                if (staticChildren == null) {
+                    staticChildren = new HashMap<>();
+                }
+
+                return staticChildren.computeIfAbsent(segment.key(), key -> new Node(null));
+            }
+
+            if (patternChildren == null) {
+                patternChildren = new LinkedHashMap<>();
+            }
+
+            return patternChildren.computeIfAbsent(segment.key(), key -> new Node(patterns.computeIfAbsent(segment.regex(), Pattern::compile)));
+        }
+
+        List<Route> getRoutes() {
+            return routes != null ? routes : Collections.emptyList();
+        }
+
+        void addRoute(Route route) {
+            if (routes == null) {
+                routes = new ArrayList<>(1);
+            }
+
+            routes.add(route);
+        }
+
+    }
+
+    /**
+     * a problem between two routes.
+     *
+     * @param type type of the problem
+     * @param route the later route
+     * @param otherRoute the earlier route
+     */
+    public record Conflict(Type type, Route route, Route otherRoute) {
+
+        public enum Type {
+            /**
+             * same url and a common HTTP method, only one of the routes is matched.
+             */
+            DUPLICATE,
+
+            /**
+             * same path structure with other variable names, e.q. "/user/{id}" and "/user/{slug}".
+             */
+            CONFLICT,
+
+            /**
+             * the earlier route matches every url of the later route.
+             */
+            SHADOWED
+        }
+
+        /**
+         * get a human-readable description of the problem.
+         *
+         * @return message
+         */
+        public String getMessage() {
+            return switch (type) {
+                case DUPLICATE -> "duplicate path: route " + describe(route) + " has the same url and HTTP methods as route " + describe(otherRoute);
+                case CONFLICT -> "conflicting paths: route " + describe(route) + " has the same path structure as route " + describe(otherRoute);
+                case SHADOWED -> "shadowed route: route " + describe(route) + " is never matched, because route " + describe(otherRoute) + " is defined before";
+            };
+        }
+
+        private static String describe(Route route) {
+            return route.getName() + " (" + route.getUrl() + " " + route.getMethods().keySet() + ")";
+        }
+
+    }
+
+}
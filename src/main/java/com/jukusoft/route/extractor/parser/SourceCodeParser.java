@@ -1,50 +1,126 @@
 package com.jukusoft.route.extractor.parser;
 
-import org.json.JSONObject;
+import com.jukusoft.route.extractor.cache.RouteCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
-import java.util.function.Function;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
 
 /**
  * utility class to parse source code
  */
 public class SourceCodeParser implements Parser {
 
-    //see also: https://stackoverflow.com/questions/18864509/how-to-java-regex-to-match-everything-but-specified-pattern
-    // ^ means "except" (in braces)
     private static final Logger logger = LoggerFactory.getLogger(SourceCodeParser.class);
-    private static final Pattern pattern = Pattern.compile("@Route\\(([^\\)]*)\\)", Pattern.MULTILINE | Pattern.DOTALL);//"(?:filter=\\*\\*)(.*?)(?:&)"
-    //@Route\([^\)]*\), old: @Route((.*\))), https://www.freeformatter.com/java-regex-tester.html#ad-output
-    //3. version: @Route\(([^\)]*)\) - with braces it matches the content as group
 
     /**
-     * private constructor, because this class is a utility class
+     * number of threads which are used to scan the source directory.
+     */
+    private final int threads;
+
+    /**
+     * extraction cache or null, if the cache is disabled.
+     */
+    private final RouteCache cache;
+
+    /**
+     * changed files since the last run or null, if the whole source directory should be scanned.
+     */
+    private final Collection<Path> changedFiles;
+
+    /**
+     * reader with the pre-filter for source files, which counts the skipped and decoded files.
+     */
+    private final SourceFileReader fileReader = new SourceFileReader();
+
+    /**
+     * default constructor, scans the source directory sequentially without cache
      */
     public SourceCodeParser() {
-        //
+        this(1, null);
     }
 
     /**
-     * parse source code directory.
+     * constructor
+     *
+     * @param threads number of threads which are used to scan the source directory
+     * @param cache extraction cache or null, if every file should be parsed
+     */
+    public SourceCodeParser(int threads, RouteCache cache) {
+        this(threads, cache, null);
+    }
+
+    /**
+     * constructor
+     *
+     * @param threads number of threads which are used to scan the source directory
+     * @param cache extraction cache or null, if every file should be parsed
+     * @param changedFiles changed files since the last run (e.q. the output of "git diff --name-only --no-renames") or null, if the whole source directory should be scanned
+     */
+    public SourceCodeParser(int threads, RouteCache cache, Collection<Path> changedFiles) {
+        this.threads = threads;
+        this.cache = cache;
+        this.changedFiles = changedFiles;
+    }
+
+    /**
+     * parse source code directory sequentially.
      *
      * @param srcDir source code directory
      * @return list with extracted routes
      * @throws IOException if IOException occurs
      */
     public static List<Route> parseSourceCodeDir(File srcDir) throws IOException {
+        return parseSourceCodeDir(srcDir, 1);
+    }
+
+    /**
+     * parse source code directory.
+     *
+     * @param srcDir source code directory
+     * @param threads number of threads which are used to walk the directory and parse the files
+     * @return list with extracted routes, the order doesn't depend on the number of threads
+     * @throws IOException if IOException occurs
+     */
+    public static List<Route> parseSourceCodeDir(File srcDir, int threads) throws IOException {
+        return parseSourceCodeDir(srcDir, threads, null);
+    }
+
+    /**
+     * parse source code directory and only parse files, which have changed since the last run.
+     *
+     * @param srcDir source code directory
+     * @param threads number of threads which are used to walk the directory and parse the files
+     * @param cache extraction cache or null, if every file should be parsed. The cache file is updated afterwards.
+     * @return list with extracted routes, the order doesn't depend on the number of threads
+     * @throws IOException if IOException occurs
+     */
+    public static List<Route> parseSourceCodeDir(File srcDir, int threads, RouteCache cache) throws IOException {
+        return parseSourceCodeDir(srcDir, threads, cache, new SourceFileReader());
+    }
+
+    /**
+     * parse source code directory and only parse files, which have changed since the last run.
+     *
+     * @param srcDir source code directory
+     * @param threads number of threads which are used to walk the directory and parse the files
+     * @param cache extraction cache or null, if every file should be parsed. The cache file is updated afterwards.
+     * @param fileReader reader for the source files, which counts skipped and decoded files
+     * @return list with extracted routes, the order doesn't depend on the number of threads
+     * @throws IOException if IOException occurs
+     */
+    public static List<Route> parseSourceCodeDir(File srcDir, int threads, RouteCache cache, SourceFileReader fileReader) throws IOException {
         Objects.requireNonNull(srcDir);
+        Objects.requireNonNull(fileReader);
 
         if (!srcDir.exists() || !srcDir.isDirectory()) {
             throw new IllegalArgumentException("src directory does not exists or is not a directory: " + srcDir.getAbsolutePath());
@@ -52,18 +128,146 @@ public class SourceCodeParser implements Parser {
 
         logger.debug("parse source directory: {}", srcDir.getAbsolutePath());
 
-        List<Route> routes = Files.walk(Paths.get(srcDir.toURI()))
-                .filter(Files::isRegularFile)
-                .filter(file -> file.toFile().getAbsolutePath().endsWith(".php"))
-                .map(file -> parseSourceCodeFile(file))
-                .flatMap(list -> list.stream())
-                .collect(Collectors.toList());
+        List<Route> routes;
+
+        if (cache != null) {
+            routes = new SourceTreeScanner(threads).scan(Paths.get(srcDir.toURI()), (file, attributes) -> parseSourceCodeFile(file, attributes, cache, fileReader));
+
+            try {
+                cache.save();
+            } catch (IOException e) {
+                logger.warn("cannot save route cache: {}", cache.getCacheFile().toAbsolutePath(), e);
+            }
+        } else {
+            routes = new SourceTreeScanner(threads).scan(Paths.get(srcDir.toURI()), (file, attributes) -> parseSourceCodeFile(file, fileReader));
+        }
 
         logger.info("{} routes found in source code directory", routes.size());
+        logger.info("{} source files decoded, {} source files without routes skipped", fileReader.getDecodedFiles(), fileReader.getSkippedFiles());
 
         return routes;
     }
 
+    /**
+     * parse only the changed files of the source code directory, the routes of all other files are taken from the cache.
+     *
+     * The cache is the route model of the last run with the routes of every file, so the source tree isn't walked at all
+     * and the work is proportional to the number of changed files. Changed files, which don't exist anymore, are removed
+     * from the cache, so their routes are retracted. Renamed files have to be listed with the old and the new path
+     * (git diff --no-renames). Without cache entries the whole source directory is scanned.
+     *
+     * @param srcDir source code directory
+     * @param threads number of threads which are used for a full scan, if the cache is empty
+     * @param cache extraction cache of the last run or null. The cache file is updated afterwards.
+     * @param changedFiles changed files, relative paths are resolved against the working directory, the source directory or one of its parent directories
+     *                     (e.q. the repository root of "git diff"). Files outside the source directory are ignored.
+     * @param fileReader reader for the source files, which counts skipped and decoded files
+     * @return list with extracted routes, in the same order as a full scan
+     * @throws IOException if IOException occurs
+     */
+    public static List<Route> parseChangedFiles(File srcDir, int threads, RouteCache cache, Collection<Path> changedFiles, SourceFileReader fileReader) throws IOException {
+        Objects.requireNonNull(srcDir);
+        Objects.requireNonNull(changedFiles);
+        Objects.requireNonNull(fileReader);
+
+        if (!srcDir.exists() || !srcDir.isDirectory()) {
+            throw new IllegalArgumentException("src directory does not exists or is not a directory: " + srcDir.getAbsolutePath());
+        }
+
+        if (cache == null || cache.size() == 0) {
+            logger.warn("no route cache of a previous run exists, scan the whole source directory: {}", srcDir.getAbsolutePath());
+            return parseSourceCodeDir(srcDir, threads, cache, fileReader);
+        }
+
+        Path rootDir = srcDir.toPath().toAbsolutePath().normalize();
+
+        Set<Path> cachedFiles = new HashSet<>(cache.getFiles());
+        Set<Path> changed = new HashSet<>();
+        int ignoredFiles = 0;
+
+        for (Path file : changedFiles) {
+            Path absoluteFile = resolveChangedFile(file, rootDir, cachedFiles);
+
+            if (absoluteFile != null) {
+                changed.add(absoluteFile);
+            } else {
+                logger.debug("ignore changed file, which doesn't match a file in the source directory: {}", file);
+                ignoredFiles++;
+            }
+        }
+
+        if (ignoredFiles > 0) {
+            logger.info("{} changed files don't match a file in the source directory {} and are ignored", ignoredFiles, rootDir);
+        }
+
+        //unchanged and changed files in the canonical order of a full scan
+        Set<Path> files = new TreeSet<>(SourceTreeScanner::compareCanonical);
+        files.addAll(changed);
+
+        for (Path file : cache.getFiles()) {
+            if (file.startsWith(rootDir)) {
+                files.add(file);
+            }
+        }
+
+        logger.info("{} changed files, {} files in route cache", changed.size(), files.size() - changed.size());
+
+        List<Route> routes = new ArrayList<>();
+
+        for (Path file : files) {
+            if (changed.contains(file)) {
+                routes.addAll(parseChangedFile(file, cache, fileReader));
+                continue;
+            }
+
+            Optional<List<Route>> cachedRoutes = cache.get(file);
+
+            if (cachedRoutes.isPresent()) {
+                routes.addAll(cachedRoutes.get());
+            } else {
+                //corrupt cache entry
+                routes.addAll(parseChangedFile(file, cache, fileReader));
+            }
+        }
+
+        try {
+            cache.save();
+        } catch (IOException e) {
+            logger.warn("cannot save route cache: {}", cache.getCacheFile().toAbsolutePath(), e);
+        }
+
+        logger.info("{} routes found in source code directory", routes.size());
+        logger.info("{} source files decoded, {} source files without routes skipped", fileReader.getDecodedFiles(), fileReader.getSkippedFiles());
+
+        return routes;
+    }
+
+    /**
+     * parse a changed file or remove it from the cache, if it was deleted or isn't a source file anymore.
+     */
+    private static List<Route> parseChangedFile(Path file, RouteCache cache, SourceFileReader fileReader) {
+        BasicFileAttributes attributes;
+
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            attributes = null;
+        } catch (IOException e) {
+            logger.warn("cannot read attributes of changed file: {}", file, e);
+            attributes = null;
+        }
+
+        if (attributes == null || !SourceTreeScanner.isSourceFile(file, attributes)) {
+            if (cache.remove(file)) {
+                logger.info("retract routes of removed file: {}", file);
+            }
+
+            return new ArrayList<>();
+        }
+
+        return parseSourceCodeFile(file, attributes, cache, fileReader);
+    }
+
     /**
      * parse a single source code file.
      *
@@ -71,163 +275,285 @@ public class SourceCodeParser implements Parser {
      * @return list with all routes extracted from source code file
      */
     public static List<Route> parseSourceCodeFile(Path path) {
-        Objects.requireNonNull(path);
+        return parseSourceCodeFile(path, new SourceFileReader());
+    }
 
-        List<Route> routes = new ArrayList<>();
+    /**
+     * parse a single source code file, the file is only decoded, if it contains route markers.
+     *
+     * @param path path to source code file
+     * @param fileReader reader for the source file
+     * @return list with all routes extracted from source code file
+     */
+    public static List<Route> parseSourceCodeFile(Path path, SourceFileReader fileReader) {
+        Objects.requireNonNull(path);
 
         logger.info("parse file: {}", path.toFile().getAbsolutePath());
 
         try {
-            String content = Files.readString(path, StandardCharsets.UTF_8);
-
-            //lite performance optimization
-            if (content.contains("@Route")) {
-                logger.debug("file contains @Route annotations: {}", path.toFile().getAbsolutePath());
-
-                final Matcher m = pattern.matcher(content);
-
-                String baseUrl = "";
-                int counter = 0;
-
-                int cnt = 0;
-                while (m.find()) {
-                    String line = m.group(0);
-                    //System.out.println(++cnt + ": G1: " + m.group(1));
-                    //System.err.println(line);
-
-                    String innerBracesContent = m.group(1).replace("(", "").replace(")", "").replace("\"", "");
-                    //logger.info("content: {}", innerBracesContent);
-
-                    String[] params = innerBracesContent.split(", ");
-
-                    String url = "";
-                    String name = "";
-
-                    // map with additional params, e.q. "requirements" or "defaults"
-                    Map<String,String> additionalParams = new HashMap<>();
-
-                    // iterate through all params in the braces (comma-seperated)
-                    for (String param : params) {
-                        String[] array = param.split("=");
-
-                        //is there only one "="?
-                        if (array.length == 1) {
-                            //its the url
-                            url = array[0];
-                            logger.debug("endpoint url found: {}", url);
-
-                            if (counter == 0) {
-                                //its the base url
-                                baseUrl = url;
-                            }
-                        } else {
-                            //join the second and all following values together
-                            String[] array1 = new String[array.length - 1];
-                            System.arraycopy(array, 1, array1, 0, array1.length);
-                            array[1] = String.join("=", array1);
-                            //logger.info("key-value found, key: {}, value: {}", array[0], array[1]);
-
-                            if (array[0].equals("name")) {
-                                name = array[1];
-                            } else {
-                                //add other parameter
-                                logger.info("other parameter found: {}, value: {}", array[0], array[1]);
-                                additionalParams.put(array[0], array[1]);
-                            }
-                        }
-                    }
+            String content = fileReader.readIfContainsRoutes(path);
 
-                    if (!name.isEmpty() && !url.equals(baseUrl)) {
-                        //remove the first "/" before the url, because base url already contains this (else we get something like "//")
-                        if (baseUrl.endsWith("/") && url.startsWith("/")) {
-                            url = url.substring(1);
-                        }
+            if (content != null) {
+                return parseSourceCode(path, content);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("ERROR - Cannot parse file: " + path.toFile().getAbsolutePath() + " because of exception: " + e.getLocalizedMessage());
+        }
 
-                        url = baseUrl + url;
-                        logger.debug("add entpoint url to list: {}", url);
+        return new ArrayList<>();
+    }
 
-                        Route route = new Route(url, name);
-                        RouteMethod method = new RouteMethod(Route.METHOD.GET);
-                        route.addRouteMethod(Route.METHOD.GET, method);
+    /**
+     * parse a single source code file, if it has changed since it was added to the cache.
+     *
+     * @param path path to source code file
+     * @param attributes file attributes
+     * @param cache extraction cache
+     * @param fileReader reader for the source file
+     * @return list with all routes extracted from source code file
+     */
+    public static List<Route> parseSourceCodeFile(Path path, BasicFileAttributes attributes, RouteCache cache, SourceFileReader fileReader) {
+        Objects.requireNonNull(path);
+
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().to(TimeUnit.MICROSECONDS);
 
-                        if (additionalParams.containsKey("defaults")) {
-                            String values = additionalParams.get("defaults");
+        Optional<List<Route>> cachedRoutes = cache.lookup(path, size, lastModified);
 
-                            //remove "{" and "}"
-                            values = values.replace("{", "").replace("}", "");
+        if (cachedRoutes.isPresent()) {
+            return cachedRoutes.get();
+        }
 
-                            for (String defaultPair : values.split(",")) {
-                                String[] array2 = defaultPair.split("=");
-                                String paramName = array2[0].trim();
-                                String defaultValue = array2[1].trim();
+        try {
+            ByteBuffer content = fileReader.read(path);
+            byte[] hash = RouteCache.hash(content);
 
-                                logger.debug("add default value, key: {}, value: {}", paramName, defaultValue);
-                                method.addDefaultValue(paramName, defaultValue);
-                            }
-                        }
+            //the file was touched, but maybe the content is the same
+            cachedRoutes = cache.lookupByHash(path, size, lastModified, hash);
 
-                        if (additionalParams.containsKey("requirements")) {
-                            String paramContent = additionalParams.get("requirements");
+            if (cachedRoutes.isPresent()) {
+                return cachedRoutes.get();
+            }
 
-                            // remove "*" from multiline comments
-                            paramContent = paramContent.replace("*", "");
+            logger.info("parse file: {}", path.toFile().getAbsolutePath());
 
-                            // make the ini string to a json string
-                            paramContent = paramContent.replace(" =", ":");
+            String source = fileReader.decodeIfContainsRoutes(content);
+            List<Route> routes = source != null ? parseSourceCode(path, source) : new ArrayList<>();
+            cache.put(path, size, lastModified, hash, routes);
 
-                            JSONObject json = new JSONObject(paramContent);
+            return routes;
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("ERROR - Cannot parse file: " + path.toFile().getAbsolutePath() + " because of exception: " + e.getLocalizedMessage());
+        }
 
-                            for (String key : json.keySet()) {
-                                logger.info("add required parameter: {}", key);
-                                method.addParameter(key, Parameter.IN_TYPE.PATH, true, "string", method.getDefaultValue(key).orElse(""));
-                            }
-                        }
+        return new ArrayList<>();
+    }
 
-                        //fix missing default parameters, which aren't required
-                        for (Map.Entry<String, String> entry : method.getDefaultValues().entrySet()) {
-                            String paramName = entry.getKey();
-                            String defaultValue = entry.getValue();
+    /**
+     * parse the content of a single source code file. The annotations of a class declaration are the prefix of all routes in the class body.
+     *
+     * @param path path to source code file
+     * @param content content of the source code file
+     * @return list with all routes extracted from source code
+     */
+    private static List<Route> parseSourceCode(Path path, String content) {
+        List<Route> routes = new ArrayList<>();
 
-                            //check, if parameter already exists in required parameters
-                            if (!method.hasParameter(paramName)) {
-                                //add parameter
-                                logger.info("add parameter with default name: {}", paramName);
+        logger.debug("file contains route markers: {}", path.toFile().getAbsolutePath());
 
-                                //NOTE: paramaters with default values are never required parameter (specified by specification)
-                                method.addParameter(paramName, Parameter.IN_TYPE.PATH, false, "string", defaultValue);
-                            }
-                        }
+        RouteAnnotationLexer lexer = new RouteAnnotationLexer(content);
+
+        //class-level annotations by class index
+        Map<Integer,RouteAnnotation> classAnnotations = new HashMap<>();
+        int counter = 0;
 
-                        routes.add(route);
-                    } else {
-                        logger.warn("endpoint without name: {}", url);
+        RouteAnnotation annotation;
+
+        while ((annotation = lexer.next()) != null) {
+            counter++;
+
+            if (annotation.isClassLevel()) {
+                //like symfony, only the first annotation of a class is used as prefix
+                logger.debug("class prefix found: {}", annotation.getPath());
+                classAnnotations.putIfAbsent(annotation.getClassIndex(), annotation);
+                continue;
+            }
+
+            RouteAnnotation classAnnotation = classAnnotations.get(annotation.getClassIndex());
+            String baseUrl = classAnnotation != null && classAnnotation.getPath() != null ? classAnnotation.getPath() : "";
+            String namePrefix = classAnnotation != null && classAnnotation.getName() != null ? classAnnotation.getName() : "";
+
+            String url = annotation.getPath() != null ? annotation.getPath() : "";
+            String name = annotation.getName() != null ? annotation.getName() : "";
+            logger.debug("endpoint url found: {}", url);
+
+            if (name.isEmpty()) {
+                logger.warn("endpoint without name: {}", url);
+                continue;
+            }
+
+            //remove the first "/" before the url, because base url already contains this (else we get something like "//")
+            if (baseUrl.endsWith("/") && url.startsWith("/")) {
+                url = url.substring(1);
+            }
+
+            url = baseUrl + url;
+            logger.debug("add entpoint url to list: {}", url);
+
+            List<Route.METHOD> methods = getMethods(classAnnotation, annotation);
+
+            if (methods.isEmpty()) {
+                logger.warn("endpoint without supported HTTP methods: {}, methods: {}", url, annotation.getMethods());
+                continue;
+            }
+
+            Route route = new Route(url, namePrefix + name);
+
+            //the values of the class annotation are overridden by the values of the method annotation
+            List<RouteAnnotation> annotations = classAnnotation != null ? List.of(classAnnotation, annotation) : List.of(annotation);
+
+            for (RouteAnnotation source : annotations) {
+                for (Map.Entry<String, String> entry : source.getRequirements().entrySet()) {
+                    route.addRequirement(entry.getKey(), entry.getValue());
+                }
+            }
+
+            for (Route.METHOD httpMethod : methods) {
+                RouteMethod method = new RouteMethod(httpMethod);
+                route.addRouteMethod(httpMethod, method);
+
+                for (RouteAnnotation source : annotations) {
+                    for (Map.Entry<String, String> entry : source.getDefaults().entrySet()) {
+                        logger.debug("add default value, key: {}, value: {}", entry.getKey(), entry.getValue());
+                        method.addDefaultValue(entry.getKey(), entry.getValue());
                     }
+                }
 
-                    counter++;
+                for (RouteAnnotation source : annotations) {
+                    for (String key : source.getRequirements().keySet()) {
+                        if (!method.hasParameter(key)) {
+                            logger.info("add required parameter: {}", key);
+                            method.addParameter(key, Parameter.IN_TYPE.PATH, true, "string", method.getDefaultValue(key).orElse(""));
+                        }
+                    }
                 }
 
-                logger.debug("found {} occurrences of @Route annotations in this file", cnt);
+                //fix missing default parameters, which aren't required
+                for (Map.Entry<String, String> entry : method.getDefaultValues().entrySet()) {
+                    String paramName = entry.getKey();
+                    String defaultValue = entry.getValue();
+
+                    //check, if parameter already exists in required parameters
+                    if (!method.hasParameter(paramName)) {
+                        //add parameter
+                        logger.info("add parameter with default name: {}", paramName);
+
+                        //NOTE: paramaters with default values are never required parameter (specified by specification)
+                        method.addParameter(paramName, Parameter.IN_TYPE.PATH, false, "string", defaultValue);
+                    }
+                }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
-            System.err.println("ERROR - Cannot parse file: " + path.toFile().getAbsolutePath() + " because of exception: " + e.getLocalizedMessage());
+
+            routes.add(route);
         }
 
+        logger.debug("found {} occurrences of @Route annotations in this file", counter);
+
         return routes;
     }
 
+    /**
+     * resolve a changed file. Relative paths are tried against the working directory, the source directory and its parent directories,
+     * so the output of "git diff --name-only" matches, regardless of the directory, in which the extractor runs.
+     * A file, which neither exists nor is cached, doesn't change the routes, so it's ignored.
+     *
+     * @param file changed file
+     * @param rootDir absolute and normalized source directory
+     * @param cachedFiles all files of the cache, to find deleted files
+     * @return absolute and normalized path or null, if no existing or cached file inside the source directory matches
+     */
+    static Path resolveChangedFile(Path file, Path rootDir, Set<Path> cachedFiles) {
+        List<Path> candidates = new ArrayList<>();
+        candidates.add(file.toAbsolutePath().normalize());
+
+        if (!file.isAbsolute()) {
+            for (Path dir = rootDir; dir != null; dir = dir.getParent()) {
+                candidates.add(dir.resolve(file).normalize());
+            }
+        }
+
+        for (Path candidate : candidates) {
+            if (candidate.startsWith(rootDir) && (Files.exists(candidate) || cachedFiles.contains(candidate))) {
+                return candidate;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * get the HTTP methods of a route, the methods of the class annotation are merged with the methods of the method annotation.
+     *
+     * @param classAnnotation annotation of the class or null
+     * @param annotation annotation of the method
+     * @return supported HTTP methods, GET if the annotations don't restrict the methods
+     */
+    private static List<Route.METHOD> getMethods(RouteAnnotation classAnnotation, RouteAnnotation annotation) {
+        List<String> declaredMethods = new ArrayList<>();
+
+        if (classAnnotation != null) {
+            declaredMethods.addAll(classAnnotation.getMethods());
+        }
+
+        declaredMethods.addAll(annotation.getMethods());
+
+        if (declaredMethods.isEmpty()) {
+            return List.of(Route.METHOD.GET);
+        }
+
+        Set<Route.METHOD> methods = EnumSet.noneOf(Route.METHOD.class);
+
+        for (String declaredMethod : declaredMethods) {
+            //class constants like Request::METHOD_POST
+            int constant = declaredMethod.lastIndexOf("METHOD_");
+            String method = constant >= 0 ? declaredMethod.substring(constant + "METHOD_".length()) : declaredMethod;
+
+            try {
+                //symfony accepts the methods case-insensitive, e.q. methods: ["get"]
+                methods.add(Route.METHOD.valueOf(method.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                logger.debug("ignore unsupported HTTP method: {}", declaredMethod);
+            }
+        }
+
+        return new ArrayList<>(methods);
+    }
+
+    /**
+     * get the reader for the source files, e.q. to get the number of skipped and decoded files.
+     *
+     * @return source file reader
+     */
+    public SourceFileReader getFileReader() {
+        return fileReader;
+    }
+
     @Override
     public String getParameter() {
         return "src";
     }
 
     @Override
-    public List<Route> parse(File srcFile, List<Route> routes) throws IOException {
-        if (!routes.isEmpty()) {
-            throw new IllegalStateException("this parser has to be the first one in the pipeline");
+    public RouteRegistry parse(File srcFile, RouteRegistry routes) throws IOException {
+        if (changedFiles != null) {
+            routes.addAll(SourceCodeParser.parseChangedFiles(srcFile, threads, cache, changedFiles, fileReader));
+        } else {
+            routes.addAll(SourceCodeParser.parseSourceCodeDir(srcFile, threads, cache, fileReader));
         }
 
-        return SourceCodeParser.parseSourceCodeDir(srcFile);
+        return routes;
     }
 
 }
@@ -0,0 +1,190 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * reads source files into pooled byte buffers and only decodes files, which contain route markers.
+ *
+ * Most files of a source tree don't contain any routes, so the raw bytes are searched for "@Route" and "#[Route"
+ * before the file is decoded. Every thread reuses its own buffer, files larger than {@link #MAX_POOLED_BUFFER_SIZE}
+ * are memory-mapped instead. This class is thread-safe.
+ *
+ * @author Justin Kuenzel
+ */
+public class SourceFileReader {
+
+    /**
+     * initial size of a pooled buffer.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * files which are larger are memory-mapped, so the pooled buffers don't grow too much.
+     */
+    public static final int MAX_POOLED_BUFFER_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * the marker bytes behind "@" (docblock annotation) or "#[" (php 8 attribute).
+     */
+    private static final byte[] MARKER = "Route".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * pooled buffer of every worker thread.
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFER_POOL = ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+
+    private final AtomicLong skippedFiles = new AtomicLong(0);
+    private final AtomicLong decodedFiles = new AtomicLong(0);
+
+    /**
+     * read a file and decode it, if it contains route markers.
+     *
+     * @param path path to source file
+     * @return decoded file content or null, if the file doesn't contain any routes
+     * @throws IOException if the file cannot be read
+     */
+    public String readIfContainsRoutes(Path path) throws IOException {
+        return decodeIfContainsRoutes(read(path));
+    }
+
+    /**
+     * read the raw bytes of a file. The returned buffer is owned by the calling thread
+     * and only valid until the next call of this method in the same thread.
+     *
+     * @param path path to source file
+     * @return buffer, positioned at the first byte of the file
+     * @throws IOException if the file cannot be read
+     */
+    public ByteBuffer read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size > MAX_POOLED_BUFFER_SIZE) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            ByteBuffer buffer = BUFFER_POOL.get();
+
+            if (buffer.capacity() < size) {
+                buffer = ByteBuffer.allocate(Math.min(MAX_POOLED_BUFFER_SIZE, Integer.highestOneBit((int) size) << 1));
+                BUFFER_POOL.set(buffer);
+            }
+
+            buffer.clear();
+
+            //the file can change while reading it, so read until the buffer is full or the end of the file is reached
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                //
+            }
+
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    /**
+     * decode the file content, if it contains route markers, and count skipped and decoded files.
+     *
+     * @param content raw file content, see {@link #read(Path)}
+     * @return decoded content or null, if the content doesn't contain any routes
+     */
+    public String decodeIfContainsRoutes(ByteBuffer content) {
+        if (!containsRouteMarker(content)) {
+            skippedFiles.incrementAndGet();
+            return null;
+        }
+
+        decodedFiles.incrementAndGet();
+
+        if (content.hasArray()) {
+            return new String(content.array(), content.arrayOffset() + content.position(), content.remaining(), StandardCharsets.UTF_8);
+        }
+
+        return StandardCharsets.UTF_8.decode(content.duplicate()).toString();
+    }
+
+    /**
+     * search the raw bytes for "@Route" or "#[Route", the buffer position isn't changed.
+     *
+     * @param content raw file content
+     * @return true, if the content contains a route marker
+     */
+    public static boolean containsRouteMarker(ByteBuffer content) {
+        //last possible position of the "@" or "[" before the marker
+        int end = content.limit() - MARKER.length - 1;
+
+        if (content.hasArray()) {
+            byte[] array = content.array();
+            int offset = content.arrayOffset();
+
+            for (int i = content.position() + offset; i <= end + offset; i++) {
+                byte b = array[i];
+
+                if (b == '@' || (b == '[' && i > offset && array[i - 1] == '#')) {
+                    if (matchesMarker(array, i + 1)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        for (int i = content.position(); i <= end; i++) {
+            byte b = content.get(i);
+
+            if (b == '@' || (b == '[' && i > 0 && content.get(i - 1) == '#')) {
+                if (matchesMarker(content, i + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean matchesMarker(byte[] array, int start) {
+        for (int j = 0; j < MARKER.length; j++) {
+            if (array[start + j] != MARKER[j]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean matchesMarker(ByteBuffer content, int start) {
+        for (int j = 0; j < MARKER.length; j++) {
+            if (content.get(start + j) != MARKER[j]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * get the number of files, which was skipped by the pre-filter.
+     *
+     * @return number of skipped files
+     */
+    public long getSkippedFiles() {
+        return skippedFiles.get();
+    }
+
+    /**
+     * get the number of files, which contained route markers and was decoded.
+     *
+     * @return number of decoded files
+     */
+    public long getDecodedFiles() {
+        return decodedFiles.get();
+    }
+
+}
@@ -0,0 +1,280 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * scan engine which walks a source tree and parses all php files, optionally spread across a fork-join pool.
+ *
+ * The files are always collected in the same canonical order (depth-first, entries sorted by name),
+ * so the merged result is identical for every number of threads. In parallel mode the largest files are scheduled first.
+ *
+ * @author Justin Kuenzel
+ */
+public class SourceTreeScanner {
+
+    /**
+     * the class logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SourceTreeScanner.class);
+
+    /**
+     * file extension of the source files to parse.
+     */
+    private static final String FILE_EXTENSION = ".php";
+
+    /**
+     * number of threads, 1 means sequential scan in the calling thread.
+     */
+    private final int threads;
+
+    /**
+     * constructor
+     *
+     * @param threads number of worker threads, 1 means sequential scan in the calling thread
+     */
+    public SourceTreeScanner(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("number of threads has to be greater than 0, current value: " + threads);
+        }
+
+        this.threads = threads;
+    }
+
+    /**
+     * walk the source tree and parse all source files.
+     *
+     * @param rootDir root directory of the source tree
+     * @param fileParser function which parses a single source file
+     * @return list with all parsed routes, in canonical file order
+     * @throws IOException if the directory tree cannot be read
+     */
+    public List<Route> scan(Path rootDir, SourceFileParser fileParser) throws IOException {
+        Objects.requireNonNull(rootDir);
+        Objects.requireNonNull(fileParser);
+
+        if (threads == 1) {
+            List<SourceFile> files = new ArrayList<>();
+            walkSequential(rootDir, files);
+
+            List<Route> routes = new ArrayList<>();
+
+            for (SourceFile file : files) {
+                routes.addAll(fileParser.parse(file.path(), file.attributes()));
+            }
+
+            return routes;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try {
+            List<SourceFile> files = new ArrayList<>();
+
+            //assign the canonical indices, the scan tasks don't know their global position
+            for (SourceFile file : pool.invoke(new DirectoryScanTask(rootDir))) {
+                files.add(new SourceFile(file.path(), file.attributes(), files.size()));
+            }
+
+            LOGGER.debug("{} source files found, parse them with {} threads", files.size(), threads);
+
+            //schedule the largest files first, so that no huge file is started at the end of the scan
+            List<SourceFile> schedule = new ArrayList<>(files);
+            schedule.sort(Comparator.comparingLong((SourceFile file) -> file.attributes().size()).reversed());
+
+            List<ForkJoinTask<List<Route>>> tasks = new ArrayList<>(files.size());
+
+            for (int i = 0; i < files.size(); i++) {
+                tasks.add(null);
+            }
+
+            for (SourceFile file : schedule) {
+                tasks.set(file.index(), pool.submit(() -> fileParser.parse(file.path(), file.attributes())));
+            }
+
+            //merge the results in canonical order, so the output doesn't depend on the scheduling
+            List<Route> routes = new ArrayList<>();
+
+            for (ForkJoinTask<List<Route>> task : tasks) {
+                routes.addAll(task.join());
+            }
+
+            return routes;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * walk the directory tree in the calling thread.
+     *
+     * @param dir current directory
+     * @param files list where found source files are added
+     * @throws IOException if the directory cannot be read
+     */
+    private static void walkSequential(Path dir, List<SourceFile> files) throws IOException {
+        for (Path entry : listSorted(dir)) {
+            BasicFileAttributes attributes = readAttributes(entry);
+
+            if (attributes.isDirectory()) {
+                walkSequential(entry, files);
+            } else if (isSourceFile(entry, attributes)) {
+                files.add(new SourceFile(entry, attributes, files.size()));
+            }
+        }
+    }
+
+    /**
+     * list all entries of a directory, sorted by name.
+     *
+     * @param dir directory
+     * @return sorted directory entries
+     * @throws IOException if the directory cannot be read
+     */
+    private static List<Path> listSorted(Path dir) throws IOException {
+        List<Path> entries = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+            }
+        }
+
+        entries.sort(Comparator.comparing(entry -> entry.getFileName().toString()));
+        return entries;
+    }
+
+    /**
+     * read the attributes of a directory entry, like {@link Files#walk(Path, java.nio.file.FileVisitOption...)} symbolic links to directories are not followed.
+     *
+     * @param entry directory entry
+     * @return file attributes
+     * @throws IOException if the attributes cannot be read
+     */
+    private static BasicFileAttributes readAttributes(Path entry) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+        if (attributes.isSymbolicLink() && !Files.isDirectory(entry)) {
+            //linked files are parsed like the original file
+            return Files.readAttributes(entry, BasicFileAttributes.class);
+        }
+
+        return attributes;
+    }
+
+    static boolean isSourceFile(Path file, BasicFileAttributes attributes) {
+        return attributes.isRegularFile() && file.getFileName().toString().endsWith(FILE_EXTENSION);
+    }
+
+    /**
+     * compare paths name by name, this is the depth-first order of the scan with directory entries sorted by name.
+     *
+     * @param path1 first path
+     * @param path2 second path
+     * @return comparison result, like {@link Comparator#compare(Object, Object)}
+     */
+    public static int compareCanonical(Path path1, Path path2) {
+        int count = Math.min(path1.getNameCount(), path2.getNameCount());
+
+        for (int i = 0; i < count; i++) {
+            int result = path1.getName(i).toString().compareTo(path2.getName(i).toString());
+
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        return Integer.compare(path1.getNameCount(), path2.getNameCount());
+    }
+
+    /**
+     * a source file found while walking the tree.
+     *
+     * @param path path to the file
+     * @param attributes file attributes, read while walking the tree
+     * @param index position of the file in canonical order
+     */
+    private record SourceFile(Path path, BasicFileAttributes attributes, int index) {
+    }
+
+    /**
+     * parser for a single source file.
+     */
+    @FunctionalInterface
+    public interface SourceFileParser {
+
+        /**
+         * parse a single source file.
+         *
+         * @param file path to source file
+         * @param attributes file attributes, read while walking the tree
+         * @return list with all routes of this file
+         */
+        public List<Route> parse(Path file, BasicFileAttributes attributes);
+
+    }
+
+    /**
+     * fork-join task which scans one directory and forks a sub task for every sub directory.
+     */
+    private static class DirectoryScanTask extends RecursiveTask<List<SourceFile>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path dir;
+
+        DirectoryScanTask(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected List<SourceFile> compute() {
+            //entries are either a source file or a forked sub directory task, in sorted order
+            List<Object> entries = new ArrayList<>();
+
+            try {
+                for (Path entry : listSorted(dir)) {
+                    BasicFileAttributes attributes = readAttributes(entry);
+
+                    if (attributes.isDirectory()) {
+                        DirectoryScanTask task = new DirectoryScanTask(entry);
+                        task.fork();
+                        entries.add(task);
+                    } else if (isSourceFile(entry, attributes)) {
+                        entries.add(new SourceFile(entry, attributes, -1));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            List<SourceFile> files = new ArrayList<>();
+
+            for (Object entry : entries) {
+                if (entry instanceof DirectoryScanTask task) {
+                    files.addAll(task.join());
+                } else {
+                    files.add((SourceFile) entry);
+                }
+            }
+
+            return files;
+        }
+
+    }
+
+}
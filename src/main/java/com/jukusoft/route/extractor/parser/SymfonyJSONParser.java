@@ -1,15 +1,20 @@
 package com.jukusoft.route.extractor.parser;
 
-import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,102 +36,235 @@ public class SymfonyJSONParser implements Parser {
     }
 
     @Override
-    public List<Route> parse(File srcFile, List<Route> routes) throws IOException {
+    public RouteRegistry parse(File srcFile, RouteRegistry routes) throws IOException {
+        read(srcFile, route -> route.apply(routes));
+        return routes;
+    }
+
+    @Override
+    public List<RouteDefinition> read(File srcFile) throws IOException {
+        List<RouteDefinition> routes = new ArrayList<>();
+        read(srcFile, routes::add);
+        return routes;
+    }
+
+    /**
+     * read the console dump route by route.
+     *
+     * @param srcFile console dump
+     * @param consumer gets every route of the dump
+     * @throws IOException if the file cannot be read
+     */
+    private void read(File srcFile, Consumer<SymfonyRoute> consumer) throws IOException {
         LOGGER.info("parse symfony console file: {}", srcFile.getAbsolutePath());
 
         if (!srcFile.exists()) {
             LOGGER.warn("symfony console file doesn't exists: {}", srcFile.getAbsolutePath());
-            return routes;
+            return;
         }
 
-        String content = Files.readString(srcFile.toPath(), StandardCharsets.UTF_8);
-        JSONObject json = new JSONObject(content);
+        //read the console dump route by route, so only one route object is held in memory at once
+        try (Reader reader = Files.newBufferedReader(srcFile.toPath(), StandardCharsets.UTF_8)) {
+            JSONTokener tokener = new JSONTokener(reader);
 
-        //iterate through all routes found
-        for (String routeName : json.keySet()) {
-            JSONObject routeJSON = json.getJSONObject(routeName);
+            if (tokener.nextClean() != '{') {
+                throw tokener.syntaxError("A JSONObject text must begin with '{'");
+            }
 
-            //get url
-            String url = routeJSON.getString("path");
+            while (true) {
+                char c = tokener.nextClean();
 
-            //replace "\/" with "/" to get same results
-            url = url.replace("\\/", "/");
+                if (c == '}') {
+                    break;
+                } else if (c == 0) {
+                    throw tokener.syntaxError("A JSONObject text must end with '}'");
+                }
 
-            Route newRoute = new Route(url, routeName);
+                tokener.back();
+                String routeName = tokener.nextValue().toString();
 
-            //check, if route already exists, if yes, return the already existing route
-            Route route = routes.stream().filter(route1 -> route1.getName().equals(newRoute.getName())).findFirst().orElse(newRoute);
+                if (tokener.nextClean() != ':') {
+                    throw tokener.syntaxError("Expected a ':' after a key");
+                }
 
-            if (!routes.stream().anyMatch(route1 -> route1.getName().equals(newRoute.getName()))) {
-                //add new route
-                LOGGER.info("add new route: {}, url: {}", routeName, url);
-                routes.add(route);
+                Object routeJSON = tokener.nextValue();
+
+                if (!(routeJSON instanceof JSONObject)) {
+                    throw tokener.syntaxError("Expected a route object for route " + routeName);
+                }
+
+                consumer.accept(toRoute(routeName, (JSONObject) routeJSON));
+
+                //the route object isn't referenced anymore and can be collected
+                c = tokener.nextClean();
+
+                if (c == '}') {
+                    break;
+                } else if (c != ',') {
+                    throw tokener.syntaxError("Expected a ',' or '}'");
+                }
             }
+        }
+    }
 
-            String method = routeJSON.getString("method");
-            method = method.replace("ANY", "GET|POST|PUT|DELETE");
+    /**
+     * convert a route object of the console dump.
+     *
+     * @param routeName route name
+     * @param routeJSON route object of the console dump
+     * @return route of the console dump
+     */
+    private static SymfonyRoute toRoute(String routeName, JSONObject routeJSON) {
+        //get url
+        String url = routeJSON.getString("path");
 
-            //Quick & Dirty Fix, because "|" is a special character and splits interprets this as regex, instead as a character
-            method = method.replace("|", ",");
+        //replace "\/" with "/" to get same results
+        url = url.replace("\\/", "/");
 
-            for (String method1 : method.split(",")) {
-                LOGGER.info("HTTP method found: {}", method1);
-                Route.METHOD method2 = Route.METHOD.valueOf(method1);
+        return new SymfonyRoute(routeName, url, parseMethods(routeJSON.getString("method")), toStringMap(routeJSON.opt("defaults")), toStringMap(routeJSON.opt("requirements")));
+    }
 
-                RouteMethod routeMethod = null;
+    /**
+     * convert a JSON object with string values into a map. Symfony writes "NO CUSTOM" or an empty array, if there are no values.
+     *
+     * @param json JSON value
+     * @return map with all string values until the first value, which is not a string
+     */
+    private static Map<String,String> toStringMap(Object json) {
+        Map<String,String> map = new LinkedHashMap<>();
 
-                if (route.getMethods().containsKey(method)) {
-                    routeMethod = route.getMethods().get(method);
-                } else {
-                    routeMethod = new RouteMethod(method2);
-                    route.addRouteMethod(method2, routeMethod);
-                }
+        if (!(json instanceof JSONObject)) {
+            return map;
+        }
 
-                try {
-                    //add default parameters
-                    for (String defaultParamKey : routeJSON.getJSONObject("defaults").keySet()) {
-                        String defaultValue = routeJSON.getJSONObject("defaults").getString(defaultParamKey);
-                        routeMethod.addDefaultValue(defaultParamKey, defaultValue);
-                        routeMethod.addParameter(defaultParamKey, Parameter.IN_TYPE.QUERY, false, "string", defaultValue);
-                    }
-                } catch (JSONException e) {
-                    //don't do anything here, because this is expected, if no default paramaters are set
-                    LOGGER.debug("route doesn't contains any default parameters: '{}'", url);
-                }
+        JSONObject jsonObject = (JSONObject) json;
 
-                try {
-                    //add required parameters
-                    for (String requiredParam : routeJSON.getJSONObject("requirements").keySet()) {
-                        String value = routeJSON.getJSONObject("requirements").getString(requiredParam);
-
-                        //check, if it is a path or a query / form parameter
-                        Parameter.IN_TYPE paramType = url.contains("{" + requiredParam + "}") ? Parameter.IN_TYPE.PATH : Parameter.IN_TYPE.QUERY;
-
-                        LOGGER.debug("add route required parameter: {}, url: {}", requiredParam, url);
-                        String varType = routeJSON.getJSONObject("requirements").getString(requiredParam).toLowerCase().equals("\\\\d+") ? "integer" : "string";
-                        routeMethod.addParameter(requiredParam, paramType, true, varType, "");
-                    }
-                } catch (JSONException e) {
-                    //don't do anything here, because this is expected, if no required paramaters exists
-                    LOGGER.debug("route doesn't contains any required parameters: '{}', json string: {}", url, routeJSON.getString("requirements"));
-                }
+        for (String key : jsonObject.keySet()) {
+            Object value = jsonObject.get(key);
+
+            if (!(value instanceof String)) {
+                LOGGER.debug("ignore value, which is not a string: {}", key);
+                break;
+            }
 
-                //parse path variables
-                final Matcher m = pattern.matcher(url);
+            map.put(key, (String) value);
+        }
 
-                while (m.find()) {
-                    String line = m.group(0);
-                    String paramName = m.group(1);
-                    LOGGER.info("found path variable: {}, variable: {}", line, paramName);
+        return map;
+    }
 
-                    if (!routeMethod.hasParameter(paramName)) {
-                        routeMethod.addParameter(paramName, Parameter.IN_TYPE.PATH, true, paramName.toLowerCase().contains("id") ? "integer" : "string", "");
-                    }
+    /**
+     * parse the HTTP methods of a symfony route.
+     * This is shared by all parsers of symfony route formats.
+     *
+     * @param method HTTP methods separated by "|", or "ANY"
+     * @return HTTP methods
+     * @throws IllegalArgumentException if a HTTP method isn't supported
+     */
+    static List<Route.METHOD> parseMethods(String method) {
+        method = method.replace("ANY", "GET|POST|PUT|DELETE");
+
+        //Quick & Dirty Fix, because "|" is a special character and splits interprets this as regex, instead as a character
+        method = method.replace("|", ",");
+
+        List<Route.METHOD> methods = new ArrayList<>();
+
+        for (String method1 : method.split(",")) {
+            LOGGER.info("HTTP method found: {}", method1);
+            methods.add(Route.METHOD.valueOf(method1));
+        }
+
+        return methods;
+    }
+
+    /**
+     * add a symfony route or merge it into the already existing route with the same name.
+     *
+     * @param routes all routes
+     * @param routeName route name
+     * @param url route url
+     * @param methods HTTP methods
+     * @param defaults default values of the route
+     * @param requirements requirements of the route parameters
+     */
+    private static void addRoute(RouteRegistry routes, String routeName, String url, List<Route.METHOD> methods, Map<String,String> defaults, Map<String,String> requirements) {
+        //check, if route already exists, if yes, use the already existing route
+        Route route = routes.getByName(routeName).orElse(null);
+
+        if (route == null) {
+            //add new route
+            LOGGER.info("add new route: {}, url: {}", routeName, url);
+            route = routes.add(new Route(url, routeName));
+        }
+
+        for (Map.Entry<String,String> requirement : requirements.entrySet()) {
+            route.addRequirement(requirement.getKey(), requirement.getValue());
+        }
+
+        for (Route.METHOD method2 : methods) {
+            RouteMethod routeMethod = null;
+
+            if (route.getMethods().containsKey(method2)) {
+                routeMethod = route.getMethods().get(method2);
+            } else {
+                routeMethod = new RouteMethod(method2);
+                route.addRouteMethod(method2, routeMethod);
+            }
+
+            //add default parameters
+            for (Map.Entry<String,String> defaultParam : defaults.entrySet()) {
+                routeMethod.addDefaultValue(defaultParam.getKey(), defaultParam.getValue());
+                routeMethod.addParameter(defaultParam.getKey(), Parameter.IN_TYPE.QUERY, false, "string", defaultParam.getValue());
+            }
+
+            //add required parameters
+            for (Map.Entry<String,String> requirement : requirements.entrySet()) {
+                String requiredParam = requirement.getKey();
+
+                //check, if it is a path or a query / form parameter
+                Parameter.IN_TYPE paramType = url.contains("{" + requiredParam + "}") ? Parameter.IN_TYPE.PATH : Parameter.IN_TYPE.QUERY;
+
+                LOGGER.debug("add route required parameter: {}, url: {}", requiredParam, url);
+                String varType = requirement.getValue().toLowerCase().equals("\\\\d+") ? "integer" : "string";
+                routeMethod.addParameter(requiredParam, paramType, true, varType, "");
+            }
+
+            //parse path variables
+            final Matcher m = pattern.matcher(url);
+
+            while (m.find()) {
+                String line = m.group(0);
+                String paramName = m.group(1);
+                LOGGER.info("found path variable: {}, variable: {}", line, paramName);
+
+                if (!routeMethod.hasParameter(paramName)) {
+                    routeMethod.addParameter(paramName, Parameter.IN_TYPE.PATH, true, paramName.toLowerCase().contains("id") ? "integer" : "string", "");
                 }
             }
         }
+    }
+
+    /**
+     * a route of a symfony route format, which is shared by all parsers of symfony route formats.
+     *
+     * @param name route name
+     * @param url route url
+     * @param methods HTTP methods
+     * @param defaults default values of the route
+     * @param requirements requirements of the route parameters
+     */
+    record SymfonyRoute(String name, String url, List<Route.METHOD> methods, Map<String,String> defaults, Map<String,String> requirements) implements RouteDefinition {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void apply(RouteRegistry routes) {
+            addRoute(routes, name, url, methods, defaults, requirements);
+        }
 
-        return routes;
     }
 
 }
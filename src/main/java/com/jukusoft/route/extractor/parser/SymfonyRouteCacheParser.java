@@ -0,0 +1,276 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * a parser for the compiled route cache of symfony, e.q. var/cache/prod/url_generating_routes.php and url_matching_routes.php .
+ *
+ * The cache files are written by symfony itself, so all routes are found without running "bin/console debug:router"
+ * and without parsing the source code. The generating routes contain the path, defaults and requirements of every route,
+ * the (optional) matching routes contain the allowed HTTP methods. Supports the array based cache format of symfony 4.4 and newer.
+ *
+ * @author Justin Kuenzel
+ */
+public class SymfonyRouteCacheParser implements Parser {
+
+    /**
+     * the class logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SymfonyRouteCacheParser.class);
+
+    /**
+     * name of the cache file, which is used by the url generator.
+     */
+    public static final String GENERATING_ROUTES_FILE = "url_generating_routes.php";
+
+    /**
+     * name of the cache file, which is used by the url matcher.
+     */
+    public static final String MATCHING_ROUTES_FILE = "url_matching_routes.php";
+
+    /**
+     * all HTTP methods, which are supported by the route model.
+     */
+    private static final Set<String> SUPPORTED_METHODS = Set.of("GET", "POST", "PUT", "DELETE");
+
+    @Override
+    public String getParameter() {
+        return "symfonyCache";
+    }
+
+    /**
+     * parse the compiled route cache.
+     *
+     * @param srcFile cache directory, e.q. var/cache/prod, or the url_generating_routes.php file
+     * @param routes registry of already existing routes
+     * @return route registry
+     * @throws IOException if a cache file cannot be read
+     */
+    @Override
+    public RouteRegistry parse(File srcFile, RouteRegistry routes) throws IOException {
+        for (RouteDefinition route : read(srcFile)) {
+            route.apply(routes);
+        }
+
+        return routes;
+    }
+
+    @Override
+    public List<RouteDefinition> read(File srcFile) throws IOException {
+        Path generatingFile = srcFile.isDirectory() ? srcFile.toPath().resolve(GENERATING_ROUTES_FILE) : srcFile.toPath();
+        Path matchingFile = generatingFile.resolveSibling(MATCHING_ROUTES_FILE);
+
+        LOGGER.info("parse symfony route cache: {}", generatingFile.toAbsolutePath());
+
+        if (!Files.exists(generatingFile)) {
+            LOGGER.warn("symfony route cache file doesn't exists: {}", generatingFile.toAbsolutePath());
+            return List.of();
+        }
+
+        Map<String,List<String>> methods = Collections.emptyMap();
+
+        if (Files.exists(matchingFile)) {
+            //the checkCondition closure of routes with a condition isn't needed, so it's skipped
+            methods = readMethods(readArray(matchingFile, true));
+        } else {
+            LOGGER.warn("symfony route cache file doesn't exists, all routes accept all HTTP methods: {}", matchingFile.toAbsolutePath());
+        }
+
+        List<RouteDefinition> routes = new ArrayList<>();
+
+        for (Map.Entry<Object,Object> entry : readArray(generatingFile, false).entrySet()) {
+            String routeName = entry.getKey().toString();
+
+            if (!(entry.getValue() instanceof Map)) {
+                throw new IOException("invalid route in symfony route cache: " + routeName);
+            }
+
+            //[variables, defaults, requirements, tokens, hostTokens, schemes, (deprecations)]
+            Map<?,?> routeArray = (Map<?,?>) entry.getValue();
+
+            String url = getUrl(routeArray.get(3L));
+            String method = getMethod(routeName, methods.get(routeName));
+
+            if (method == null) {
+                continue;
+            }
+
+            routes.add(new SymfonyJSONParser.SymfonyRoute(routeName, url, SymfonyJSONParser.parseMethods(method), toStringMap(routeArray.get(1L)), toStringMap(routeArray.get(2L))));
+        }
+
+        return routes;
+    }
+
+    /**
+     * read the array, which is returned by a cache file.
+     */
+    private static Map<Object,Object> readArray(Path file, boolean skipUnsupported) throws IOException {
+        Object value;
+
+        try {
+            value = new PhpArrayReader(Files.readString(file, StandardCharsets.UTF_8), skipUnsupported).readReturnValue();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("cannot read symfony route cache file " + file.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+
+        if (!(value instanceof Map)) {
+            throw new IOException("symfony route cache file doesn't return an array: " + file.toAbsolutePath());
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Object,Object> array = (Map<Object,Object>) value;
+        return array;
+    }
+
+    /**
+     * read the allowed HTTP methods of all routes from the matching routes.
+     *
+     * @param matchingRoutes [matchHost, staticRoutes, regexpList, dynamicRoutes, checkCondition]
+     * @return map with route name and allowed HTTP methods, an empty list means all HTTP methods
+     */
+    static Map<String,List<String>> readMethods(Map<Object,Object> matchingRoutes) {
+        Map<String,List<String>> methods = new HashMap<>();
+
+        //static routes: url => list of routes, dynamic routes: regex mark => list of routes
+        for (long index : new long[] {1L, 3L}) {
+            if (!(matchingRoutes.get(index) instanceof Map)) {
+                continue;
+            }
+
+            for (Object routeList : ((Map<?,?>) matchingRoutes.get(index)).values()) {
+                if (!(routeList instanceof Map)) {
+                    continue;
+                }
+
+                for (Object route : ((Map<?,?>) routeList).values()) {
+                    //[defaults with "_route", host or variables, methods, schemes, ...]
+                    if (!(route instanceof Map) || !(((Map<?,?>) route).get(0L) instanceof Map)) {
+                        //the last dynamic route of a regex is a sentinel without defaults
+                        continue;
+                    }
+
+                    Object routeName = ((Map<?,?>) ((Map<?,?>) route).get(0L)).get("_route");
+                    Object routeMethods = ((Map<?,?>) route).get(2L);
+
+                    if (routeName == null) {
+                        continue;
+                    }
+
+                    List<String> list = new ArrayList<>();
+
+                    if (routeMethods instanceof Map) {
+                        for (Object method : ((Map<?,?>) routeMethods).keySet()) {
+                            list.add(method.toString().toUpperCase(Locale.ROOT));
+                        }
+                    }
+
+                    methods.put(routeName.toString(), list);
+                }
+            }
+        }
+
+        return methods;
+    }
+
+    /**
+     * rebuild the route path from the compiled tokens.
+     *
+     * @param tokens tokens of the route, in reverse order
+     * @return route path, e.q. /blog/{page}
+     */
+    static String getUrl(Object tokens) {
+        if (!(tokens instanceof Map)) {
+            return "/";
+        }
+
+        List<Object> tokenList = new ArrayList<>(((Map<?,?>) tokens).values());
+        Collections.reverse(tokenList);
+
+        StringBuilder sb = new StringBuilder();
+
+        for (Object token : tokenList) {
+            if (!(token instanceof Map)) {
+                continue;
+            }
+
+            Map<?,?> tokenArray = (Map<?,?>) token;
+
+            if ("text".equals(tokenArray.get(0L))) {
+                //['text', '/blog']
+                sb.append(tokenArray.get(1L));
+            } else if ("variable".equals(tokenArray.get(0L))) {
+                //['variable', prefix, regex, name, ...]
+                sb.append(tokenArray.get(1L)).append('{').append(tokenArray.get(3L)).append('}');
+            }
+        }
+
+        return sb.length() > 0 ? sb.toString() : "/";
+    }
+
+    /**
+     * get the HTTP methods of a route in the format of the console dump.
+     *
+     * @param routeName route name
+     * @param routeMethods allowed methods of the matching routes, an empty list or null means all methods
+     * @return HTTP methods separated by "|", "ANY" or null, if the route doesn't accept any supported method
+     */
+    private static String getMethod(String routeName, List<String> routeMethods) {
+        if (routeMethods == null || routeMethods.isEmpty()) {
+            return "ANY";
+        }
+
+        List<String> supportedMethods = new ArrayList<>();
+
+        for (String method : routeMethods) {
+            if (SUPPORTED_METHODS.contains(method)) {
+                supportedMethods.add(method);
+            } else {
+                LOGGER.debug("ignore unsupported HTTP method {} of route {}", method, routeName);
+            }
+        }
+
+        if (supportedMethods.isEmpty()) {
+            LOGGER.warn("ignore route without supported HTTP methods: {}, methods: {}", routeName, routeMethods);
+            return null;
+        }
+
+        return String.join("|", supportedMethods);
+    }
+
+    /**
+     * convert a php array into a map with string values, arrays and null values are ignored.
+     */
+    private static Map<String,String> toStringMap(Object array) {
+        Map<String,String> map = new LinkedHashMap<>();
+
+        if (!(array instanceof Map)) {
+            return map;
+        }
+
+        for (Map.Entry<?,?> entry : ((Map<?,?>) array).entrySet()) {
+            Object value = entry.getValue();
+
+            if (value == null || value instanceof Map) {
+                LOGGER.debug("ignore value, which is not a scalar: {}", entry.getKey());
+                continue;
+            }
+
+            if (value instanceof Boolean) {
+                value = (Boolean) value ? "1" : "";
+            }
+
+            map.put(entry.getKey().toString(), value.toString());
+        }
+
+        return map;
+    }
+
+}
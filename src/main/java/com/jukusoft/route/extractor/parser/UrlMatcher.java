@@ -0,0 +1,414 @@
+package com.jukusoft.route.extractor.parser;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * a compiled matcher, which maps concrete requests (e.q. of the fuzzer or of access logs) back to the extracted routes.
+ *
+ * All routes are compiled into one segment trie like {@link RouteTrie}: static segments are looked up in a hash map,
+ * segments with path variables are matched by the regex of their requirements. Like the compiled matcher of symfony,
+ * the first defined route wins, but the routes aren't tried one after another: every node knows the first route
+ * of its subtree, so subtrees without an earlier route than the best match are skipped.
+ * Trailing variables with a default value (inline "{page?1}" or a default value of the route) are optional.
+ * A variable, whose requirement can match "/" (e.q. the catch-all "{path}" with the requirement ".+"), can span
+ * multiple segments, so its segment is matched against the joined remaining segments.
+ *
+ * The matcher is immutable and can be used by multiple threads.
+ *
+ * @author Justin Kuenzel
+ */
+public class UrlMatcher {
+
+    /**
+     * names of the regex groups of the path variables, see {@link RouteTrie.Segment#regex()}.
+     */
+    private static final String[] GROUP_NAMES = {"v0", "v1", "v2", "v3", "v4", "v5", "v6", "v7"};
+
+    private final Node root = new Node(null);
+
+    /**
+     * constructor
+     *
+     * @param routes routes in the order of their definition, earlier routes are matched first
+     */
+    public UrlMatcher(Collection<Route> routes) {
+        Map<String,Pattern> patterns = new HashMap<>();
+        int index = 0;
+
+        for (Route route : routes) {
+            add(route, index++, patterns);
+        }
+    }
+
+    private void add(Route route, int index, Map<String,Pattern> patterns) {
+        List<RouteTrie.Segment> segments = RouteTrie.parseSegments(route);
+        Set<Route.METHOD> methods = route.getMethods().isEmpty() ? EnumSet.noneOf(Route.METHOD.class) : EnumSet.copyOf(route.getMethods().keySet());
+
+        List<String> names = new ArrayList<>();
+
+        for (RouteTrie.Segment segment : segments) {
+            for (RouteTrie.Variable variable : segment.variables()) {
+                names.add(variable.name());
+            }
+        }
+
+        //the route is also added without every optional trailing variable
+        int length = segments.size();
+        Map<String,String> omittedDefaults = new LinkedHashMap<>();
+
+        while (true) {
+            Node node = root;
+            node.minIndex = Math.min(node.minIndex, index);
+
+            for (int i = 0; i < length; i++) {
+                node = node.getOrCreateChild(segments.get(i), patterns);
+                node.minIndex = Math.min(node.minIndex, index);
+            }
+
+            node.addTarget(new Target(index, route, methods, names.subList(0, names.size() - omittedDefaults.size()).toArray(new String[0]), omittedDefaults.isEmpty() ? Map.of() : omittedDefaults));
+
+            if (length == 0) {
+                return;
+            }
+
+            String defaultValue = getOptionalDefault(route, segments.get(length - 1));
+
+            if (defaultValue == null) {
+                return;
+            }
+
+            //the variables are collected from the end, but the map is in url order. Every target gets its own map.
+            Map<String,String> defaults = new LinkedHashMap<>();
+            defaults.put(segments.get(length - 1).variables().get(0).name(), defaultValue);
+            defaults.putAll(omittedDefaults);
+            omittedDefaults = defaults;
+
+            length--;
+        }
+    }
+
+    /**
+     * get the default value of a segment, which can be omitted.
+     *
+     * @return default value or null, if the segment is required
+     */
+    private static String getOptionalDefault(Route route, RouteTrie.Segment segment) {
+        //only a segment, which consists of one variable, can be omitted
+        if (segment.isStatic() || segment.variables().size() != 1 || !segment.key().startsWith("{") || !segment.key().endsWith("}")) {
+            return null;
+        }
+
+        RouteTrie.Variable variable = segment.variables().get(0);
+
+        if (variable.defaultValue() != null) {
+            return variable.defaultValue();
+        }
+
+        for (RouteMethod routeMethod : route.getMethods().values()) {
+            Optional<String> defaultValue = routeMethod.getDefaultValue(variable.name());
+
+            if (defaultValue.isPresent()) {
+                return defaultValue.get();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * find the route of a request.
+     *
+     * @param method HTTP method, HEAD is matched like GET
+     * @param url path of the request, e.q. /user/42?page=1. Scheme and host of absolute urls are ignored.
+     * @return first matching route with the values of its path variables or empty optional, if no route matches
+     */
+    public Optional<Match> match(String method, String url) {
+        Route.METHOD httpMethod;
+
+        try {
+            String upperMethod = method.toUpperCase(Locale.ROOT);
+            httpMethod = Route.METHOD.valueOf(upperMethod.equals("HEAD") ? "GET" : upperMethod);
+        } catch (IllegalArgumentException e) {
+            //unsupported HTTP method
+            return Optional.empty();
+        }
+
+        String[] segments = splitPath(url);
+        Search search = new Search(httpMethod, segments);
+        search.visit(root, 0);
+
+        if (search.best == null) {
+            return Optional.empty();
+        }
+
+        Target target = search.best;
+        Map<String,String> variables = new LinkedHashMap<>();
+
+        for (int i = 0; i < target.names().length; i++) {
+            variables.put(target.names()[i], search.bestValues[i]);
+        }
+
+        variables.putAll(target.defaults());
+
+        return Optional.of(new Match(target.route(), Collections.unmodifiableMap(variables)));
+    }
+
+    /**
+     * get the decoded path segments of an url.
+     */
+    static String[] splitPath(String url) {
+        String path = url;
+
+        int schemeEnd = path.indexOf("://");
+
+        if (schemeEnd >= 0 && schemeEnd < path.indexOf('/')) {
+            int pathStart = path.indexOf('/', schemeEnd + 3);
+            path = pathStart >= 0 ? path.substring(pathStart) : "/";
+        }
+
+        int queryStart = path.indexOf('?');
+
+        if (queryStart >= 0) {
+            path = path.substring(0, queryStart);
+        }
+
+        int fragmentStart = path.indexOf('#');
+
+        if (fragmentStart >= 0) {
+            path = path.substring(0, fragmentStart);
+        }
+
+        if (path.indexOf('%') >= 0) {
+            try {
+                //like rawurldecode(), "+" isn't a space in paths
+                path = URLDecoder.decode(path.replace("+", "%2B"), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                //invalid escape sequence, the path is matched as it is
+            }
+        }
+
+        int start = path.startsWith("/") ? 1 : 0;
+
+        if (start == path.length()) {
+            return new String[0];
+        }
+
+        return path.substring(start).split("/", -1);
+    }
+
+    /**
+     * check, if a requirement can match "/", e.q. ".+", "\S+" or "[\w/]+", or contains a "/" like ".+/.+".
+     * This is only an approximation, but "[^/]+" and the usual segment requirements like "\d+" don't match "/".
+     */
+    static boolean canMatchSlash(String regex) {
+        if (regex.replace("[^/]", "").indexOf('/') >= 0) {
+            return true;
+        }
+
+        Matcher matcher = Pattern.compile(regex).matcher("/");
+        return matcher.find() && matcher.end() > matcher.start();
+    }
+
+    private static String getGroupName(int index) {
+        return index < GROUP_NAMES.length ? GROUP_NAMES[index] : "v" + index;
+    }
+
+    /**
+     * a matched request.
+     *
+     * @param route matched route
+     * @param variables values of the path variables by name, in url order
+     */
+    public record Match(Route route, Map<String,String> variables) {
+    }
+
+    /**
+     * a route, which ends in a node.
+     *
+     * @param index position of the route in definition order
+     * @param route route
+     * @param methods HTTP methods of the route
+     * @param names names of the variables, which are part of the path
+     * @param defaults values of the omitted optional variables
+     */
+    private record Target(int index, Route route, Set<Route.METHOD> methods, String[] names, Map<String,String> defaults) {
+    }
+
+    /**
+     * the state of a single match, the best match is the route with the lowest index.
+     */
+    private static class Search {
+
+        private final Route.METHOD method;
+        private final String[] segments;
+
+        //values of the path variables of the current path
+        private final List<String> values = new ArrayList<>();
+
+        private Target best = null;
+        private String[] bestValues = null;
+
+        Search(Route.METHOD method, String[] segments) {
+            this.method = method;
+            this.segments = segments;
+        }
+
+        private int bestIndex() {
+            return best != null ? best.index() : Integer.MAX_VALUE;
+        }
+
+        void visit(Node node, int index) {
+            if (node.minIndex >= bestIndex()) {
+                //no route in this subtree is defined before the best match
+                return;
+            }
+
+            if (index == segments.length) {
+                for (Target target : node.getTargets()) {
+                    if (target.index() >= bestIndex()) {
+                        break;
+                    }
+
+                    if (target.methods().contains(method)) {
+                        best = target;
+                        bestValues = values.toArray(new String[0]);
+                        break;
+                    }
+                }
+
+                return;
+            }
+
+            String segment = segments[index];
+
+            if (node.staticChildren != null) {
+                Node child = node.staticChildren.get(segment);
+
+                if (child != null) {
+                    visit(child, index + 1);
+                }
+            }
+
+            if (node.patternChildren == null) {
+                return;
+            }
+
+            for (Node child : node.patternChildren.values()) {
+                if (child.minIndex >= bestIndex()) {
+                    continue;
+                }
+
+                visitPatternChild(child, segment, index + 1);
+
+                if (child.multiSegment) {
+                    //the segment of the edge can also consume the following segments, e.q. "a/b" of "/files/a/b"
+                    StringBuilder path = new StringBuilder(segment);
+
+                    for (int end = index + 1; end < segments.length && child.minIndex < bestIndex(); end++) {
+                        path.append('/').append(segments[end]);
+                        visitPatternChild(child, path.toString(), end + 1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * match the edge to a pattern child and continue the search behind the matched segments.
+         *
+         * @param child pattern child
+         * @param text text of the matched segments
+         * @param next index of the next segment
+         */
+        private void visitPatternChild(Node child, String text, int next) {
+            Matcher matcher = child.pattern.matcher(text);
+
+            if (!matcher.matches()) {
+                return;
+            }
+
+            int variableCount = child.variableCount;
+
+            for (int i = 0; i < variableCount; i++) {
+                values.add(matcher.group(getGroupName(i)));
+            }
+
+            visit(child, next);
+
+            for (int i = 0; i < variableCount; i++) {
+                values.remove(values.size() - 1);
+            }
+        }
+
+    }
+
+    /**
+     * a node of the matcher trie.
+     */
+    private static class Node {
+
+        //exact edges, created on demand
+        private Map<String,Node> staticChildren = null;
+
+        //pattern edges by segment key, in insertion order
+        private Map<String,Node> patternChildren = null;
+
+        //pattern of the edge to this node, null for static edges
+        private final Pattern pattern;
+
+        //number of variables of the edge to this node
+        private int variableCount = 0;
+
+        //true, if the edge to this node can match multiple segments
+        private boolean multiSegment = false;
+
+        //lowest route index in this subtree
+        private int minIndex = Integer.MAX_VALUE;
+
+        //routes, which end in this node, ordered by index
+        private List<Target> targets = null;
+
+        Node(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        Node getOrCreateChild(RouteTrie.Segment segment, Map<String,Pattern> patterns) {
+            if (segment.isStatic()) {
+                if (staticChildren == null) {
+                    staticChildren = new HashMap<>();
+                }
+
+                return staticChildren.computeIfAbsent(segment.key(), key -> new Node(null));
+            }
+
+            if (patternChildren == null) {
+                patternChildren = new LinkedHashMap<>();
+            }
+
+            return patternChildren.computeIfAbsent(segment.key(), key -> {
+                Node child = new Node(patterns.computeIfAbsent(segment.regex(), Pattern::compile));
+                child.variableCount = segment.variables().size();
+                child.multiSegment = segment.variables().stream().anyMatch(variable -> canMatchSlash(variable.regex()));
+                return child;
+            });
+        }
+
+        List<Target> getTargets() {
+            return targets != null ? targets : Collections.emptyList();
+        }
+
+        void addTarget(Target target) {
+            if (targets == null) {
+                targets = new ArrayList<>(1);
+            }
+
+            //routes are added in index order
+            targets.add(target);
+        }
+
+    }
+
+}
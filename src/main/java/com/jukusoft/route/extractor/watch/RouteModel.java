@@ -0,0 +1,274 @@
+package com.jukusoft.route.extractor.watch;
+
+import com.jukusoft.route.extractor.cache.RouteSerializer;
+import com.jukusoft.route.extractor.parser.Parser;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteDefinition;
+import com.jukusoft.route.extractor.parser.RouteRegistry;
+import com.jukusoft.route.extractor.parser.SourceTreeScanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * the in-memory route model of watch mode, which holds the routes of every source file and of every other parser input separately.
+ *
+ * The routes of the source files are stored serialized, so a source file can be replaced without parsing the other files again
+ * and an unchanged parse result is detected by comparing the bytes. The inputs of the other parsers (e.q. the symfony console dump)
+ * are stored as route definitions, so they are only read again, if the input itself has changed.
+ *
+ * The merged routes are patched route by route: after a change only the routes with the names of the changed files
+ * are built again, from the source files which contain these names and the definitions of these names. The result is the
+ * same as a full run, because the registry only merges routes with the same name and a definition only changes the route with its name.
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteModel {
+
+    /**
+     * the routes of every source file, in the canonical order of the source tree scan.
+     */
+    private final NavigableMap<Path,SourceFile> sourceFiles = new TreeMap<>(SourceTreeScanner::compareCanonical);
+
+    /**
+     * the source files, which contain a route name.
+     */
+    private final Map<String,Set<Path>> filesByName = new HashMap<>();
+
+    /**
+     * the route definitions of the other parsers, in parser order.
+     */
+    private final Map<Parser,List<RouteDefinition>> inputs = new LinkedHashMap<>();
+
+    /**
+     * the route definitions of all inputs by route name, in parser order.
+     */
+    private Map<String,List<RouteDefinition>> definitionsByName = new LinkedHashMap<>();
+
+    /**
+     * the merged routes by name.
+     */
+    private final Map<String,Route> routes = new HashMap<>();
+
+    /**
+     * route names in the order of a full run.
+     */
+    private List<String> routeNames = new ArrayList<>();
+
+    /**
+     * the names of the routes, which have to be built again.
+     */
+    private final Set<String> changedNames = new HashSet<>();
+
+    /**
+     * add or replace the routes of a source file.
+     *
+     * @param file source file
+     * @param routes parsed routes of the file
+     * @return true, if the routes of the file have changed
+     */
+    public boolean putSourceFile(Path file, List<Route> routes) {
+        SourceFile sourceFile = new SourceFile(RouteSerializer.serialize(routes), routes.stream().map(Route::getName).distinct().toList());
+        SourceFile oldFile = sourceFiles.put(file, sourceFile);
+
+        if (oldFile != null && Arrays.equals(oldFile.data(), sourceFile.data())) {
+            return false;
+        }
+
+        if (oldFile != null) {
+            removeNames(file, oldFile);
+        }
+
+        for (String name : sourceFile.names()) {
+            filesByName.computeIfAbsent(name, key -> new TreeSet<>(SourceTreeScanner::compareCanonical)).add(file);
+            changedNames.add(name);
+        }
+
+        return oldFile != null || !routes.isEmpty();
+    }
+
+    /**
+     * remove a source file or all source files of a directory.
+     *
+     * @param path source file or directory
+     * @return true, if any removed file contained routes
+     */
+    public boolean removeSourceFiles(Path path) {
+        boolean changed = false;
+
+        //in canonical order the files of a directory directly follow the directory
+        Iterator<Map.Entry<Path,SourceFile>> iterator = sourceFiles.tailMap(path, true).entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Path,SourceFile> entry = iterator.next();
+
+            if (!entry.getKey().startsWith(path)) {
+                break;
+            }
+
+            changed |= !entry.getValue().names().isEmpty();
+            removeNames(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+
+        return changed;
+    }
+
+    private void removeNames(Path file, SourceFile sourceFile) {
+        for (String name : sourceFile.names()) {
+            Set<Path> files = filesByName.get(name);
+            files.remove(file);
+
+            if (files.isEmpty()) {
+                filesByName.remove(name);
+            }
+
+            changedNames.add(name);
+        }
+    }
+
+    /**
+     * add or replace the route definitions of another parser.
+     *
+     * @param parser parser, the definitions of the parsers are applied in the order, in which the parsers were added first
+     * @param definitions route definitions of the parser input
+     * @return true, if the definitions have changed
+     */
+    public boolean putInput(Parser parser, List<RouteDefinition> definitions) {
+        List<RouteDefinition> oldDefinitions = inputs.put(parser, List.copyOf(definitions));
+
+        if (definitions.equals(oldDefinitions)) {
+            return false;
+        }
+
+        if (oldDefinitions != null) {
+            oldDefinitions.forEach(definition -> changedNames.add(definition.getName()));
+        }
+
+        definitions.forEach(definition -> changedNames.add(definition.getName()));
+
+        //the index is only built again, if an input has changed
+        definitionsByName = new LinkedHashMap<>();
+
+        for (List<RouteDefinition> inputDefinitions : inputs.values()) {
+            for (RouteDefinition definition : inputDefinitions) {
+                definitionsByName.computeIfAbsent(definition.getName(), key -> new ArrayList<>(1)).add(definition);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * check, if the model contains a source file.
+     *
+     * @param file source file
+     * @return true, if the source file is part of the model
+     */
+    public boolean containsSourceFile(Path file) {
+        return sourceFiles.containsKey(file);
+    }
+
+    /**
+     * get all source files of the model.
+     *
+     * @return source files in canonical order
+     */
+    public Set<Path> getSourceFiles() {
+        return Collections.unmodifiableSet(sourceFiles.keySet());
+    }
+
+    /**
+     * build the routes of the changed files and inputs again.
+     *
+     * @return true, if a merged route or the order of the routes has changed
+     */
+    public boolean update() {
+        if (changedNames.isEmpty()) {
+            return false;
+        }
+
+        //only the source files with changed names are deserialized, in canonical order like a full run
+        Set<Path> files = new TreeSet<>(SourceTreeScanner::compareCanonical);
+
+        for (String name : changedNames) {
+            files.addAll(filesByName.getOrDefault(name, Set.of()));
+        }
+
+        RouteRegistry registry = new RouteRegistry();
+
+        try {
+            for (Path file : files) {
+                for (Route route : RouteSerializer.deserialize(sourceFiles.get(file).data())) {
+                    if (changedNames.contains(route.getName())) {
+                        registry.add(route);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            //the data was serialized by this class
+            throw new UncheckedIOException(e);
+        }
+
+        for (String name : changedNames) {
+            for (RouteDefinition definition : definitionsByName.getOrDefault(name, List.of())) {
+                definition.apply(registry);
+            }
+        }
+
+        boolean changed = false;
+
+        for (String name : changedNames) {
+            Route route = registry.getByName(name).orElse(null);
+            Route oldRoute = route != null ? routes.put(name, route) : routes.remove(name);
+
+            if (!changed) {
+                changed = route == null || oldRoute == null ? route != oldRoute : !Arrays.equals(RouteSerializer.serialize(List.of(oldRoute)), RouteSerializer.serialize(List.of(route)));
+            }
+        }
+
+        changedNames.clear();
+
+        //the names are collected without deserializing the routes
+        Set<String> names = new LinkedHashSet<>();
+        sourceFiles.values().forEach(sourceFile -> names.addAll(sourceFile.names()));
+        names.addAll(definitionsByName.keySet());
+
+        List<String> newRouteNames = new ArrayList<>(names);
+        changed |= !newRouteNames.equals(routeNames);
+        routeNames = newRouteNames;
+
+        return changed;
+    }
+
+    /**
+     * create a new route registry with the merged routes of the source files and the other parsers.
+     * The registry shares the route instances with the model, the routes must not be changed. A change of the model
+     * builds new route instances, so the routes of an already returned registry are never changed by the model.
+     *
+     * @return new route registry
+     */
+    public RouteRegistry toRegistry() {
+        update();
+
+        RouteRegistry registry = new RouteRegistry();
+
+        for (String name : routeNames) {
+            registry.add(routes.get(name));
+        }
+
+        return registry;
+    }
+
+    /**
+     * a parsed source file.
+     *
+     * @param data serialized routes of the file
+     * @param names distinct route names of the file, in file order
+     */
+    private record SourceFile(byte[] data, List<String> names) {
+    }
+
+}
@@ -0,0 +1,440 @@
+package com.jukusoft.route.extractor.watch;
+
+import com.jukusoft.route.extractor.cache.RouteCache;
+import com.jukusoft.route.extractor.parser.Parser;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteRegistry;
+import com.jukusoft.route.extractor.parser.SourceCodeParser;
+import com.jukusoft.route.extractor.parser.SourceFileReader;
+import com.jukusoft.route.extractor.parser.SourceTreeScanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * watch mode, which keeps the parsed routes in memory and only parses the files again, which have changed.
+ *
+ * The source directory (recursively) and the inputs of the other parsers (e.q. the symfony console dump) are watched
+ * by a {@link WatchService}. Events are coalesced until no event was received for the debounce time,
+ * so a burst of changes (e.q. "git checkout") only triggers one regeneration. A parser input is only read again, if it has changed,
+ * and only the routes of the changed files are merged again by the {@link RouteModel}, the result is the same as a full run.
+ * The listener is only called, if the routes have changed, e.q. editing a method body doesn't rewrite the output files.
+ *
+ * @author Justin Kuenzel
+ */
+public class RouteWatcher implements Closeable {
+
+    /**
+     * the class logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteWatcher.class);
+
+    /**
+     * default time without events, before changed files are parsed.
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+
+    /**
+     * file extension of the source files.
+     */
+    private static final String FILE_EXTENSION = ".php";
+
+    private final Path srcDir;
+
+    /**
+     * the inputs of the other parsers, in parser order.
+     */
+    private final Map<Parser,Path> inputs;
+
+    private final long debounceMillis;
+
+    private final WatchService watchService;
+
+    /**
+     * all registered directories.
+     */
+    private final Set<Path> watchedDirs = new HashSet<>();
+
+    private final RouteModel model = new RouteModel();
+
+    /**
+     * reader for the source files, which is shared by all parse runs.
+     */
+    private final SourceFileReader fileReader = new SourceFileReader();
+
+    /**
+     * constructor
+     *
+     * @param srcDir source directory
+     * @param inputs inputs of the other parsers, e.q. the symfony console dump, in the order the parsers should be applied
+     * @param debounceMillis time without events, before changed files are parsed
+     * @throws IOException if the watch service cannot be created
+     */
+    public RouteWatcher(Path srcDir, Map<Parser,Path> inputs, long debounceMillis) throws IOException {
+        this.srcDir = srcDir.toAbsolutePath().normalize();
+        this.inputs = new LinkedHashMap<>();
+        this.debounceMillis = debounceMillis;
+
+        for (Map.Entry<Parser,Path> entry : inputs.entrySet()) {
+            this.inputs.put(entry.getKey(), entry.getValue().toAbsolutePath().normalize());
+        }
+
+        if (!Files.isDirectory(this.srcDir)) {
+            throw new IllegalArgumentException("src directory does not exists or is not a directory: " + this.srcDir);
+        }
+
+        this.watchService = this.srcDir.getFileSystem().newWatchService();
+    }
+
+    /**
+     * parse all files and start watching them.
+     *
+     * @param threads number of threads which are used to scan the source directory
+     * @param cache extraction cache or null, if every file should be parsed
+     * @return route registry with all routes
+     * @throws IOException if the files cannot be read
+     */
+    public RouteRegistry load(int threads, RouteCache cache) throws IOException {
+        //directories are registered first, so no change is lost while the files are parsed
+        registerAll(srcDir);
+
+        for (Path input : inputs.values()) {
+            Path dir = Files.isDirectory(input) ? input : input.getParent();
+
+            if (Files.isDirectory(dir)) {
+                register(dir);
+            } else {
+                LOGGER.warn("cannot watch {}, because the directory doesn't exists", input);
+            }
+        }
+
+        scanSourceTree(threads, cache);
+
+        for (Map.Entry<Parser,Path> input : inputs.entrySet()) {
+            model.putInput(input.getKey(), input.getKey().read(input.getValue().toFile()));
+        }
+
+        RouteRegistry registry = model.toRegistry();
+        LOGGER.info("watching {} directories, {} source files and {} other inputs", watchedDirs.size(), model.getSourceFiles().size(), inputs.size());
+
+        return registry;
+    }
+
+    /**
+     * wait for changes and call the listener with the new routes after every change of the routes.
+     * This method returns, if the watcher is closed or the thread is interrupted.
+     *
+     * @param listener listener, which gets the routes after a change
+     */
+    public void run(ChangeListener listener) {
+        try {
+            while (true) {
+                Set<Path> changedPaths = new LinkedHashSet<>();
+                Set<Path> createdPaths = new HashSet<>();
+
+                //wait for the first event, then coalesce all events until the debounce time passes without any event
+                boolean overflow = collect(watchService.take(), changedPaths, createdPaths);
+                WatchKey key;
+
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(key, changedPaths, createdPaths);
+                }
+
+                long startTime = System.currentTimeMillis();
+                RouteRegistry registry = update(overflow, changedPaths, createdPaths);
+
+                if (registry == null) {
+                    LOGGER.info("{} changed files, routes are unchanged", changedPaths.size());
+                    continue;
+                }
+
+                LOGGER.info("{} changed files parsed in {} ms, {} routes found", changedPaths.size(), System.currentTimeMillis() - startTime, registry.size());
+
+                listener.routesChanged(registry);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.info("watch mode interrupted");
+        } catch (ClosedWatchServiceException e) {
+            LOGGER.info("watch mode stopped");
+        }
+    }
+
+    /**
+     * patch the route model with the changes.
+     *
+     * @param overflow true, if events were lost and all files have to be parsed again
+     * @param changedPaths all created, modified or deleted paths
+     * @param createdPaths created paths
+     * @return new routes or null, if the routes are unchanged
+     * @throws InterruptedException if the thread was interrupted
+     */
+    private synchronized RouteRegistry update(boolean overflow, Set<Path> changedPaths, Set<Path> createdPaths) throws InterruptedException {
+        boolean changed = overflow ? reload() : apply(changedPaths, createdPaths);
+        return changed && model.update() ? model.toRegistry() : null;
+    }
+
+    /**
+     * collect the changed paths of a watch key.
+     *
+     * @return true, if events were lost
+     */
+    private boolean collect(WatchKey key, Set<Path> changedPaths, Set<Path> createdPaths) {
+        Path dir = (Path) key.watchable();
+        boolean overflow = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+                continue;
+            }
+
+            Path path = dir.resolve((Path) event.context());
+            changedPaths.add(path);
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                createdPaths.add(path);
+            }
+        }
+
+        if (!key.reset()) {
+            //the directory was deleted
+            watchedDirs.remove(dir);
+        }
+
+        return overflow;
+    }
+
+    /**
+     * patch the route model with the changed files.
+     *
+     * @param changedPaths all created, modified or deleted paths
+     * @param createdPaths created paths
+     * @return true, if the routes of the source files or the input of another parser may have changed
+     * @throws InterruptedException if the thread was interrupted
+     */
+    private boolean apply(Set<Path> changedPaths, Set<Path> createdPaths) throws InterruptedException {
+        boolean changed = false;
+        Set<Parser> changedInputs = new LinkedHashSet<>();
+
+        for (Path path : changedPaths) {
+            for (Map.Entry<Parser,Path> input : inputs.entrySet()) {
+                Path inputPath = input.getValue();
+
+                if (path.equals(inputPath) || (inputPath.equals(path.getParent()) && Files.isDirectory(inputPath))) {
+                    //only the changed input is read again, an input with multiple changed files only once
+                    changedInputs.add(input.getKey());
+                }
+            }
+
+            if (!path.startsWith(srcDir)) {
+                continue;
+            }
+
+            if (Files.isDirectory(path)) {
+                //a directory was created or moved into the source tree, its files may exist before it was registered
+                if (createdPaths.contains(path)) {
+                    changed |= addDirectory(path);
+                }
+            } else if (Files.isRegularFile(path)) {
+                if (path.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                    changed |= model.putSourceFile(path, SourceCodeParser.parseSourceCodeFile(path, fileReader));
+                }
+            } else {
+                //deleted file or directory
+                changed |= model.removeSourceFiles(path);
+            }
+
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+
+        for (Parser parser : changedInputs) {
+            changed |= readInput(parser);
+        }
+
+        return changed;
+    }
+
+    /**
+     * parse all files again, because events were lost.
+     *
+     * @return true, if the routes may have changed
+     */
+    private boolean reload() {
+        LOGGER.warn("file system events were lost, parse all files again");
+
+        boolean changed = false;
+
+        try {
+            registerAll(srcDir);
+            changed = scanSourceTree(1, null);
+        } catch (IOException e) {
+            LOGGER.error("cannot parse source directory: {}", srcDir, e);
+        }
+
+        //the inputs of the other parsers can have changed too
+        for (Parser parser : inputs.keySet()) {
+            changed |= readInput(parser);
+        }
+
+        return changed;
+    }
+
+    /**
+     * read the input of another parser again.
+     *
+     * @return true, if the route definitions of the input have changed
+     */
+    private boolean readInput(Parser parser) {
+        Path input = inputs.get(parser);
+
+        try {
+            return model.putInput(parser, parser.read(input.toFile()));
+        } catch (IOException | RuntimeException e) {
+            //e.q. the file is written at the moment, the old routes of the input are kept until the next change
+            LOGGER.error("cannot parse {}, the previous routes of this input are kept", input, e);
+            return false;
+        }
+    }
+
+    /**
+     * parse all source files and replace the source files of the model.
+     *
+     * @return true, if the routes have changed
+     */
+    private boolean scanSourceTree(int threads, RouteCache cache) throws IOException {
+        //the scan can be parallel, so the results are collected first
+        Map<Path,List<Route>> routesByFile = new ConcurrentHashMap<>();
+
+        new SourceTreeScanner(threads).scan(srcDir, (file, attributes) -> {
+            List<Route> routes = cache != null ? SourceCodeParser.parseSourceCodeFile(file, attributes, cache, fileReader) : SourceCodeParser.parseSourceCodeFile(file, fileReader);
+            routesByFile.put(file, routes);
+            return routes;
+        });
+
+        if (cache != null) {
+            try {
+                cache.save();
+            } catch (IOException e) {
+                LOGGER.warn("cannot save route cache: {}", cache.getCacheFile().toAbsolutePath(), e);
+            }
+        }
+
+        boolean changed = false;
+
+        for (Path file : new ArrayList<>(model.getSourceFiles())) {
+            if (!routesByFile.containsKey(file)) {
+                changed |= model.removeSourceFiles(file);
+            }
+        }
+
+        for (Map.Entry<Path,List<Route>> entry : routesByFile.entrySet()) {
+            changed |= model.putSourceFile(entry.getKey(), entry.getValue());
+        }
+
+        return changed;
+    }
+
+    /**
+     * register a new directory and parse all its source files.
+     *
+     * @return true, if the routes have changed
+     */
+    private boolean addDirectory(Path dir) {
+        boolean changed = false;
+
+        try {
+            registerAll(dir);
+
+            for (Path file : listSourceFiles(dir)) {
+                if (!model.containsSourceFile(file)) {
+                    changed |= model.putSourceFile(file, SourceCodeParser.parseSourceCodeFile(file, fileReader));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("cannot watch directory: {}", dir, e);
+        }
+
+        return changed;
+    }
+
+    /**
+     * register a directory and all sub directories.
+     */
+    private void registerAll(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attributes) throws IOException {
+                register(subDir);
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+    }
+
+    private void register(Path dir) throws IOException {
+        if (watchedDirs.add(dir)) {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+    }
+
+    private static List<Path> listSourceFiles(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && file.getFileName().toString().endsWith(FILE_EXTENSION)) {
+                    files.add(file);
+                }
+
+                return FileVisitResult.CONTINUE;
+            }
+
+        });
+
+        return files;
+    }
+
+    /**
+     * get the current routes.
+     *
+     * @return new route registry with all routes
+     */
+    public synchronized RouteRegistry getRoutes() {
+        return model.toRegistry();
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * listener, which is called after the routes have changed.
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+
+        /**
+         * the routes have changed.
+         *
+         * @param routes new route registry with all routes
+         * @throws InterruptedException if the thread was interrupted
+         */
+        public void routesChanged(RouteRegistry routes) throws InterruptedException;
+
+    }
+
+}
@@ -6,6 +6,7 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 /**
  * an interface for writters which generates a specific file format, like the OpenAPI format.
@@ -25,6 +26,42 @@ public interface FileFormatGenerator {
      */
     public void generateOutputFile(List<Route> routes, String host, String basePath, String fileName) throws IOException;
 
+    /**
+     * generate a output format file with routes, which are already grouped by url, so a generator doesn't have to group them again.
+     * The default implementation ignores the groups.
+     *
+     * @param routes list with all available routes
+     * @param pathGroups all routes grouped by url, see {@link com.jukusoft.route.extractor.parser.RouteTrie#getPathGroups()}
+     * @param host the host of the target system, e.q. "127.0.0.1:8080"
+     * @param basePath the base uri of the target system, e.q. "/app/"
+     * @param fileName the file name of the output file
+     * @throws IOException if the output file cannot be written
+     */
+    public default void generateOutputFile(List<Route> routes, Map<String,List<Route>> pathGroups, String host, String basePath, String fileName) throws IOException {
+        generateOutputFile(routes, host, basePath, fileName);
+    }
+
+    /**
+     * get the fingerprint of everything, which is written into the output file. The output stage skips the generator, if the fingerprint
+     * is equal to the fingerprint of its last successful run with the same file name, because the output file would be byte-identical,
+     * e.q. in watch mode, if only a property of the routes has changed, which isn't part of this file format.
+     *
+     * @param routes list with all available routes
+     * @param host the host of the target system
+     * @param basePath the base uri of the target system
+     * @return fingerprint, see {@link Fingerprint}, or null, if the output file has to be generated every time
+     */
+    public default byte[] getFingerprint(List<Route> routes, String host, String basePath) {
+        return null;
+    }
+
+    /**
+     * get the name of the file format, which can be selected by the commandline option "--formats", e.q. "csv".
+     *
+     * @return format name
+     */
+    public String getFormatName();
+
     /**
      * get the preferred file extension of the output file.
      *
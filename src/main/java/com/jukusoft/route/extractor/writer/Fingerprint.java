@@ -0,0 +1,68 @@
+package com.jukusoft.route.extractor.writer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * a SHA-256 hash of everything, which is written into an output file, see {@link FileFormatGenerator#getFingerprint(java.util.List, String, String)}.
+ *
+ * Every value is hashed with its length, so different values cannot be joined to the same fingerprint.
+ *
+ * @author Justin Kuenzel
+ */
+public class Fingerprint {
+
+    /**
+     * algorithm of the hash.
+     */
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final MessageDigest digest;
+
+    /**
+     * default constructor
+     */
+    public Fingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            //every java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * add binary data, e.q. the serialized routes.
+     *
+     * @param data data
+     * @return this fingerprint
+     */
+    public Fingerprint add(byte[] data) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(data.length).array());
+        digest.update(data);
+
+        return this;
+    }
+
+    /**
+     * add a value, null is added like the string "null".
+     *
+     * @param value value
+     * @return this fingerprint
+     */
+    public Fingerprint add(String value) {
+        return add(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * get the hash of all added values, the fingerprint cannot be used anymore.
+     *
+     * @return hash
+     */
+    public byte[] toBytes() {
+        return digest.digest();
+    }
+
+}
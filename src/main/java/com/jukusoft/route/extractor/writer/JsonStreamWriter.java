@@ -0,0 +1,214 @@
+package com.jukusoft.route.extractor.writer;
+
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * a small streaming JSON writer, which writes the same pretty-printed format as {@link JSONObject#toString(int)},
+ * without building the whole JSON tree in memory.
+ *
+ * @author Justin Kuenzel
+ */
+public class JsonStreamWriter implements Closeable, Flushable {
+
+    /**
+     * line break and spaces, so every indentation is written with one call.
+     */
+    private static final String INDENTATION = "\n" + " ".repeat(256);
+
+    /**
+     * the target writer.
+     */
+    private final Writer writer;
+
+    /**
+     * number of spaces to indent each level, 0 means compact output.
+     */
+    private final int indentFactor;
+
+    /**
+     * current nesting level.
+     */
+    private int depth = 0;
+
+    /**
+     * true, if the next element is the first element of the current object or array.
+     */
+    private boolean first = true;
+
+    /**
+     * true, if a name was written and the value is expected next.
+     */
+    private boolean afterName = false;
+
+    /**
+     * constructor
+     *
+     * @param writer target writer, should be buffered
+     * @param indentFactor number of spaces to indent each level, 0 means compact output
+     */
+    public JsonStreamWriter(Writer writer, int indentFactor) {
+        this.writer = writer;
+        this.indentFactor = indentFactor;
+    }
+
+    public JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        writer.write('{');
+        depth++;
+        first = true;
+        return this;
+    }
+
+    public JsonStreamWriter endObject() throws IOException {
+        return end('}');
+    }
+
+    public JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        writer.write('[');
+        depth++;
+        first = true;
+        return this;
+    }
+
+    public JsonStreamWriter endArray() throws IOException {
+        return end(']');
+    }
+
+    /**
+     * write the name of the next object member.
+     *
+     * @param name member name
+     * @return this instance
+     * @throws IOException if the name cannot be written
+     */
+    public JsonStreamWriter name(String name) throws IOException {
+        beforeElement();
+        writeQuoted(name);
+        writer.write(indentFactor > 0 ? ": " : ":");
+        afterName = true;
+        return this;
+    }
+
+    public JsonStreamWriter value(String value) throws IOException {
+        beforeValue();
+        writeQuoted(value);
+        return this;
+    }
+
+    public JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        writer.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * write a quoted string. Most strings don't contain any character, which has to be escaped,
+     * so they are written with one call instead of character by character.
+     */
+    private void writeQuoted(String str) throws IOException {
+        if (str == null || needsEscaping(str)) {
+            JSONObject.quote(str, writer);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(str);
+        writer.write('"');
+    }
+
+    /**
+     * check, if {@link JSONObject#quote(String)} would escape any character of the string.
+     */
+    private static boolean needsEscaping(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+
+            if (c < ' ' || c == '"' || c == '\\' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                return true;
+            }
+
+            //"</" is escaped as "<\/"
+            if (c == '/' && i > 0 && str.charAt(i - 1) == '<') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private JsonStreamWriter end(char bracket) throws IOException {
+        depth--;
+
+        //empty objects and arrays are written in one line
+        if (!first) {
+            newLine();
+        }
+
+        writer.write(bracket);
+        first = false;
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+
+        beforeElement();
+    }
+
+    private void beforeElement() throws IOException {
+        if (depth > 0) {
+            if (!first) {
+                writer.write(',');
+            }
+
+            newLine();
+        }
+
+        first = false;
+    }
+
+    private void newLine() throws IOException {
+        if (indentFactor <= 0) {
+            return;
+        }
+
+        int spaces = depth * indentFactor;
+
+        if (spaces < INDENTATION.length()) {
+            writer.write(INDENTATION, 0, spaces + 1);
+            return;
+        }
+
+        writer.write('\n');
+
+        for (int i = 0; i < spaces; i++) {
+            writer.write(' ');
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
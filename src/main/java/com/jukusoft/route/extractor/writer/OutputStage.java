@@ -0,0 +1,198 @@
+package com.jukusoft.route.extractor.writer;
+
+import com.jukusoft.route.extractor.parser.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * the output stage, which runs every file format generator on its own worker thread.
+ *
+ * All generators get the same copy of the route list. A failing generator doesn't abort the other generators,
+ * the result of every generator is reported separately. A generator, which output file would be byte-identical to its last
+ * successful run, is skipped, see {@link FileFormatGenerator#getFingerprint(List, String, String)}.
+ *
+ * @author Justin Kuenzel
+ */
+public class OutputStage {
+
+    /**
+     * the class logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputStage.class);
+
+    /**
+     * the selected generators.
+     */
+    private final List<FileFormatGenerator> generators;
+
+    /**
+     * the output files of the last successful run of every generator.
+     */
+    private final Map<FileFormatGenerator,Output> outputs = new ConcurrentHashMap<>();
+
+    /**
+     * constructor
+     *
+     * @param generators file format generators to run
+     */
+    public OutputStage(List<FileFormatGenerator> generators) {
+        this.generators = List.copyOf(generators);
+    }
+
+    /**
+     * select the generators of the given file formats.
+     *
+     * @param generators all available generators
+     * @param formats comma-separated list of format names, e.q. "openapi20,csv", or null to select all generators
+     * @return selected generators, in the order of the available generators
+     * @throws IllegalArgumentException if a format name is unknown
+     */
+    public static List<FileFormatGenerator> selectGenerators(List<FileFormatGenerator> generators, String formats) {
+        if (formats == null) {
+            return generators;
+        }
+
+        Set<String> formatNames = new LinkedHashSet<>();
+
+        for (String format : formats.split(",")) {
+            if (!format.isBlank()) {
+                formatNames.add(format.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<FileFormatGenerator> selectedGenerators = new ArrayList<>();
+
+        for (FileFormatGenerator generator : generators) {
+            if (formatNames.remove(generator.getFormatName())) {
+                selectedGenerators.add(generator);
+            }
+        }
+
+        if (!formatNames.isEmpty() || selectedGenerators.isEmpty()) {
+            String message = "unknown output formats: " + formatNames + ", available formats: " + generators.stream().map(FileFormatGenerator::getFormatName).toList();
+            LOGGER.error(message);
+
+            throw new IllegalArgumentException(message);
+        }
+
+        return selectedGenerators;
+    }
+
+    /**
+     * run all generators concurrently and wait, until all generators are finished.
+     *
+     * @param routes all available routes
+     * @param pathGroups all routes grouped by url, see {@link com.jukusoft.route.extractor.parser.RouteTrie#getPathGroups()}, the routes are grouped only once for all generators
+     * @param host the host of the target system
+     * @param basePath the base uri of the target system
+     * @param fileName the file name of the output file, only used, if exactly one generator is selected. If null, every generator uses its preferred file name
+     * @return the results of all generators, in the order of the generators
+     * @throws InterruptedException if the current thread was interrupted while waiting for the generators
+     */
+    public List<Result> run(List<Route> routes, Map<String,List<Route>> pathGroups, String host, String basePath, String fileName) throws InterruptedException {
+        //all generators share a copy of the list, so adding or removing routes doesn't affect a running generator.
+        //The route objects themselves are shared and mutable, they must not be changed until all generators are finished
+        List<Route> snapshot = List.copyOf(routes);
+
+        if (fileName != null && generators.size() > 1) {
+            LOGGER.warn("file name {} is ignored, because more than one output format is selected", fileName);
+            fileName = null;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, generators.size()), runnable -> {
+            Thread thread = new Thread(runnable, "output-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<Result>> futures = new ArrayList<>(generators.size());
+
+            for (FileFormatGenerator generator : generators) {
+                String outputFileName = fileName != null ? fileName : generator.getPreferredFileName();
+                futures.add(executor.submit(() -> generate(generator, snapshot, pathGroups, host, basePath, outputFileName)));
+            }
+
+            List<Result> results = new ArrayList<>(futures.size());
+
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    //generate() catches all exceptions and errors of the generators
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result generate(FileFormatGenerator generator, List<Route> routes, Map<String,List<Route>> pathGroups, String host, String basePath, String fileName) {
+        LOGGER.info("Generate output file: {} by generator: {}", fileName, generator.getClass().getSimpleName());
+        long startTime = System.nanoTime();
+
+        try {
+            byte[] fingerprint = generator.getFingerprint(routes, host, basePath);
+            Output lastOutput = outputs.get(generator);
+
+            if (fingerprint != null && lastOutput != null && lastOutput.fileName().equals(fileName) && Arrays.equals(lastOutput.fingerprint(), fingerprint)) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                LOGGER.info("output file {} ({}) is unchanged, generation skipped", fileName, generator.getFormatName());
+
+                return new Result(generator.getFormatName(), fileName, millis, null, true);
+            }
+
+            //a failed generation can leave an incomplete file, so the next run has to generate it again
+            outputs.remove(generator);
+            generator.generateOutputFile(routes, pathGroups, host, basePath, fileName);
+
+            if (fingerprint != null) {
+                outputs.put(generator, new Output(fileName, fingerprint));
+            }
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            LOGGER.info("output file {} ({}) generated in {} ms", fileName, generator.getFormatName(), millis);
+
+            return new Result(generator.getFormatName(), fileName, millis, null, false);
+        } catch (Throwable e) {
+            //also errors like StackOverflowError are reported as result, so the results of the other generators aren't lost
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+            LOGGER.error("generation of output file {} ({}) failed after {} ms", fileName, generator.getFormatName(), millis, e);
+
+            return new Result(generator.getFormatName(), fileName, millis, e, false);
+        }
+    }
+
+    /**
+     * the result of a generator.
+     *
+     * @param formatName format name of the generator
+     * @param fileName name of the output file
+     * @param millis generation time in milliseconds
+     * @param error exception or error of the generator or null, if the output file was generated successfully
+     * @param unchanged true, if the generator was skipped, because the output file would be byte-identical to the last run
+     */
+    public record Result(String formatName, String fileName, long millis, Throwable error, boolean unchanged) {
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+    }
+
+    /**
+     * the output file of a successful run.
+     *
+     * @param fileName name of the output file
+     * @param fingerprint fingerprint of the content of the output file
+     */
+    private record Output(String fileName, byte[] fingerprint) {
+    }
+
+}
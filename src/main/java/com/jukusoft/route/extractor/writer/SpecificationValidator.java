@@ -0,0 +1,259 @@
+package com.jukusoft.route.extractor.writer;
+
+import io.swagger.parser.OpenAPIParser;
+import io.swagger.v3.parser.core.models.SwaggerParseResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * validates generated swagger / OpenAPI documents, see also: https://github.com/swagger-api/swagger-parser
+ *
+ * The validation is a separate stage of the output pipeline. In {@link Mode#ASYNC} mode the documents are validated
+ * on a background thread, so the generators don't have to wait for the validation. The results and the validation time
+ * are collected per run, see {@link #reset()}. This class is thread-safe.
+ *
+ * @author Justin Kuenzel
+ */
+public class SpecificationValidator implements Closeable {
+
+    /**
+     * the class logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecificationValidator.class);
+
+    /**
+     * validation mode.
+     */
+    public enum Mode {
+        /**
+         * don't validate generated documents.
+         */
+        OFF,
+
+        /**
+         * validate generated documents in the calling thread.
+         */
+        SYNC,
+
+        /**
+         * validate generated documents on a background thread.
+         */
+        ASYNC;
+
+        /**
+         * parse the validation mode from a commandline option value.
+         *
+         * @param value option value, e.q. "async"
+         * @return validation mode
+         * @throws IllegalArgumentException if the value is not a validation mode
+         */
+        public static Mode parse(String value) {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Mode mode;
+
+    /**
+     * background thread for asynchronous validations, null if the mode is not {@link Mode#ASYNC}.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * all validations, which was started in the current run.
+     */
+    private final List<Future<Boolean>> validations = new ArrayList<>();
+
+    /**
+     * the summed up validation time of all documents of the current run.
+     */
+    private final AtomicLong validationNanos = new AtomicLong(0);
+
+    /**
+     * constructor
+     *
+     * @param mode validation mode
+     */
+    public SpecificationValidator(Mode mode) {
+        this.mode = mode;
+
+        if (mode == Mode.ASYNC) {
+            this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "specification-validator");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * check, if generated documents should be validated. If not, generators don't have to keep a copy of the document.
+     *
+     * @return true, if validation is enabled
+     */
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * validate a generated document.
+     *
+     * @param name document name, e.q. the file name
+     * @param contents the document contents
+     * @return future, which completes with true, if the document can be parsed, errors and warnings are logged. If validation is disabled, the future completes with true immediately
+     */
+    public Future<Boolean> validate(String name, String contents) {
+        return submit(() -> validateNow(name, contents));
+    }
+
+    /**
+     * validate a generated file. The file is read, when the validation starts, so the generator doesn't have to keep
+     * a copy of the document in memory.
+     *
+     * @param file the generated file
+     * @return future, which completes with true, if the document can be parsed, see {@link #validate(String, String)}
+     */
+    public Future<Boolean> validate(Path file) {
+        return submit(() -> {
+            try {
+                return validateNow(file.getFileName().toString(), Files.readString(file, StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                LOGGER.error("Cannot read swagger file for validation: {}", file, e);
+                return false;
+            }
+        });
+    }
+
+    private Future<Boolean> submit(Callable<Boolean> validation) {
+        Future<Boolean> future;
+
+        switch (mode) {
+            case OFF -> future = CompletableFuture.completedFuture(true);
+            case SYNC -> {
+                try {
+                    future = CompletableFuture.completedFuture(validation.call());
+                } catch (Exception e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+            }
+            default -> future = executor.submit(validation);
+        }
+
+        synchronized (validations) {
+            validations.add(future);
+        }
+
+        return future;
+    }
+
+    private boolean validateNow(String name, String contents) {
+        LOGGER.info("validate swagger file: {}", name);
+        long startTime = System.nanoTime();
+
+        SwaggerParseResult result = new OpenAPIParser().readContents(contents, null, null);
+        boolean hasMessages = result.getMessages() != null && !result.getMessages().isEmpty();
+
+        //check for validation errors and warnings
+        if (hasMessages) {
+            LOGGER.error("Validation error or warnings occured in {}: ", name);
+            result.getMessages().forEach(LOGGER::error);
+        } else {
+            LOGGER.info("Swagger validation succeeded: {}", name);
+        }
+
+        //the document is only invalid, if it cannot be parsed at all
+        boolean valid = result.getOpenAPI() != null;
+
+        if (!valid) {
+            LOGGER.error("Validation of Swagger / OpenAPI file failed: {}", name);
+        }
+
+        long nanos = System.nanoTime() - startTime;
+        validationNanos.addAndGet(nanos);
+        LOGGER.info("validation of {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(nanos));
+
+        return valid;
+    }
+
+    /**
+     * wait, until all validations of the current run are finished.
+     *
+     * @return true, if all validated documents of the current run are valid
+     * @throws InterruptedException if the current thread was interrupted while waiting
+     */
+    public boolean awaitCompletion() throws InterruptedException {
+        List<Future<Boolean>> list;
+
+        synchronized (validations) {
+            list = new ArrayList<>(validations);
+        }
+
+        boolean valid = true;
+
+        for (Future<Boolean> future : list) {
+            try {
+                valid &= future.get();
+            } catch (ExecutionException e) {
+                LOGGER.error("validation failed with an exception", e.getCause());
+                valid = false;
+            }
+        }
+
+        return valid;
+    }
+
+    /**
+     * start a new run, e.q. in watch mode: forget the results and the validation time of the previous run.
+     * The validations of the previous run should be finished, see {@link #awaitCompletion()}.
+     */
+    public void reset() {
+        synchronized (validations) {
+            validations.clear();
+        }
+
+        validationNanos.set(0);
+    }
+
+    /**
+     * get the summed up validation time of all finished validations of the current run.
+     *
+     * @return validation time in milliseconds
+     */
+    public long getValidationTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(validationNanos.get());
+    }
+
+    /**
+     * wait for all started validations and stop the background thread.
+     */
+    @Override
+    public void close() {
+        try {
+            awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package com.jukusoft.route.extractor.writer.impl;
 import com.jukusoft.route.extractor.parser.Route;
 import com.jukusoft.route.extractor.parser.RouteMethod;
 import com.jukusoft.route.extractor.writer.FileFormatGenerator;
+import com.jukusoft.route.extractor.writer.Fingerprint;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -46,12 +47,33 @@ public class CSVGenerator implements FileFormatGenerator {
             fileWriter.write("Route;Method;Name;Produces" + System.lineSeparator());
 
             for (Route route : routes) {
-                RouteMethod routeMethod = route.getMethods().entrySet().stream().findFirst().get().getValue();
-                fileWriter.write(route.getUrl() + ";" + routeMethod.getMethod() + ";" + route.getName() + ";" + routeMethod.getProduces() + System.lineSeparator());
+                fileWriter.write(getLine(route) + System.lineSeparator());
             }
         }
     }
 
+    @Override
+    public byte[] getFingerprint(List<Route> routes, String host, String basePath) {
+        //only the lines are written, so a changed parameter doesn't change the file
+        Fingerprint fingerprint = new Fingerprint();
+
+        for (Route route : routes) {
+            fingerprint.add(getLine(route));
+        }
+
+        return fingerprint.toBytes();
+    }
+
+    private static String getLine(Route route) {
+        RouteMethod routeMethod = route.getMethods().entrySet().stream().findFirst().get().getValue();
+        return route.getUrl() + ";" + routeMethod.getMethod() + ";" + route.getName() + ";" + routeMethod.getProduces();
+    }
+
+    @Override
+    public String getFormatName() {
+        return "csv";
+    }
+
     @Override
     public String getFileExtension() {
         return ".csv";
@@ -1,20 +1,26 @@
 package com.jukusoft.route.extractor.writer.impl.openapi;
 
+import com.jukusoft.route.extractor.cache.RouteSerializer;
 import com.jukusoft.route.extractor.parser.Parameter;
 import com.jukusoft.route.extractor.parser.Route;
 import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.parser.RouteTrie;
 import com.jukusoft.route.extractor.writer.FileFormatGenerator;
-import io.swagger.parser.OpenAPIParser;
-import io.swagger.v3.parser.core.models.SwaggerParseResult;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.jukusoft.route.extractor.writer.Fingerprint;
+import com.jukusoft.route.extractor.writer.JsonStreamWriter;
+import com.jukusoft.route.extractor.writer.SpecificationValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
@@ -27,15 +33,41 @@ public class OpenAPI20Generator implements FileFormatGenerator {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(OpenAPI20Generator.class);
 
+    /**
+     * size of the write buffer.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * spaces to indent each level.
+     */
+    private static final int INDENT_FACTOR = 2;
+
     private final Path outputDir;
 
     /**
-     * constructor
+     * validator for the generated swagger files.
+     */
+    private final SpecificationValidator validator;
+
+    /**
+     * constructor, generated files are validated synchronously.
      *
      * @param outputDir output directory, where generated OpenAPI files should be stored
      */
     public OpenAPI20Generator(Path outputDir) {
+        this(outputDir, new SpecificationValidator(SpecificationValidator.Mode.SYNC));
+    }
+
+    /**
+     * constructor
+     *
+     * @param outputDir output directory, where generated OpenAPI files should be stored
+     * @param validator validator for the generated swagger files
+     */
+    public OpenAPI20Generator(Path outputDir, SpecificationValidator validator) {
         this.outputDir = outputDir;
+        this.validator = Objects.requireNonNull(validator);
 
         if (!outputDir.toFile().exists() || !outputDir.toFile().isDirectory()) {
             throw new IllegalArgumentException("output directory doesn't exists or is not a directory: " + outputDir.toString());
@@ -52,31 +84,35 @@ public class OpenAPI20Generator implements FileFormatGenerator {
      */
     @Override
     public void generateOutputFile(List<Route> routes, String host, String basePath, String fileName) throws IOException {
-        File file = createOrOverrideFile(outputDir, fileName);
+        generateOutputFile(routes, new RouteTrie(routes).getPathGroups(), host, basePath, fileName);
+    }
 
-        //generate OpenAPI spec
-        int spacesToIndentEachLevel = 2;
-        String content = generateJSON(routes, host, basePath).toString(spacesToIndentEachLevel);
+    @Override
+    public void generateOutputFile(List<Route> routes, Map<String,List<Route>> pathGroups, String host, String basePath, String fileName) throws IOException {
+        File file = createOrOverrideFile(outputDir, fileName);
 
         LOGGER.info("write swagger specification: {}", file.getAbsolutePath());
-        byte[] strToBytes = content.getBytes();
-        Files.write(file.toPath(), strToBytes);
-
-        //validate generated swagger file, see also: https://github.com/swagger-api/swagger-parser
-        LOGGER.info("validate swagger file...");
-        SwaggerParseResult result = new OpenAPIParser().readContents(file.toString(), null, null);
-
-        //check for validation errors and warnings
-        if (result.getMessages() != null) {
-            LOGGER.error("Validation error or warnings occured: ");
-            result.getMessages().forEach(LOGGER::error);
-        } else {
-            LOGGER.info("Swagger validation succeeded");
-        }
 
-        if (result.getOpenAPI() == null) {
-            LOGGER.error("Validation of Swagger / OpenAPI file failed");
+        //stream the OpenAPI spec into the file, so the whole JSON tree never has to be held in memory.
+        //The validator reads the written file again, so no copy of the document is kept while it's generated
+        Writer writer = new BufferedWriter(Channels.newWriter(FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        try (JsonStreamWriter json = new JsonStreamWriter(writer, INDENT_FACTOR)) {
+            writeJSON(json, pathGroups, host, basePath);
         }
+
+        validator.validate(file.toPath());
+    }
+
+    @Override
+    public byte[] getFingerprint(List<Route> routes, String host, String basePath) {
+        //the serialized routes contain every property of the routes, which can be written into the spec
+        return new Fingerprint().add(RouteSerializer.serialize(routes)).add(host).add(basePath).toBytes();
+    }
+
+    @Override
+    public String getFormatName() {
+        return "openapi20";
     }
 
     @Override
@@ -90,168 +126,121 @@ public class OpenAPI20Generator implements FileFormatGenerator {
     }
 
     /**
-     * generate JSON for OpenAPI Spec Version 2.0 .
+     * write JSON for OpenAPI Spec Version 2.0 . Only the routes of the current url are processed at once.
      *
-     * @param routes all available routes
+     * @param json JSON writer
+     * @param pathGroups all routes grouped by url
      * @param host the server host
      * @param basePath base path
-     *
-     * @return OpenAPI 2.0 spec as JSON Object
+     * @throws IOException if the JSON cannot be written
      */
-    private JSONObject generateJSON(List<Route> routes, String host, String basePath) {
-        JSONObject json = new JSONObject();
+    void writeJSON(JsonStreamWriter json, Map<String,List<Route>> pathGroups, String host, String basePath) throws IOException {
+        json.beginObject();
 
         //add general information on top layer
-        json.put("swagger", "2.0");
-        json.put("basePath", basePath);
-        json.put("host", host);
+        json.name("swagger").value("2.0");
+        json.name("basePath").value(basePath);
+        json.name("host").value(host);
 
         //produces
-        JSONArray producesArray = new JSONArray();
-        producesArray.put("application/xml");
-        json.put("produces", producesArray);
+        json.name("produces").beginArray().value("application/xml").endArray();
 
         //info-tag
-        JSONObject infoJSON = new JSONObject();
-        infoJSON.put("title", "auto-generated swagger specification");
-        infoJSON.put("description", "auto-generated swagger specification");
-        infoJSON.put("version", "1.0.0");
-        json.put("info", infoJSON);
+        json.name("info").beginObject();
+        json.name("title").value("auto-generated swagger specification");
+        json.name("description").value("auto-generated swagger specification");
+        json.name("version").value("1.0.0");
+        json.endObject();
 
-        Map<String,List<Route>> pathMap = convertToPathMap(routes);
+        // "paths" object
+        json.name("paths").beginObject();
 
-        JSONObject paths = new JSONObject();
+        for (Map.Entry<String,List<Route>> entry : pathGroups.entrySet()) {
+            json.name(entry.getKey());
+            writePathItem(json, entry.getKey(), entry.getValue());
+        }
 
-        // "paths" object
-        for (Map.Entry<String,List<Route>> entry : pathMap.entrySet()) {
-            JSONObject methodsJSON = new JSONObject();
-
-            String url = entry.getKey();
-            List<Route> methodsForRoute = entry.getValue();
-
-            //iterate through all available routes (URLs)
-            for (Route route : methodsForRoute) {
-                //note: every url can have multiple route-objects, if there are more than one HTTP methods for this route
-                for (Map.Entry<Route.METHOD, RouteMethod> methodEntry : route.getMethods().entrySet()) {
-                    Route.METHOD method = methodEntry.getKey();
-                    RouteMethod routeMethod = methodEntry.getValue();
-
-                    JSONObject pathMethod = new JSONObject();
-
-                    pathMethod.put("summary", route.getName());
-                    pathMethod.put("description", route.getName());
-                    pathMethod.put("operationId", route.getName());
-
-                    JSONArray producesArr = new JSONArray();
-                    producesArr.put(routeMethod.getProduces());
-                    pathMethod.put("produces", producesArr);
-
-                    //add default responses
-                    JSONObject respJSON = new JSONObject();
-                    JSONObject resp200JSON = new JSONObject();
-                    resp200JSON.put("description", "Success");
-                    respJSON.put("200", resp200JSON);
-                    pathMethod.put("responses", respJSON);
-
-                    if (!routeMethod.getParameters().isEmpty()) {
-                        JSONArray parametersArray = new JSONArray();
-
-                        for (Parameter param : routeMethod.getParameters()) {
-                            if (param.getIn().equals("path")) {
-                                //we already add path-variables in another section
-                                continue;
-                            }
-
-                            JSONObject param1 = new JSONObject();
-
-                            param1.put("name", param.getName());
-                            param1.put("in", param.getIn());
-                            param1.put("required", param.getRequired());
-                            param1.put("type", param.getType());
-                            param1.put("description", param.getName());
-                            param1.put("operationId", param.getName());
-
-                            if (!param.getDefaultStr().isEmpty()) {
-                                param1.put("default", param.getDefaultStr());
-                            }
-
-                            parametersArray.put(param1);
-                        }
-
-                        pathMethod.put("parameters", parametersArray);
-                    }
+        json.endObject();
+        json.endObject();
+    }
 
-                    methodsJSON.put(routeMethod.getMethod().toString().toLowerCase(Locale.ROOT), pathMethod);
-                }
+    /**
+     * write the path item of an url with all HTTP methods.
+     *
+     * @param json JSON writer
+     * @param url url
+     * @param methodsForRoute all routes with this url
+     * @throws IOException if the JSON cannot be written
+     */
+    private void writePathItem(JsonStreamWriter json, String url, List<Route> methodsForRoute) throws IOException {
+        json.beginObject();
 
-                //add url parameters, if neccessary
-                if (url.contains("{") && url.contains("}")) {
-                    //url contains path variables
-                    JSONArray parametersJSON = new JSONArray();
-
-                    //get the first route-method and extract the path variables
-                    List<Parameter> parameters = methodsForRoute.stream()
-                            .findFirst()//find first route obkect
-                            .map(route1 -> route1.getMethods())//map to list with route-methods
-                            .filter(map -> !map.isEmpty())//verify, that route has minimum one HTTP method (this is a MUST-HAVE requirement)
-                            .map(map -> map.values().stream().findFirst())//map to first route-method (all methods contains the same path parameters, so we only need the first one
-                            .map(opt -> opt.get())//remove the optional
-                            .map(routeMethod -> routeMethod.getParameters())//map to route methods
-                            .get();
-
-                    //iterate through all parameters for a specific url, filter the path parameters and add them to JSON
-                    for (Parameter parameter : parameters) {
-                        //only add path-variables
-                        if (parameter.getIn().equals("path")) {
-                            JSONObject parameterJSON = new JSONObject();
-
-                            parameterJSON.put("name", parameter.getName());
-                            parameterJSON.put("in", parameter.getIn());
-                            parameterJSON.put("required", parameter.getRequired());
-                            parameterJSON.put("type", parameter.getType());
-                            parameterJSON.put("description", parameter.getName());
-                            parameterJSON.put("operationId", parameter.getName());
-
-                            if (!parameter.getDefaultStr().isEmpty()) {
-                                parameterJSON.put("default", parameter.getDefaultStr());
-                            }
-
-                            parametersJSON.put(parameterJSON);
-                        }
-                    }
+        for (PathItems.Operation operation : PathItems.getOperations(methodsForRoute).values()) {
+            Route route = operation.route();
+            RouteMethod routeMethod = operation.routeMethod();
+
+            json.name(routeMethod.getMethod().toString().toLowerCase(Locale.ROOT)).beginObject();
+
+            json.name("summary").value(route.getName());
+            json.name("description").value(route.getName());
+            json.name("operationId").value(route.getName());
+            json.name("produces").beginArray().value(routeMethod.getProduces()).endArray();
 
-                    //add path parameters to json
-                    methodsJSON.put("parameters", parametersJSON);
+            //add default responses
+            json.name("responses").beginObject();
+            json.name("200").beginObject().name("description").value("Success").endObject();
+            json.endObject();
+
+            if (!routeMethod.getParameters().isEmpty()) {
+                json.name("parameters").beginArray();
+
+                for (Parameter param : routeMethod.getParameters()) {
+                    //we already add path-variables in another section
+                    if (param.getInType() != Parameter.IN_TYPE.PATH) {
+                        writeParameter(json, param);
+                    }
                 }
+
+                json.endArray();
             }
 
-            //add the route-methods to the URL
-            paths.put(entry.getKey(), methodsJSON);
+            json.endObject();
         }
 
-        json.put("paths", paths);
+        //add url parameters, if neccessary
+        Optional<RouteMethod> pathParameterSource = PathItems.getPathParameterSource(methodsForRoute);
+
+        if (PathItems.hasPathVariables(url) && pathParameterSource.isPresent()) {
+            json.name("parameters").beginArray();
+
+            for (Parameter parameter : pathParameterSource.get().getParameters()) {
+                //only add path-variables
+                if (parameter.getInType() == Parameter.IN_TYPE.PATH) {
+                    writeParameter(json, parameter);
+                }
+            }
+
+            json.endArray();
+        }
 
-        return json;
+        json.endObject();
     }
 
-    /**
-     * merges different route-methods with the same URL to a map like URL - route-list.
-     *
-     * @param routes all available routes for a specific site
-     * @return map "URL - route-list" for mapping URLs to routes with different methods
-     */
-    private Map<String,List<Route>> convertToPathMap(List<Route> routes) {
-        Map<String,List<Route>> pathMap = new HashMap<>();
+    private void writeParameter(JsonStreamWriter json, Parameter parameter) throws IOException {
+        json.beginObject();
 
-        for (Route route : routes) {
-            if (!pathMap.containsKey(route.getUrl())) {
-                pathMap.put(route.getUrl(), new ArrayList<>());
-            }
+        json.name("name").value(parameter.getName());
+        json.name("in").value(parameter.getIn());
+        json.name("required").value(parameter.getRequired());
+        json.name("type").value(parameter.getType());
+        json.name("description").value(parameter.getName());
+        json.name("operationId").value(parameter.getName());
 
-            pathMap.get(route.getUrl()).add(route);
+        if (!parameter.getDefaultStr().isEmpty()) {
+            json.name("default").value(parameter.getDefaultStr());
         }
 
-        return pathMap;
+        json.endObject();
     }
 
 }
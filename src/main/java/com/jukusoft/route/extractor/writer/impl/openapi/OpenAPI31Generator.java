@@ -0,0 +1,288 @@
+package com.jukusoft.route.extractor.writer.impl.openapi;
+
+import com.jukusoft.route.extractor.cache.RouteSerializer;
+import com.jukusoft.route.extractor.parser.Parameter;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.parser.RouteTrie;
+import com.jukusoft.route.extractor.writer.FileFormatGenerator;
+import com.jukusoft.route.extractor.writer.Fingerprint;
+import com.jukusoft.route.extractor.writer.JsonStreamWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * this class is responsible for generating OpenAPI 3.1 specification files.
+ *
+ * Identical parameter definitions are written only once into "components/parameters" and referenced by "$ref",
+ * so the generated file is much smaller than the OpenAPI 2.0 file. The generated files are not validated,
+ * because the used swagger-parser version doesn't support OpenAPI 3.1 yet.
+ *
+ * @author Justin Kuenzel
+ */
+public class OpenAPI31Generator implements FileFormatGenerator {
+
+    /**
+     * the logger.
+     */
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenAPI31Generator.class);
+
+    /**
+     * size of the write buffer.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * spaces to indent each level.
+     */
+    private static final int INDENT_FACTOR = 2;
+
+    private final Path outputDir;
+
+    /**
+     * constructor
+     *
+     * @param outputDir output directory, where generated OpenAPI files should be stored
+     */
+    public OpenAPI31Generator(Path outputDir) {
+        this.outputDir = outputDir;
+
+        if (!outputDir.toFile().exists() || !outputDir.toFile().isDirectory()) {
+            throw new IllegalArgumentException("output directory doesn't exists or is not a directory: " + outputDir.toString());
+        }
+    }
+
+    /**
+     * generate OpenAPI 3.1 JSON files
+     *
+     * @param routes list with all possible routes
+     * @param host host address, e.q. localhost:8888
+     * @param basePath base path
+     * @param fileName file name of the output file
+     */
+    @Override
+    public void generateOutputFile(List<Route> routes, String host, String basePath, String fileName) throws IOException {
+        generateOutputFile(routes, new RouteTrie(routes).getPathGroups(), host, basePath, fileName);
+    }
+
+    @Override
+    public void generateOutputFile(List<Route> routes, Map<String,List<Route>> pathGroups, String host, String basePath, String fileName) throws IOException {
+        File file = createOrOverrideFile(outputDir, fileName);
+
+        LOGGER.info("write OpenAPI 3.1 specification: {}", file.getAbsolutePath());
+
+        //stream the OpenAPI spec into the file, so the whole JSON tree never has to be held in memory
+        try (JsonStreamWriter json = new JsonStreamWriter(new BufferedWriter(Channels.newWriter(FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), StandardCharsets.UTF_8), BUFFER_SIZE), INDENT_FACTOR)) {
+            writeJSON(json, pathGroups, host, basePath);
+        }
+    }
+
+    @Override
+    public byte[] getFingerprint(List<Route> routes, String host, String basePath) {
+        //the serialized routes contain every property of the routes, which can be written into the spec
+        return new Fingerprint().add(RouteSerializer.serialize(routes)).add(host).add(basePath).toBytes();
+    }
+
+    @Override
+    public String getFormatName() {
+        return "openapi31";
+    }
+
+    @Override
+    public String getFileExtension() {
+        return ".json";
+    }
+
+    @Override
+    public String getPreferredFileName() {
+        return "openapi.json";
+    }
+
+    /**
+     * write JSON for OpenAPI Spec Version 3.1 . Only the routes of the current url are processed at once,
+     * the interned parameter definitions are written after all paths.
+     *
+     * @param json JSON writer
+     * @param pathGroups all routes grouped by url
+     * @param host the server host
+     * @param basePath base path
+     * @throws IOException if the JSON cannot be written
+     */
+    void writeJSON(JsonStreamWriter json, Map<String,List<Route>> pathGroups, String host, String basePath) throws IOException {
+        ParameterComponents parameterComponents = new ParameterComponents();
+
+        json.beginObject();
+
+        json.name("openapi").value("3.1.0");
+
+        json.name("info").beginObject();
+        json.name("title").value("auto-generated OpenAPI specification");
+        json.name("description").value("auto-generated OpenAPI specification");
+        json.name("version").value("1.0.0");
+        json.endObject();
+
+        json.name("servers").beginArray().beginObject().name("url").value("http://" + host + basePath).endObject().endArray();
+
+        json.name("paths").beginObject();
+
+        for (Map.Entry<String,List<Route>> entry : pathGroups.entrySet()) {
+            json.name(entry.getKey());
+            writePathItem(json, entry.getKey(), entry.getValue(), parameterComponents);
+        }
+
+        json.endObject();
+
+        json.name("components").beginObject();
+        json.name("parameters");
+        parameterComponents.write(json);
+        json.endObject();
+
+        json.endObject();
+
+        LOGGER.debug("{} shared parameter definitions written", parameterComponents.size());
+    }
+
+    private void writePathItem(JsonStreamWriter json, String url, List<Route> methodsForRoute, ParameterComponents parameterComponents) throws IOException {
+        json.beginObject();
+
+        //path parameters are shared by all operations of the url
+        Optional<RouteMethod> pathParameterSource = PathItems.getPathParameterSource(methodsForRoute);
+
+        if (PathItems.hasPathVariables(url) && pathParameterSource.isPresent()) {
+            writeParameterReferences(json, pathParameterSource.get().getParameters(), Parameter.IN_TYPE.PATH, parameterComponents);
+        }
+
+        for (PathItems.Operation operation : PathItems.getOperations(methodsForRoute).values()) {
+            Route route = operation.route();
+            RouteMethod routeMethod = operation.routeMethod();
+            String method = routeMethod.getMethod().toString().toLowerCase(Locale.ROOT);
+
+            json.name(method).beginObject();
+
+            json.name("summary").value(route.getName());
+            json.name("description").value(route.getName());
+
+            //operation ids have to be unique, so the method is appended, if a route has more than one method
+            json.name("operationId").value(route.getMethods().size() > 1 ? route.getName() + "_" + method : route.getName());
+
+            writeParameterReferences(json, routeMethod.getParameters(), null, parameterComponents);
+            writeFormRequestBody(json, routeMethod.getParameters());
+
+            //add default responses
+            json.name("responses").beginObject();
+            json.name("200").beginObject();
+            json.name("description").value("Success");
+            json.name("content").beginObject().name(routeMethod.getProduces()).beginObject().endObject().endObject();
+            json.endObject();
+            json.endObject();
+
+            json.endObject();
+        }
+
+        json.endObject();
+    }
+
+    /**
+     * write a "parameters" array with references to the shared parameter definitions.
+     *
+     * @param json JSON writer
+     * @param parameters parameters of the route method
+     * @param inType only write parameters with this location, or null to write all parameters except path and form parameters
+     * @param parameterComponents shared parameter definitions
+     * @throws IOException if the JSON cannot be written
+     */
+    private void writeParameterReferences(JsonStreamWriter json, List<Parameter> parameters, Parameter.IN_TYPE inType, ParameterComponents parameterComponents) throws IOException {
+        boolean empty = true;
+
+        for (Parameter parameter : parameters) {
+            boolean matches = inType != null ? parameter.getInType() == inType : parameter.getInType() != Parameter.IN_TYPE.PATH && parameter.getInType() != Parameter.IN_TYPE.FORM;
+
+            if (!matches) {
+                continue;
+            }
+
+            if (empty) {
+                json.name("parameters").beginArray();
+                empty = false;
+            }
+
+            json.beginObject().name("$ref").value(parameterComponents.getReference(parameter)).endObject();
+        }
+
+        if (!empty) {
+            json.endArray();
+        }
+    }
+
+    /**
+     * form parameters are not parameters in OpenAPI 3.x, they are written as properties of a form request body.
+     *
+     * @param json JSON writer
+     * @param parameters parameters of the route method
+     * @throws IOException if the JSON cannot be written
+     */
+    private void writeFormRequestBody(JsonStreamWriter json, List<Parameter> parameters) throws IOException {
+        List<String> requiredParameters = new ArrayList<>();
+        boolean empty = true;
+
+        for (Parameter parameter : parameters) {
+            if (parameter.getInType() != Parameter.IN_TYPE.FORM) {
+                continue;
+            }
+
+            if (empty) {
+                json.name("requestBody").beginObject();
+                json.name("content").beginObject();
+                json.name("application/x-www-form-urlencoded").beginObject();
+                json.name("schema").beginObject();
+                json.name("type").value("object");
+                json.name("properties").beginObject();
+                empty = false;
+            }
+
+            json.name(parameter.getName()).beginObject();
+            json.name("type").value(parameter.getType());
+
+            if (!parameter.getDefaultStr().isEmpty()) {
+                json.name("default").value(parameter.getDefaultStr());
+            }
+
+            json.endObject();
+
+            if (parameter.getRequired()) {
+                requiredParameters.add(parameter.getName());
+            }
+        }
+
+        if (empty) {
+            return;
+        }
+
+        //close "properties"
+        json.endObject();
+
+        if (!requiredParameters.isEmpty()) {
+            json.name("required").beginArray();
+
+            for (String name : requiredParameters) {
+                json.value(name);
+            }
+
+            json.endArray();
+        }
+
+        //close "schema", media type, "content" and "requestBody"
+        json.endObject().endObject().endObject().endObject();
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.jukusoft.route.extractor.writer.impl.openapi;
+
+import com.jukusoft.route.extractor.parser.Parameter;
+import com.jukusoft.route.extractor.writer.JsonStreamWriter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * interns identical parameter definitions, so every definition is written only once into "components/parameters"
+ * and referenced by "$ref" from the operations.
+ *
+ * @author Justin Kuenzel
+ */
+class ParameterComponents {
+
+    /**
+     * prefix of all parameter references.
+     */
+    private static final String REF_PREFIX = "#/components/parameters/";
+
+    /**
+     * characters, which are not allowed in component names.
+     */
+    private static final Pattern INVALID_NAME_CHARS = Pattern.compile("[^a-zA-Z0-9._-]");
+
+    /**
+     * all interned definitions with their component name, in the order of the first occurrence.
+     */
+    private final Map<Definition,String> components = new LinkedHashMap<>();
+
+    /**
+     * all used component names.
+     */
+    private final Set<String> componentNames = new HashSet<>();
+
+    /**
+     * get the reference of a parameter definition, the definition is interned, if it wasn't used before.
+     *
+     * @param parameter parameter
+     * @return reference, e.q. "#/components/parameters/path.id"
+     */
+    public String getReference(Parameter parameter) {
+        return REF_PREFIX + components.computeIfAbsent(Definition.of(parameter), this::createComponentName);
+    }
+
+    private String createComponentName(Definition definition) {
+        String baseName = definition.inName() + "." + INVALID_NAME_CHARS.matcher(definition.name()).replaceAll("_");
+        String name = baseName;
+
+        //the same parameter name can be used with different types or default values
+        for (int i = 2; !componentNames.add(name); i++) {
+            name = baseName + "-" + i;
+        }
+
+        return name;
+    }
+
+    /**
+     * write the "parameters" object of the components.
+     *
+     * @param json JSON writer
+     * @throws IOException if the JSON cannot be written
+     */
+    public void write(JsonStreamWriter json) throws IOException {
+        json.beginObject();
+
+        for (Map.Entry<Definition,String> entry : components.entrySet()) {
+            Definition definition = entry.getKey();
+
+            json.name(entry.getValue()).beginObject();
+            json.name("name").value(definition.name());
+            json.name("in").value(definition.inName());
+            json.name("description").value(definition.name());
+            json.name("required").value(definition.required());
+
+            json.name("schema").beginObject();
+            json.name("type").value(definition.type());
+
+            if (!definition.defaultStr().isEmpty()) {
+                json.name("default").value(definition.defaultStr());
+            }
+
+            json.endObject();
+            json.endObject();
+        }
+
+        json.endObject();
+    }
+
+    /**
+     * get the number of interned parameter definitions.
+     *
+     * @return number of components
+     */
+    public int size() {
+        return components.size();
+    }
+
+    /**
+     * a parameter definition.
+     *
+     * @param name parameter name
+     * @param in parameter location
+     * @param required true, if the parameter is required
+     * @param type parameter type
+     * @param defaultStr default value or empty string
+     */
+    private record Definition(String name, Parameter.IN_TYPE in, boolean required, String type, String defaultStr) {
+
+        static Definition of(Parameter parameter) {
+            //path parameters are always required in OpenAPI 3.x, optional path parameters only have a default value
+            boolean required = parameter.getInType() == Parameter.IN_TYPE.PATH || parameter.getRequired();
+            return new Definition(parameter.getName(), parameter.getInType(), required, parameter.getType(), parameter.getDefaultStr() != null ? parameter.getDefaultStr() : "");
+        }
+
+        String inName() {
+            return in.name().toLowerCase(Locale.ROOT);
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.jukusoft.route.extractor.writer.impl.openapi;
+
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+
+import java.util.*;
+
+/**
+ * utility class to group routes into OpenAPI path items, shared by all OpenAPI generators.
+ *
+ * @author Justin Kuenzel
+ */
+final class PathItems {
+
+    /**
+     * private constructor, because this is a utility class
+     */
+    private PathItems() {
+        //
+    }
+
+    /**
+     * get the operations of an url. Every url can have multiple route-objects, if there are more than one HTTP methods for this route.
+     * If two routes declare the same HTTP method, the last one wins.
+     *
+     * @param routesWithUrl all routes with the same url
+     * @return map "HTTP method - operation"
+     */
+    static Map<Route.METHOD,Operation> getOperations(List<Route> routesWithUrl) {
+        Map<Route.METHOD,Operation> operations = new EnumMap<>(Route.METHOD.class);
+
+        for (Route route : routesWithUrl) {
+            for (RouteMethod routeMethod : route.getMethods().values()) {
+                operations.put(routeMethod.getMethod(), new Operation(route, routeMethod));
+            }
+        }
+
+        return operations;
+    }
+
+    /**
+     * get the route-method, which declares the path parameters of an url. All methods contains the same path parameters,
+     * so only the first route-method of the first route is used.
+     *
+     * @param routesWithUrl all routes with the same url
+     * @return first route method or empty optional, if the first route doesn't have any HTTP method
+     */
+    static Optional<RouteMethod> getPathParameterSource(List<Route> routesWithUrl) {
+        Map<Route.METHOD,RouteMethod> methods = routesWithUrl.get(0).getMethods();
+        return methods.isEmpty() ? Optional.empty() : Optional.of(methods.values().iterator().next());
+    }
+
+    /**
+     * check, if an url contains path variables.
+     *
+     * @param url url
+     * @return true, if the url contains path variables
+     */
+    static boolean hasPathVariables(String url) {
+        return url.contains("{") && url.contains("}");
+    }
+
+    /**
+     * a HTTP method of an url with the route, which declares it.
+     *
+     * @param route route
+     * @param routeMethod route method
+     */
+    record Operation(Route route, RouteMethod routeMethod) {
+    }
+
+}
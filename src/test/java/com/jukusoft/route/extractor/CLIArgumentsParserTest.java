@@ -33,4 +33,28 @@ public class CLIArgumentsParserTest {
         Assertions.assertEquals("/output", params.get("output"));
     }
 
+    @Test
+    public void testParseThreads() {
+        Map<String,String> params = CLIArgumentsParser.parseArguments(new String[]{"-s", "src/", "-o", "/output", "--threads", "8"});
+        Assertions.assertEquals("8", params.get("threads"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            CLIArgumentsParser.parseArguments(new String[]{"-s", "src/", "-o", "/output", "--threads", "0"});
+        });
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            CLIArgumentsParser.parseArguments(new String[]{"-s", "src/", "-o", "/output", "--threads", "many"});
+        });
+    }
+
+    @Test
+    public void testParseValidate() {
+        Map<String,String> params = CLIArgumentsParser.parseArguments(new String[]{"-s", "src/", "-o", "/output", "--validate=off"});
+        Assertions.assertEquals("off", params.get("validate"));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> {
+            CLIArgumentsParser.parseArguments(new String[]{"-s", "src/", "-o", "/output", "--validate", "later"});
+        });
+    }
+
 }
@@ -0,0 +1,201 @@
+package com.jukusoft.route.extractor.cache;
+
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.parser.SourceCodeParser;
+import com.jukusoft.route.extractor.parser.SourceFileReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteCacheTest {
+
+    /**
+     * check, that a warm run returns the same routes without parsing and that changed and deleted files are detected.
+     */
+    @Test
+    public void testIncrementalParsing(@TempDir Path tempDir) throws IOException {
+        Path srcDir = Files.createDirectories(tempDir.resolve("src"));
+        Path cacheFile = RouteCache.getDefaultCacheFile(Files.createDirectories(tempDir.resolve("output")));
+
+        for (int i = 0; i < 5; i++) {
+            writeController(srcDir.resolve("Controller" + i + ".php"), "/module" + i, "route" + i);
+        }
+
+        //cold run
+        RouteCache cache = RouteCache.load(cacheFile);
+        List<Route> routes = SourceCodeParser.parseSourceCodeDir(srcDir.toFile(), 1, cache);
+        assertEquals(5, routes.size());
+        assertEquals(0, cache.getHits());
+        assertTrue(Files.exists(cacheFile));
+
+        //warm run on an unchanged tree
+        cache = RouteCache.load(cacheFile);
+        assertEquals(5, cache.size());
+        assertEquals(routes, SourceCodeParser.parseSourceCodeDir(srcDir.toFile(), 1, cache));
+        assertEquals(5, cache.getHits());
+        assertEquals(0, cache.getMisses());
+
+        //touch a file without changing the content, change another one and delete a third file
+        Files.setLastModifiedTime(srcDir.resolve("Controller0.php"), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        writeController(srcDir.resolve("Controller1.php"), "/changed", "changedRoute");
+        Files.setLastModifiedTime(srcDir.resolve("Controller1.php"), FileTime.fromMillis(System.currentTimeMillis() + 120_000));
+        Files.delete(srcDir.resolve("Controller2.php"));
+
+        cache = RouteCache.load(cacheFile);
+        routes = SourceCodeParser.parseSourceCodeDir(srcDir.toFile(), 1, cache);
+        assertEquals(4, routes.size());
+        assertTrue(routes.stream().anyMatch(route -> route.getName().equals("changedRoute") && route.getUrl().equals("/changed/item/{id}")));
+        assertFalse(routes.stream().anyMatch(route -> route.getName().equals("route1") || route.getName().equals("route2")));
+
+        //Controller0 is found by content hash, Controller1 has to be parsed
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        //the deleted file was removed from the cache
+        assertEquals(4, RouteCache.load(cacheFile).size());
+    }
+
+    /**
+     * check, that cached routes are copies, so changes of later parsers don't modify the cache.
+     */
+    @Test
+    public void testCachedRoutesAreCopies(@TempDir Path tempDir) throws IOException {
+        Path srcFile = tempDir.resolve("Controller.php");
+        writeController(srcFile, "/module", "route");
+
+        RouteCache cache = new RouteCache(tempDir.resolve("cache.bin"));
+        List<Route> routes = SourceCodeParser.parseSourceCodeFile(srcFile);
+        cache.put(srcFile, 1, 1, RouteCache.hash(Files.readAllBytes(srcFile)), routes);
+
+        routes.get(0).getMethods().clear();
+
+        List<Route> cachedRoutes = cache.lookup(srcFile, 1, 1).orElseThrow();
+        assertEquals(1, cachedRoutes.get(0).getMethods().size());
+        assertEquals(routes.get(0), cachedRoutes.get(0));
+        assertEquals(Map.of("id", "de"), cachedRoutes.get(0).getRequirements());
+        assertNotSame(cachedRoutes.get(0), cache.lookup(srcFile, 1, 1).orElseThrow().get(0));
+    }
+
+    /**
+     * check, that only the changed files are parsed and that the result is the same as the result of a full scan.
+     */
+    @Test
+    public void testChangedFiles(@TempDir Path tempDir) throws IOException {
+        Path srcDir = Files.createDirectories(tempDir.resolve("src"));
+        Path cacheFile = RouteCache.getDefaultCacheFile(Files.createDirectories(tempDir.resolve("output")));
+
+        for (int i = 0; i < 5; i++) {
+            Path dir = Files.createDirectories(srcDir.resolve(i % 2 == 0 ? "b" : "a"));
+            writeController(dir.resolve("Controller" + i + ".php"), "/module" + i, "route" + i);
+        }
+
+        //without a cache of a previous run the whole source directory is scanned
+        RouteCache cache = RouteCache.load(cacheFile);
+        List<Route> routes = SourceCodeParser.parseChangedFiles(srcDir.toFile(), 1, cache, List.of(), new SourceFileReader());
+        assertEquals(5, routes.size());
+        assertEquals(5, RouteCache.load(cacheFile).size());
+
+        //change a file, delete a file and add a new file
+        writeController(srcDir.resolve("a/Controller1.php"), "/changed", "changedRoute");
+        Files.delete(srcDir.resolve("b/Controller2.php"));
+        writeController(srcDir.resolve("a/Controller5.php"), "/module5", "route5");
+
+        List<Path> changedFiles = List.of(
+                srcDir.resolve("a/Controller1.php"),
+                srcDir.resolve("b/Controller2.php"),
+                srcDir.resolve("a/Controller5.php"),
+                tempDir.resolve("README.md")
+        );
+
+        cache = RouteCache.load(cacheFile);
+        routes = SourceCodeParser.parseChangedFiles(srcDir.toFile(), 1, cache, changedFiles, new SourceFileReader());
+
+        //the result is the same as a full scan, in the same order
+        assertEquals(SourceCodeParser.parseSourceCodeDir(srcDir.toFile()), routes);
+        assertTrue(routes.stream().anyMatch(route -> route.getName().equals("changedRoute")));
+        assertFalse(routes.stream().anyMatch(route -> route.getName().equals("route2")));
+
+        //the unchanged files are taken from the cache, the changed and the new file are parsed
+        assertEquals(3, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        //the routes of the deleted file are retracted from the cache
+        assertEquals(5, RouteCache.load(cacheFile).size());
+        assertFalse(RouteCache.load(cacheFile).getFiles().contains(srcDir.resolve("b/Controller2.php").toAbsolutePath().normalize()));
+    }
+
+    /**
+     * check, that invalid lengths and enum values in a corrupt cache are reported as IOException, so the cache is rebuilt.
+     */
+    @Test
+    public void testCorruptCache(@TempDir Path tempDir) throws IOException {
+        Path srcFile = tempDir.resolve("Controller.php");
+        writeController(srcFile, "/module", "route");
+        Path cacheFile = tempDir.resolve("cache.bin");
+
+        RouteCache cache = new RouteCache(cacheFile);
+        cache.put(srcFile, 1, 1, RouteCache.hash(Files.readAllBytes(srcFile)), SourceCodeParser.parseSourceCodeFile(srcFile));
+        cache.save();
+        byte[] data = Files.readAllBytes(cacheFile);
+        assertEquals(1, RouteCache.load(cacheFile).size());
+
+        //header (magic, version, entry count), file name, size and last modified, then the length of the hash
+        int fileNameLength = ByteBuffer.wrap(data, 12, 4).getInt();
+        int hashLengthOffset = 16 + fileNameLength + 16;
+
+        for (int length : new int[]{-2, Integer.MAX_VALUE}) {
+            byte[] corrupt = data.clone();
+            ByteBuffer.wrap(corrupt).putInt(hashLengthOffset, length);
+            Files.write(cacheFile, corrupt);
+            assertEquals(0, RouteCache.load(cacheFile).size());
+        }
+
+        //truncated file
+        Files.write(cacheFile, Arrays.copyOf(data, data.length / 2));
+        assertEquals(0, RouteCache.load(cacheFile).size());
+
+        //serialized routes: route count, url, name, method count, then the ordinal of the method
+        byte[] routes = RouteSerializer.serialize(List.of(new Route("/a", "b")));
+        assertEquals(List.of(new Route("/a", "b")), RouteSerializer.deserialize(routes));
+
+        Route route = new Route("/a", "b");
+        route.addRouteMethod(Route.METHOD.GET, new RouteMethod(Route.METHOD.GET));
+        routes = RouteSerializer.serialize(List.of(route));
+        routes[4 + 6 + 5 + 4] = 100;
+        byte[] invalidOrdinal = routes;
+        assertThrows(IOException.class, () -> RouteSerializer.deserialize(invalidOrdinal));
+
+        byte[] invalidCount = RouteSerializer.serialize(List.of(route));
+        ByteBuffer.wrap(invalidCount).putInt(0, -1);
+        assertThrows(IOException.class, () -> RouteSerializer.deserialize(invalidCount));
+    }
+
+    private static void writeController(Path file, String prefix, String routeName) throws IOException {
+        String content = "<?php\n\n" +
+                "/**\n" +
+                " * @Route(\"" + prefix + "\")\n" +
+                " */\n" +
+                "class Controller\n" +
+                "{\n" +
+                "    /**\n" +
+                "     * @Route(\"/item/{id}\", name=\"" + routeName + "\", requirements={\"id\" = \"de\"}, defaults={\"page\" = \"1\"})\n" +
+                "     */\n" +
+                "    public function itemAction($id) {}\n" +
+                "}\n";
+
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+}
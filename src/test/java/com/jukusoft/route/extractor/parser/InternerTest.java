@@ -0,0 +1,48 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InternerTest {
+
+    @Test
+    public void testIntern() {
+        String value = new String("interner-test");
+        assertSame(value, Interner.intern(value));
+        assertSame(value, Interner.intern(new String("interner-test")));
+        assertNull(Interner.intern(null));
+
+        Parameter parameter = new Parameter("id", Parameter.IN_TYPE.PATH, true, "string", "");
+        assertSame(parameter, Interner.intern(parameter));
+        assertSame(parameter, Interner.intern(new Parameter("id", Parameter.IN_TYPE.PATH, true, "string", "")));
+    }
+
+    /**
+     * values, which aren't used anymore, are removed, so the table doesn't grow in watch mode.
+     */
+    @Test
+    public void testUnusedValuesAreRemoved() throws InterruptedException {
+        List<String> values = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            values.add(Interner.intern("unused-value-" + i));
+        }
+
+        int size = Interner.size();
+        assertTrue(size >= 10_000);
+
+        values.clear();
+
+        for (int i = 0; i < 50 && Interner.size() > size - 10_000; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertTrue(Interner.size() <= size - 10_000);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhpArrayReaderTest {
+
+    @Test
+    public void testReadArray() {
+        String php = "<?php\n\n// comment with return [\n/* block comment */\n# another comment\nreturn [\n" +
+                "    'a' => 'it\\'s \\\\ \\n',\n" +
+                "    \"b\" => \"tab\\t\\x41\\101\\$\",\n" +
+                "    'c' => [1, -2, 3.5, true, false, null,],\n" +
+                "    'd' => array('x' => 'y'),\n" +
+                "    10 => 'ten',\n" +
+                "    'next',\n" +
+                "    '5' => 'five',\n" +
+                "    'e' => '{^(?'.'|/blog/([^/]++)(*:27)'.')/?$}sDu',\n" +
+                "];\n";
+
+        Map<?,?> array = (Map<?,?>) new PhpArrayReader(php).readReturnValue();
+
+        assertEquals("it's \\ \\n", array.get("a"));
+        assertEquals("tab\tAA$", array.get("b"));
+
+        Map<?,?> c = (Map<?,?>) array.get("c");
+        assertEquals(6, c.size());
+        assertEquals(1L, c.get(0L));
+        assertEquals(-2L, c.get(1L));
+        assertEquals(3.5, c.get(2L));
+        assertEquals(Boolean.TRUE, c.get(3L));
+        assertEquals(Boolean.FALSE, c.get(4L));
+        assertTrue(c.containsKey(5L));
+        assertNull(c.get(5L));
+
+        assertEquals(Map.of("x", "y"), array.get("d"));
+        assertEquals("ten", array.get(10L));
+        assertEquals("next", array.get(11L));
+        assertEquals("five", array.get(5L));
+        assertEquals("{^(?|/blog/([^/]++)(*:27))/?$}sDu", array.get("e"));
+    }
+
+    @Test
+    public void testInvalidContent() {
+        assertThrows(IllegalArgumentException.class, () -> new PhpArrayReader("<?php\necho 'test';\n").readReturnValue());
+        assertThrows(IllegalArgumentException.class, () -> new PhpArrayReader("<?php\nreturn ['a' => 'b'").readReturnValue());
+        assertThrows(IllegalArgumentException.class, () -> new PhpArrayReader("<?php\nreturn ['a' => new Foo()];").readReturnValue());
+    }
+
+    @Test
+    public void testSkipUnsupportedExpressions() {
+        String php = "<?php\n\nreturn [\n" +
+                "    'a' => new Foo(['x', 'y']),\n" +
+                "    static function ($condition, $context, $request, $params) { // $checkCondition\n" +
+                "        switch ($condition) {\n" +
+                "            case -1: return (\\in_array($context->getMethod(), [0 => 'GET', 1 => 'HEAD'], true)) && ($request->headers->get(\"User-Agent\") === \"}, ]\");\n" +
+                "        }\n" +
+                "    },\n" +
+                "    'b' => 'after closure',\n" +
+                "];\n";
+
+        Map<?,?> array = (Map<?,?>) new PhpArrayReader(php, true).readReturnValue();
+
+        assertEquals(3, array.size());
+        assertTrue(array.containsKey("a"));
+        assertNull(array.get("a"));
+        assertTrue(array.containsKey(0L));
+        assertNull(array.get(0L));
+        assertEquals("after closure", array.get("b"));
+
+        assertThrows(IllegalArgumentException.class, () -> new PhpArrayReader(php).readReturnValue());
+        assertThrows(IllegalArgumentException.class, () -> new PhpArrayReader("<?php\nreturn [static function () {", true).readReturnValue());
+    }
+
+}
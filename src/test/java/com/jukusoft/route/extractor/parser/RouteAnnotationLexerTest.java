@@ -0,0 +1,152 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteAnnotationLexerTest {
+
+    @Test
+    public void testSimpleAnnotation() {
+        List<RouteAnnotation> annotations = lex("/**\n * @Route(\"/catalogs/{id}\", name=\"catalog_show\", methods={\"GET\", \"post\"})\n */");
+        assertEquals(1, annotations.size());
+
+        RouteAnnotation annotation = annotations.get(0);
+        assertEquals("/catalogs/{id}", annotation.getPath());
+        assertEquals("catalog_show", annotation.getName());
+        assertEquals(List.of("GET", "POST"), annotation.getMethods());
+        assertTrue(annotation.getRequirements().isEmpty());
+        assertTrue(annotation.getDefaults().isEmpty());
+    }
+
+    /**
+     * values can contain ")", ", ", "=" and nested braces, which broke the old regex based parser.
+     */
+    @Test
+    public void testSpecialCharactersInValues() {
+        List<RouteAnnotation> annotations = lex("/**\n" +
+                " * @Route(\n" +
+                " *     path=\"/search/{query}, {page}\",\n" +
+                " *     name=\"search\",\n" +
+                " *     requirements={\"query\" = \"(foo|bar)\", \"page\": \"\\d+\", \"x\" = {\"a\" = \"b\"}},\n" +
+                " *     defaults={\"page\" = 1, \"title\" = \"say \"\"hello\"\", \\\"world\\\"\"},\n" +
+                " *     condition=\"request.headers.get('User-Agent') matches '/firefox/i'\"\n" +
+                " * )\n" +
+                " */");
+        assertEquals(1, annotations.size());
+
+        RouteAnnotation annotation = annotations.get(0);
+        assertEquals("/search/{query}, {page}", annotation.getPath());
+        assertEquals("search", annotation.getName());
+        assertEquals(Map.of("query", "(foo|bar)", "page", "\\d+", "x", "{\"a\" = \"b\"}"), annotation.getRequirements());
+        assertEquals(Map.of("page", "1", "title", "say \"hello\", \"world\""), annotation.getDefaults());
+        assertTrue(annotation.getMethods().isEmpty());
+    }
+
+    /**
+     * annotations in code, strings and normal comments are ignored, like doctrine does.
+     */
+    @Test
+    public void testOnlyDocblocksAreParsed() {
+        List<RouteAnnotation> annotations = lex("<?php\n" +
+                "// @Route(\"/line\", name=\"line\")\n" +
+                "# @Route(\"/hash\", name=\"hash\")\n" +
+                "/* @Route(\"/comment\", name=\"comment\") */\n" +
+                "$a = \"/** @Route(\\\"/string\\\", name=\\\"string\\\") */\";\n" +
+                "$b = <<<EOT\n/** @Route(\"/heredoc\", name=\"heredoc\") */\nEOT;\n" +
+                "/** @RouteResource(\"/other\") @Route(\"/first\", name=\"first\") @Route(\"/second\", name=\"second\") */\n" +
+                "/**\n * @Route(\"/unclosed\", name=\"unclosed\"\n */\n" +
+                "/** @Route(\"/last\", name=\"last\",) */");
+
+        List<String> names = new ArrayList<>();
+        annotations.forEach(annotation -> names.add(annotation.getName()));
+        assertEquals(List.of("first", "second", "last"), names);
+    }
+
+    @Test
+    public void testAttributes() {
+        List<RouteAnnotation> annotations = lex("<?php\n" +
+                "use Symfony\\Component\\Routing\\Annotation\\Route;\n\n" +
+                "#[Route('/api', name: 'api_')]\n" +
+                "final class ApiController\n{\n" +
+                "    #[IsGranted('ROLE_USER'), Route('/items/{id}', name: 'item', methods: ['GET', 'post'], requirements: ['id' => '\\\\d+'], defaults: ['page' => 1])]\n" +
+                "    public function item(int $id) {}\n\n" +
+                "    #[\\Symfony\\Component\\Routing\\Annotation\\Route(path: '/it\\'s', name: \"quote\")]\n" +
+                "    #[RouteResource('/other')]\n" +
+                "    public function quote() {}\n" +
+                "}\n");
+
+        assertEquals(3, annotations.size());
+
+        RouteAnnotation classAnnotation = annotations.get(0);
+        assertEquals("/api", classAnnotation.getPath());
+        assertEquals("api_", classAnnotation.getName());
+        assertTrue(classAnnotation.isClassLevel());
+        assertEquals(0, classAnnotation.getClassIndex());
+
+        RouteAnnotation item = annotations.get(1);
+        assertEquals("/items/{id}", item.getPath());
+        assertEquals("item", item.getName());
+        assertEquals(List.of("GET", "POST"), item.getMethods());
+        assertEquals(Map.of("id", "\\d+"), item.getRequirements());
+        assertEquals(Map.of("page", "1"), item.getDefaults());
+        assertFalse(item.isClassLevel());
+        assertEquals(0, item.getClassIndex());
+
+        assertEquals("/it's", annotations.get(2).getPath());
+        assertEquals("quote", annotations.get(2).getName());
+    }
+
+    /**
+     * class-level annotations are scoped to the body of the declared class.
+     */
+    @Test
+    public void testClassScopes() {
+        List<RouteAnnotation> annotations = lex("<?php\n" +
+                "/** @Route(\"/first\") */\n" +
+                "#[SomeAttribute]\n" +
+                "abstract class First\n{\n" +
+                "    public $class = Foo::class;\n" +
+                "    /** @Route(\"/a\", name=\"a\") */\n" +
+                "    public function a() { if (true) { $x = \"}\"; } }\n" +
+                "}\n\n" +
+                "class Second\n{\n" +
+                "    /** @Route(\"/b\", name=\"b\") */\n" +
+                "    public function b() {}\n" +
+                "}\n\n" +
+                "/** @Route(\"/c\", name=\"c\") */\n" +
+                "function c() {}\n");
+
+        assertEquals(4, annotations.size());
+
+        assertTrue(annotations.get(0).isClassLevel());
+        assertEquals(0, annotations.get(0).getClassIndex());
+
+        assertFalse(annotations.get(1).isClassLevel());
+        assertEquals(0, annotations.get(1).getClassIndex());
+
+        assertFalse(annotations.get(2).isClassLevel());
+        assertEquals(1, annotations.get(2).getClassIndex());
+
+        assertFalse(annotations.get(3).isClassLevel());
+        assertEquals(-1, annotations.get(3).getClassIndex());
+    }
+
+    private static List<RouteAnnotation> lex(String content) {
+        RouteAnnotationLexer lexer = new RouteAnnotationLexer(content);
+        List<RouteAnnotation> annotations = new ArrayList<>();
+
+        RouteAnnotation annotation;
+
+        while ((annotation = lexer.next()) != null) {
+            annotations.add(annotation);
+        }
+
+        return annotations;
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteMethodTest {
+
+    /**
+     * default values keep the insertion order, a second value with the same name overrides the first one.
+     */
+    @Test
+    public void testDefaultValues() {
+        RouteMethod method = new RouteMethod(Route.METHOD.GET);
+        assertTrue(method.getDefaultValues().isEmpty());
+
+        method.addDefaultValue("page", "1");
+        method.addDefaultValue("_locale", "en");
+        method.addDefaultValue("page", "2");
+
+        assertEquals(List.of("page", "_locale"), List.copyOf(method.getDefaultValues().keySet()));
+        assertEquals(Map.of("page", "2", "_locale", "en"), method.getDefaultValues());
+        assertEquals("2", method.getDefaultValue("page").orElseThrow());
+        assertTrue(method.getDefaultValue("id").isEmpty());
+
+        assertThrows(UnsupportedOperationException.class, () -> method.getDefaultValues().put("id", "1"));
+    }
+
+    /**
+     * equal parameters are shared by all routes, an overridden parameter keeps its position.
+     */
+    @Test
+    public void testParameters() {
+        RouteMethod method1 = new RouteMethod(Route.METHOD.GET);
+        method1.addParameter("id", Parameter.IN_TYPE.PATH, true, "string", "");
+        method1.addParameter(new String("page"), Parameter.IN_TYPE.QUERY, false, "string", "1");
+
+        RouteMethod method2 = new RouteMethod(Route.METHOD.POST);
+        method2.addParameter(new String("id"), Parameter.IN_TYPE.PATH, true, new String("string"), "");
+
+        assertSame(method1.getParameters().get(0), method2.getParameters().get(0));
+
+        method1.addParameter("id", Parameter.IN_TYPE.PATH, false, "int", "0");
+
+        assertEquals(2, method1.getParameters().size());
+        assertEquals("int", method1.getParameters().get(0).getType());
+        assertFalse(method1.getParameters().get(0).getRequired());
+        assertEquals("page", method1.getParameters().get(1).getName());
+
+        //the shared parameter of the other route isn't changed
+        assertEquals("string", method2.getParameters().get(0).getType());
+    }
+
+    /**
+     * methods with many parameters and default values use the name index, the insertion order is kept.
+     */
+    @Test
+    public void testManyParameters() {
+        RouteMethod method = new RouteMethod(Route.METHOD.POST);
+        int count = RouteMethod.INDEX_THRESHOLD * 100;
+
+        for (int i = 0; i < count; i++) {
+            method.addDefaultValue("field" + i, String.valueOf(i));
+            method.addParameter("field" + i, Parameter.IN_TYPE.FORM, false, "string", String.valueOf(i));
+        }
+
+        //override the first and the last parameter
+        method.addParameter("field0", Parameter.IN_TYPE.FORM, true, "string", "");
+        method.addParameter("field" + (count - 1), Parameter.IN_TYPE.FORM, true, "string", "");
+        method.addDefaultValue("field0", "new");
+
+        assertEquals(count, method.getParameters().size());
+        assertEquals(count, method.getDefaultValues().size());
+
+        for (int i = 0; i < count; i++) {
+            assertEquals("field" + i, method.getParameters().get(i).getName());
+            assertTrue(method.hasParameter("field" + i));
+        }
+
+        assertTrue(method.getParameter("field0").orElseThrow().getRequired());
+        assertTrue(method.getParameter("field" + (count - 1)).orElseThrow().getRequired());
+        assertFalse(method.getParameter("field1").orElseThrow().getRequired());
+        assertFalse(method.hasParameter("unknown"));
+        assertTrue(method.getParameter("unknown").isEmpty());
+
+        assertEquals("field0", method.getDefaultValues().keySet().iterator().next());
+        assertEquals("new", method.getDefaultValue("field0").orElseThrow());
+        assertEquals(String.valueOf(count - 1), method.getDefaultValue("field" + (count - 1)).orElseThrow());
+        assertTrue(method.getDefaultValue("unknown").isEmpty());
+    }
+
+}
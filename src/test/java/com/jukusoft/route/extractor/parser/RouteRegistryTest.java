@@ -0,0 +1,95 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteRegistryTest {
+
+    @Test
+    public void testAddAndLookup() {
+        RouteRegistry registry = new RouteRegistry();
+        Route show = registry.add(createRoute("/user/{id}", "user_show", Route.METHOD.GET, "id"));
+        Route edit = registry.add(createRoute("/user/{id}", "user_edit", Route.METHOD.POST, "id"));
+        registry.add(createRoute("/user/new", "user_new", Route.METHOD.GET));
+
+        assertEquals(3, registry.size());
+        assertEquals(3, registry.countMethods());
+        assertSame(show, registry.getByName("user_show").orElseThrow());
+        assertSame(edit, registry.getByName("user_edit").orElseThrow());
+        assertTrue(registry.getByName("unknown").isEmpty());
+
+        assertSame(edit, registry.remove("user_edit").orElseThrow());
+        assertFalse(registry.contains("user_edit"));
+        assertEquals(List.of(show, registry.getByName("user_new").orElseThrow()), registry.getRoutes());
+    }
+
+    /**
+     * routes with the same name are merged, the url and the order of the first route are kept.
+     */
+    @Test
+    public void testMergeRoutes() {
+        RouteRegistry registry = new RouteRegistry();
+        Route route = registry.add(createRoute("/user/{id}", "user_show", Route.METHOD.GET, "id"));
+
+        Route other = createRoute("/other/{id}", "user_show", Route.METHOD.GET, "page");
+        other.getMethods().get(Route.METHOD.GET).addDefaultValue("page", "1");
+        other.addRouteMethod(Route.METHOD.DELETE, new RouteMethod(Route.METHOD.DELETE));
+
+        assertSame(route, registry.add(other));
+        assertEquals(1, registry.size());
+        assertEquals("/user/{id}", route.getUrl());
+        assertEquals(2, route.getMethods().size());
+
+        RouteMethod getMethod = route.getMethods().get(Route.METHOD.GET);
+        assertTrue(getMethod.hasParameter("id"));
+        assertTrue(getMethod.hasParameter("page"));
+        assertEquals("1", getMethod.getDefaultValue("page").orElseThrow());
+    }
+
+    /**
+     * the symfony parser adds methods and parameters to the routes found by the source code parser.
+     */
+    @Test
+    public void testSymfonyJSONParserMergesIntoRegistry(@TempDir Path tempDir) throws IOException {
+        RouteRegistry registry = new RouteRegistry();
+        Route route = registry.add(createRoute("/user/{id}", "user_show", Route.METHOD.GET, "id"));
+
+        Path jsonFile = tempDir.resolve("routes.json");
+        Files.writeString(jsonFile, "{" +
+                "\"user_show\": {\"path\": \"\\/user\\/{id}\", \"method\": \"GET|POST\", \"defaults\": {\"_locale\": \"de\"}, \"requirements\": {\"id\": \"\\\\d+\"}}," +
+                "\"user_new\": {\"path\": \"\\/user\\/new\", \"method\": \"ANY\", \"defaults\": [], \"requirements\": \"NO CUSTOM\"}" +
+                "}", StandardCharsets.UTF_8);
+
+        assertSame(registry, new SymfonyJSONParser().parse(jsonFile.toFile(), registry));
+        assertEquals(2, registry.size());
+        assertSame(route, registry.getByName("user_show").orElseThrow());
+        assertEquals(2, route.getMethods().size());
+        assertEquals(4, registry.getByName("user_new").orElseThrow().getMethods().size());
+
+        //the existing GET method was extended instead of replaced
+        RouteMethod getMethod = route.getMethods().get(Route.METHOD.GET);
+        assertTrue(getMethod.hasParameter("id"));
+        assertTrue(getMethod.hasParameter("_locale"));
+    }
+
+    private static Route createRoute(String url, String name, Route.METHOD method, String... pathParams) {
+        Route route = new Route(url, name);
+        RouteMethod routeMethod = new RouteMethod(method);
+
+        for (String param : pathParams) {
+            routeMethod.addParameter(param, Parameter.IN_TYPE.PATH, true, "string", "");
+        }
+
+        route.addRouteMethod(method, routeMethod);
+        return route;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteTrieTest {
+
+    @Test
+    public void testParseSegments() {
+        assertEquals(List.of(), RouteTrie.parseSegments(new Route("/", "root")));
+        assertEquals(List.of("user", "{[^/]+}"), keys(new Route("/user/{id}", "user_show")));
+        assertEquals(List.of("user", ""), keys(new Route("/user/", "user_list")));
+
+        //inline requirements with braces, default values and mixed segments
+        assertEquals(List.of("blog", "{\\d{4}}"), keys(new Route("/blog/{year<\\d{4}>?2021}", "blog_year")));
+        assertEquals(List.of("file", "{[^/]+}.{json|xml}"), keys(new Route("/file/{name}.{_format<json|xml>}", "file")));
+
+        //requirements of the route
+        Route route = new Route("/user/{id}", "user_show");
+        route.addRequirement("id", "\\d+");
+        assertEquals(List.of("user", "{\\d+}"), keys(route));
+
+        RouteTrie.Segment segment = RouteTrie.parseSegment("{id}.json", Map.of());
+        assertFalse(segment.isStatic());
+        assertTrue("42.json".matches(segment.regex()));
+        assertFalse("42.xml".matches(segment.regex()));
+    }
+
+    @Test
+    public void testPathGroups() {
+        RouteTrie trie = new RouteTrie(List.of(
+                createRoute("/user/{id}", "user_show", Route.METHOD.GET),
+                createRoute("/user/new", "user_new", Route.METHOD.GET),
+                createRoute("/user/{id}", "user_edit", Route.METHOD.POST)
+        ));
+
+        Map<String,List<Route>> groups = trie.getPathGroups();
+        assertEquals(List.of("/user/{id}", "/user/new"), List.copyOf(groups.keySet()));
+        assertEquals(List.of("user_show", "user_edit"), groups.get("/user/{id}").stream().map(Route::getName).toList());
+    }
+
+    @Test
+    public void testConflicts() {
+        Route show = createRoute("/user/{id}", "user_show", Route.METHOD.GET);
+        Route slug = createRoute("/user/{slug}", "user_slug", Route.METHOD.GET);
+        Route newUser = createRoute("/user/new", "user_new", Route.METHOD.GET);
+        Route create = createRoute("/user/new", "user_create", Route.METHOD.POST);
+        Route duplicate = createRoute("/user/{id}", "user_duplicate", Route.METHOD.GET);
+
+        RouteTrie trie = new RouteTrie(List.of(show, slug, newUser, create, duplicate));
+        List<RouteTrie.Conflict> conflicts = trie.getConflicts();
+
+        assertEquals(3, conflicts.size());
+        assertEquals(new RouteTrie.Conflict(RouteTrie.Conflict.Type.CONFLICT, slug, show), conflicts.get(0));
+        assertEquals(new RouteTrie.Conflict(RouteTrie.Conflict.Type.SHADOWED, newUser, show), conflicts.get(1));
+        assertEquals(new RouteTrie.Conflict(RouteTrie.Conflict.Type.DUPLICATE, duplicate, show), conflicts.get(2));
+        assertTrue(conflicts.get(1).getMessage().contains("user_new"));
+    }
+
+    @Test
+    public void testShadowingWithRequirements() {
+        //the requirement doesn't accept "new", so the static route can be matched
+        Route show = createRoute("/user/{id}", "user_show", Route.METHOD.GET);
+        show.addRequirement("id", "\\d+");
+        Route newUser = createRoute("/user/new", "user_new", Route.METHOD.GET);
+        Route numeric = createRoute("/user/42", "user_42", Route.METHOD.GET);
+
+        assertEquals(List.of(new RouteTrie.Conflict(RouteTrie.Conflict.Type.SHADOWED, numeric, show)), new RouteTrie(List.of(show, newUser, numeric)).getConflicts());
+
+        //a static route before the variable isn't shadowed
+        assertTrue(new RouteTrie(List.of(createRoute("/user/new", "user_new", Route.METHOD.GET), createRoute("/user/{id}", "user_show", Route.METHOD.GET))).getConflicts().isEmpty());
+
+        //a variable without requirement shadows a later variable with requirement and deeper static paths
+        Route any = createRoute("/blog/{slug}/comments", "comments", Route.METHOD.GET);
+        Route page = createRoute("/blog/{page<\\d+>}/comments", "page_comments", Route.METHOD.GET);
+        Route latest = createRoute("/blog/latest/comments", "latest_comments", Route.METHOD.GET);
+
+        List<RouteTrie.Conflict> conflicts = new RouteTrie(List.of(any, page, latest)).getConflicts();
+        assertEquals(List.of(RouteTrie.Conflict.Type.SHADOWED, RouteTrie.Conflict.Type.SHADOWED), conflicts.stream().map(RouteTrie.Conflict::type).toList());
+        assertSame(any, conflicts.get(0).otherRoute());
+        assertSame(any, conflicts.get(1).otherRoute());
+    }
+
+    private static List<String> keys(Route route) {
+        return RouteTrie.parseSegments(route).stream().map(RouteTrie.Segment::key).toList();
+    }
+
+    private static Route createRoute(String url, String name, Route.METHOD method) {
+        Route route = new Route(url, name);
+        route.addRouteMethod(method, new RouteMethod(method));
+        return route;
+    }
+
+}
@@ -1,11 +1,19 @@
 package com.jukusoft.route.extractor.parser;
 
 import com.jukusoft.route.extractor.cli.CLIArgumentsParser;
+import com.jukusoft.route.extractor.writer.impl.openapi.OpenAPI20Generator;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -46,4 +54,117 @@ public class SourceCodeParserTest {
         assertEquals(0, routes.stream().filter(route -> route.getUrl().equals("/catalogs")).count());
     }
 
+    /**
+     * check, that the parallel scan generates exactly the same OpenAPI output as the sequential scan.
+     */
+    @Test
+    public void testParallelScanEqualsSequentialScan(@TempDir Path tempDir) throws IOException {
+        Path srcDir = Files.createDirectories(tempDir.resolve("src"));
+        generateCorpus(srcDir, 120);
+
+        List<Route> sequentialRoutes = SourceCodeParser.parseSourceCodeDir(srcDir.toFile(), 1);
+        List<Route> parallelRoutes = SourceCodeParser.parseSourceCodeDir(srcDir.toFile(), 8);
+
+        assertFalse(sequentialRoutes.isEmpty());
+        assertEquals(sequentialRoutes, parallelRoutes);
+
+        Path sequentialOutput = Files.createDirectories(tempDir.resolve("sequential"));
+        Path parallelOutput = Files.createDirectories(tempDir.resolve("parallel"));
+        new OpenAPI20Generator(sequentialOutput).generateOutputFile(sequentialRoutes, "localhost:8080", "/", "result.json");
+        new OpenAPI20Generator(parallelOutput).generateOutputFile(parallelRoutes, "localhost:8080", "/", "result.json");
+
+        assertArrayEquals(Files.readAllBytes(sequentialOutput.resolve("result.json")), Files.readAllBytes(parallelOutput.resolve("result.json")));
+    }
+
+    /**
+     * class prefixes are scoped to the class body and the declared HTTP methods are used.
+     */
+    @Test
+    public void testClassPrefixesAndAttributes(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("Controllers.php");
+        Files.writeString(file, "<?php\n\n" +
+                "/**\n * @Route(\"/catalogs/\", name=\"catalog_\", requirements={\"_locale\" = \"de|en\"})\n */\n" +
+                "class CatalogController\n{\n" +
+                "    /**\n     * @Route(\"/{_locale}\", name=\"index\", methods={\"GET\", \"POST\"})\n     */\n" +
+                "    public function index() {}\n" +
+                "}\n\n" +
+                "class ItemController\n{\n" +
+                "    #[Route('/items/{id}', name: 'item_update', methods: [Request::METHOD_PUT, 'PATCH', 'delete'])]\n" +
+                "    public function update(int $id) {}\n" +
+                "}\n", StandardCharsets.UTF_8);
+
+        List<Route> routes = SourceCodeParser.parseSourceCodeFile(file);
+        assertEquals(2, routes.size());
+
+        Route index = routes.get(0);
+        assertEquals("/catalogs/{_locale}", index.getUrl());
+        assertEquals("catalog_index", index.getName());
+        assertEquals(Set.of(Route.METHOD.GET, Route.METHOD.POST), index.getMethods().keySet());
+        assertTrue(index.getMethods().get(Route.METHOD.POST).hasParameter("_locale"));
+
+        //the first annotation of the file isn't the prefix of the second class
+        Route update = routes.get(1);
+        assertEquals("/items/{id}", update.getUrl());
+        assertEquals("item_update", update.getName());
+        assertEquals(Set.of(Route.METHOD.PUT, Route.METHOD.DELETE), update.getMethods().keySet());
+    }
+
+    /**
+     * the output of "git diff --name-only" is relative to the repository root, not to the working directory.
+     */
+    @Test
+    public void testResolveChangedFiles(@TempDir Path tempDir) throws IOException {
+        Path srcDir = Files.createDirectories(tempDir.resolve("app").resolve("src"));
+        Path controller = Files.createDirectories(srcDir.resolve("Controller")).resolve("UserController.php");
+        Files.writeString(controller, "<?php\n", StandardCharsets.UTF_8);
+        Path deleted = srcDir.resolve("Controller").resolve("DeletedController.php");
+
+        Set<Path> cachedFiles = Set.of(deleted);
+
+        assertEquals(controller, SourceCodeParser.resolveChangedFile(Path.of("app/src/Controller/UserController.php"), srcDir, cachedFiles));
+        assertEquals(controller, SourceCodeParser.resolveChangedFile(Path.of("Controller/UserController.php"), srcDir, cachedFiles));
+        assertEquals(controller, SourceCodeParser.resolveChangedFile(controller, srcDir, cachedFiles));
+        assertEquals(deleted, SourceCodeParser.resolveChangedFile(Path.of("app/src/Controller/DeletedController.php"), srcDir, cachedFiles));
+
+        //files outside of the source directory
+        assertNull(SourceCodeParser.resolveChangedFile(Path.of("app/tests/UserControllerTest.php"), srcDir, cachedFiles));
+        assertNull(SourceCodeParser.resolveChangedFile(tempDir.resolve("README.md"), srcDir, cachedFiles));
+    }
+
+    /**
+     * generate a synthetic source tree with controllers of different sizes in nested directories.
+     *
+     * @param srcDir source directory
+     * @param fileCount number of controller files
+     */
+    private static void generateCorpus(Path srcDir, int fileCount) throws IOException {
+        Random random = new Random(42);
+
+        for (int i = 0; i < fileCount; i++) {
+            Path dir = Files.createDirectories(srcDir.resolve("Bundle" + (i % 7)).resolve("Controller" + (i % 3)));
+            StringBuilder sb = new StringBuilder();
+
+            sb.append("<?php\n\n");
+            sb.append("/**\n * @Route(\"/module").append(i).append("\")\n */\n");
+            sb.append("class Module").append(i).append("Controller\n{\n");
+
+            int methodCount = 1 + random.nextInt(40);
+
+            for (int j = 0; j < methodCount; j++) {
+                sb.append("    /**\n");
+                sb.append("     * @Route(\"/item").append(j).append("/{id}/{_locale}\", name=\"module").append(i).append("_item").append(j)
+                        .append("\", requirements={\"_locale\" = \"de|en\"}, defaults={\"page\" = \"").append(j).append("\"})\n");
+                sb.append("     */\n");
+                sb.append("    public function item").append(j).append("Action($id)\n    {\n    }\n\n");
+            }
+
+            sb.append("}\n");
+
+            //files without routes should be skipped
+            Files.writeString(dir.resolve("Module" + i + "Controller.php"), sb.toString(), StandardCharsets.UTF_8);
+            Files.writeString(dir.resolve("Helper" + i + ".php"), "<?php\n\nclass Helper" + i + " {}\n", StandardCharsets.UTF_8);
+            Files.writeString(dir.resolve("README" + i + ".md"), "@Route(\"/ignored\", name=\"ignored\")", StandardCharsets.UTF_8);
+        }
+    }
+
 }
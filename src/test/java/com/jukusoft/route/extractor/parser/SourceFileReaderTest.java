@@ -0,0 +1,60 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SourceFileReaderTest {
+
+    @Test
+    public void testContainsRouteMarker() {
+        assertTrue(containsRouteMarker("/** @Route(\"/x\") */"));
+        assertTrue(containsRouteMarker("#[Route('/x')]"));
+        assertTrue(containsRouteMarker("@Route"));
+        assertFalse(containsRouteMarker("@Rout"));
+        assertFalse(containsRouteMarker("[Route('/x')]"));
+        assertFalse(containsRouteMarker("use Symfony\\Component\\Routing\\Annotation\\Route;"));
+        assertFalse(containsRouteMarker(""));
+    }
+
+    @Test
+    public void testSkipFilesWithoutRoutes(@TempDir Path tempDir) throws IOException {
+        Path withRoutes = tempDir.resolve("Controller.php");
+        Path withoutRoutes = tempDir.resolve("Helper.php");
+        Files.writeString(withRoutes, "<?php /** @Route(\"/\u00e4\") */", StandardCharsets.UTF_8);
+        Files.writeString(withoutRoutes, "<?php class Helper {}", StandardCharsets.UTF_8);
+
+        SourceFileReader reader = new SourceFileReader();
+        assertEquals("<?php /** @Route(\"/\u00e4\") */", reader.readIfContainsRoutes(withRoutes));
+        assertNull(reader.readIfContainsRoutes(withoutRoutes));
+
+        //a larger file needs a larger pooled buffer
+        String content = "<?php\n" + "//".repeat(100_000) + "\n/** @Route(\"/x\") */";
+        Path largeFile = tempDir.resolve("Large.php");
+        Files.writeString(largeFile, content, StandardCharsets.UTF_8);
+        assertEquals(content, reader.readIfContainsRoutes(largeFile));
+
+        assertEquals(2, reader.getDecodedFiles());
+        assertEquals(1, reader.getSkippedFiles());
+    }
+
+    private static boolean containsRouteMarker(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        boolean heapResult = SourceFileReader.containsRouteMarker(ByteBuffer.wrap(bytes));
+
+        //memory-mapped files are not backed by an array
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(heapResult, SourceFileReader.containsRouteMarker(direct));
+
+        return heapResult;
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymfonyJSONParserTest {
+
+    /**
+     * a large console dump is parsed route by route.
+     */
+    @Test
+    public void testParseLargeDump(@TempDir Path tempDir) throws IOException {
+        Path jsonFile = tempDir.resolve("routes.json");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8)) {
+            writer.write("{\n");
+
+            for (int i = 0; i < 5000; i++) {
+                if (i > 0) {
+                    writer.write(",\n");
+                }
+
+                writer.write("    \"route_" + i + "\": {\"path\": \"\\/item" + i + "\\/{id}\", \"host\": \"ANY\", \"method\": \"" + (i % 2 == 0 ? "GET" : "GET|POST") + "\", " +
+                        "\"class\": \"Symfony\\\\Component\\\\Routing\\\\Route\", \"defaults\": {\"page\": \"" + i + "\"}, " +
+                        "\"requirements\": " + (i % 3 == 0 ? "\"NO CUSTOM\"" : "{\"id\": \"\\\\d+\"}") + ", " +
+                        "\"options\": {\"compiler_class\": \"Symfony\\\\Component\\\\Routing\\\\RouteCompiler\", \"utf8\": true, \"nested\": [{\"a\": [1, 2, {\"b\": \"}\"}]}]}}");
+            }
+
+            writer.write("\n}\n");
+        }
+
+        RouteRegistry registry = new SymfonyJSONParser().parse(jsonFile.toFile(), new RouteRegistry());
+        assertEquals(5000, registry.size());
+        assertEquals(7500, registry.countMethods());
+
+        Route route = registry.getByName("route_4999").orElseThrow();
+        assertEquals("/item4999/{id}", route.getUrl());
+        assertEquals(2, route.getMethods().size());
+
+        RouteMethod routeMethod = route.getMethods().get(Route.METHOD.POST);
+        assertEquals("4999", routeMethod.getDefaultValue("page").orElseThrow());
+        assertTrue(routeMethod.hasParameter("id"));
+    }
+
+    @Test
+    public void testParseEmptyDump(@TempDir Path tempDir) throws IOException {
+        Path jsonFile = tempDir.resolve("routes.json");
+        Files.writeString(jsonFile, " { } ", StandardCharsets.UTF_8);
+
+        assertTrue(new SymfonyJSONParser().parse(jsonFile.toFile(), new RouteRegistry()).isEmpty());
+    }
+
+    @Test
+    public void testParseMalformedDump(@TempDir Path tempDir) throws IOException {
+        Path jsonFile = tempDir.resolve("routes.json");
+
+        Files.writeString(jsonFile, "[]", StandardCharsets.UTF_8);
+        assertThrows(JSONException.class, () -> new SymfonyJSONParser().parse(jsonFile.toFile(), new RouteRegistry()));
+
+        Files.writeString(jsonFile, "{\"route\": {\"path\": \"/\", \"method\": \"GET\"}", StandardCharsets.UTF_8);
+        assertThrows(JSONException.class, () -> new SymfonyJSONParser().parse(jsonFile.toFile(), new RouteRegistry()));
+
+        Files.writeString(jsonFile, "{\"route\": \"/\"}", StandardCharsets.UTF_8);
+        assertThrows(JSONException.class, () -> new SymfonyJSONParser().parse(jsonFile.toFile(), new RouteRegistry()));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymfonyRouteCacheParserTest {
+
+    private static final String GENERATING_ROUTES = "<?php\n\n// This file has been auto-generated by the Symfony Routing Component.\n\nreturn [\n" +
+            "    'blog_list' => [['page'], ['page' => 1, '_controller' => 'App\\\\Controller\\\\BlogController::list'], ['page' => '\\\\d+'], [['variable', '/', '\\\\d+', 'page', true], ['text', '/blog']], [], [], []],\n" +
+            "    'blog_show' => [['slug'], ['_controller' => 'App\\\\Controller\\\\BlogController::show'], [], [['variable', '/', '[^/]++', 'slug', true], ['text', '/blog/show']], [], [], []],\n" +
+            "    'homepage' => [[], ['_controller' => 'App\\\\Controller\\\\DefaultController::index'], [], [['text', '/']], [], [], []],\n" +
+            "    'patch_only' => [[], [], [], [['text', '/patch']], [], [], []],\n" +
+            "];\n";
+
+    private static final String MATCHING_ROUTES = "<?php\n\nreturn [\n" +
+            "    false, // $matchHost\n" +
+            "    [ // $staticRoutes\n" +
+            "        '/' => [[['_route' => 'homepage', '_controller' => 'App\\\\Controller\\\\DefaultController::index'], null, null, null, false, false, null]],\n" +
+            "        '/patch' => [[['_route' => 'patch_only'], null, ['PATCH' => 0], null, false, false, null]],\n" +
+            "    ],\n" +
+            "    [ // $regexpList\n" +
+            "        0 => '{^(?'\n" +
+            "                .'|/blog(?:/(\\\\d+))?(*:24)'\n" +
+            "                .'|/blog/show/([^/]++)(*:50)'\n" +
+            "            .')/?$}sDu',\n" +
+            "    ],\n" +
+            "    [ // $dynamicRoutes\n" +
+            "        24 => [[['_route' => 'blog_list', 'page' => 1], ['page'], ['GET' => 0, 'HEAD' => 1], null, false, true, null]],\n" +
+            "        50 => [\n" +
+            "            [['_route' => 'blog_show'], ['slug'], ['GET' => 0, 'POST' => 1], null, false, true, null],\n" +
+            "            [null, null, null, null, false, false, 0],\n" +
+            "        ],\n" +
+            "    ],\n" +
+            "    null, // $checkCondition\n" +
+            "];\n";
+
+    @Test
+    public void testParseCacheDirectory(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve(SymfonyRouteCacheParser.GENERATING_ROUTES_FILE), GENERATING_ROUTES, StandardCharsets.UTF_8);
+        Files.writeString(tempDir.resolve(SymfonyRouteCacheParser.MATCHING_ROUTES_FILE), MATCHING_ROUTES, StandardCharsets.UTF_8);
+
+        RouteRegistry registry = new SymfonyRouteCacheParser().parse(tempDir.toFile(), new RouteRegistry());
+
+        //the route with only unsupported methods is ignored
+        assertEquals(3, registry.size());
+        assertTrue(registry.getByName("patch_only").isEmpty());
+
+        Route blogList = registry.getByName("blog_list").orElseThrow();
+        assertEquals("/blog/{page}", blogList.getUrl());
+        assertEquals(1, blogList.getMethods().size());
+
+        RouteMethod routeMethod = blogList.getMethods().get(Route.METHOD.GET);
+        assertEquals("1", routeMethod.getDefaultValue("page").orElseThrow());
+        assertTrue(routeMethod.hasParameter("page"));
+
+        Route blogShow = registry.getByName("blog_show").orElseThrow();
+        assertEquals("/blog/show/{slug}", blogShow.getUrl());
+        assertEquals(2, blogShow.getMethods().size());
+        assertTrue(blogShow.getMethods().get(Route.METHOD.POST).hasParameter("slug"));
+
+        //routes without method restriction accept all methods
+        Route homepage = registry.getByName("homepage").orElseThrow();
+        assertEquals("/", homepage.getUrl());
+        assertEquals(4, homepage.getMethods().size());
+    }
+
+    /**
+     * routes with a condition compile a checkCondition closure into the matching routes.
+     */
+    @Test
+    public void testParseWithConditionClosure(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve(SymfonyRouteCacheParser.GENERATING_ROUTES_FILE), GENERATING_ROUTES, StandardCharsets.UTF_8);
+        Files.writeString(tempDir.resolve(SymfonyRouteCacheParser.MATCHING_ROUTES_FILE), MATCHING_ROUTES.replace("    null, // $checkCondition\n",
+                "    static function ($condition, $context, $request, $params) { // $checkCondition\n" +
+                "        switch ($condition) {\n" +
+                "            case -1: return ($request->headers->get(\"User-Agent\") === \"curl\");\n" +
+                "        }\n" +
+                "\n" +
+                "        return null;\n" +
+                "    },\n"), StandardCharsets.UTF_8);
+
+        RouteRegistry registry = new SymfonyRouteCacheParser().parse(tempDir.toFile(), new RouteRegistry());
+        assertEquals(3, registry.size());
+        assertEquals(2, registry.getByName("blog_show").orElseThrow().getMethods().size());
+    }
+
+    @Test
+    public void testParseWithoutMatchingRoutes(@TempDir Path tempDir) throws IOException {
+        Path generatingFile = tempDir.resolve(SymfonyRouteCacheParser.GENERATING_ROUTES_FILE);
+        Files.writeString(generatingFile, GENERATING_ROUTES, StandardCharsets.UTF_8);
+
+        RouteRegistry registry = new SymfonyRouteCacheParser().parse(generatingFile.toFile(), new RouteRegistry());
+        assertEquals(4, registry.size());
+        assertEquals(16, registry.countMethods());
+    }
+
+    @Test
+    public void testParseMissingAndInvalidCache(@TempDir Path tempDir) throws IOException {
+        assertTrue(new SymfonyRouteCacheParser().parse(tempDir.toFile(), new RouteRegistry()).isEmpty());
+
+        Files.writeString(tempDir.resolve(SymfonyRouteCacheParser.GENERATING_ROUTES_FILE), "<?php\n\nreturn [\n    'broken' => [", StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> new SymfonyRouteCacheParser().parse(tempDir.toFile(), new RouteRegistry()));
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.jukusoft.route.extractor.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UrlMatcherTest {
+
+    @Test
+    public void testMatch() {
+        Route home = createRoute("/", "home", Route.METHOD.GET);
+        Route show = createRoute("/user/{id}", "user_show", Route.METHOD.GET);
+        show.addRequirement("id", "\\d+");
+        Route newUser = createRoute("/user/new", "user_new", Route.METHOD.GET);
+        Route edit = createRoute("/user/{id}/edit", "user_edit", Route.METHOD.POST);
+        Route file = createRoute("/file/{name}.{_format<json|xml>}", "file", Route.METHOD.GET);
+
+        UrlMatcher matcher = new UrlMatcher(List.of(home, show, newUser, edit, file));
+
+        assertSame(home, matcher.match("GET", "/").orElseThrow().route());
+        assertSame(home, matcher.match("GET", "").orElseThrow().route());
+
+        UrlMatcher.Match match = matcher.match("GET", "/user/42?tab=profile").orElseThrow();
+        assertSame(show, match.route());
+        assertEquals(Map.of("id", "42"), match.variables());
+
+        //the requirement rejects "new", so the static route is matched
+        assertSame(newUser, matcher.match("GET", "/user/new").orElseThrow().route());
+        assertTrue(matcher.match("GET", "/user/abc").isEmpty());
+
+        //HTTP methods
+        assertSame(edit, matcher.match("post", "/user/abc/edit").orElseThrow().route());
+        assertTrue(matcher.match("GET", "/user/abc/edit").isEmpty());
+        assertSame(show, matcher.match("HEAD", "/user/1").orElseThrow().route());
+        assertTrue(matcher.match("PATCH", "/user/1").isEmpty());
+
+        //mixed segments, absolute and encoded urls
+        assertEquals(Map.of("name", "report", "_format", "json"), matcher.match("GET", "https://example.com/file/report.json").orElseThrow().variables());
+        assertTrue(matcher.match("GET", "/file/report.csv").isEmpty());
+        assertEquals("my report", matcher.match("GET", "/file/my%20report.xml").orElseThrow().variables().get("name"));
+        assertTrue(matcher.match("GET", "/unknown").isEmpty());
+    }
+
+    /**
+     * like symfony, the first defined route wins, even if a later route has a static segment.
+     */
+    @Test
+    public void testFirstRouteWins() {
+        Route any = createRoute("/blog/{slug}", "blog_show", Route.METHOD.GET);
+        Route latest = createRoute("/blog/latest", "blog_latest", Route.METHOD.GET);
+        Route post = createRoute("/blog/latest", "blog_latest_post", Route.METHOD.POST);
+
+        UrlMatcher matcher = new UrlMatcher(List.of(any, latest, post));
+
+        assertSame(any, matcher.match("GET", "/blog/latest").orElseThrow().route());
+        assertSame(post, matcher.match("POST", "/blog/latest").orElseThrow().route());
+
+        matcher = new UrlMatcher(List.of(latest, any));
+        assertSame(latest, matcher.match("GET", "/blog/latest").orElseThrow().route());
+        assertSame(any, matcher.match("GET", "/blog/other").orElseThrow().route());
+    }
+
+    @Test
+    public void testOptionalVariables() {
+        Route list = createRoute("/blog/{page}", "blog_list", Route.METHOD.GET);
+        list.getMethods().get(Route.METHOD.GET).addDefaultValue("page", "1");
+        Route archive = createRoute("/archive/{year<\\d{4}>?2021}/{month?1}", "archive", Route.METHOD.GET);
+
+        UrlMatcher matcher = new UrlMatcher(List.of(list, archive));
+
+        assertEquals(Map.of("page", "3"), matcher.match("GET", "/blog/3").orElseThrow().variables());
+        assertEquals(Map.of("page", "1"), matcher.match("GET", "/blog").orElseThrow().variables());
+
+        assertEquals(Map.of("year", "2020", "month", "5"), matcher.match("GET", "/archive/2020/5").orElseThrow().variables());
+        assertEquals(Map.of("year", "2020", "month", "1"), matcher.match("GET", "/archive/2020").orElseThrow().variables());
+        assertEquals(List.of("year", "month"), List.copyOf(matcher.match("GET", "/archive").orElseThrow().variables().keySet()));
+        assertTrue(matcher.match("GET", "/archive/20").isEmpty());
+    }
+
+    @Test
+    public void testCatchAllVariables() {
+        Route files = createRoute("/files/{path}", "files", Route.METHOD.GET);
+        files.addRequirement("path", ".+");
+        Route edit = createRoute("/edit/{path<.+>}/raw", "edit", Route.METHOD.GET);
+        Route user = createRoute("/user/{id}", "user", Route.METHOD.GET);
+
+        UrlMatcher matcher = new UrlMatcher(List.of(files, edit, user));
+
+        assertEquals(Map.of("path", "a"), matcher.match("GET", "/files/a").orElseThrow().variables());
+        assertEquals(Map.of("path", "a/b/c.txt"), matcher.match("GET", "/files/a/b/c.txt").orElseThrow().variables());
+        assertEquals(Map.of("path", "a/b"), matcher.match("GET", "/edit/a/b/raw").orElseThrow().variables());
+        assertTrue(matcher.match("GET", "/edit/raw").isEmpty());
+
+        //the default requirement still matches one segment
+        assertTrue(matcher.match("GET", "/user/1/2").isEmpty());
+
+        assertTrue(UrlMatcher.canMatchSlash(".+"));
+        assertTrue(UrlMatcher.canMatchSlash("[\\w/]+"));
+        assertFalse(UrlMatcher.canMatchSlash("[^/]+"));
+        assertFalse(UrlMatcher.canMatchSlash("\\d+"));
+    }
+
+    private static Route createRoute(String url, String name, Route.METHOD method) {
+        Route route = new Route(url, name);
+        route.addRouteMethod(method, new RouteMethod(method));
+        return route;
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.jukusoft.route.extractor.watch;
+
+import com.jukusoft.route.extractor.parser.Parser;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteDefinition;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.parser.RouteRegistry;
+import com.jukusoft.route.extractor.parser.SymfonyJSONParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteModelTest {
+
+    @Test
+    public void testPatchSourceFiles() {
+        RouteModel model = new RouteModel();
+        Path src = Path.of("src");
+
+        assertTrue(model.putSourceFile(src.resolve("b.php"), List.of(createRoute("/b", "b"))));
+        assertTrue(model.putSourceFile(src.resolve("a").resolve("z.php"), List.of(createRoute("/z", "z"))));
+        assertTrue(model.putSourceFile(src.resolve("a.php"), List.of(createRoute("/a", "a"))));
+        assertFalse(model.putSourceFile(src.resolve("empty.php"), new ArrayList<>()));
+
+        //same order as the source tree scan: "a" < "a.php" < "b.php"
+        assertEquals(List.of("z", "a", "b"), names(model.toRegistry()));
+
+        //unchanged routes are detected
+        assertFalse(model.putSourceFile(src.resolve("b.php"), List.of(createRoute("/b", "b"))));
+        assertTrue(model.putSourceFile(src.resolve("b.php"), List.of(createRoute("/b2", "b"))));
+
+        assertTrue(model.removeSourceFiles(src.resolve("a")));
+        assertFalse(model.removeSourceFiles(src.resolve("empty.php")));
+        assertEquals(List.of("a", "b"), names(model.toRegistry()));
+    }
+
+    /**
+     * the registry merges routes into each other, so the model merges new route instances and an already returned registry isn't changed.
+     */
+    @Test
+    public void testRegistryDoesNotChangeModel() {
+        RouteModel model = new RouteModel();
+        model.putSourceFile(Path.of("src", "a.php"), List.of(createRoute("/a", "a")));
+
+        Route otherRoute = createRoute("/a", "a");
+        otherRoute.addRouteMethod(Route.METHOD.POST, new RouteMethod(Route.METHOD.POST));
+        model.putSourceFile(Path.of("src", "b.php"), List.of(otherRoute));
+
+        RouteRegistry registry = model.toRegistry();
+        assertEquals(2, registry.countMethods());
+        assertEquals(2, model.toRegistry().countMethods());
+
+        //the changed route is built again, the route of the old registry is kept
+        model.putSourceFile(Path.of("src", "b.php"), List.of());
+        assertTrue(model.update());
+        assertEquals(1, model.toRegistry().countMethods());
+        assertEquals(2, registry.countMethods());
+        assertNotSame(registry.getByName("a").orElseThrow(), model.toRegistry().getByName("a").orElseThrow());
+    }
+
+    @Test
+    public void testInputs() {
+        RouteModel model = new RouteModel();
+        Parser parser = new SymfonyJSONParser();
+        Path file = Path.of("src", "a.php");
+
+        model.putSourceFile(file, List.of(createRoute("/a", "a"), createRoute("/b", "b")));
+        assertTrue(model.putInput(parser, List.of(new AddMethod("a", Route.METHOD.POST), new AddMethod("c", Route.METHOD.GET))));
+
+        //routes of the inputs are added after the routes of the source files, like a full run
+        RouteRegistry registry = model.toRegistry();
+        assertEquals(List.of("a", "b", "c"), names(registry));
+        assertEquals(2, registry.getByName("a").orElseThrow().getMethods().size());
+
+        //unchanged definitions don't change the routes
+        assertFalse(model.putInput(parser, List.of(new AddMethod("a", Route.METHOD.POST), new AddMethod("c", Route.METHOD.GET))));
+        assertFalse(model.update());
+
+        //the definitions are applied onto the changed source file again
+        Route b = registry.getByName("b").orElseThrow();
+        assertTrue(model.putSourceFile(file, List.of(createRoute("/a", "a"))));
+        assertTrue(model.update());
+        registry = model.toRegistry();
+        assertEquals(List.of("a", "c"), names(registry));
+        assertEquals(2, registry.getByName("a").orElseThrow().getMethods().size());
+
+        //only the changed input is applied again
+        Route c = registry.getByName("c").orElseThrow();
+        assertTrue(model.putInput(parser, List.of(new AddMethod("c", Route.METHOD.GET))));
+        registry = model.toRegistry();
+        assertEquals(1, registry.getByName("a").orElseThrow().getMethods().size());
+        assertEquals(c.getMethods().keySet(), registry.getByName("c").orElseThrow().getMethods().keySet());
+        assertFalse(registry.contains(b.getName()));
+    }
+
+    private static Route createRoute(String url, String name) {
+        Route route = new Route(url, name);
+        route.addRouteMethod(Route.METHOD.GET, new RouteMethod(Route.METHOD.GET));
+        return route;
+    }
+
+    /**
+     * a definition, which adds a HTTP method to a route.
+     */
+    private record AddMethod(String name, Route.METHOD method) implements RouteDefinition {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void apply(RouteRegistry routes) {
+            Route route = routes.getByName(name).orElseGet(() -> routes.add(new Route("/" + name, name)));
+            route.addRouteMethod(method, new RouteMethod(method));
+        }
+
+    }
+
+    private static List<String> names(RouteRegistry registry) {
+        List<String> names = new ArrayList<>();
+        registry.forEach(route -> names.add(route.getName()));
+        return names;
+    }
+
+}
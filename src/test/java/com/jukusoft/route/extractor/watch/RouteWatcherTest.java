@@ -0,0 +1,136 @@
+package com.jukusoft.route.extractor.watch;
+
+import com.jukusoft.route.extractor.cache.RouteSerializer;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteRegistry;
+import com.jukusoft.route.extractor.parser.SourceCodeParser;
+import com.jukusoft.route.extractor.parser.SymfonyJSONParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteWatcherTest {
+
+    /**
+     * time to wait for a regeneration, much longer than the debounce time.
+     */
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void testIncrementalUpdates(@TempDir Path tempDir) throws IOException, InterruptedException {
+        Path srcDir = Files.createDirectories(tempDir.resolve("src"));
+        Path jsonFile = tempDir.resolve("routes.json");
+
+        writeController(srcDir.resolve("UserController.php"), "user", 3, "");
+        //the console dump adds a method, default values and requirements to the routes of the source code
+        Files.writeString(jsonFile, "{\"user_0\": {\"path\": \"/user/0\", \"method\": \"POST\", \"defaults\": [], \"requirements\": \"NO CUSTOM\"}, " +
+                "\"user_1\": {\"path\": \"/user/1\", \"method\": \"GET\", \"defaults\": {\"page\": \"2\"}, \"requirements\": {\"page\": \"\\\\d+\"}}}", StandardCharsets.UTF_8);
+
+        BlockingQueue<RouteRegistry> changes = new LinkedBlockingQueue<>();
+
+        try (RouteWatcher watcher = new RouteWatcher(srcDir, Map.of(new SymfonyJSONParser(), jsonFile), 200)) {
+            RouteRegistry routes = watcher.load(2, null);
+            assertEquals(3, routes.size());
+            assertEquals(4, routes.countMethods());
+            assertEquals(fullRun(srcDir, jsonFile), serialize(routes));
+
+            Thread thread = new Thread(() -> watcher.run(changes::put));
+            thread.start();
+
+            //a change without route changes doesn't regenerate the output files
+            writeController(srcDir.resolve("UserController.php"), "user", 3, "// another comment");
+            assertNull(changes.poll(2, TimeUnit.SECONDS));
+
+            //a burst of changes is coalesced
+            Path adminDir = Files.createDirectories(srcDir.resolve("Admin"));
+
+            for (int i = 0; i < 20; i++) {
+                writeController(adminDir.resolve("Admin" + i + "Controller.php"), "admin" + i, 2, "");
+            }
+
+            routes = awaitRoutes(changes, 43);
+            assertEquals(43, routes.size());
+
+            //the result is the same as a full run, including parameters, default values and requirements
+            assertEquals(fullRun(srcDir, jsonFile), serialize(routes));
+            assertEquals("2", routes.getByName("user_1").orElseThrow().getMethods().get(Route.METHOD.GET).getDefaultValue("page").orElseThrow());
+
+            //delete a file, the routes of the console dump are kept
+            Files.delete(srcDir.resolve("UserController.php"));
+            routes = awaitRoutes(changes, 42);
+            assertFalse(routes.getByName("user_2").isPresent());
+            assertEquals(fullRun(srcDir, jsonFile), serialize(routes));
+
+            //the symfony json file is parsed again
+            Files.writeString(jsonFile, "{\"json_only\": {\"path\": \"/json\", \"method\": \"GET\", \"defaults\": [], \"requirements\": \"NO CUSTOM\"}}", StandardCharsets.UTF_8);
+            routes = awaitRoutes(changes, 41);
+            assertTrue(routes.getByName("json_only").isPresent());
+            assertFalse(routes.getByName("user_0").isPresent());
+            assertEquals(fullRun(srcDir, jsonFile), serialize(routes));
+            assertEquals(serialize(routes), serialize(watcher.getRoutes()));
+
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+            assertFalse(thread.isAlive());
+        }
+    }
+
+    /**
+     * the routes of a full run, serialized to compare all parameters, default values and requirements.
+     */
+    private static List<Byte> fullRun(Path srcDir, Path jsonFile) throws IOException {
+        RouteRegistry routes = new RouteRegistry(SourceCodeParser.parseSourceCodeDir(srcDir.toFile(), 1));
+        return serialize(new SymfonyJSONParser().parse(jsonFile.toFile(), routes));
+    }
+
+    private static List<Byte> serialize(RouteRegistry routes) {
+        List<Byte> bytes = new ArrayList<>();
+
+        for (byte b : RouteSerializer.serialize(routes.getRoutes())) {
+            bytes.add(b);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * wait until the routes have the expected size, a slow file system can report the changes in more than one batch.
+     */
+    private static RouteRegistry awaitRoutes(BlockingQueue<RouteRegistry> changes, int expectedSize) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+
+        while (System.nanoTime() < deadline) {
+            RouteRegistry routes = changes.poll(100, TimeUnit.MILLISECONDS);
+
+            if (routes != null && routes.size() == expectedSize) {
+                return routes;
+            }
+        }
+
+        return fail("routes weren't regenerated with " + expectedSize + " routes");
+    }
+
+    private static void writeController(Path file, String name, int routeCount, String comment) throws IOException {
+        StringBuilder sb = new StringBuilder("<?php\n\n/**\n * @Route(\"/" + name + "\")\n */\nclass Controller\n{\n");
+
+        for (int i = 0; i < routeCount; i++) {
+            sb.append("    /**\n     * @Route(\"/").append(i).append("\", name=\"").append(name).append('_').append(i).append("\")\n     */\n");
+            sb.append("    public function action").append(i).append("() {\n        ").append(comment).append("\n    }\n\n");
+        }
+
+        Files.writeString(file, sb.append("}\n"), StandardCharsets.UTF_8);
+    }
+
+}
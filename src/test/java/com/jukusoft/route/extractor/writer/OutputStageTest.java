@@ -0,0 +1,135 @@
+package com.jukusoft.route.extractor.writer;
+
+import com.jukusoft.route.extractor.parser.Parameter;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.parser.RouteTrie;
+import com.jukusoft.route.extractor.writer.impl.CSVGenerator;
+import com.jukusoft.route.extractor.writer.impl.openapi.OpenAPI20Generator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutputStageTest {
+
+    @Test
+    public void testSelectGenerators(@TempDir Path outputDir) {
+        List<FileFormatGenerator> generators = List.of(new OpenAPI20Generator(outputDir), new CSVGenerator(outputDir));
+
+        assertEquals(generators, OutputStage.selectGenerators(generators, null));
+        assertEquals(List.of(generators.get(1)), OutputStage.selectGenerators(generators, " CSV "));
+        assertEquals(generators, OutputStage.selectGenerators(generators, "csv,openapi20"));
+        assertThrows(IllegalArgumentException.class, () -> OutputStage.selectGenerators(generators, "csv,xml"));
+        assertThrows(IllegalArgumentException.class, () -> OutputStage.selectGenerators(generators, ","));
+    }
+
+    /**
+     * a failing generator doesn't abort the other generators.
+     */
+    @Test
+    public void testFailureIsolation(@TempDir Path outputDir) throws InterruptedException {
+        Route route = new Route("/user", "user_list");
+        route.addRouteMethod(Route.METHOD.GET, new RouteMethod(Route.METHOD.GET));
+
+        OutputStage outputStage = new OutputStage(List.of(new FailingGenerator(new IOException("disk full")), new CSVGenerator(outputDir)));
+        List<OutputStage.Result> results = outputStage.run(List.of(route), new RouteTrie(List.of(route)).getPathGroups(), "localhost", "/", "ignored.csv");
+
+        assertEquals(2, results.size());
+        assertFalse(results.get(0).isSuccessful());
+        assertEquals("failing", results.get(0).formatName());
+        assertTrue(results.get(1).isSuccessful());
+        assertEquals("routes.csv", results.get(1).fileName());
+        assertTrue(Files.exists(outputDir.resolve("routes.csv")));
+    }
+
+    /**
+     * an error of a generator, e.q. a StackOverflowError, is reported like an exception.
+     */
+    @Test
+    public void testErrorIsolation(@TempDir Path outputDir) throws InterruptedException {
+        Route route = new Route("/user", "user_list");
+        route.addRouteMethod(Route.METHOD.GET, new RouteMethod(Route.METHOD.GET));
+
+        OutputStage outputStage = new OutputStage(List.of(new FailingGenerator(new StackOverflowError()), new CSVGenerator(outputDir)));
+        List<OutputStage.Result> results = run(outputStage, route);
+
+        assertTrue(results.get(0).error() instanceof StackOverflowError);
+        assertTrue(results.get(1).isSuccessful());
+        assertTrue(Files.exists(outputDir.resolve("routes.csv")));
+    }
+
+    /**
+     * a generator is skipped, if its output file would be byte-identical to the last run.
+     */
+    @Test
+    public void testUnchangedOutputIsSkipped(@TempDir Path outputDir) throws InterruptedException, IOException {
+        Route route = new Route("/user/{id}", "user_show");
+        route.addRouteMethod(Route.METHOD.GET, new RouteMethod(Route.METHOD.GET));
+
+        OutputStage outputStage = new OutputStage(List.of(new OpenAPI20Generator(outputDir, new SpecificationValidator(SpecificationValidator.Mode.OFF)), new CSVGenerator(outputDir)));
+        List<OutputStage.Result> results = run(outputStage, route);
+        assertFalse(results.get(0).unchanged());
+        assertFalse(results.get(1).unchanged());
+
+        results = run(outputStage, route);
+        assertTrue(results.get(0).unchanged());
+        assertTrue(results.get(1).unchanged());
+
+        //a parameter isn't written into the CSV file
+        route.getMethods().get(Route.METHOD.GET).addParameter("id", Parameter.IN_TYPE.PATH, true, "integer", null);
+        results = run(outputStage, route);
+        assertFalse(results.get(0).unchanged());
+        assertTrue(results.get(1).unchanged());
+
+        Route renamed = new Route("/user/{id}", "user_detail");
+        renamed.addRouteMethod(Route.METHOD.GET, new RouteMethod(Route.METHOD.GET));
+        results = run(outputStage, renamed);
+        assertFalse(results.get(1).unchanged());
+        assertTrue(Files.readString(outputDir.resolve("routes.csv")).contains("user_detail"));
+    }
+
+    private static List<OutputStage.Result> run(OutputStage outputStage, Route route) throws InterruptedException {
+        return outputStage.run(List.of(route), new RouteTrie(List.of(route)).getPathGroups(), "localhost", "/", null);
+    }
+
+    private static class FailingGenerator implements FileFormatGenerator {
+
+        private final Throwable failure;
+
+        FailingGenerator(Throwable failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public void generateOutputFile(List<Route> routes, String host, String basePath, String fileName) throws IOException {
+            if (failure instanceof IOException e) {
+                throw e;
+            }
+
+            throw (Error) failure;
+        }
+
+        @Override
+        public String getFormatName() {
+            return "failing";
+        }
+
+        @Override
+        public String getFileExtension() {
+            return ".txt";
+        }
+
+        @Override
+        public String getPreferredFileName() {
+            return "failing.txt";
+        }
+
+    }
+
+}
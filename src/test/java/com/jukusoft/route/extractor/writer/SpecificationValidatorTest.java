@@ -0,0 +1,68 @@
+package com.jukusoft.route.extractor.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpecificationValidatorTest {
+
+    private static final String VALID_SPEC = "{\"swagger\": \"2.0\", \"info\": {\"title\": \"test\", \"version\": \"1.0.0\"}, \"paths\": {\"/user\": {\"get\": {\"responses\": {\"200\": {\"description\": \"Success\"}}}}}}";
+
+    @Test
+    public void testParseMode() {
+        assertEquals(SpecificationValidator.Mode.ASYNC, SpecificationValidator.Mode.parse("async"));
+        assertEquals(SpecificationValidator.Mode.OFF, SpecificationValidator.Mode.parse("OFF"));
+        assertThrows(IllegalArgumentException.class, () -> SpecificationValidator.Mode.parse("later"));
+    }
+
+    @Test
+    public void testValidate() throws Exception {
+        for (SpecificationValidator.Mode mode : new SpecificationValidator.Mode[]{SpecificationValidator.Mode.SYNC, SpecificationValidator.Mode.ASYNC}) {
+            try (SpecificationValidator validator = new SpecificationValidator(mode)) {
+                Future<Boolean> valid = validator.validate("valid.json", VALID_SPEC);
+                Future<Boolean> invalid = validator.validate("invalid.json", "no swagger document");
+
+                assertTrue(valid.get());
+                assertFalse(invalid.get());
+                assertFalse(validator.awaitCompletion());
+            }
+        }
+    }
+
+    /**
+     * in watch mode, an invalid document of a previous run shouldn't affect the next run.
+     */
+    @Test
+    public void testReset(@TempDir Path dir) throws Exception {
+        try (SpecificationValidator validator = new SpecificationValidator(SpecificationValidator.Mode.ASYNC)) {
+            Path file = dir.resolve("result.json");
+            Files.writeString(file, "no swagger document");
+            validator.validate(file);
+            assertFalse(validator.awaitCompletion());
+
+            //next run
+            validator.reset();
+            assertEquals(0, validator.getValidationTimeMillis());
+            Files.writeString(file, VALID_SPEC);
+            assertTrue(validator.validate(file).get());
+            assertTrue(validator.awaitCompletion());
+
+            //missing files are invalid
+            assertFalse(validator.validate(dir.resolve("missing.json")).get());
+        }
+    }
+
+    @Test
+    public void testValidationOff() throws Exception {
+        try (SpecificationValidator validator = new SpecificationValidator(SpecificationValidator.Mode.OFF)) {
+            assertFalse(validator.isEnabled());
+            assertTrue(validator.validate("invalid.json", "no json").get());
+        }
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.jukusoft.route.extractor.writer.impl.openapi;
+
+import com.jukusoft.route.extractor.parser.Parameter;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.writer.SpecificationValidator;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenAPI20GeneratorTest {
+
+    /**
+     * the streamed specification has to be semantically equal to the JSON tree, which was built by the old generator.
+     */
+    @Test
+    public void testStreamedOutputEqualsJSONTree(@TempDir Path outputDir) throws IOException {
+        List<Route> routes = generateRoutes(20_000);
+
+        new OpenAPI20Generator(outputDir, new SpecificationValidator(SpecificationValidator.Mode.OFF)).generateOutputFile(routes, "localhost:8080", "/app/", "result.json");
+
+        JSONObject streamed = new JSONObject(Files.readString(outputDir.resolve("result.json"), StandardCharsets.UTF_8));
+        JSONObject expected = generateJSONTree(routes, "localhost:8080", "/app/");
+
+        assertEquals(expected.getJSONObject("paths").length(), streamed.getJSONObject("paths").length());
+        assertTrue(expected.similar(streamed));
+    }
+
+    /**
+     * special characters have to be escaped like {@link JSONObject#toString(int)} does.
+     */
+    @Test
+    public void testEscaping(@TempDir Path outputDir) throws IOException {
+        Route route = new Route("/search/{q}", "search \"\\</\u00e4\n");
+        RouteMethod routeMethod = new RouteMethod(Route.METHOD.GET);
+        routeMethod.addParameter("q", Parameter.IN_TYPE.PATH, true, "string", "");
+        routeMethod.addParameter("tab", Parameter.IN_TYPE.QUERY, false, "string", "a\tb");
+        route.addRouteMethod(Route.METHOD.GET, routeMethod);
+
+        new OpenAPI20Generator(outputDir).generateOutputFile(List.of(route), "localhost", "/", "result.json");
+
+        JSONObject json = new JSONObject(Files.readString(outputDir.resolve("result.json"), StandardCharsets.UTF_8));
+        assertEquals(route.getName(), json.getJSONObject("paths").getJSONObject("/search/{q}").getJSONObject("get").getString("summary"));
+        assertTrue(generateJSONTree(List.of(route), "localhost", "/").similar(json));
+    }
+
+    /**
+     * the validator reads the generated file, no copy of the document is kept in memory.
+     */
+    @Test
+    public void testAsyncValidation(@TempDir Path outputDir) throws Exception {
+        try (SpecificationValidator validator = new SpecificationValidator(SpecificationValidator.Mode.ASYNC)) {
+            new OpenAPI20Generator(outputDir, validator).generateOutputFile(generateRoutes(100), "localhost:8080", "/app/", "result.json");
+            assertTrue(validator.awaitCompletion());
+        }
+    }
+
+    private static List<Route> generateRoutes(int count) {
+        Random random = new Random(42);
+        Route.METHOD[] methods = Route.METHOD.values();
+        List<Route> routes = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            //some routes share an url, so the methods of these routes are merged
+            String url = random.nextInt(4) == 0 ? "/shared/" + random.nextInt(100) + "/{id}" : "/item" + i + (i % 3 == 0 ? "/{id}/{page}" : "");
+            Route route = new Route(url, "route_" + i);
+
+            for (int j = 0; j <= random.nextInt(3); j++) {
+                Route.METHOD method = methods[random.nextInt(methods.length)];
+                RouteMethod routeMethod = new RouteMethod(method);
+
+                if (url.contains("{id}")) {
+                    routeMethod.addParameter("id", Parameter.IN_TYPE.PATH, true, "string", "");
+                }
+
+                if (url.contains("{page}")) {
+                    routeMethod.addParameter("page", Parameter.IN_TYPE.PATH, false, "string", "1");
+                }
+
+                if (random.nextBoolean()) {
+                    routeMethod.addParameter("filter" + j, Parameter.IN_TYPE.QUERY, random.nextBoolean(), "string", random.nextBoolean() ? "all" : "");
+                }
+
+                route.addRouteMethod(method, routeMethod);
+            }
+
+            routes.add(route);
+        }
+
+        return routes;
+    }
+
+    /**
+     * the JSON tree of the old, non-streaming generator as reference.
+     */
+    private static JSONObject generateJSONTree(List<Route> routes, String host, String basePath) {
+        JSONObject json = new JSONObject();
+
+        json.put("swagger", "2.0");
+        json.put("basePath", basePath);
+        json.put("host", host);
+        json.put("produces", new JSONArray().put("application/xml"));
+
+        JSONObject infoJSON = new JSONObject();
+        infoJSON.put("title", "auto-generated swagger specification");
+        infoJSON.put("description", "auto-generated swagger specification");
+        infoJSON.put("version", "1.0.0");
+        json.put("info", infoJSON);
+
+        Map<String,List<Route>> pathMap = new HashMap<>();
+
+        for (Route route : routes) {
+            pathMap.computeIfAbsent(route.getUrl(), url -> new ArrayList<>()).add(route);
+        }
+
+        JSONObject paths = new JSONObject();
+
+        for (Map.Entry<String,List<Route>> entry : pathMap.entrySet()) {
+            JSONObject methodsJSON = new JSONObject();
+            String url = entry.getKey();
+
+            for (Route route : entry.getValue()) {
+                for (RouteMethod routeMethod : route.getMethods().values()) {
+                    JSONObject pathMethod = new JSONObject();
+
+                    pathMethod.put("summary", route.getName());
+                    pathMethod.put("description", route.getName());
+                    pathMethod.put("operationId", route.getName());
+                    pathMethod.put("produces", new JSONArray().put(routeMethod.getProduces()));
+                    pathMethod.put("responses", new JSONObject().put("200", new JSONObject().put("description", "Success")));
+
+                    if (!routeMethod.getParameters().isEmpty()) {
+                        JSONArray parametersArray = new JSONArray();
+
+                        for (Parameter param : routeMethod.getParameters()) {
+                            if (!param.getIn().equals("path")) {
+                                parametersArray.put(toJSON(param));
+                            }
+                        }
+
+                        pathMethod.put("parameters", parametersArray);
+                    }
+
+                    methodsJSON.put(routeMethod.getMethod().toString().toLowerCase(Locale.ROOT), pathMethod);
+                }
+
+                if (url.contains("{") && url.contains("}")) {
+                    JSONArray parametersJSON = new JSONArray();
+
+                    for (Parameter parameter : entry.getValue().get(0).getMethods().values().iterator().next().getParameters()) {
+                        if (parameter.getIn().equals("path")) {
+                            parametersJSON.put(toJSON(parameter));
+                        }
+                    }
+
+                    methodsJSON.put("parameters", parametersJSON);
+                }
+            }
+
+            paths.put(url, methodsJSON);
+        }
+
+        json.put("paths", paths);
+
+        return json;
+    }
+
+    private static JSONObject toJSON(Parameter parameter) {
+        JSONObject json = new JSONObject();
+
+        json.put("name", parameter.getName());
+        json.put("in", parameter.getIn());
+        json.put("required", parameter.getRequired());
+        json.put("type", parameter.getType());
+        json.put("description", parameter.getName());
+        json.put("operationId", parameter.getName());
+
+        if (!parameter.getDefaultStr().isEmpty()) {
+            json.put("default", parameter.getDefaultStr());
+        }
+
+        return json;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.jukusoft.route.extractor.writer.impl.openapi;
+
+import com.jukusoft.route.extractor.parser.Parameter;
+import com.jukusoft.route.extractor.parser.Route;
+import com.jukusoft.route.extractor.parser.RouteMethod;
+import com.jukusoft.route.extractor.writer.SpecificationValidator;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenAPI31GeneratorTest {
+
+    @Test
+    public void testSharedParameters(@TempDir Path outputDir) throws IOException {
+        List<Route> routes = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            Route route = new Route("/item" + i + "/{id}", "item_" + i);
+
+            for (Route.METHOD method : List.of(Route.METHOD.GET, Route.METHOD.POST)) {
+                RouteMethod routeMethod = new RouteMethod(method);
+                routeMethod.addParameter("id", Parameter.IN_TYPE.PATH, true, "string", "");
+                routeMethod.addParameter("page", Parameter.IN_TYPE.QUERY, false, "string", "1");
+                routeMethod.addParameter("sort", Parameter.IN_TYPE.QUERY, false, "string", i % 2 == 0 ? "asc" : "desc");
+                route.addRouteMethod(method, routeMethod);
+            }
+
+            routes.add(route);
+        }
+
+        new OpenAPI31Generator(outputDir).generateOutputFile(routes, "localhost:8080", "/app/", "openapi.json");
+        new OpenAPI20Generator(outputDir, new SpecificationValidator(SpecificationValidator.Mode.OFF)).generateOutputFile(routes, "localhost:8080", "/app/", "result.json");
+
+        Path file = outputDir.resolve("openapi.json");
+        JSONObject json = new JSONObject(Files.readString(file, StandardCharsets.UTF_8));
+
+        assertEquals("3.1.0", json.getString("openapi"));
+        assertEquals("http://localhost:8080/app/", json.getJSONArray("servers").getJSONObject(0).getString("url"));
+
+        //"id", "page" and two different "sort" definitions
+        JSONObject components = json.getJSONObject("components").getJSONObject("parameters");
+        assertEquals(4, components.length());
+        assertEquals("asc", components.getJSONObject("query.sort").getJSONObject("schema").getString("default"));
+        assertEquals("desc", components.getJSONObject("query.sort-2").getJSONObject("schema").getString("default"));
+
+        JSONObject pathItem = json.getJSONObject("paths").getJSONObject("/item1/{id}");
+        assertEquals("#/components/parameters/path.id", pathItem.getJSONArray("parameters").getJSONObject(0).getString("$ref"));
+
+        //all references can be resolved and operation ids are unique
+        Set<String> operationIds = new HashSet<>();
+
+        for (String url : json.getJSONObject("paths").keySet()) {
+            JSONObject item = json.getJSONObject("paths").getJSONObject(url);
+
+            for (String key : item.keySet()) {
+                JSONArray parameters = key.equals("parameters") ? item.getJSONArray(key) : item.getJSONObject(key).optJSONArray("parameters");
+
+                if (!key.equals("parameters")) {
+                    assertTrue(operationIds.add(item.getJSONObject(key).getString("operationId")));
+                }
+
+                for (int i = 0; parameters != null && i < parameters.length(); i++) {
+                    String ref = parameters.getJSONObject(i).getString("$ref");
+                    assertTrue(components.has(ref.substring("#/components/parameters/".length())), ref);
+                }
+            }
+        }
+
+        assertEquals(2000, operationIds.size());
+        assertTrue(Files.size(file) < Files.size(outputDir.resolve("result.json")));
+    }
+
+    @Test
+    public void testFormParameters(@TempDir Path outputDir) throws IOException {
+        Route route = new Route("/login", "login");
+        RouteMethod routeMethod = new RouteMethod(Route.METHOD.POST);
+        routeMethod.addParameter("username", Parameter.IN_TYPE.FORM, true, "string", "");
+        routeMethod.addParameter("remember", Parameter.IN_TYPE.FORM, false, "string", "0");
+        route.addRouteMethod(Route.METHOD.POST, routeMethod);
+
+        new OpenAPI31Generator(outputDir).generateOutputFile(List.of(route), "localhost", "/", "openapi.json");
+
+        JSONObject operation = new JSONObject(Files.readString(outputDir.resolve("openapi.json"), StandardCharsets.UTF_8)).getJSONObject("paths").getJSONObject("/login").getJSONObject("post");
+        JSONObject schema = operation.getJSONObject("requestBody").getJSONObject("content").getJSONObject("application/x-www-form-urlencoded").getJSONObject("schema");
+
+        assertFalse(operation.has("parameters"));
+        assertEquals(2, schema.getJSONObject("properties").length());
+        assertEquals("username", schema.getJSONArray("required").getString(0));
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.jukusoft.neo4j.openapi.importer;
+
+import com.jukusoft.neo4j.openapi.importer.client.DatabaseFactory;
+import com.jukusoft.neo4j.openapi.importer.client.ImportPipeline;
+import com.jukusoft.neo4j.openapi.importer.graph.CsvGraphWriter;
+import com.jukusoft.neo4j.openapi.importer.graph.Neo4JGraphWriter;
+import com.jukusoft.neo4j.openapi.importer.graph.OpenAPIGraphImporter;
+import org.apache.commons.cli.*;
+import org.neo4j.driver.Driver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * imports the OpenAPI specification of the route extractor (result.json) into neo4j.
+ *
+ * Online mode: java -jar swagger-neo4j-importer.jar --spec result.json --uri bolt://localhost:7687 --username neo4j --password secret
+ * Bulk mode: java -jar swagger-neo4j-importer.jar --spec result.json --csv import/
+ *
+ * @author Justin Kuenzel
+ */
+public class Main {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Main.class);
+
+    public static void main(String[] args) throws IOException {
+        CommandLine cmd = parseArguments(args);
+
+        Path spec = Path.of(cmd.getOptionValue("spec"));
+        int batchSize = Integer.parseInt(cmd.getOptionValue("batch-size", "1000"));
+
+        if (cmd.hasOption("csv")) {
+            //bulk mode
+            CsvGraphWriter writer = new CsvGraphWriter(Path.of(cmd.getOptionValue("csv")));
+
+            try (writer) {
+                new OpenAPIGraphImporter(writer).importSpec(spec);
+            }
+
+            LOGGER.info("import the files with: neo4j-admin import {}", String.join(" ", writer.getImportArguments()));
+            return;
+        }
+
+        if (!cmd.hasOption("uri")) {
+            throw new IllegalArgumentException("either --csv or --uri is required");
+        }
+
+        //online mode
+        int maxInFlight = Integer.parseInt(cmd.getOptionValue("in-flight", String.valueOf(ImportPipeline.DEFAULT_MAX_IN_FLIGHT)));
+
+        try (Driver driver = DatabaseFactory.createConnection(cmd.getOptionValue("uri"), cmd.getOptionValue("username", "neo4j"), cmd.getOptionValue("password", ""));
+             ImportPipeline pipeline = new ImportPipeline(driver, maxInFlight, batchSize)) {
+            try (Neo4JGraphWriter writer = new Neo4JGraphWriter(pipeline, batchSize)) {
+                new OpenAPIGraphImporter(writer).importSpec(spec);
+            }
+
+            LOGGER.info("batches: {}, retries: {}, statement cache: {}", pipeline.getBatchCount(), pipeline.getRetryCount(), pipeline.getQueryCache());
+        }
+
+        LOGGER.info("imported specification: {}", spec);
+    }
+
+    private static CommandLine parseArguments(String[] args) {
+        Options options = new Options();
+
+        Option spec = new Option("s", "spec", true, "OpenAPI 2.0 specification to import, e.q. result.json");
+        spec.setRequired(true);
+        options.addOption(spec);
+
+        options.addOption(new Option(null, "csv", true, "bulk mode: output directory for the CSV files of neo4j-admin import"));
+        options.addOption(new Option(null, "uri", true, "online mode: neo4j server uri, e.q. bolt://localhost:7687"));
+        options.addOption(new Option("u", "username", true, "neo4j username (optional, default: neo4j)"));
+        options.addOption(new Option("p", "password", true, "neo4j password"));
+        options.addOption(new Option(null, "batch-size", true, "nodes or relationships per batch (optional, default: 1000)"));
+        options.addOption(new Option(null, "in-flight", true, "maximum number of concurrent batches in online mode (optional, default: " + ImportPipeline.DEFAULT_MAX_IN_FLIGHT + ")"));
+
+        try {
+            return new DefaultParser().parse(options, args);
+        } catch (ParseException e) {
+            System.out.println(e.getMessage());
+            new HelpFormatter().printHelp("swagger-neo4j-importer", options);
+
+            throw new IllegalArgumentException("Cannot parse arguments correctly", e);
+        }
+    }
+
+}
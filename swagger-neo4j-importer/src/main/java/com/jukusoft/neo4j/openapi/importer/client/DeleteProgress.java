@@ -0,0 +1,23 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+/**
+ * the progress of a chunked delete, see {@link Neo4JClient#deleteNodes(String, int, int, java.util.function.Consumer)}.
+ *
+ * @param totalNodes number of nodes, which should be deleted
+ * @param deletedNodes number of nodes, which are deleted
+ * @param deletedRelationships number of relationships, which are deleted
+ *
+ * @author Justin Kuenzel
+ */
+public record DeleteProgress(long totalNodes, long deletedNodes, long deletedRelationships) {
+
+    /**
+     * get the progress in percent.
+     *
+     * @return percent of the deleted nodes between 0 and 100
+     */
+    public double getPercent() {
+        return totalNodes == 0 ? 100 : deletedNodes * 100.0 / totalNodes;
+    }
+
+}
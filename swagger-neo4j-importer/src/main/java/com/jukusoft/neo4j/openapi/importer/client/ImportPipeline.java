@@ -0,0 +1,373 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.ResultCursor;
+import org.neo4j.driver.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.exceptions.SessionExpiredException;
+import org.neo4j.driver.exceptions.TransientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * an import pipeline, which writes batches with the async session API of the driver.
+ *
+ * Up to maxInFlight batches are written concurrently, every batch in its own session and transaction, so the throughput
+ * scales with the connection pool instead of the network latency. If all batch slots are in use, the methods which submit
+ * batches block until a batch is finished (backpressure), so a slow server slows down the producer instead of queuing
+ * the whole import in memory. Transient failures (e.q. deadlocks or a leader switch) are retried with exponential
+ * backoff and jitter. After a batch failed finally, no further batches are accepted and {@link #flush()} throws the failure.
+ *
+ * A batch creates new entities, so it isn't idempotent and is only retried, if it failed before its commit was sent.
+ * If the connection fails during the commit, the batch may be committed or not. Such a batch isn't retried, because a retry
+ * could create the entities twice, it fails the import instead. So every batch is committed at most once, but a failed
+ * import can leave committed batches in the database.
+ *
+ * Relationships need the ids of their nodes, so wait for the future of {@link #createNodes(Collection)} or call
+ * {@link #flush()} before the relationships are created. The pipeline doesn't close the driver.
+ *
+ * @author Justin Kuenzel
+ */
+public class ImportPipeline implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportPipeline.class);
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 8;
+    public static final int DEFAULT_MAX_RETRIES = 5;
+
+    /**
+     * delay before the first retry in milliseconds, the delay is doubled for every further retry.
+     */
+    public static final long DEFAULT_INITIAL_RETRY_DELAY = 100;
+
+    private static final long MAX_RETRY_DELAY = 10_000;
+
+    /**
+     * transient errors, which are caused by the client and can't be fixed by a retry (like in the retry logic of the driver).
+     */
+    private static final Set<String> NON_RETRYABLE_CODES = Set.of("Neo.TransientError.Transaction.Terminated", "Neo.TransientError.Transaction.LockClientStopped");
+
+    private final Driver driver;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final int maxRetries;
+    private final long initialRetryDelay;
+
+    /**
+     * a permit for every batch, which is in flight
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * the first failure of a batch, which couldn't be retried
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * cache of the batch statements
+     */
+    private final QueryTemplateCache queries = new QueryTemplateCache();
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+
+    /**
+     * constructor with the default retry settings.
+     *
+     * @param driver neo4j driver, the connection pool should have at least maxInFlight connections
+     * @param maxInFlight maximum number of concurrent batches
+     * @param batchSize number of rows per batch
+     */
+    public ImportPipeline(Driver driver, int maxInFlight, int batchSize) {
+        this(driver, maxInFlight, batchSize, DEFAULT_MAX_RETRIES, DEFAULT_INITIAL_RETRY_DELAY);
+    }
+
+    /**
+     * default constructor.
+     *
+     * @param driver neo4j driver, the connection pool should have at least maxInFlight connections
+     * @param maxInFlight maximum number of concurrent batches
+     * @param batchSize number of rows per batch
+     * @param maxRetries maximum number of retries of a batch with transient failures
+     * @param initialRetryDelay delay before the first retry in milliseconds
+     */
+    public ImportPipeline(Driver driver, int maxInFlight, int batchSize, int maxRetries, long initialRetryDelay) {
+        if (maxInFlight <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("maxInFlight and batchSize have to be greater than 0");
+        }
+
+        if (maxRetries < 0 || initialRetryDelay < 0) {
+            throw new IllegalArgumentException("maxRetries and initialRetryDelay must not be negative");
+        }
+
+        this.driver = Objects.requireNonNull(driver);
+        this.maxInFlight = maxInFlight;
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.initialRetryDelay = initialRetryDelay;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * submit new nodes, see {@link UnitOfWork#createNodes(Collection)}.
+     * This method blocks, if all batch slots are in use.
+     *
+     * @param nodes new nodes, the generated ids are set on the nodes
+     * @return future with the generated ids in the order of the nodes, which completes when all batches of the nodes are committed
+     */
+    public CompletableFuture<List<Long>> createNodes(Collection<? extends Node> nodes) {
+        List<Node> list = new ArrayList<>(nodes);
+        list.forEach(UnitOfWork::checkNew);
+
+        //nodes with the same labels are written with the same statement
+        Map<Set<String>,List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < list.size(); i++) {
+            groups.computeIfAbsent(UnitOfWork.getLabelSet(list.get(i)), key -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (Map.Entry<Set<String>,List<Integer>> entry : groups.entrySet()) {
+            String query = queries.get(QueryTemplateCache.CREATE_NODES, entry.getKey());
+
+            for (List<Integer> batch : split(entry.getValue())) {
+                List<Map<String,Object>> rows = batch.stream().map(index -> UnitOfWork.toRow(index, list.get(index))).collect(Collectors.toList());
+                futures.add(submit(query, rows, (index, id) -> list.get(index).setNodeID(id)));
+            }
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> list.stream().map(Node::getNodeID).collect(Collectors.toList()));
+    }
+
+    /**
+     * submit new relationships between persisted nodes, see {@link UnitOfWork#createRelationships(Collection)}.
+     * This method blocks, if all batch slots are in use.
+     *
+     * @param relationships new relationships, the generated ids are set on the relationships
+     * @return future with the generated ids in the order of the relationships, which completes when all batches are committed
+     */
+    public CompletableFuture<List<Long>> createRelationships(Collection<? extends Relationship> relationships) {
+        List<Relationship> list = new ArrayList<>(relationships);
+        list.forEach(UnitOfWork::checkNew);
+
+        //relationships with the same type are written with the same statement
+        Map<String,List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < list.size(); i++) {
+            groups.computeIfAbsent(list.get(i).getType(), key -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (Map.Entry<String,List<Integer>> entry : groups.entrySet()) {
+            String query = queries.get(QueryTemplateCache.CREATE_RELATIONSHIPS, List.of(entry.getKey()));
+
+            for (List<Integer> batch : split(entry.getValue())) {
+                List<Map<String,Object>> rows = batch.stream().map(index -> UnitOfWork.toRow(index, list.get(index))).collect(Collectors.toList());
+                futures.add(submit(query, rows, (index, id) -> list.get(index).setRelationshipID(id)));
+            }
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(v -> list.stream().map(Relationship::getRelationshipID).collect(Collectors.toList()));
+    }
+
+    /**
+     * wait, until all submitted batches are finished.
+     *
+     * @throws IllegalStateException if a batch failed
+     */
+    public void flush() {
+        acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+
+        checkFailure();
+    }
+
+    /**
+     * get the statement cache, e.q. to check the reuse of the statements.
+     */
+    public QueryTemplateCache getQueryCache() {
+        return queries;
+    }
+
+    /**
+     * get the number of committed batches.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * get the number of retried batch attempts.
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * wait for all submitted batches, the driver isn't closed.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private <T> List<List<T>> split(List<T> list) {
+        List<List<T>> batches = new ArrayList<>();
+
+        for (int start = 0; start < list.size(); start += batchSize) {
+            batches.add(list.subList(start, Math.min(start + batchSize, list.size())));
+        }
+
+        return batches;
+    }
+
+    private CompletableFuture<Void> submit(String query, List<Map<String,Object>> rows, BiConsumer<Integer,Long> idConsumer) {
+        checkFailure();
+
+        //backpressure: wait for a free batch slot
+        acquire(1);
+
+        CompletableFuture<List<Record>> result;
+
+        try {
+            result = executeWithRetry(query, rows, 0);
+        } catch (RuntimeException e) {
+            //e.q. the driver couldn't open a session, the batch never started
+            failure.compareAndSet(null, e);
+            inFlight.release();
+            throw e;
+        }
+
+        return result
+                .thenAccept(records -> {
+                    for (Record record : records) {
+                        idConsumer.accept(record.get("index").asInt(), record.get("id").asLong());
+                    }
+
+                    batchCount.incrementAndGet();
+                })
+                .whenComplete((v, e) -> {
+                    if (e != null) {
+                        failure.compareAndSet(null, unwrap(e));
+                    }
+
+                    inFlight.release();
+                });
+    }
+
+    private CompletableFuture<List<Record>> executeWithRetry(String query, List<Map<String,Object>> rows, int attempt) {
+        return execute(query, rows).toCompletableFuture().exceptionallyCompose(e -> {
+            Throwable cause = unwrap(e);
+
+            if (attempt >= maxRetries || !isRetryable(cause)) {
+                return CompletableFuture.failedFuture(cause);
+            }
+
+            long delay = getRetryDelay(attempt);
+            retryCount.incrementAndGet();
+            LOGGER.warn("batch failed with transient error, retry in {} ms: {}", delay, cause.getMessage());
+
+            Executor delayedExecutor = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+            return CompletableFuture.supplyAsync(() -> attempt + 1, delayedExecutor).thenCompose(nextAttempt -> executeWithRetry(query, rows, nextAttempt));
+        });
+    }
+
+    /**
+     * execute a batch statement in its own session and transaction.
+     */
+    private CompletionStage<List<Record>> execute(String query, List<Map<String,Object>> rows) {
+        AsyncSession session = driver.asyncSession();
+
+        CompletionStage<List<Record>> result = session.beginTransactionAsync().thenCompose(tx -> tx.runAsync(query, Map.of("rows", rows))
+                .thenCompose(ResultCursor::listAsync)
+                .thenCompose(records -> {
+                    //e.q. a node of a relationship doesn't exist anymore
+                    if (records.size() != rows.size()) {
+                        throw new IllegalStateException("expected " + rows.size() + " created entities, but got " + records.size());
+                    }
+
+                    return tx.commitAsync().handle((v, commitError) -> {
+                        if (commitError == null) {
+                            return records;
+                        }
+
+                        Throwable cause = unwrap(commitError);
+
+                        //the server may have committed the batch, so it must not be retried
+                        if (isConnectionFailure(cause)) {
+                            throw new IllegalStateException("connection failed during commit, the batch may be committed: " + cause.getMessage(), cause);
+                        }
+
+                        throw new CompletionException(cause);
+                    });
+                })
+                .exceptionallyCompose(e -> tx.rollbackAsync()
+                        .handle((v, rollbackError) -> (Void) null)
+                        .thenCompose(v -> CompletableFuture.failedStage(unwrap(e)))));
+
+        //the session is closed before the result is completed, so the connection is back in the pool
+        return result.handle((records, e) -> session.closeAsync().thenCompose(v -> e == null ? CompletableFuture.completedStage(records) : CompletableFuture.<List<Record>>failedStage(unwrap(e))))
+                .thenCompose(stage -> stage);
+    }
+
+    /**
+     * get the delay before a retry, half of the delay is random, so the failed batches don't retry at the same time.
+     *
+     * @param attempt number of the failed attempt, starting with 0
+     * @return delay in milliseconds
+     */
+    long getRetryDelay(int attempt) {
+        long delay = Math.min(MAX_RETRY_DELAY, initialRetryDelay << Math.min(attempt, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    static boolean isRetryable(Throwable e) {
+        if (e instanceof TransientException transientException) {
+            return !NON_RETRYABLE_CODES.contains(transientException.code());
+        }
+
+        return isConnectionFailure(e);
+    }
+
+    private static boolean isConnectionFailure(Throwable e) {
+        return e instanceof ServiceUnavailableException || e instanceof SessionExpiredException;
+    }
+
+    private void acquire(int permits) {
+        try {
+            inFlight.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for batches in flight", e);
+        }
+    }
+
+    private void checkFailure() {
+        Throwable e = failure.get();
+
+        if (e != null) {
+            throw new IllegalStateException("import failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+
+        return e;
+    }
+
+}
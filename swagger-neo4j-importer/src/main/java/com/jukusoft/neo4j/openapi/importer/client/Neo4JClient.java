@@ -3,8 +3,9 @@ package com.jukusoft.neo4j.openapi.importer.client;
 import org.neo4j.driver.*;
 import org.neo4j.driver.Record;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -16,11 +17,26 @@ import java.util.stream.Collectors;
  */
 public class Neo4JClient implements AutoCloseable {
 
+    /**
+     * default number of nodes or relationships, which are written in one statement and transaction.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     /**
      * the neo4j driver
      */
     private Driver driver;
 
+    /**
+     * number of rows per batch statement
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * cache of the statements, so repeated statements have the same query text and use the query plan cache of the server
+     */
+    private final QueryTemplateCache queries = new QueryTemplateCache();
+
     /**
      * public constructor.
      *
@@ -33,6 +49,42 @@ public class Neo4JClient implements AutoCloseable {
         this.driver = DatabaseFactory.createConnection(uri, username, password);
     }
 
+    /**
+     * constructor for an existing driver, e.q. an embedded database or a stub driver in tests.
+     * The client takes the ownership of the driver and closes it.
+     *
+     * @param driver neo4j driver
+     */
+    public Neo4JClient(Driver driver) {
+        this.driver = Objects.requireNonNull(driver);
+    }
+
+    /**
+     * get the statement cache, e.q. to check the reuse of the statements.
+     *
+     * @return statement cache
+     */
+    public QueryTemplateCache getQueryCache() {
+        return queries;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * set the number of nodes or relationships, which are written in one statement and transaction.
+     *
+     * @param batchSize rows per batch, larger batches need less round trips, but more memory on the server
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch size has to be greater than 0: " + batchSize);
+        }
+
+        this.batchSize = batchSize;
+    }
+
     /**
      * create a new neo4j database - important: this only works in enterprise edition (!).
      * This method doesn't do any escaping.
@@ -90,6 +142,30 @@ public class Neo4JClient implements AutoCloseable {
         });
     }
 
+    /**
+     * execute all reads and writes of a unit of work in one session and transaction.
+     * The transaction is committed, if the function returns, otherwise it's rolled back and the ids of the
+     * entities, which were created in the unit of work, are reset.
+     *
+     * @param func the function to execute
+     */
+    public <T> T inTransaction(Function<UnitOfWork,T> func) {
+        return this.executeInSession(session -> {
+            try (Transaction tx = session.beginTransaction()) {
+                UnitOfWork unitOfWork = new UnitOfWork(tx, batchSize, queries);
+
+                try {
+                    T result = func.apply(unitOfWork);
+                    tx.commit();
+                    return result;
+                } catch (RuntimeException e) {
+                    unitOfWork.resetCreatedIds();
+                    throw e;
+                }
+            }
+        });
+    }
+
     /**
      * create a new root node.
      *
@@ -97,13 +173,15 @@ public class Neo4JClient implements AutoCloseable {
      * @return node instance
      */
     public Node createNode(String... type) {
-        long nodeID = this.writeTransaction(tx -> {
-            String typeStr = (type != null) ? ":" + String.join(":", type) : "";
-            Result result = tx.run("CREATE (n" + typeStr + ") RETURN id(n)");
-            return result.single().get("id(n)").asLong();
-        });
+        Node node = new Node();
 
-        return getNodeById(nodeID);
+        if (type != null) {
+            for (String label : type) {
+                node.addLabel(label);
+            }
+        }
+
+        return save(node);
     }
 
     /**
@@ -113,7 +191,7 @@ public class Neo4JClient implements AutoCloseable {
      * @return reloaded node
      */
     public Node reload(Node node) {
-        if (node.getNodeID() == 0) {
+        if (!node.isPersisted()) {
             throw new IllegalStateException("node is not persisted");
         }
 
@@ -127,21 +205,7 @@ public class Neo4JClient implements AutoCloseable {
      * @return node from database
      */
     public Node getNodeById(long nodeID) {
-        return this.readTransaction(tx -> {
-            Node node = new Node(nodeID);
-
-            Result result = tx.run("MATCH(n)\n" +
-                    "WHERE ID(n) = " + nodeID + "\n" +
-                    "RETURN labels(n) as labels");
-
-            for (String label : result.single().get("labels").asList(label -> label.isNull() || label.isEmpty() ? null : label.asString())) {
-                if (label != null && !label.equals("0")) {
-                    node.addLabel(label);
-                }
-            }
-
-            return node;
-        });
+        return this.readTransaction(tx -> new UnitOfWork(tx, batchSize, queries).getNodeById(nodeID));
     }
 
     /**
@@ -149,27 +213,161 @@ public class Neo4JClient implements AutoCloseable {
      * @param node the persistent neo4j node
      */
     public void deleteNode(Node node) {
-        this.writeTransaction(tx -> {
-            Result result = tx.run("MATCH (n) where ID(n)=" + node.getNodeID() + "\n" +
-                    "OPTIONAL MATCH (n)-[r]-() //drops p's relations\n" +
-                    "DELETE r,n");
+        this.inTransaction(unitOfWork -> {
+            unitOfWork.deleteNode(node);
             return null;
         });
     }
 
     /**
-     * delete all nodes with this label.
+     * delete all nodes with this label and their relationships in batches of the configured batch size.
      * @param type node label
+     * @return number of deleted nodes
      */
-    public void deleteNodes(String type) {
-        this.writeTransaction(tx -> {
-            Result result = tx.run("MATCH (n:" + type + ")\n" +
-                    "OPTIONAL MATCH (n)-[r]-() //drops p's relations\n" +
-                    "DELETE r,n");
-            return null;
+    public long deleteNodes(String type) {
+        return deleteNodes(type, batchSize, 1, progress -> {});
+    }
+
+    /**
+     * delete all nodes with this label and their relationships in chunks.
+     *
+     * A single DETACH DELETE has to hold all deleted nodes and relationships in the transaction state of the server, so it
+     * fails for large graphs. Instead the ids of the nodes are read once and the nodes are deleted in chunks with their own
+     * transactions: first the relationships of every chunk (at most batchSize per transaction), then the nodes of every chunk.
+     * The chunks are deleted by a pool of threads. A relationship between two deleted nodes is only deleted by the chunk of
+     * its endpoint with the lower id and the nodes are deleted after all relationships, so concurrent chunks never delete
+     * the same entity. Deadlocks between chunks are retried by the managed transactions of the driver.
+     * The delete isn't atomic, if it fails, a part of the nodes is already deleted and it can be repeated.
+     *
+     * @param type node label
+     * @param batchSize maximum number of nodes or relationships per transaction
+     * @param concurrency number of chunks, which are deleted at the same time
+     * @param progressListener gets the progress after every chunk of both phases, it's called by the threads of the pool one after another
+     * @return number of deleted nodes
+     */
+    public long deleteNodes(String type, int batchSize, int concurrency, Consumer<DeleteProgress> progressListener) {
+        if (type == null || type.isEmpty()) {
+            throw new IllegalArgumentException("type is required");
+        }
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch size has to be greater than 0: " + batchSize);
+        }
+
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency has to be greater than 0: " + concurrency);
+        }
+
+        List<String> labels = List.of(type);
+        long[] ids = getNodeIds(labels);
+
+        if (ids.length == 0) {
+            progressListener.accept(new DeleteProgress(0, 0, 0));
+            return 0;
+        }
+
+        AtomicLong deletedNodes = new AtomicLong();
+        AtomicLong deletedRelationships = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        //the listener is called one after another, but the lock isn't visible to the caller
+        Object progressLock = new Object();
+
+        try {
+            //the relationships of all chunks are deleted first, so DETACH DELETE of a node never races with another chunk
+            deleteInChunks(executor, ids, batchSize, chunk -> {
+                long relationships = deleteRelationships(labels, chunk, batchSize);
+
+                synchronized (progressLock) {
+                    progressListener.accept(new DeleteProgress(ids.length, deletedNodes.get(), deletedRelationships.addAndGet(relationships)));
+                }
+            });
+
+            deleteInChunks(executor, ids, batchSize, chunk -> {
+                long nodes = this.writeTransaction(tx -> tx.run(queries.get(QueryTemplateCache.DELETE_NODES_BY_ID, labels),
+                        Map.of("ids", chunk)).single().get("count").asLong());
+
+                synchronized (progressLock) {
+                    progressListener.accept(new DeleteProgress(ids.length, deletedNodes.addAndGet(nodes), deletedRelationships.get()));
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("delete of nodes was interrupted: " + type, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new IllegalStateException("Cannot delete nodes: " + type, e.getCause());
+        } finally {
+            //cancels the remaining chunks, if a chunk has failed
+            executor.shutdownNow();
+        }
+
+        return deletedNodes.get();
+    }
+
+    /**
+     * run a task for every chunk of the ids with the executor and wait for all chunks.
+     */
+    private static void deleteInChunks(ExecutorService executor, long[] ids, int batchSize, Consumer<List<Long>> task) throws InterruptedException, ExecutionException {
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int start = 0; start < ids.length; start += batchSize) {
+            int from = start;
+
+            futures.add(executor.submit(() -> {
+                //the chunk is copied by the task, so only the chunks of the running tasks are in memory twice
+                task.accept(Arrays.stream(ids, from, Math.min(from + batchSize, ids.length)).boxed().collect(Collectors.toList()));
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    /**
+     * read the ids of all nodes with these labels.
+     * The ids are streamed into a primitive array, so millions of nodes only need a few megabytes on the client.
+     */
+    private long[] getNodeIds(List<String> labels) {
+        return this.readTransaction(tx -> {
+            Result result = tx.run(queries.get(QueryTemplateCache.NODE_IDS, labels));
+            long[] ids = new long[1024];
+            int size = 0;
+
+            while (result.hasNext()) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+
+                ids[size++] = result.next().get("id").asLong();
+            }
+
+            return Arrays.copyOf(ids, size);
         });
     }
 
+    /**
+     * delete the relationships of some nodes with at most limit relationships per transaction.
+     *
+     * @return number of deleted relationships
+     */
+    private long deleteRelationships(List<String> labels, List<Long> ids, int limit) {
+        String query = queries.get(QueryTemplateCache.DELETE_RELATIONSHIPS_BY_ID, labels);
+        long deleted = 0;
+        long count;
+
+        do {
+            count = this.writeTransaction(tx -> tx.run(query, Map.of("ids", ids, "limit", limit)).single().get("count").asLong());
+            deleted += count;
+        } while (count == limit);
+
+        return deleted;
+    }
+
     /**
      * count all nodes of a specific type
      * @return number of nodes in database
@@ -185,59 +383,83 @@ public class Neo4JClient implements AutoCloseable {
      */
     public long countNodes(String type) {
         return this.readTransaction(tx -> {
-            //only append ":", if a type is requested
-            String typeStr = (type != null && !type.isEmpty()) ? ":" + type : "";
+            //only match a label, if a type is requested
+            List<String> labels = (type != null && !type.isEmpty()) ? List.of(type) : List.of();
 
-            Result result = tx.run("MATCH (n" + typeStr + ")\n" +
-                    "RETURN count(n) as count");
+            Result result = tx.run(queries.get(QueryTemplateCache.COUNT_NODES, labels));
             return result.single().get("count").asLong();
         });
     }
 
     /**
-     * persist data of a neo4j node.
+     * persist data of a neo4j node in one transaction.
      * @param node neo4j node
      */
     public Node save(Node node) {
-        return this.writeTransaction(tx -> {
-            long nodeID = node.getNodeID();
+        return this.inTransaction(unitOfWork -> unitOfWork.save(node));
+    }
 
-            //create new node, if not exists
-            if (nodeID == 0) {
-                String labels = node.listLabels().stream().count() > 1 ? String.join(":", node.listLabels()) : null;
-                Node node1 = this.createNode(labels);
+    /**
+     * create new nodes with their labels and properties, see {@link UnitOfWork#createNodes(Collection)}.
+     * Every batch statement is written in its own transaction, so the transactions stay small for large imports.
+     * Use {@link #inTransaction(Function)} to create all nodes in one transaction.
+     *
+     * @param nodes new nodes, the generated ids are set on the nodes
+     * @return generated ids in the order of the nodes
+     */
+    public List<Long> createNodes(Collection<? extends Node> nodes) {
+        nodes.forEach(UnitOfWork::checkNew);
 
-                node.setNodeID(node1.getNodeID());
-                nodeID = node1.getNodeID();
-            }
+        //nodes with the same labels are written with the same statement
+        Map<Set<String>,List<Node>> groups = new LinkedHashMap<>();
 
-            //update labels
-            updateLabels(tx, node);
+        for (Node node : nodes) {
+            groups.computeIfAbsent(UnitOfWork.getLabelSet(node), key -> new ArrayList<>()).add(node);
+        }
 
-            return reload(node);
-        });
+        for (List<Node> group : groups.values()) {
+            for (List<Node> batch : split(group)) {
+                this.inTransaction(unitOfWork -> unitOfWork.createNodes(batch));
+            }
+        }
+
+        return nodes.stream().map(Node::getNodeID).collect(Collectors.toList());
     }
 
-    private void updateLabels(Transaction tx, Node node) {
-        //get old labels
-        Node oldNode = getNodeById(node.getNodeID());
+    /**
+     * create new relationships between persisted nodes, see {@link UnitOfWork#createRelationships(Collection)}.
+     * Every batch statement is written in its own transaction.
+     *
+     * @param relationships new relationships, the generated ids are set on the relationships
+     * @return generated ids in the order of the relationships
+     */
+    public List<Long> createRelationships(Collection<? extends Relationship> relationships) {
+        relationships.forEach(UnitOfWork::checkNew);
 
-        List<String> labelsToRemove = oldNode.listLabels().stream().filter(label -> !node.listLabels().contains(label)).collect(Collectors.toList());
-        List<String> labelsToAdd = node.listLabels().stream().filter(label -> !oldNode.listLabels().contains(label)).collect(Collectors.toList());
+        //relationships with the same type are written with the same statement
+        Map<String,List<Relationship>> groups = new LinkedHashMap<>();
 
-        String query = "MATCH (n)\n" +
-                "WHERE ID(n) = " + node.getNodeID() + "\n";
+        for (Relationship relationship : relationships) {
+            groups.computeIfAbsent(relationship.getType(), key -> new ArrayList<>()).add(relationship);
+        }
 
-        //remove old labels
-        for (String label : labelsToRemove) {
-            String execQuery = query + "REMOVE n:" + label;
-            tx.run(execQuery);
+        for (List<Relationship> group : groups.values()) {
+            for (List<Relationship> batch : split(group)) {
+                this.inTransaction(unitOfWork -> unitOfWork.createRelationships(batch));
+            }
         }
 
-        //add new labels
-        for (String label : labelsToAdd) {
-            tx.run(query + "SET n:" + label);
+        return relationships.stream().map(Relationship::getRelationshipID).collect(Collectors.toList());
+    }
+
+    private <T> List<List<T>> split(List<T> list) {
+        List<List<T>> batches = new ArrayList<>();
+
+        for (int start = 0; start < list.size(); start += batchSize) {
+            batches.add(list.subList(start, Math.min(start + batchSize, list.size())));
         }
+
+        return batches;
     }
 
     /**
@@ -1,8 +1,6 @@
 package com.jukusoft.neo4j.openapi.importer.client;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 
 /**
  * a typical graph database node.
@@ -11,16 +9,26 @@ import java.util.UUID;
  */
 public class Node {
 
+    /**
+     * id of a node, which isn't persisted. Neo4J gives the id 0 to the first node of a database, so 0 is a valid id.
+     */
+    public static final long NOT_PERSISTED = -1;
+
     /**
      * a uuid
      */
-    private long nodeID = 0l;
+    private long nodeID = NOT_PERSISTED;
 
     /**
      * list with labels of the node;
      */
     private List<String> labels = new ArrayList<>();
 
+    /**
+     * properties of the node, values have to be supported by neo4j (e.q. strings, numbers, booleans or lists of them).
+     */
+    private Map<String,Object> properties = new LinkedHashMap<>();
+
     /**
      * default constructor
      */
@@ -29,10 +37,10 @@ public class Node {
     }
 
     /**
-     * default constructor.
+     * a reference to a persisted node, e.q. to create relationships without loading the node.
      * @param nodeID nodeID
      */
-    protected Node(long nodeID) {
+    public Node(long nodeID) {
         this.nodeID = nodeID;
     }
 
@@ -44,6 +52,15 @@ public class Node {
         this.nodeID = nodeID;
     }
 
+    /**
+     * check, if the node was created in the database.
+     *
+     * @return true, if the node has a database id
+     */
+    public boolean isPersisted() {
+        return nodeID != NOT_PERSISTED;
+    }
+
     public List<String> listLabels() {
         return labels;
     }
@@ -56,4 +73,25 @@ public class Node {
         this.labels.remove(label);
     }
 
+    /**
+     * get all properties.
+     *
+     * @return read-only map of the properties
+     */
+    public Map<String,Object> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    public Object getProperty(String key) {
+        return this.properties.get(key);
+    }
+
+    public void setProperty(String key, Object value) {
+        this.properties.put(key, value);
+    }
+
+    public void removeProperty(String key) {
+        this.properties.remove(key);
+    }
+
 }
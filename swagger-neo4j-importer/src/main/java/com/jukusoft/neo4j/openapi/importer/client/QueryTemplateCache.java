@@ -0,0 +1,263 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * a cache of cypher statements, which are rendered from registered query templates.
+ *
+ * Values are always bound as $param parameters. Only labels and relationship types can't be parameters, so a template
+ * renders its statement for sets of names. The sets are normalized (distinct and sorted) and the rendered statements are
+ * kept in a bounded LRU cache, so the same label set always gets the same query text and the query plan cache of the server
+ * can be used for every repeated statement. Hits and misses of the cache show, how often the templates are reused.
+ *
+ * @author Justin Kuenzel
+ */
+public class QueryTemplateCache {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    public static final String GET_NODE = "getNode";
+    public static final String GET_LABELS = "getLabels";
+    public static final String UPDATE_NODE = "updateNode";
+    public static final String DELETE_NODE = "deleteNode";
+    public static final String NODE_IDS = "nodeIds";
+    public static final String DELETE_RELATIONSHIPS_BY_ID = "deleteRelationshipsById";
+    public static final String DELETE_NODES_BY_ID = "deleteNodesById";
+    public static final String COUNT_NODES = "countNodes";
+    public static final String CREATE_NODES = "createNodes";
+    public static final String CREATE_RELATIONSHIPS = "createRelationships";
+
+    /**
+     * templates by name, a template gets the normalized name sets and renders the statement
+     */
+    private final Map<String,Function<List<List<String>>,String>> templates = new ConcurrentHashMap<>();
+
+    /**
+     * maximum number of rendered statements
+     */
+    private final int capacity;
+
+    /**
+     * rendered statements in access order
+     */
+    private final LinkedHashMap<Key,String> statements;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * constructor with the default capacity.
+     */
+    public QueryTemplateCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * default constructor.
+     *
+     * @param capacity maximum number of rendered statements, e.q. one per combination of labels
+     */
+    public QueryTemplateCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity has to be greater than 0: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key,String> eldest) {
+                if (size() > QueryTemplateCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+
+                return false;
+            }
+        };
+
+        registerDefaultTemplates();
+    }
+
+    private void registerDefaultTemplates() {
+        register(GET_NODE, names -> "MATCH (n)\n" +
+                "WHERE ID(n) = $id\n" +
+                "RETURN labels(n) AS labels, properties(n) AS properties");
+
+        register(GET_LABELS, names -> "MATCH (n)\n" +
+                "WHERE ID(n) = $id\n" +
+                "RETURN labels(n) AS labels");
+
+        //labels to remove and labels to add
+        register(UPDATE_NODE, names -> "MATCH (n)\n" +
+                "WHERE ID(n) = $id\n" +
+                (names.get(0).isEmpty() ? "" : "REMOVE n" + toLabelString(names.get(0)) + "\n") +
+                (names.get(1).isEmpty() ? "" : "SET n" + toLabelString(names.get(1)) + "\n") +
+                "SET n = $properties\n" +
+                "RETURN labels(n) AS labels, properties(n) AS properties");
+
+        register(DELETE_NODE, names -> "MATCH (n)\n" +
+                "WHERE ID(n) = $id\n" +
+                "DETACH DELETE n");
+
+        register(NODE_IDS, names -> "MATCH (n" + toLabelString(names.get(0)) + ")\n" +
+                "RETURN id(n) AS id");
+
+        //deletes at most $limit relationships of the nodes with the ids $ids, the labels protect against reused ids.
+        //A relationship between two nodes with the labels is only deleted by its endpoint with the lower id, so concurrent chunks never delete the same relationship.
+        register(DELETE_RELATIONSHIPS_BY_ID, names -> "UNWIND $ids AS id\n" +
+                "MATCH (n" + toLabelString(names.get(0)) + ")-[r]-(m)\n" +
+                "WHERE ID(n) = id AND (NOT m" + toLabelString(names.get(0)) + " OR ID(n) <= ID(m))\n" +
+                "WITH DISTINCT r LIMIT $limit\n" +
+                "DELETE r\n" +
+                "RETURN count(r) AS count");
+
+        register(DELETE_NODES_BY_ID, names -> "UNWIND $ids AS id\n" +
+                "MATCH (n" + toLabelString(names.get(0)) + ")\n" +
+                "WHERE ID(n) = id\n" +
+                "DETACH DELETE n\n" +
+                "RETURN count(n) AS count");
+
+        register(COUNT_NODES, names -> "MATCH (n" + toLabelString(names.get(0)) + ")\n" +
+                "RETURN count(n) as count");
+
+        //the statement gets the rows as parameter "rows" and returns the columns "index" and "id" for every row
+        register(CREATE_NODES, names -> "UNWIND $rows AS row\n" +
+                "CREATE (n" + toLabelString(names.get(0)) + ")\n" +
+                "SET n = row.properties\n" +
+                "RETURN row.index AS index, id(n) AS id");
+
+        register(CREATE_RELATIONSHIPS, names -> {
+            if (names.get(0).size() != 1) {
+                throw new IllegalArgumentException("a relationship has exactly one type: " + names.get(0));
+            }
+
+            return "UNWIND $rows AS row\n" +
+                    "MATCH (a) WHERE ID(a) = row.start\n" +
+                    "MATCH (b) WHERE ID(b) = row.end\n" +
+                    "CREATE (a)-[r" + toLabelString(names.get(0)) + "]->(b)\n" +
+                    "SET r = row.properties\n" +
+                    "RETURN row.index AS index, id(r) AS id";
+        });
+    }
+
+    /**
+     * register a query template.
+     *
+     * @param name unique name of the template
+     * @param template renders the statement for the normalized name sets, all values have to be $param parameters
+     */
+    public void register(String name, Function<List<List<String>>,String> template) {
+        if (templates.putIfAbsent(name, Objects.requireNonNull(template)) != null) {
+            throw new IllegalArgumentException("template is already registered: " + name);
+        }
+    }
+
+    /**
+     * get the statement of a template.
+     *
+     * @param name name of the template
+     * @param nameSets labels or relationship types, which are part of the statement. The order of the names in a set doesn't matter.
+     * @return cypher statement
+     */
+    @SafeVarargs
+    public final String get(String name, Collection<String>... nameSets) {
+        List<List<String>> normalizedSets = new ArrayList<>(nameSets.length);
+
+        for (Collection<String> names : nameSets) {
+            normalizedSets.add(names.stream().distinct().sorted().collect(Collectors.toUnmodifiableList()));
+        }
+
+        Key key = new Key(name, normalizedSets);
+
+        synchronized (statements) {
+            String statement = statements.get(key);
+
+            if (statement != null) {
+                hits.incrementAndGet();
+                return statement;
+            }
+        }
+
+        Function<List<List<String>>,String> template = templates.get(name);
+
+        if (template == null) {
+            throw new IllegalArgumentException("template isn't registered: " + name);
+        }
+
+        String statement = template.apply(normalizedSets);
+        misses.incrementAndGet();
+
+        synchronized (statements) {
+            statements.put(key, statement);
+        }
+
+        return statement;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * get the share of statements, which were taken from the cache.
+     *
+     * @return hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long requests = hits.get() + misses.get();
+        return requests == 0 ? 0 : (double) hits.get() / requests;
+    }
+
+    /**
+     * get the number of cached statements.
+     */
+    public int size() {
+        synchronized (statements) {
+            return statements.size();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QueryTemplateCache{" +
+                "size=" + size() +
+                ", hits=" + hits.get() +
+                ", misses=" + misses.get() +
+                ", evictions=" + evictions.get() +
+                '}';
+    }
+
+    /**
+     * render a set of labels or a relationship type, e.q. :`Route`:`Method`
+     */
+    static String toLabelString(Collection<String> labels) {
+        return labels.stream().distinct().map(label -> ":" + escapeName(label)).collect(Collectors.joining());
+    }
+
+    /**
+     * escape a label or relationship type, which is used as part of a query.
+     */
+    static String escapeName(String name) {
+        return "`" + name.replace("`", "``") + "`";
+    }
+
+    /**
+     * key of a rendered statement.
+     */
+    private record Key(String template, List<List<String>> nameSets) {
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * a directed relationship between two nodes.
+ *
+ * @author Justin Kuenzel
+ */
+public class Relationship {
+
+    /**
+     * id of a relationship, which isn't persisted, 0 is a valid id.
+     */
+    public static final long NOT_PERSISTED = -1;
+
+    /**
+     * id of the relationship, {@link #NOT_PERSISTED} if the relationship isn't persisted
+     */
+    private long relationshipID = NOT_PERSISTED;
+
+    private final Node startNode;
+    private final String type;
+    private final Node endNode;
+
+    /**
+     * properties of the relationship, values have to be supported by neo4j.
+     */
+    private Map<String,Object> properties = new LinkedHashMap<>();
+
+    /**
+     * default constructor.
+     *
+     * @param startNode node, where the relationship starts
+     * @param type relationship type, e.q. HAS_METHOD
+     * @param endNode node, where the relationship ends
+     */
+    public Relationship(Node startNode, String type, Node endNode) {
+        this.startNode = Objects.requireNonNull(startNode);
+        this.type = Objects.requireNonNull(type);
+        this.endNode = Objects.requireNonNull(endNode);
+    }
+
+    public long getRelationshipID() {
+        return relationshipID;
+    }
+
+    protected void setRelationshipID(long relationshipID) {
+        this.relationshipID = relationshipID;
+    }
+
+    /**
+     * check, if the relationship was created in the database.
+     *
+     * @return true, if the relationship has a database id
+     */
+    public boolean isPersisted() {
+        return relationshipID != NOT_PERSISTED;
+    }
+
+    public Node getStartNode() {
+        return startNode;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Node getEndNode() {
+        return endNode;
+    }
+
+    /**
+     * get all properties.
+     *
+     * @return read-only map of the properties
+     */
+    public Map<String,Object> getProperties() {
+        return Collections.unmodifiableMap(properties);
+    }
+
+    public Object getProperty(String key) {
+        return this.properties.get(key);
+    }
+
+    public void setProperty(String key, Object value) {
+        this.properties.put(key, value);
+    }
+
+    public void removeProperty(String key) {
+        this.properties.remove(key);
+    }
+
+}
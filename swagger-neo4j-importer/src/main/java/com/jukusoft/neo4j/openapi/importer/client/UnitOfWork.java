@@ -0,0 +1,261 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Transaction;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * all reads and writes of one save or a whole import, which share one session and transaction.
+ * A unit of work is created by {@link Neo4JClient#inTransaction(java.util.function.Function)} and must not be used
+ * after the function returned.
+ *
+ * @author Justin Kuenzel
+ */
+public class UnitOfWork {
+
+    /**
+     * the transaction of this unit of work
+     */
+    private final Transaction tx;
+
+    /**
+     * number of rows per batch statement
+     */
+    private final int batchSize;
+
+    /**
+     * cache of the statements
+     */
+    private final QueryTemplateCache queries;
+
+    /**
+     * entities, which were created in this unit of work. Their ids are reset, if the transaction fails.
+     */
+    private final List<Node> createdNodes = new ArrayList<>();
+    private final List<Relationship> createdRelationships = new ArrayList<>();
+
+    /**
+     * default constructor.
+     *
+     * @param tx open transaction
+     * @param batchSize number of rows per batch statement
+     * @param queries cache of the statements
+     */
+    UnitOfWork(Transaction tx, int batchSize, QueryTemplateCache queries) {
+        this.tx = tx;
+        this.batchSize = batchSize;
+        this.queries = queries;
+    }
+
+    /**
+     * get the transaction to execute own cypher queries.
+     *
+     * @return open transaction
+     */
+    public Transaction getTransaction() {
+        return tx;
+    }
+
+    /**
+     * get node from database.
+     *
+     * @param nodeID id of node
+     * @return node with labels and properties
+     */
+    public Node getNodeById(long nodeID) {
+        Record record = tx.run(queries.get(QueryTemplateCache.GET_NODE), Map.of("id", nodeID)).single();
+
+        return toNode(nodeID, record);
+    }
+
+    /**
+     * persist labels and properties of a node.
+     * A new node is created with one statement. For an existing node the current labels are read and the label diff
+     * and the properties are written with one statement, so a save needs at most 2 round trips.
+     *
+     * @param node neo4j node
+     * @return node with the persisted labels and properties
+     */
+    public Node save(Node node) {
+        //create new node, if not exists
+        if (!node.isPersisted()) {
+            createNodes(List.of(node));
+            return node;
+        }
+
+        Record oldRecord = tx.run(queries.get(QueryTemplateCache.GET_LABELS), Map.of("id", node.getNodeID())).single();
+        List<String> oldLabels = oldRecord.get("labels").asList(label -> label.asString());
+
+        List<String> labelsToRemove = oldLabels.stream().filter(label -> !node.listLabels().contains(label)).collect(Collectors.toList());
+        List<String> labelsToAdd = node.listLabels().stream().distinct().filter(label -> !oldLabels.contains(label)).collect(Collectors.toList());
+
+        String query = queries.get(QueryTemplateCache.UPDATE_NODE, labelsToRemove, labelsToAdd);
+        Record record = tx.run(query, Map.of("id", node.getNodeID(), "properties", node.getProperties())).single();
+        return toNode(node.getNodeID(), record);
+    }
+
+    /**
+     * create new nodes with their labels and properties.
+     * The nodes are written with one parameterized UNWIND statement per batch and combination of labels,
+     * so importing many nodes doesn't need a round trip per node.
+     *
+     * @param nodes new nodes, the generated ids are set on the nodes
+     * @return generated ids in the order of the nodes
+     */
+    public List<Long> createNodes(Collection<? extends Node> nodes) {
+        List<Node> list = new ArrayList<>(nodes);
+
+        //labels can't be parameters, so the nodes are grouped by their labels
+        Map<Set<String>,List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < list.size(); i++) {
+            Node node = list.get(i);
+            checkNew(node);
+            groups.computeIfAbsent(getLabelSet(node), key -> new ArrayList<>()).add(i);
+        }
+
+        long[] ids = new long[list.size()];
+
+        for (Map.Entry<Set<String>,List<Integer>> entry : groups.entrySet()) {
+            writeBatches(queries.get(QueryTemplateCache.CREATE_NODES, entry.getKey()), entry.getValue(), index -> toRow(index, list.get(index)), ids);
+        }
+
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).setNodeID(ids[i]);
+        }
+
+        createdNodes.addAll(list);
+
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * create new relationships between persisted nodes.
+     * The relationships are written with one parameterized UNWIND statement per batch and relationship type.
+     *
+     * @param relationships new relationships, the generated ids are set on the relationships
+     * @return generated ids in the order of the relationships
+     */
+    public List<Long> createRelationships(Collection<? extends Relationship> relationships) {
+        List<Relationship> list = new ArrayList<>(relationships);
+
+        //types can't be parameters, so the relationships are grouped by their type
+        Map<String,List<Integer>> groups = new LinkedHashMap<>();
+
+        for (int i = 0; i < list.size(); i++) {
+            Relationship relationship = list.get(i);
+            checkNew(relationship);
+            groups.computeIfAbsent(relationship.getType(), key -> new ArrayList<>()).add(i);
+        }
+
+        long[] ids = new long[list.size()];
+
+        for (Map.Entry<String,List<Integer>> entry : groups.entrySet()) {
+            writeBatches(queries.get(QueryTemplateCache.CREATE_RELATIONSHIPS, List.of(entry.getKey())), entry.getValue(), index -> toRow(index, list.get(index)), ids);
+        }
+
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).setRelationshipID(ids[i]);
+        }
+
+        createdRelationships.addAll(list);
+
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * delete a node with its relationships.
+     *
+     * @param node the persistent neo4j node
+     */
+    public void deleteNode(Node node) {
+        tx.run(queries.get(QueryTemplateCache.DELETE_NODE), Map.of("id", node.getNodeID()));
+    }
+
+    /**
+     * reset the ids of all created entities, because the transaction was rolled back.
+     */
+    void resetCreatedIds() {
+        createdNodes.forEach(node -> node.setNodeID(Node.NOT_PERSISTED));
+        createdRelationships.forEach(relationship -> relationship.setRelationshipID(Relationship.NOT_PERSISTED));
+    }
+
+    /**
+     * execute an UNWIND statement for all rows in batches.
+     *
+     * @param query statement, which gets the rows as parameter "rows" and returns the columns "index" and "id" for every row
+     * @param indices indices of the rows
+     * @param rowFactory creates the parameters of a row
+     * @param ids array for the generated ids by row index
+     */
+    private void writeBatches(String query, List<Integer> indices, IntFunction<Map<String,Object>> rowFactory, long[] ids) {
+        for (int start = 0; start < indices.size(); start += batchSize) {
+            List<Integer> batch = indices.subList(start, Math.min(start + batchSize, indices.size()));
+            List<Map<String,Object>> rows = new ArrayList<>(batch.size());
+
+            for (int index : batch) {
+                rows.add(rowFactory.apply(index));
+            }
+
+            List<Record> records = tx.run(query, Map.of("rows", rows)).list();
+
+            //e.q. a node of a relationship doesn't exist anymore
+            if (records.size() != rows.size()) {
+                throw new IllegalStateException("expected " + rows.size() + " created entities, but got " + records.size());
+            }
+
+            for (Record record : records) {
+                ids[record.get("index").asInt()] = record.get("id").asLong();
+            }
+        }
+    }
+
+    /**
+     * get the labels of a node as set, nodes with the same set are created with the same statement.
+     */
+    static Set<String> getLabelSet(Node node) {
+        return new TreeSet<>(node.listLabels());
+    }
+
+    static Map<String,Object> toRow(int index, Node node) {
+        return Map.of("index", index, "properties", node.getProperties());
+    }
+
+    static Map<String,Object> toRow(int index, Relationship relationship) {
+        return Map.of("index", index, "start", relationship.getStartNode().getNodeID(), "end", relationship.getEndNode().getNodeID(), "properties", relationship.getProperties());
+    }
+
+    static void checkNew(Node node) {
+        if (node.isPersisted()) {
+            throw new IllegalStateException("node is already persisted: " + node.getNodeID());
+        }
+    }
+
+    static void checkNew(Relationship relationship) {
+        if (relationship.isPersisted()) {
+            throw new IllegalStateException("relationship is already persisted: " + relationship.getRelationshipID());
+        }
+
+        if (!relationship.getStartNode().isPersisted() || !relationship.getEndNode().isPersisted()) {
+            throw new IllegalStateException("start and end node of relationship " + relationship.getType() + " have to be persisted first");
+        }
+    }
+
+    private static Node toNode(long nodeID, Record record) {
+        Node node = new Node(nodeID);
+
+        for (String label : record.get("labels").asList(label -> label.isNull() || label.isEmpty() ? null : label.asString())) {
+            if (label != null && !label.equals("0")) {
+                node.addLabel(label);
+            }
+        }
+
+        record.get("properties").asMap().forEach(node::setProperty);
+
+        return node;
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.jukusoft.neo4j.openapi.importer.graph;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * a bulk mode writer, which streams the graph into CSV files for "neo4j-admin import".
+ * The initial load of huge specifications skips the transactional overhead of the online import this way.
+ *
+ * Every label gets a node file "nodes_&lt;label&gt;.csv" and every relationship type a file "relationships_&lt;type&gt;.csv".
+ * The header of a node file is created from the property keys of its first node, see {@link #getImportArguments()}
+ * for the arguments of neo4j-admin.
+ *
+ * @author Justin Kuenzel
+ */
+public class CsvGraphWriter implements GraphWriter {
+
+    /**
+     * size of the write buffer of every file.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path outputDir;
+
+    /**
+     * open node files by label
+     */
+    private final Map<String,CsvFile> nodeFiles = new LinkedHashMap<>();
+
+    /**
+     * open relationship files by type
+     */
+    private final Map<String,CsvFile> relationshipFiles = new LinkedHashMap<>();
+
+    /**
+     * constructor
+     *
+     * @param outputDir output directory, where the CSV files should be stored
+     */
+    public CsvGraphWriter(Path outputDir) {
+        this.outputDir = outputDir;
+
+        if (!outputDir.toFile().exists() || !outputDir.toFile().isDirectory()) {
+            throw new IllegalArgumentException("output directory doesn't exists or is not a directory: " + outputDir.toString());
+        }
+    }
+
+    @Override
+    public void writeNode(long id, String label, Map<String,Object> properties) throws IOException {
+        CsvFile file = nodeFiles.get(label);
+
+        if (file == null) {
+            List<String> columns = new ArrayList<>(properties.keySet());
+
+            StringBuilder header = new StringBuilder(":ID");
+
+            for (String column : columns) {
+                header.append(',').append(column).append(getTypeSuffix(properties.get(column)));
+            }
+
+            header.append(",:LABEL");
+
+            file = new CsvFile(outputDir.resolve("nodes_" + label + ".csv"), columns, header.toString());
+            nodeFiles.put(label, file);
+        }
+
+        if (!file.columns.containsAll(properties.keySet())) {
+            throw new IllegalArgumentException("node " + id + " has other properties than the first node with label " + label + ": " + properties.keySet());
+        }
+
+        StringBuilder line = new StringBuilder().append(id);
+
+        for (String column : file.columns) {
+            line.append(',').append(format(properties.get(column)));
+        }
+
+        line.append(',').append(label);
+        file.writeLine(line);
+    }
+
+    @Override
+    public void writeRelationship(long startId, String type, long endId) throws IOException {
+        CsvFile file = relationshipFiles.get(type);
+
+        if (file == null) {
+            file = new CsvFile(outputDir.resolve("relationships_" + type + ".csv"), List.of(), ":START_ID,:END_ID,:TYPE");
+            relationshipFiles.put(type, file);
+        }
+
+        file.writeLine(new StringBuilder().append(startId).append(',').append(endId).append(',').append(type));
+    }
+
+    /**
+     * get the arguments of "neo4j-admin import" for the written files.
+     *
+     * @return arguments, e.q. --nodes=/import/nodes_Path.csv
+     */
+    public List<String> getImportArguments() {
+        List<String> arguments = new ArrayList<>();
+
+        for (CsvFile file : nodeFiles.values()) {
+            arguments.add("--nodes=" + file.path.toAbsolutePath());
+        }
+
+        for (CsvFile file : relationshipFiles.values()) {
+            arguments.add("--relationships=" + file.path.toAbsolutePath());
+        }
+
+        //quoted strings can contain line breaks
+        arguments.add("--multiline-fields=true");
+
+        return arguments;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+
+        for (CsvFile file : concat(nodeFiles.values(), relationshipFiles.values())) {
+            try {
+                file.writer.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    private static List<CsvFile> concat(Collection<CsvFile> first, Collection<CsvFile> second) {
+        List<CsvFile> files = new ArrayList<>(first);
+        files.addAll(second);
+        return files;
+    }
+
+    /**
+     * get the type of a header column, strings don't need a type.
+     */
+    private static String getTypeSuffix(Object value) {
+        if (value instanceof Boolean) {
+            return ":boolean";
+        } else if (value instanceof Integer || value instanceof Long) {
+            return ":long";
+        } else if (value instanceof Float || value instanceof Double) {
+            return ":double";
+        }
+
+        return "";
+    }
+
+    /**
+     * format a field, strings are always quoted, so an empty string can be distinguished from a missing value.
+     */
+    static String format(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        if (value instanceof Boolean || value instanceof Number) {
+            return value.toString();
+        }
+
+        return "\"" + value.toString().replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * an open CSV file.
+     */
+    private static class CsvFile {
+
+        private final Path path;
+        private final List<String> columns;
+        private final Writer writer;
+
+        CsvFile(Path path, List<String> columns, String header) throws IOException {
+            this.path = path;
+            this.columns = columns;
+            this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8), BUFFER_SIZE);
+
+            writeLine(header);
+        }
+
+        void writeLine(CharSequence line) throws IOException {
+            writer.append(line).append('\n');
+        }
+
+    }
+
+}
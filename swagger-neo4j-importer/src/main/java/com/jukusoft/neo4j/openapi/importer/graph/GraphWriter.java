@@ -0,0 +1,35 @@
+package com.jukusoft.neo4j.openapi.importer.graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * a target of the graph import, e.q. a neo4j database or bulk import files.
+ * Nodes are written before the relationships, which reference them.
+ *
+ * @author Justin Kuenzel
+ */
+public interface GraphWriter extends Closeable {
+
+    /**
+     * write a node.
+     *
+     * @param id unique id of the node in this import
+     * @param label node label
+     * @param properties node properties, null values are not written. All nodes with the same label have the same property keys.
+     * @throws IOException if the node cannot be written
+     */
+    void writeNode(long id, String label, Map<String,Object> properties) throws IOException;
+
+    /**
+     * write a directed relationship between two written nodes.
+     *
+     * @param startId id of the start node
+     * @param type relationship type
+     * @param endId id of the end node
+     * @throws IOException if the relationship cannot be written
+     */
+    void writeRelationship(long startId, String type, long endId) throws IOException;
+
+}
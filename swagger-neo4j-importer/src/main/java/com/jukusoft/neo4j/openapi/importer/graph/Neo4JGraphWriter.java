@@ -0,0 +1,207 @@
+package com.jukusoft.neo4j.openapi.importer.graph;
+
+import com.jukusoft.neo4j.openapi.importer.client.ImportPipeline;
+import com.jukusoft.neo4j.openapi.importer.client.Node;
+import com.jukusoft.neo4j.openapi.importer.client.Relationship;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * the online mode writer, which writes the graph into a neo4j database with the {@link ImportPipeline}.
+ *
+ * Nodes and relationships are collected to batches. Before a batch of relationships is written, only the node batches,
+ * which contain a start or end node of the relationships, are awaited, because the relationships need their ids.
+ * Other batches stay in flight. Committed nodes are only kept as mapping from import id to database id.
+ *
+ * @author Justin Kuenzel
+ */
+public class Neo4JGraphWriter implements GraphWriter {
+
+    private final ImportPipeline pipeline;
+
+    /**
+     * number of nodes or relationships per batch
+     */
+    private final int batchSize;
+
+    /**
+     * database ids of the committed nodes by import id
+     */
+    private final Map<Long,Long> nodeIds = new HashMap<>();
+
+    /**
+     * nodes, which aren't submitted yet, by import id
+     */
+    private final Map<Long,Node> pendingNodes = new LinkedHashMap<>();
+
+    /**
+     * submitted node batches, which weren't awaited yet, by import id of their nodes
+     */
+    private final Map<Long,NodeBatch> submittedNodes = new HashMap<>();
+
+    /**
+     * submitted node batches in submit order
+     */
+    private final Deque<NodeBatch> submittedBatches = new ArrayDeque<>();
+
+    private final List<PendingRelationship> pendingRelationships = new ArrayList<>();
+
+    /**
+     * default constructor.
+     *
+     * @param pipeline import pipeline, the pipeline isn't closed by the writer
+     * @param batchSize number of nodes or relationships per batch
+     */
+    public Neo4JGraphWriter(ImportPipeline pipeline, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batch size has to be greater than 0: " + batchSize);
+        }
+
+        this.pipeline = Objects.requireNonNull(pipeline);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void writeNode(long id, String label, Map<String,Object> properties) {
+        if (isWritten(id)) {
+            throw new IllegalArgumentException("node " + id + " was already written");
+        }
+
+        Node node = new Node();
+        node.addLabel(label);
+
+        properties.forEach((key, value) -> {
+            //like an empty CSV field, a null value isn't written
+            if (value != null) {
+                node.setProperty(key, value);
+            }
+        });
+
+        pendingNodes.put(id, node);
+
+        if (pendingNodes.size() >= batchSize) {
+            flushNodes();
+        }
+    }
+
+    @Override
+    public void writeRelationship(long startId, String type, long endId) {
+        checkWritten(startId);
+        checkWritten(endId);
+
+        pendingRelationships.add(new PendingRelationship(startId, type, endId));
+
+        if (pendingRelationships.size() >= batchSize) {
+            flushRelationships();
+        }
+    }
+
+    /**
+     * wait until all nodes and relationships are written.
+     *
+     * @throws IllegalStateException if a batch failed
+     */
+    @Override
+    public void close() {
+        flushNodes();
+        flushRelationships();
+        pipeline.flush();
+    }
+
+    private boolean isWritten(long id) {
+        return nodeIds.containsKey(id) || pendingNodes.containsKey(id) || submittedNodes.containsKey(id);
+    }
+
+    private void checkWritten(long id) {
+        if (!isWritten(id)) {
+            throw new IllegalArgumentException("node " + id + " wasn't written before");
+        }
+    }
+
+    private void flushNodes() {
+        //forget the nodes of finished batches, only their ids are needed
+        while (!submittedBatches.isEmpty() && submittedBatches.peekFirst().future().isDone()) {
+            await(submittedBatches.peekFirst());
+        }
+
+        if (!pendingNodes.isEmpty()) {
+            Map<Long,Node> nodes = new LinkedHashMap<>(pendingNodes);
+            pendingNodes.clear();
+
+            NodeBatch batch = new NodeBatch(pipeline.createNodes(nodes.values()), nodes);
+            submittedBatches.addLast(batch);
+            nodes.keySet().forEach(id -> submittedNodes.put(id, batch));
+        }
+    }
+
+    private void flushRelationships() {
+        if (pendingRelationships.isEmpty()) {
+            return;
+        }
+
+        List<Relationship> relationships = new ArrayList<>(pendingRelationships.size());
+
+        for (PendingRelationship relationship : pendingRelationships) {
+            relationships.add(new Relationship(new Node(getNodeId(relationship.startId())), relationship.type(), new Node(getNodeId(relationship.endId()))));
+        }
+
+        pipeline.createRelationships(relationships);
+        pendingRelationships.clear();
+    }
+
+    /**
+     * get the database id of a node, the batch of the node is submitted and awaited, if necessary.
+     */
+    private long getNodeId(long id) {
+        Long nodeId = nodeIds.get(id);
+
+        if (nodeId != null) {
+            return nodeId;
+        }
+
+        if (pendingNodes.containsKey(id)) {
+            flushNodes();
+        }
+
+        await(submittedNodes.get(id));
+        return nodeIds.get(id);
+    }
+
+    /**
+     * wait for a node batch and keep only the ids of its nodes.
+     *
+     * @throws IllegalStateException if the batch failed
+     */
+    private void await(NodeBatch batch) {
+        try {
+            batch.future().join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("import failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        batch.nodes().forEach((id, node) -> {
+            nodeIds.put(id, node.getNodeID());
+            submittedNodes.remove(id);
+        });
+
+        submittedBatches.remove(batch);
+    }
+
+    /**
+     * a submitted batch of nodes.
+     *
+     * @param future future of the batch
+     * @param nodes nodes of the batch by import id
+     */
+    private record NodeBatch(CompletableFuture<List<Long>> future, Map<Long,Node> nodes) {
+    }
+
+    /**
+     * a relationship, which isn't submitted yet.
+     */
+    private record PendingRelationship(long startId, String type, long endId) {
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.jukusoft.neo4j.openapi.importer.graph;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * imports an OpenAPI 2.0 specification (e.q. the result.json of the route extractor) into a graph.
+ *
+ * The graph contains the api, the hierarchy of the path segments, the paths, their operations and parameters:
+ * <pre>
+ * (:API)-[:HAS_SEGMENT]->(:PathSegment)-[:HAS_SEGMENT]->(:PathSegment)
+ * (:API)-[:HAS_PATH]->(:Path), (:PathSegment)-[:HAS_PATH]->(:Path)
+ * (:Path)-[:HAS_OPERATION]->(:Operation)-[:HAS_PARAMETER]->(:Parameter)
+ * (:Path)-[:HAS_PARAMETER]->(:Parameter)
+ * </pre>
+ * Paths and operations are written in sorted order, so every import of the same specification writes the same graph,
+ * independent of the {@link GraphWriter}.
+ *
+ * @author Justin Kuenzel
+ */
+public class OpenAPIGraphImporter {
+
+    public static final String API = "API";
+    public static final String PATH_SEGMENT = "PathSegment";
+    public static final String PATH = "Path";
+    public static final String OPERATION = "Operation";
+    public static final String PARAMETER = "Parameter";
+
+    public static final String HAS_SEGMENT = "HAS_SEGMENT";
+    public static final String HAS_PATH = "HAS_PATH";
+    public static final String HAS_OPERATION = "HAS_OPERATION";
+    public static final String HAS_PARAMETER = "HAS_PARAMETER";
+
+    private static final Set<String> HTTP_METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch");
+
+    private final GraphWriter writer;
+
+    /**
+     * the next node id, ids are unique for all imported specifications
+     */
+    private long nextId = 0;
+
+    /**
+     * ids of the path segments of the current specification by path
+     */
+    private final Map<String,Long> segments = new HashMap<>();
+
+    /**
+     * default constructor.
+     *
+     * @param writer target of the import, the writer isn't closed by the importer
+     */
+    public OpenAPIGraphImporter(GraphWriter writer) {
+        this.writer = Objects.requireNonNull(writer);
+    }
+
+    /**
+     * import a specification file.
+     *
+     * @param file OpenAPI 2.0 json file
+     * @throws IOException if the file cannot be read or the graph cannot be written
+     */
+    public void importSpec(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            importSpec(new JSONObject(new JSONTokener(reader)));
+        }
+    }
+
+    /**
+     * import a specification.
+     *
+     * @param spec OpenAPI 2.0 specification
+     * @throws IOException if the graph cannot be written
+     */
+    public void importSpec(JSONObject spec) throws IOException {
+        segments.clear();
+
+        JSONObject info = spec.optJSONObject("info");
+
+        Map<String,Object> properties = new LinkedHashMap<>();
+        properties.put("title", info != null ? info.optString("title", null) : null);
+        properties.put("version", info != null ? info.optString("version", null) : null);
+        properties.put("host", spec.optString("host", null));
+        properties.put("basePath", spec.optString("basePath", null));
+        long apiId = writeNode(API, properties);
+
+        JSONObject paths = spec.optJSONObject("paths");
+
+        if (paths == null) {
+            return;
+        }
+
+        for (String url : new TreeSet<>(paths.keySet())) {
+            importPath(apiId, url, paths.getJSONObject(url));
+        }
+    }
+
+    private void importPath(long apiId, String url, JSONObject pathItem) throws IOException {
+        long pathId = writeNode(PATH, properties("url", url));
+        writer.writeRelationship(apiId, HAS_PATH, pathId);
+
+        //path segment hierarchy, e.q. /user -> /user/{id} -> /user/{id}/edit
+        long parentId = apiId;
+        StringBuilder prefix = new StringBuilder();
+
+        for (String segment : url.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            prefix.append('/').append(segment);
+            Long segmentId = segments.get(prefix.toString());
+
+            if (segmentId == null) {
+                Map<String,Object> properties = new LinkedHashMap<>();
+                properties.put("name", segment);
+                properties.put("path", prefix.toString());
+                properties.put("variable", segment.contains("{"));
+
+                segmentId = writeNode(PATH_SEGMENT, properties);
+                writer.writeRelationship(parentId, HAS_SEGMENT, segmentId);
+                segments.put(prefix.toString(), segmentId);
+            }
+
+            parentId = segmentId;
+        }
+
+        if (parentId != apiId) {
+            writer.writeRelationship(parentId, HAS_PATH, pathId);
+        }
+
+        //path variables are defined for all operations of the path
+        importParameters(pathId, pathItem.optJSONArray("parameters"));
+
+        for (String method : new TreeSet<>(pathItem.keySet())) {
+            if (!HTTP_METHODS.contains(method.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+
+            JSONObject operation = pathItem.getJSONObject(method);
+
+            Map<String,Object> properties = new LinkedHashMap<>();
+            properties.put("method", method.toUpperCase(Locale.ROOT));
+            properties.put("operationId", operation.optString("operationId", null));
+            properties.put("summary", operation.optString("summary", null));
+
+            long operationId = writeNode(OPERATION, properties);
+            writer.writeRelationship(pathId, HAS_OPERATION, operationId);
+
+            importParameters(operationId, operation.optJSONArray("parameters"));
+        }
+    }
+
+    private void importParameters(long parentId, JSONArray parameters) throws IOException {
+        if (parameters == null) {
+            return;
+        }
+
+        for (int i = 0; i < parameters.length(); i++) {
+            JSONObject parameter = parameters.getJSONObject(i);
+
+            Map<String,Object> properties = new LinkedHashMap<>();
+            properties.put("name", parameter.optString("name", null));
+            properties.put("in", parameter.optString("in", null));
+            properties.put("required", parameter.optBoolean("required", false));
+            properties.put("type", parameter.optString("type", null));
+            properties.put("default", parameter.has("default") ? String.valueOf(parameter.get("default")) : null);
+
+            long parameterId = writeNode(PARAMETER, properties);
+            writer.writeRelationship(parentId, HAS_PARAMETER, parameterId);
+        }
+    }
+
+    private long writeNode(String label, Map<String,Object> properties) throws IOException {
+        long id = nextId++;
+        writer.writeNode(id, label, properties);
+        return id;
+    }
+
+    private static Map<String,Object> properties(String key, Object value) {
+        Map<String,Object> properties = new LinkedHashMap<>();
+        properties.put(key, value);
+        return properties;
+    }
+
+}
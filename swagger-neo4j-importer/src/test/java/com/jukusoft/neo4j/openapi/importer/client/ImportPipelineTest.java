@@ -0,0 +1,154 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.exceptions.ClientException;
+import org.neo4j.driver.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.exceptions.TransientException;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImportPipelineTest {
+
+    @Test
+    public void testBoundedInFlightBatches() {
+        StubDriver stub = new StubDriver();
+        stub.setLatency(20);
+
+        List<Node> nodes = createNodes(40);
+
+        try (ImportPipeline pipeline = new ImportPipeline(stub.createDriver(), 4, 2)) {
+            CompletableFuture<List<Long>> future = pipeline.createNodes(nodes);
+            List<Long> ids = future.join();
+
+            //all ids are set and unique
+            assertEquals(40, new HashSet<>(ids).size());
+            assertEquals(ids, nodes.stream().map(Node::getNodeID).collect(Collectors.toList()));
+            assertEquals(20, pipeline.getBatchCount());
+
+            //relationships are created after the nodes
+            Relationship relationship = new Relationship(nodes.get(0), "NEXT", nodes.get(1));
+            pipeline.createRelationships(List.of(relationship)).join();
+            assertTrue(relationship.isPersisted());
+        }
+
+        //batches are written concurrently, but never more than 4
+        assertTrue(stub.getMaxInFlight() > 1);
+        assertTrue(stub.getMaxInFlight() <= 4);
+        assertEquals(21, stub.getCommitCount());
+        assertEquals(21, stub.getSessionCount());
+    }
+
+    @Test
+    public void testRetryTransientFailures() {
+        StubDriver stub = new StubDriver();
+        AtomicInteger calls = new AtomicInteger();
+
+        //the first 2 attempts fail with a deadlock
+        stub.setResponder((query, parameters) -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "deadlock");
+            }
+
+            return stub.createIds(query, parameters);
+        });
+
+        List<Node> nodes = createNodes(3);
+
+        try (ImportPipeline pipeline = new ImportPipeline(stub.createDriver(), 2, 10, 3, 1)) {
+            assertEquals(List.of(0L, 1L, 2L), pipeline.createNodes(nodes).join());
+            assertEquals(2, pipeline.getRetryCount());
+        }
+
+        assertEquals(2, stub.getRollbackCount());
+        assertEquals(1, stub.getCommitCount());
+    }
+
+    @Test
+    public void testPermanentFailure() {
+        StubDriver stub = new StubDriver();
+        stub.setResponder((query, parameters) -> {
+            throw new ClientException("Neo.ClientError.Statement.SyntaxError", "invalid query");
+        });
+
+        ImportPipeline pipeline = new ImportPipeline(stub.createDriver(), 2, 10, 3, 1);
+        CompletableFuture<List<Long>> future = pipeline.createNodes(createNodes(3));
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(e.getCause() instanceof ClientException);
+        assertEquals(0, pipeline.getRetryCount());
+
+        //the pipeline doesn't accept further batches
+        assertThrows(IllegalStateException.class, pipeline::flush);
+        assertThrows(IllegalStateException.class, () -> pipeline.createNodes(createNodes(1)));
+    }
+
+    /**
+     * a batch, which failed during the commit, may be committed, so it isn't retried.
+     */
+    @Test
+    public void testCommitFailureIsNotRetried() {
+        StubDriver stub = new StubDriver();
+        stub.failNextCommit(new ServiceUnavailableException("connection lost"));
+
+        ImportPipeline pipeline = new ImportPipeline(stub.createDriver(), 2, 10, 3, 1);
+        CompletableFuture<List<Long>> future = pipeline.createNodes(createNodes(3));
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertTrue(e.getCause().getCause() instanceof ServiceUnavailableException);
+        assertEquals(0, pipeline.getRetryCount());
+        assertEquals(1, stub.getQueries().size());
+        assertThrows(IllegalStateException.class, pipeline::flush);
+    }
+
+    @Test
+    public void testSessionFailure() {
+        //the driver fails synchronously, e.q. because the server isn't reachable
+        Driver driver = (Driver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Driver.class}, (proxy, method, args) -> {
+            throw new ServiceUnavailableException("server not reachable");
+        });
+
+        ImportPipeline pipeline = new ImportPipeline(driver, 1, 10, 3, 1);
+        assertThrows(ServiceUnavailableException.class, () -> pipeline.createNodes(createNodes(3)));
+
+        //the batch slot was released, so flush() doesn't block
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertThrows(IllegalStateException.class, pipeline::flush));
+    }
+
+    @Test
+    public void testRetryDelay() {
+        ImportPipeline pipeline = new ImportPipeline(new StubDriver().createDriver(), 1, 1, 30, 100);
+
+        for (int attempt = 0; attempt < 30; attempt++) {
+            long maxDelay = Math.min(10_000, 100L << Math.min(attempt, 20));
+            long delay = pipeline.getRetryDelay(attempt);
+
+            assertTrue(delay >= maxDelay / 2 && delay <= maxDelay, "delay " + delay + " of attempt " + attempt);
+        }
+
+        assertTrue(ImportPipeline.isRetryable(new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "deadlock")));
+        assertFalse(ImportPipeline.isRetryable(new TransientException("Neo.TransientError.Transaction.Terminated", "terminated")));
+        assertFalse(ImportPipeline.isRetryable(new ClientException("invalid query")));
+    }
+
+    private static List<Node> createNodes(int count) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            Node node = new Node();
+            node.addLabel("junit");
+            node.setProperty("index", i);
+            return node;
+        }).collect(Collectors.toList());
+    }
+
+}
@@ -3,8 +3,16 @@ package com.jukusoft.neo4j.openapi.importer.client;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.condition.EnabledIf;
 import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalRecord;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,7 +47,7 @@ public class Neo4JClientTest {
 
         //create a new node
         Node node = client.createNode("junit");
-        assertTrue(node.getNodeID() > 0);
+        assertTrue(node.isPersisted());
 
         //check, that a new node exists
         assertTrue(client.countNodes("junit") > oldNodeCount);
@@ -75,6 +83,195 @@ public class Neo4JClientTest {
         client.deleteNode(node);
     }
 
+    @Test
+    public void testCreateNodesInBatches() {
+        StubDriver stub = new StubDriver();
+        Neo4JClient client = new Neo4JClient(stub.createDriver());
+        client.setBatchSize(2);
+
+        List<Node> nodes = IntStream.range(0, 5).mapToObj(i -> {
+            Node node = new Node();
+            node.addLabel(i % 2 == 0 ? "Route" : "Method");
+            node.setProperty("name", "node" + i);
+            return node;
+        }).collect(Collectors.toList());
+
+        List<Long> ids = client.createNodes(nodes);
+
+        //3 Route nodes in 2 batches and 2 Method nodes in 1 batch
+        assertEquals(3, stub.getQueries().size());
+        assertTrue(stub.getQueries().get(0).text().contains("CREATE (n:`Route`)"));
+        assertTrue(stub.getQueries().get(2).text().contains("CREATE (n:`Method`)"));
+        assertEquals(2, ((List<?>) stub.getQueries().get(0).parameters().get("rows")).size());
+        assertEquals(Map.of("index", 0, "properties", Map.of("name", "node0")), ((List<?>) stub.getQueries().get(0).parameters().get("rows")).get(0));
+
+        //ids are returned in the order of the nodes and set without reloading the nodes
+        assertEquals(List.of(0L, 3L, 1L, 4L, 2L), ids);
+
+        for (int i = 0; i < nodes.size(); i++) {
+            assertEquals(ids.get(i), nodes.get(i).getNodeID());
+        }
+
+        assertThrows(IllegalStateException.class, () -> client.createNodes(nodes));
+        assertThrows(IllegalArgumentException.class, () -> client.setBatchSize(0));
+    }
+
+    @Test
+    public void testCreateRelationships() {
+        StubDriver stub = new StubDriver();
+        Neo4JClient client = new Neo4JClient(stub.createDriver());
+
+        Node route = new Node();
+        route.addLabel("Route");
+        Node method = new Node();
+        method.addLabel("Method`");
+
+        Relationship relationship = new Relationship(route, "HAS_METHOD", method);
+        relationship.setProperty("method", "GET");
+        assertThrows(IllegalStateException.class, () -> client.createRelationships(List.of(relationship)));
+
+        client.createNodes(List.of(route, method));
+        assertTrue(stub.getQueries().get(1).text().contains("CREATE (n:`Method```)"));
+
+        //like the first node of an empty database, the route has the id 0
+        assertEquals(0L, route.getNodeID());
+        assertEquals(List.of(2L), client.createRelationships(List.of(relationship)));
+        assertEquals(2L, relationship.getRelationshipID());
+
+        StubDriver.Query query = stub.getQueries().get(2);
+        assertTrue(query.text().contains("CREATE (a)-[r:`HAS_METHOD`]->(b)"));
+        assertEquals(List.of(Map.of("index", 0, "start", 0L, "end", 1L, "properties", Map.of("method", "GET"))), query.parameters().get("rows"));
+
+        //missing nodes roll back the batch
+        stub.setResponder((text, parameters) -> List.of());
+        assertThrows(IllegalStateException.class, () -> client.createRelationships(List.of(new Relationship(route, "HAS_METHOD", method))));
+    }
+
+    @Test
+    public void testSaveRoundTrips() {
+        StubDriver stub = new StubDriver();
+        Neo4JClient client = new Neo4JClient(stub.createDriver());
+
+        //a new node is created with one statement
+        Node node = new Node();
+        node.addLabel("junit");
+        node.addLabel("test");
+        client.save(node);
+
+        assertEquals(0, node.getNodeID());
+        assertEquals(1, stub.getSessionCount());
+        assertEquals(1, stub.getQueries().size());
+        assertEquals(1, stub.getCommitCount());
+
+        //an existing node, even with the id 0, needs one read and one write in the same session and transaction
+        stub.setResponder((text, parameters) -> List.of(new InternalRecord(List.of("labels", "properties"),
+                new Value[]{Values.value(List.of("junit", "test")), Values.value(Map.of("name", "route"))})));
+        node.removeLabel("test");
+        node.addLabel("route");
+        node.setProperty("name", "route");
+        Node savedNode = client.save(node);
+
+        assertEquals(2, stub.getSessionCount());
+        assertEquals(3, stub.getQueries().size());
+        assertEquals(2, stub.getCommitCount());
+        assertTrue(stub.getQueries().get(2).text().contains("REMOVE n:`test`\nSET n:`route`\nSET n = $properties"));
+        assertEquals("route", savedNode.getProperty("name"));
+
+        //a whole import in one unit of work
+        Node route = new Node();
+        Node method = new Node();
+        StubDriver importStub = new StubDriver();
+        Neo4JClient importClient = new Neo4JClient(importStub.createDriver());
+
+        importClient.inTransaction(unitOfWork -> {
+            unitOfWork.createNodes(List.of(route, method));
+            return unitOfWork.createRelationships(List.of(new Relationship(route, "HAS_METHOD", method)));
+        });
+
+        assertEquals(1, importStub.getSessionCount());
+        assertEquals(2, importStub.getQueries().size());
+        assertEquals(1, importStub.getCommitCount());
+    }
+
+    @Test
+    public void testRollbackResetsIds() {
+        StubDriver stub = new StubDriver();
+        Neo4JClient client = new Neo4JClient(stub.createDriver());
+
+        Node route = new Node();
+        Node method = new Node();
+
+        assertThrows(IllegalStateException.class, () -> client.inTransaction(unitOfWork -> {
+            unitOfWork.createNodes(List.of(route, method));
+            assertTrue(route.isPersisted());
+
+            throw new IllegalStateException("import failed");
+        }));
+
+        //the nodes weren't committed, so they can be created again
+        assertFalse(route.isPersisted());
+        assertFalse(method.isPersisted());
+        assertEquals(Node.NOT_PERSISTED, route.getNodeID());
+        assertEquals(0, stub.getCommitCount());
+        assertEquals(1, stub.getRollbackCount());
+    }
+
+    @Test
+    public void testDeleteNodesInChunks() {
+        StubDriver stub = new StubDriver();
+        Neo4JClient client = new Neo4JClient(stub.createDriver());
+
+        //25 nodes with 3 relationships each, the stub deletes them like the server
+        Map<Long,Integer> relationships = new ConcurrentHashMap<>();
+        LongStream.rangeClosed(1, 25).forEach(id -> relationships.put(id, 3));
+
+        stub.setResponder((query, parameters) -> {
+            if (query.equals(client.getQueryCache().get(QueryTemplateCache.NODE_IDS, List.of("Route")))) {
+                return LongStream.rangeClosed(1, 25).mapToObj(id -> (Record) new InternalRecord(List.of("id"), new Value[]{Values.value(id)})).toList();
+            }
+
+            long count = 0;
+            List<?> ids = (List<?>) parameters.get("ids");
+
+            if (query.equals(client.getQueryCache().get(QueryTemplateCache.DELETE_RELATIONSHIPS_BY_ID, List.of("Route")))) {
+                long limit = ((Number) parameters.get("limit")).longValue();
+
+                for (Object id : ids) {
+                    while (count < limit && relationships.get((Long) id) > 0) {
+                        relationships.merge((Long) id, -1, Integer::sum);
+                        count++;
+                    }
+                }
+            } else {
+                count = ids.stream().filter(id -> relationships.remove((Long) id) != null).count();
+            }
+
+            return List.of(new InternalRecord(List.of("count"), new Value[]{Values.value(count)}));
+        });
+
+        List<DeleteProgress> progress = Collections.synchronizedList(new ArrayList<>());
+        assertEquals(25, client.deleteNodes("Route", 10, 3, progress::add));
+
+        assertTrue(relationships.isEmpty());
+
+        //the relationships of all chunks are deleted before the nodes
+        assertEquals(6, progress.size());
+        assertEquals(new DeleteProgress(25, 0, 75), progress.get(2));
+        assertEquals(new DeleteProgress(25, 25, 75), progress.get(5));
+        assertEquals(100, progress.get(5).getPercent());
+
+        //a relationship between two deleted nodes is only deleted by the chunk of the node with the lower id
+        assertTrue(client.getQueryCache().get(QueryTemplateCache.DELETE_RELATIONSHIPS_BY_ID, List.of("Route")).contains("NOT m:`Route` OR ID(n) <= ID(m)"));
+
+        //no transaction touches more than 10 nodes, the relationships of a chunk are deleted in 4 and 2 transactions
+        assertTrue(stub.getQueries().stream().filter(query -> query.parameters().containsKey("ids")).allMatch(query -> ((List<?>) query.parameters().get("ids")).size() <= 10));
+        assertEquals(1 + 3 + 4 + 4 + 2, stub.getQueries().size());
+        assertEquals(1 + 3 + 4 + 4 + 2, stub.getSessionCount());
+
+        assertThrows(IllegalArgumentException.class, () -> client.deleteNodes("Route", 0, 1, p -> {}));
+        assertThrows(IllegalArgumentException.class, () -> client.deleteNodes(null));
+    }
+
     @EnabledIfSystemProperty(named = "neo4jtests", matches = "true", disabledReason = "Works only with Neo4J Server")
     @Tag("neo4j")
     @BeforeAll
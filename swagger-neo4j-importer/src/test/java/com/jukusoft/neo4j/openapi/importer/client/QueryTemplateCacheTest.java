@@ -0,0 +1,80 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryTemplateCacheTest {
+
+    @Test
+    public void testLabelSetsShareStatement() {
+        QueryTemplateCache cache = new QueryTemplateCache();
+
+        String statement = cache.get(QueryTemplateCache.CREATE_NODES, List.of("Route", "Method", "Route"));
+        assertTrue(statement.contains("CREATE (n:`Method`:`Route`)"));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        //the order of the labels doesn't matter
+        assertSame(statement, cache.get(QueryTemplateCache.CREATE_NODES, List.of("Method", "Route")));
+        assertEquals(1, cache.getHits());
+        assertEquals(0.5, cache.getHitRate());
+
+        //names are escaped, values are parameters
+        assertTrue(cache.get(QueryTemplateCache.COUNT_NODES, List.of("a`) DETACH DELETE (m")).startsWith("MATCH (n:`a``) DETACH DELETE (m`)"));
+        assertEquals("MATCH (n)\nRETURN count(n) as count", cache.get(QueryTemplateCache.COUNT_NODES, List.of()));
+        assertTrue(cache.get(QueryTemplateCache.GET_NODE).contains("WHERE ID(n) = $id"));
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> cache.get(QueryTemplateCache.CREATE_RELATIONSHIPS, List.of("A", "B")));
+        assertThrows(IllegalArgumentException.class, () -> cache.register(QueryTemplateCache.GET_NODE, names -> "MATCH (n) RETURN n"));
+    }
+
+    @Test
+    public void testEviction() {
+        QueryTemplateCache cache = new QueryTemplateCache(2);
+        cache.register("custom", names -> "MATCH (n" + QueryTemplateCache.toLabelString(names.get(0)) + ") RETURN n");
+
+        cache.get("custom", List.of("A"));
+        cache.get("custom", List.of("B"));
+        cache.get("custom", List.of("A"));
+
+        //B is the least recently used statement
+        cache.get("custom", List.of("C"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        cache.get("custom", List.of("A"));
+        assertEquals(2, cache.getHits());
+        cache.get("custom", List.of("B"));
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    public void testRepeatedImportReusesStatements() {
+        StubDriver stub = new StubDriver();
+        Neo4JClient client = new Neo4JClient(stub.createDriver());
+        client.setBatchSize(10);
+
+        List<Node> nodes = IntStream.range(0, 1000).mapToObj(i -> {
+            Node node = new Node();
+
+            //same labels in different order
+            node.addLabel(i % 2 == 0 ? "Route" : "Method");
+            node.addLabel(i % 2 == 0 ? "Method" : "Route");
+            return node;
+        }).collect(Collectors.toList());
+
+        client.createNodes(nodes);
+
+        //all batches have the same query text, so the server can reuse the query plan
+        assertEquals(100, stub.getQueries().size());
+        assertEquals(1, stub.getQueries().stream().map(StubDriver.Query::text).distinct().count());
+        assertTrue(client.getQueryCache().getHitRate() >= 0.99);
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.jukusoft.neo4j.openapi.importer.client;
+
+import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.async.ResultCursor;
+import org.neo4j.driver.internal.InternalRecord;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * a neo4j driver stub for tests without neo4j server, which records all executed queries.
+ *
+ * By default every query with the parameter "rows" returns a generated id for every row (like the batch statements of {@link Neo4JClient}),
+ * other queries return no records. Sessions and transactions are counted, so tests can check the round trips of an operation.
+ * Async sessions complete their queries after a configurable latency on another thread, like a remote server.
+ */
+public class StubDriver {
+
+    /**
+     * an executed query.
+     */
+    public record Query(String text, Map<String,Object> parameters) {
+    }
+
+    private final List<Query> queries = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicLong nextID = new AtomicLong(0);
+
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final AtomicInteger commitCount = new AtomicInteger();
+    private final AtomicInteger rollbackCount = new AtomicInteger();
+
+    //open async transactions
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile BiFunction<String,Map<String,Object>,List<Record>> responder = this::createIds;
+
+    //latency of async queries in milliseconds
+    private volatile long latency = 0;
+
+    //failure of the next async commit
+    private final AtomicReference<RuntimeException> commitFailure = new AtomicReference<>();
+
+    public Driver createDriver() {
+        return proxy(Driver.class, (proxy, method, args) -> switch (method.getName()) {
+            case "session" -> createSession();
+            case "asyncSession" -> createAsyncSession();
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * replace the default responder.
+     *
+     * @param responder gets query and parameters and returns the records of the query
+     */
+    public void setResponder(BiFunction<String,Map<String,Object>,List<Record>> responder) {
+        this.responder = responder;
+    }
+
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * let the next async commit fail, e.q. with a lost connection.
+     *
+     * @param failure failure of the commit
+     */
+    public void failNextCommit(RuntimeException failure) {
+        commitFailure.set(failure);
+    }
+
+    public List<Query> getQueries() {
+        return queries;
+    }
+
+    public int getSessionCount() {
+        return sessionCount.get();
+    }
+
+    public int getCommitCount() {
+        return commitCount.get();
+    }
+
+    public int getRollbackCount() {
+        return rollbackCount.get();
+    }
+
+    /**
+     * get the maximum number of async transactions, which were open at the same time.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * the default responder, which returns a generated id for every row.
+     */
+    public List<Record> createIds(String query, Map<String,Object> parameters) {
+        List<Record> records = new ArrayList<>();
+
+        if (parameters.get("rows") instanceof List<?> rows) {
+            for (Object row : rows) {
+                Object index = ((Map<?,?>) row).get("index");
+                records.add(new InternalRecord(List.of("index", "id"), new Value[]{Values.value(index), Values.value(nextID.getAndIncrement())}));
+            }
+        }
+
+        return records;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Session createSession() {
+        sessionCount.incrementAndGet();
+
+        //a transaction, which is closed without commit, is rolled back
+        boolean[] open = {true};
+
+        Transaction transaction = proxy(Transaction.class, (proxy, method, args) -> switch (method.getName()) {
+            case "run" -> run((String) args[0], args.length > 1 ? (Map<String,Object>) args[1] : Map.of());
+            case "commit" -> {
+                commitCount.incrementAndGet();
+                open[0] = false;
+                yield null;
+            }
+            case "rollback", "close" -> {
+                if (open[0]) {
+                    rollbackCount.incrementAndGet();
+                    open[0] = false;
+                }
+
+                yield null;
+            }
+            case "isOpen" -> open[0];
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+
+        return proxy(Session.class, (proxy, method, args) -> switch (method.getName()) {
+            case "writeTransaction", "readTransaction" -> ((TransactionWork<?>) args[0]).execute(transaction);
+            case "beginTransaction" -> transaction;
+            case "close" -> null;
+            case "isOpen" -> true;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncSession createAsyncSession() {
+        sessionCount.incrementAndGet();
+
+        return proxy(AsyncSession.class, (proxy, method, args) -> switch (method.getName()) {
+            case "beginTransactionAsync" -> CompletableFuture.completedFuture(createAsyncTransaction());
+            case "closeAsync" -> CompletableFuture.completedFuture(null);
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncTransaction createAsyncTransaction() {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        AtomicBoolean open = new AtomicBoolean(true);
+
+        return proxy(AsyncTransaction.class, (proxy, method, args) -> switch (method.getName()) {
+            case "runAsync" -> CompletableFuture.supplyAsync(() -> {
+                List<Record> records = execute((String) args[0], args.length > 1 ? (Map<String,Object>) args[1] : Map.of());
+                return proxy(ResultCursor.class, (cursorProxy, cursorMethod, cursorArgs) -> switch (cursorMethod.getName()) {
+                    case "listAsync" -> CompletableFuture.completedFuture(records);
+                    default -> throw new UnsupportedOperationException(cursorMethod.getName());
+                });
+            }, CompletableFuture.delayedExecutor(latency, TimeUnit.MILLISECONDS));
+            case "commitAsync" -> {
+                RuntimeException failure = commitFailure.getAndSet(null);
+
+                if (open.getAndSet(false)) {
+                    inFlight.decrementAndGet();
+
+                    if (failure == null) {
+                        commitCount.incrementAndGet();
+                    }
+                }
+
+                yield failure == null ? CompletableFuture.completedFuture(null) : CompletableFuture.failedFuture(failure);
+            }
+            case "rollbackAsync" -> {
+                if (open.getAndSet(false)) {
+                    rollbackCount.incrementAndGet();
+                    inFlight.decrementAndGet();
+                }
+
+                yield CompletableFuture.completedFuture(null);
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private List<Record> execute(String query, Map<String,Object> parameters) {
+        queries.add(new Query(query, parameters));
+        return responder.apply(query, parameters);
+    }
+
+    private Result run(String query, Map<String,Object> parameters) {
+        List<Record> records = execute(query, parameters);
+        Iterator<Record> iterator = records.iterator();
+
+        return proxy(Result.class, (proxy, method, args) -> switch (method.getName()) {
+            case "list" -> records;
+            case "single" -> records.get(0);
+            case "hasNext" -> iterator.hasNext();
+            case "next" -> iterator.next();
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.jukusoft.neo4j.openapi.importer.graph;
+
+import com.jukusoft.neo4j.openapi.importer.client.ImportPipeline;
+import com.jukusoft.neo4j.openapi.importer.client.StubDriver;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.driver.Record;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenAPIGraphImporterTest {
+
+    private static final String SPEC = "{\"swagger\": \"2.0\", \"host\": \"localhost\", \"basePath\": \"/api\", " +
+            "\"info\": {\"title\": \"test\", \"version\": \"1.0.0\"}, \"paths\": {" +
+            "\"/user/{id}\": {" +
+            "  \"get\": {\"operationId\": \"user_show\", \"summary\": \"user_show\"}," +
+            "  \"delete\": {\"operationId\": \"user_delete\", \"summary\": \"user_delete\"}," +
+            "  \"parameters\": [{\"name\": \"id\", \"in\": \"path\", \"required\": true, \"type\": \"string\"}]}," +
+            "\"/user/new\": {" +
+            "  \"post\": {\"operationId\": \"user_new\", \"summary\": \"say \\\"hello\\\"\", \"parameters\": [{\"name\": \"page\", \"in\": \"query\", \"required\": false, \"type\": \"string\", \"default\": \"1\"}]}}" +
+            "}}";
+
+    private static final Pattern CREATE_NODES = Pattern.compile("CREATE \\(n:`(\\w+)`\\)");
+    private static final Pattern CREATE_RELATIONSHIPS = Pattern.compile("CREATE \\(a\\)-\\[r:`(\\w+)`\\]->\\(b\\)");
+
+    @Test
+    public void testCsvImport(@TempDir Path dir) throws IOException {
+        CsvGraphWriter writer = new CsvGraphWriter(dir);
+
+        try (writer) {
+            new OpenAPIGraphImporter(writer).importSpec(new JSONObject(SPEC));
+        }
+
+        assertEquals(List.of(":ID,title,version,host,basePath,:LABEL", "0,\"test\",\"1.0.0\",\"localhost\",\"/api\",API"), Files.readAllLines(dir.resolve("nodes_API.csv")));
+        assertEquals(List.of(":ID,name,path,variable:boolean,:LABEL", "2,\"user\",\"/user\",false,PathSegment", "3,\"new\",\"/user/new\",false,PathSegment", "7,\"{id}\",\"/user/{id}\",true,PathSegment"),
+                Files.readAllLines(dir.resolve("nodes_PathSegment.csv")));
+        assertEquals(List.of(":ID,name,in,required:boolean,type,default,:LABEL", "5,\"page\",\"query\",false,\"string\",\"1\",Parameter", "8,\"id\",\"path\",true,\"string\",,Parameter"),
+                Files.readAllLines(dir.resolve("nodes_Parameter.csv")));
+        assertTrue(Files.readAllLines(dir.resolve("nodes_Operation.csv")).contains("4,\"POST\",\"user_new\",\"say \"\"hello\"\"\",Operation"));
+        assertEquals(List.of(":START_ID,:END_ID,:TYPE", "0,2,HAS_SEGMENT", "2,3,HAS_SEGMENT", "2,7,HAS_SEGMENT"), Files.readAllLines(dir.resolve("relationships_HAS_SEGMENT.csv")));
+
+        assertEquals(10, writer.getImportArguments().size());
+        assertTrue(writer.getImportArguments().contains("--nodes=" + dir.resolve("nodes_Path.csv").toAbsolutePath()));
+    }
+
+    @Test
+    public void testOnlineAndBulkModeWriteSameGraph(@TempDir Path dir) throws IOException {
+        //bulk mode
+        try (CsvGraphWriter writer = new CsvGraphWriter(dir)) {
+            new OpenAPIGraphImporter(writer).importSpec(new JSONObject(SPEC));
+        }
+
+        Map<String,String> csvNodes = new HashMap<>();
+
+        try (var files = Files.list(dir)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().startsWith("nodes_")).toList()) {
+                for (String line : Files.readAllLines(file).subList(1, Files.readAllLines(file).size())) {
+                    String id = line.substring(0, line.indexOf(','));
+                    csvNodes.put(id, line.substring(line.indexOf(',') + 1).replace("\"", ""));
+                }
+            }
+        }
+
+        Set<String> csvGraph = new HashSet<>(csvNodes.values());
+
+        try (var files = Files.list(dir)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().startsWith("relationships_")).toList()) {
+                for (String line : Files.readAllLines(file).subList(1, Files.readAllLines(file).size())) {
+                    String[] columns = line.split(",");
+                    csvGraph.add(csvNodes.get(columns[0]) + " -" + columns[2] + "-> " + csvNodes.get(columns[1]));
+                }
+            }
+        }
+
+        //online mode, the stub remembers the created nodes
+        StubDriver stub = new StubDriver();
+        Map<Long,String> onlineNodes = new ConcurrentHashMap<>();
+        Set<String> onlineGraph = ConcurrentHashMap.newKeySet();
+
+        stub.setResponder((query, parameters) -> {
+            List<Record> records = stub.createIds(query, parameters);
+            List<?> rows = (List<?>) parameters.get("rows");
+            Matcher nodeMatcher = CREATE_NODES.matcher(query);
+            Matcher relationshipMatcher = CREATE_RELATIONSHIPS.matcher(query);
+
+            for (int i = 0; i < rows.size(); i++) {
+                Map<?,?> row = (Map<?,?>) rows.get(i);
+
+                if (nodeMatcher.find(0)) {
+                    String node = toString((Map<?,?>) row.get("properties"), nodeMatcher.group(1));
+                    onlineNodes.put(records.get(i).get("id").asLong(), node);
+                    onlineGraph.add(node);
+                } else if (relationshipMatcher.find(0)) {
+                    onlineGraph.add(onlineNodes.get((Long) row.get("start")) + " -" + relationshipMatcher.group(1) + "-> " + onlineNodes.get((Long) row.get("end")));
+                }
+            }
+
+            return records;
+        });
+
+        try (ImportPipeline pipeline = new ImportPipeline(stub.createDriver(), 2, 3);
+             Neo4JGraphWriter writer = new Neo4JGraphWriter(pipeline, 3)) {
+            new OpenAPIGraphImporter(writer).importSpec(new JSONObject(SPEC));
+        }
+
+        assertEquals(11, onlineNodes.size());
+        assertEquals(csvGraph, onlineGraph);
+    }
+
+    /**
+     * format a node like a line of the CSV files without id.
+     */
+    private static String toString(Map<?,?> properties, String label) {
+        StringJoiner joiner = new StringJoiner(",");
+        List<String> columns = switch (label) {
+            case "API" -> List.of("title", "version", "host", "basePath");
+            case "Path" -> List.of("url");
+            case "PathSegment" -> List.of("name", "path", "variable");
+            case "Operation" -> List.of("method", "operationId", "summary");
+            default -> List.of("name", "in", "required", "type", "default");
+        };
+
+        for (String column : columns) {
+            Object value = properties.get(column);
+            joiner.add(value != null ? value.toString().replace("\"", "") : "");
+        }
+
+        return joiner.add(label).toString();
+    }
+
+}